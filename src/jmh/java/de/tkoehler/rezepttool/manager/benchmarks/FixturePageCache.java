@@ -0,0 +1,27 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import de.tkoehler.rezepttool.manager.services.recipeparser.PageContent;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipePageCache;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+
+/**
+ * Serves a fixture page for every URL, so the benchmarks measure parsing and
+ * not the network or the disk.
+ */
+public class FixturePageCache extends RecipePageCache {
+
+	private final RecipePageFixtures.Fixture fixture;
+
+	public FixturePageCache(RecipePageFixtures.Fixture fixture) throws IOException {
+		super(null, Files.createTempDirectory("rezepttool-jmh").toString(), 0L);
+		this.fixture = fixture;
+	}
+
+	@Override
+	public PageContent loadPageContent(String url) throws RecipeParserException {
+		return new PageContent(url, fixture.getPage(), "UTF-8");
+	}
+}
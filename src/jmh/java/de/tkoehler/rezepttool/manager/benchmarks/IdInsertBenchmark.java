@@ -0,0 +1,133 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+
+/**
+ * Inserts rows shaped like tblrecipes, primary key plus the (name, id) index,
+ * into a file based H2 in batches of 100, with random or time-ordered ids
+ * stored as VARCHAR(36) or BINARY(16). The bytesPerRow counter reports the
+ * disk space of the table and its indexes per inserted row.
+ * <p>
+ * H2 stands in for MySQL here, the numbers compare the formats with each
+ * other. On MySQL the index sizes are in mysql.innodb_index_stats (stat_name
+ * 'size', in pages of innodb_page_size).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdInsertBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	public enum IdFormat {
+		RANDOM_TEXT("varchar(36)", () -> UUID.randomUUID().toString(), false),
+		RANDOM_BINARY("binary(16)", () -> UUID.randomUUID().toString(), true),
+		ORDERED_TEXT("varchar(36)", TimeOrderedIds::newId, false),
+		ORDERED_BINARY("binary(16)", TimeOrderedIds::newId, true);
+
+		private final String columnType;
+		private final Supplier<String> ids;
+		private final boolean binary;
+
+		IdFormat(String columnType, Supplier<String> ids, boolean binary) {
+			this.columnType = columnType;
+			this.ids = ids;
+			this.binary = binary;
+		}
+	}
+
+	@Param({ "RANDOM_TEXT", "RANDOM_BINARY", "ORDERED_TEXT", "ORDERED_BINARY" })
+	public IdFormat idFormat;
+
+	private Path directory;
+	private Connection connection;
+	private PreparedStatement insert;
+	private long insertedRows;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class IndexSize {
+		public double bytesPerRow;
+
+		@TearDown(Level.Iteration)
+		public void measure(IdInsertBenchmark benchmark) throws SQLException {
+			bytesPerRow = (double) benchmark.diskSpaceUsed() / benchmark.insertedRows;
+		}
+	}
+
+	@Setup
+	public void setUp() throws IOException, SQLException {
+		directory = Files.createTempDirectory("idinsert");
+		connection = DriverManager.getConnection("jdbc:h2:" + directory.resolve("ids").toAbsolutePath());
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("create table tblrecipes (id " + idFormat.columnType + " not null primary key, name varchar(200) not null)");
+			statement.execute("create index idx_recipes_name_id on tblrecipes (name, id)");
+		}
+		insert = connection.prepareStatement("insert into tblrecipes (id, name) values (?, ?)");
+	}
+
+	@TearDown
+	public void tearDown() throws IOException, SQLException {
+		connection.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void insertRecipes(IndexSize indexSize) throws SQLException {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			String id = idFormat.ids.get();
+			if (idFormat.binary) insert.setBytes(1, TimeOrderedIds.toBytes(id));
+			else insert.setString(1, id);
+			insert.setString(2, "Rezept " + (insertedRows++ % 5000));
+			insert.addBatch();
+		}
+		insert.executeBatch();
+		connection.commit();
+	}
+
+	private long diskSpaceUsed() throws SQLException {
+		try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery("call disk_space_used('TBLRECIPES')")) {
+			result.next();
+			return result.getLong(1);
+		}
+	}
+}
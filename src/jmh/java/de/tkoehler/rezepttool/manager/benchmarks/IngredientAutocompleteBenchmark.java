@@ -0,0 +1,85 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.RecipeIngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUsage;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientAutocompleteImpl;
+
+/**
+ * Measures ingredient autocompletion per keystroke against a generated
+ * catalogue with up to 100k ingredients, each with one alternative name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngredientAutocompleteBenchmark {
+
+	private static final String[] KEYSTROKES = { "z", "zw", "zwie", "k", "kno", "knob", "ol", "oliv", "pap", "papri", "sa", "salz" };
+	private static final String[] SYLLABLES = { "zwie", "bel", "knob", "lauch", "oli", "ven", "öl", "pap", "ri", "ka", "scho", "te", "to", "ma", "ten",
+			"salz", "pfef", "fer", "mehl", "zu", "cker", "but", "ter", "milch", "ei", "sah", "ne", "reis", "nu", "deln" };
+
+	@Param({ "1000", "100000" })
+	public int ingredientCount;
+
+	private IngredientAutocompleteImpl autocomplete;
+	private int keystroke;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		List<AlternativeNameMatch> catalogue = new ArrayList<>(ingredientCount);
+		List<IngredientUsage> usages = new ArrayList<>(ingredientCount);
+		for (int i = 0; i < ingredientCount; i++) {
+			String name = createWord(random) + (random.nextBoolean() ? " " + createWord(random) : "");
+			catalogue.add(new AlternativeNameMatch(createWord(random) + ", " + name, "id" + i, name, "Abteilung" + (i % 25)));
+			usages.add(new IngredientUsage("id" + i, random.nextInt(500)));
+		}
+		IngredientRepository ingredientRepository = (IngredientRepository) Proxy.newProxyInstance(IngredientRepository.class.getClassLoader(),
+				new Class<?>[] { IngredientRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("findAllIngredientsWithAlternativeNames")) return catalogue;
+					throw new UnsupportedOperationException(method.getName());
+				});
+		RecipeIngredientRepository recipeIngredientRepository = (RecipeIngredientRepository) Proxy.newProxyInstance(RecipeIngredientRepository.class.getClassLoader(),
+				new Class<?>[] { RecipeIngredientRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("countUsagesByIngredient")) return usages;
+					throw new UnsupportedOperationException(method.getName());
+				});
+		autocomplete = new IngredientAutocompleteImpl(ingredientRepository, recipeIngredientRepository);
+		autocomplete.reload();
+	}
+
+	@Benchmark
+	public List<String> completeNames() {
+		return autocomplete.completeNames(KEYSTROKES[keystroke++ % KEYSTROKES.length], 10);
+	}
+
+	private static String createWord(Random random) {
+		StringBuilder word = new StringBuilder();
+		for (int i = 0, syllables = 2 + random.nextInt(3); i < syllables; i++) {
+			word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		return word.toString();
+	}
+}
@@ -0,0 +1,65 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.tkoehler.rezepttool.manager.services.model.ChefkochIngredient;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+import de.tkoehler.rezepttool.manager.services.recipeparser.ParsedIngredientLine;
+
+/**
+ * Throughput of turning typical ingredient lines into structured amounts. The
+ * reused result shows the allocation-free path, gc.alloc.rate.norm of the
+ * BenchmarkRunner should stay at 0 there.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngredientLineParserBenchmark {
+
+	private static final String[] LINES = { "200 g Mehl", "1 ½ EL Olivenöl", "2 - 3 Zehe/n Knoblauch, gehackt", "1,50 Liter Gemüsebrühe", "3 große Zwiebeln",
+			"Salz und Pfeffer", "1 Pck. Vanillezucker", "1/2 TL Zimt", "250g Butter, weich", "½ Bund Petersilie" };
+
+	private final IngredientLineParser parser = new IngredientLineParser();
+	private final IngredientLineSplitter splitter = new IngredientLineSplitter(parser);
+	private final ParsedIngredientLine reusedResult = new ParsedIngredientLine();
+
+	@Benchmark
+	public void parseReusingResult(Blackhole blackhole) {
+		for (String line : LINES) {
+			parser.parse(line, reusedResult);
+			blackhole.consume(reusedResult.getQuantity());
+			blackhole.consume(reusedResult.getUnit());
+			blackhole.consume(reusedResult.getNameStart());
+		}
+	}
+
+	@Benchmark
+	public void parseWithName(Blackhole blackhole) {
+		for (String line : LINES) {
+			blackhole.consume(parser.parse(line).getName());
+		}
+	}
+
+	@Benchmark
+	public void splitWithLineSplitter(Blackhole blackhole) {
+		for (String line : LINES) {
+			ChefkochIngredient ingredient = splitter.split(line);
+			blackhole.consume(ingredient);
+		}
+	}
+}
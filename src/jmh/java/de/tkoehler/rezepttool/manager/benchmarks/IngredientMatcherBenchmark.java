@@ -0,0 +1,82 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientMatcherImpl;
+
+/**
+ * Measures fuzzy ingredient matching against a generated catalogue with up to
+ * 100k ingredients, each with one alternative name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngredientMatcherBenchmark {
+
+	private static final String[] QUERIES = { "Zwiebel(n), rot", "2 Knoblauchzehen", "Olivenöl, extra vergine", "Salz und Pfeffer", "Paprikaschote(n), gelb" };
+	private static final String[] SYLLABLES = { "zwie", "bel", "knob", "lauch", "oli", "ven", "öl", "pap", "ri", "ka", "scho", "te", "to", "ma", "ten",
+			"salz", "pfef", "fer", "mehl", "zu", "cker", "but", "ter", "milch", "ei", "sah", "ne", "reis", "nu", "deln" };
+
+	@Param({ "1000", "100000" })
+	public int ingredientCount;
+
+	private IngredientMatcherImpl matcher;
+	private int query;
+
+	@Setup
+	public void setUp() {
+		List<AlternativeNameMatch> catalogue = createCatalogue(ingredientCount);
+		IngredientRepository repository = (IngredientRepository) Proxy.newProxyInstance(IngredientRepository.class.getClassLoader(),
+				new Class<?>[] { IngredientRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("findAllIngredientsWithAlternativeNames")) return catalogue;
+					throw new UnsupportedOperationException(method.getName());
+				});
+		matcher = new IngredientMatcherImpl(repository, 0.3, 0.8);
+		matcher.reload();
+	}
+
+	@Benchmark
+	public List<IngredientMatch> findMatches() {
+		return matcher.findMatches(QUERIES[query++ % QUERIES.length], 10);
+	}
+
+	private static List<AlternativeNameMatch> createCatalogue(int size) {
+		Random random = new Random(42);
+		List<AlternativeNameMatch> catalogue = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String name = createWord(random) + (random.nextBoolean() ? " " + createWord(random) : "");
+			catalogue.add(new AlternativeNameMatch(createWord(random) + ", " + name, "id" + i, name, "Abteilung" + (i % 25)));
+		}
+		return catalogue;
+	}
+
+	private static String createWord(Random random) {
+		StringBuilder word = new StringBuilder();
+		for (int i = 0, syllables = 2 + random.nextInt(3); i < syllables; i++) {
+			word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		return word.toString();
+	}
+}
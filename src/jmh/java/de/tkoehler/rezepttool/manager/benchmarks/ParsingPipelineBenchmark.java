@@ -0,0 +1,114 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonObject;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tkoehler.rezepttool.manager.application.mappers.ChefkochRecipeToWebInputMapperImpl;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.model.ChefkochRecipe;
+import de.tkoehler.rezepttool.manager.services.model.ChefkochRecipeV2;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+import de.tkoehler.rezepttool.manager.services.recipeparser.LdJsonRecipeExtractor;
+import de.tkoehler.rezepttool.manager.services.recipeparser.PageContent;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+import de.tkoehler.rezepttool.manager.services.recipeparser.v1.ChefkochRecipeParserImpl;
+import de.tkoehler.rezepttool.manager.services.recipeparser.v3.ChefkochRecipeJsonDecoder;
+
+/**
+ * Measures the single stages of the import hot path: HTML load, ld+json
+ * extraction, JSON decoding and the mapping to the web input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingPipelineBenchmark {
+
+	@Param({ "antipasti", RecipePageFixtures.LARGE })
+	public String fixtureName;
+
+	private PageContent page;
+	private Document document;
+	private String recipeJson;
+	private ChefkochRecipe recipe;
+	private ChefkochRecipeParserImpl v1Parser;
+	private de.tkoehler.rezepttool.manager.services.recipeparser.v2.ChefkochRecipeParserImpl v2Parser;
+	private LdJsonRecipeExtractor ldJsonRecipeExtractor;
+	private ChefkochRecipeJsonDecoder chefkochRecipeJsonDecoder;
+	private ChefkochRecipeToWebInputMapperImpl mapper;
+
+	@Setup
+	public void setUp() throws IOException, RecipeParserException {
+		RecipePageFixtures.Fixture fixture = RecipePageFixtures.get(fixtureName);
+		FixturePageCache pageCache = new FixturePageCache(fixture);
+		IngredientLineSplitter splitter = new IngredientLineSplitter(new IngredientLineParser());
+		ldJsonRecipeExtractor = new LdJsonRecipeExtractor();
+		chefkochRecipeJsonDecoder = new ChefkochRecipeJsonDecoder(splitter);
+		v1Parser = new ChefkochRecipeParserImpl(pageCache, splitter, true);
+		v2Parser = new de.tkoehler.rezepttool.manager.services.recipeparser.v2.ChefkochRecipeParserImpl(
+				new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES), pageCache, ldJsonRecipeExtractor);
+		mapper = new ChefkochRecipeToWebInputMapperImpl();
+		page = pageCache.loadPageContent(fixture.getUrl());
+		document = v1Parser.loadRecipeWebSite(fixture.getUrl());
+		recipeJson = v1Parser.extractRecipeJSonFromURL(document);
+		recipe = (ChefkochRecipe) v1Parser.parseRecipe(fixture.getUrl());
+	}
+
+	@Benchmark
+	public Document loadDocument() throws IOException {
+		return Jsoup.parse(page.openStream(), page.getCharset(), page.getUrl());
+	}
+
+	@Benchmark
+	public String extractJSonFromDocument() throws RecipeParserException {
+		return v1Parser.extractRecipeJSonFromURL(document);
+	}
+
+	@Benchmark
+	public String extractJSonStreaming() throws RecipeParserException {
+		return ldJsonRecipeExtractor.extractRecipeJSon(page);
+	}
+
+	@Benchmark
+	public ChefkochRecipe decodeJavaxJson() throws RecipeParserException {
+		JsonObject jsonObject = v1Parser.convertJSonStringToJSonObject(recipeJson);
+		return v1Parser.createChefkochRecipe(jsonObject);
+	}
+
+	@Benchmark
+	public ChefkochRecipeV2 decodeObjectMapper() {
+		return v2Parser.parseChefkochRecipe(recipeJson);
+	}
+
+	@Benchmark
+	public ChefkochRecipe decodeStreaming() throws RecipeParserException {
+		return chefkochRecipeJsonDecoder.decode(recipeJson);
+	}
+
+	@Benchmark
+	public RecipeWebInput mapToWebInput() {
+		return mapper.process(recipe);
+	}
+}
@@ -0,0 +1,129 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds Chefkoch like recipe pages from the recipes in JsonExampleData and a
+ * synthetic large page with a lot of markup, scripts and ingredients.
+ */
+public final class RecipePageFixtures {
+
+	public static final String LARGE = "large";
+
+	private static final String FIXTURE_FILE = System.getProperty("benchmark.fixtures", "JsonExampleData");
+	private static final Pattern QUOTED_NUMBER = Pattern.compile("\"(ratingValue|reviewCount)\": \"([0-9.]+)\"");
+	private static final Pattern CATEGORIES = Pattern.compile("\"recipeCategory\": (\\[[^\\]]*\\])");
+
+	private static Map<String, Fixture> fixtures;
+
+	private RecipePageFixtures() {
+	}
+
+	public static synchronized Fixture get(String name) throws IOException {
+		if (fixtures == null) fixtures = load(Paths.get(FIXTURE_FILE));
+		Fixture fixture = fixtures.get(name);
+		if (fixture == null) throw new IllegalArgumentException("Unknown fixture " + name + ", available: " + fixtures.keySet());
+		return fixture;
+	}
+
+	private static Map<String, Fixture> load(Path file) throws IOException {
+		Map<String, Fixture> result = new LinkedHashMap<>();
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		String url = null;
+		StringBuilder json = null;
+		String largeJson = null;
+		for (String line : lines) {
+			if (line.startsWith("https://")) url = line.trim();
+			else if (url != null && line.equals("{")) json = new StringBuilder(line).append('\n');
+			else if (json != null) {
+				json.append(line).append('\n');
+				if (line.equals("}")) {
+					String recipeJson = enrich(json.toString());
+					result.put(createName(url), new Fixture(url, createPage(recipeJson, 0)));
+					if (largeJson == null) largeJson = recipeJson;
+					url = null;
+					json = null;
+				}
+			}
+		}
+		if (largeJson == null) throw new IOException("No recipes found in " + file.toAbsolutePath());
+		result.put(LARGE, new Fixture("https://www.chefkoch.de/rezepte/0/large.html", createPage(multiplyIngredients(largeJson, 8), 400)));
+		return result;
+	}
+
+	private static String createName(String url) {
+		String page = url.substring(url.lastIndexOf('/') + 1);
+		int end = page.indexOf('-');
+		return (end > 0 ? page.substring(0, end) : page).toLowerCase();
+	}
+
+	/**
+	 * The v1 parser expects the fields of the current Chefkoch pages, which are
+	 * missing in the recorded example data.
+	 */
+	private static String enrich(String json) {
+		Matcher numbers = QUOTED_NUMBER.matcher(json);
+		json = numbers.replaceAll("\"$1\": $2");
+		Matcher categories = CATEGORIES.matcher(json);
+		String keywords = categories.find() ? categories.group(1) : "[]";
+		return json.replace("\"@type\": \"Recipe\",", "\"@type\": \"Recipe\",\n \"totalTime\": \"PT1H\",\n \"keywords\": " + keywords
+				+ ",\n \"nutrition\": {\"@type\": \"NutritionInformation\", \"calories\": \"420 kcal\"},");
+	}
+
+	private static String multiplyIngredients(String json, int factor) {
+		int start = json.indexOf("\"recipeIngredient\": [") + "\"recipeIngredient\": [".length();
+		int end = json.indexOf(']', start);
+		String ingredients = json.substring(start, end).trim();
+		StringBuilder result = new StringBuilder(ingredients);
+		for (int i = 1; i < factor; i++) {
+			result.append(", ").append(ingredients);
+		}
+		return json.substring(0, start) + result + json.substring(end);
+	}
+
+	private static byte[] createPage(String recipeJson, int fillerBlocks) {
+		StringBuilder page = new StringBuilder("<!DOCTYPE html>\n<html lang=\"de\"><head><meta charset=\"utf-8\"><title>Rezept</title>\n");
+		page.append("<script type=\"application/ld+json\">{\"@context\": \"http://schema.org\", \"@type\": \"BreadcrumbList\", \"itemListElement\": []}</script>\n");
+		for (int i = 0; i < fillerBlocks / 4; i++) {
+			page.append("<script>window.CK = window.CK || {}; window.CK.data").append(i).append(" = { id: ").append(i)
+					.append(", title: \"<script>\", html: \"<div class='x'>").append(i).append("</div>\" };</script>\n");
+		}
+		page.append("</head><body>\n");
+		for (int i = 0; i < fillerBlocks; i++) {
+			page.append("<div class=\"ds-teaser\"><a href=\"/rezepte/").append(i).append("/Rezept.html\"><img src=\"https://static.chefkoch-cdn.de/").append(i)
+					.append(".jpg\" alt=\"Rezept ").append(i).append("\"><span class=\"ds-h3\">Rezept Nummer ").append(i)
+					.append("</span><p>Ein schönes Rezept mit Bild aus der Kategorie Gemüse.</p></a></div>\n");
+		}
+		page.append("<div class=\"summary\">schnell, einfach, lecker</div>\n");
+		page.append("<script type=\"application/ld+json\">\n").append(recipeJson).append("</script>\n");
+		page.append("</body></html>\n");
+		return page.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	public static class Fixture {
+		private final String url;
+		private final byte[] page;
+
+		private Fixture(String url, byte[] page) {
+			this.url = url;
+			this.page = page;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public byte[] getPage() {
+			return page;
+		}
+	}
+}
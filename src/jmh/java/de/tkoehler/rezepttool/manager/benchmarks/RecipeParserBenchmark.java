@@ -0,0 +1,77 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tkoehler.rezepttool.manager.services.model.Recipe;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+import de.tkoehler.rezepttool.manager.services.recipeparser.LdJsonRecipeExtractor;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+import de.tkoehler.rezepttool.manager.services.recipeparser.v3.ChefkochRecipeJsonDecoder;
+
+/**
+ * Compares the complete {@code parseRecipe} call of the parser versions on the
+ * same fixture pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeParserBenchmark {
+
+	@Param({ "asiatische", "antipasti", "tomatensalat", RecipePageFixtures.LARGE })
+	public String fixtureName;
+
+	private String url;
+	private de.tkoehler.rezepttool.manager.services.recipeparser.v1.ChefkochRecipeParserImpl v1Parser;
+	private de.tkoehler.rezepttool.manager.services.recipeparser.v2.ChefkochRecipeParserImpl v2Parser;
+	private de.tkoehler.rezepttool.manager.services.recipeparser.v3.ChefkochRecipeParserImpl v3Parser;
+
+	@Setup
+	public void setUp() throws IOException, RecipeParserException {
+		RecipePageFixtures.Fixture fixture = RecipePageFixtures.get(fixtureName);
+		FixturePageCache pageCache = new FixturePageCache(fixture);
+		IngredientLineSplitter splitter = new IngredientLineSplitter(new IngredientLineParser());
+		LdJsonRecipeExtractor extractor = new LdJsonRecipeExtractor();
+		ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		url = fixture.getUrl();
+		v1Parser = new de.tkoehler.rezepttool.manager.services.recipeparser.v1.ChefkochRecipeParserImpl(pageCache, splitter, true);
+		v2Parser = new de.tkoehler.rezepttool.manager.services.recipeparser.v2.ChefkochRecipeParserImpl(objectMapper, pageCache, extractor);
+		v3Parser = new de.tkoehler.rezepttool.manager.services.recipeparser.v3.ChefkochRecipeParserImpl(pageCache, extractor, new ChefkochRecipeJsonDecoder(splitter));
+		if (v1Parser.parseRecipe(url) == null || v2Parser.parseRecipe(url) == null || v3Parser.parseRecipe(url) == null)
+			throw new IllegalStateException("Fixture " + fixtureName + " could not be parsed");
+	}
+
+	@Benchmark
+	public Recipe parseRecipeV1() throws RecipeParserException {
+		return v1Parser.parseRecipe(url);
+	}
+
+	@Benchmark
+	public Recipe parseRecipeV2() throws RecipeParserException {
+		return v2Parser.parseRecipe(url);
+	}
+
+	@Benchmark
+	public Recipe parseRecipeV3() throws RecipeParserException {
+		return v3Parser.parseRecipe(url);
+	}
+}
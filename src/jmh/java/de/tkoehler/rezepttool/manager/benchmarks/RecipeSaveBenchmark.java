@@ -0,0 +1,171 @@
+package de.tkoehler.rezepttool.manager.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import de.tkoehler.rezepttool.manager.RezepttoolManagerApplication;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.EditorService;
+import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
+
+/**
+ * Saves recipes with ten ingredients and three categories through
+ * EditorService.insertRecipe against an in-memory H2, with and without JDBC
+ * batching. The roundTrips counter reports the JDBC executions per saved
+ * recipe, an executeBatch counts once like the single round trip it is on
+ * MySQL with rewriteBatchedStatements. The follow-up reads of the index
+ * listeners are included, they are the same for both settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeSaveBenchmark {
+
+	private static final List<String> KNOWN_INGREDIENTS = Arrays.asList("Zwiebel", "Knoblauch", "Olivenöl", "Salz", "Pfeffer");
+	private static final String URL = "jdbc:h2:mem:recipesave;DB_CLOSE_DELAY=-1";
+	private static final List<String> STATEMENT_FACTORIES = Arrays.asList("createStatement", "prepareStatement", "prepareCall");
+
+	@Param({ "0", "50" })
+	public int jdbcBatchSize;
+
+	private final AtomicLong executions = new AtomicLong();
+	private ConfigurableApplicationContext context;
+	private EditorService editorService;
+	private int recipeCount;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class RoundTrips {
+		public double perRecipe;
+		private long executionsAtStart;
+		private int savedRecipes;
+
+		@Setup(Level.Iteration)
+		public void reset(RecipeSaveBenchmark benchmark) {
+			executionsAtStart = benchmark.executions.get();
+			savedRecipes = 0;
+			perRecipe = 0;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(RezepttoolManagerApplication.class)
+				.web(WebApplicationType.NONE)
+				.initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+					@Override
+					public Object postProcessBeforeInitialization(Object bean, String beanName) {
+						if (bean instanceof HikariDataSource) ((HikariDataSource) bean).setDataSource((DataSource) counting(createH2DataSource(), DataSource.class));
+						return bean;
+					}
+				}))
+				.run("--spring.datasource.url=" + URL,
+						"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						"--spring.jpa.show-sql=false",
+						"--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+						"--spring.jpa.properties.hibernate.order_inserts=" + (jdbcBatchSize > 0),
+						"--spring.jpa.properties.hibernate.order_updates=" + (jdbcBatchSize > 0),
+						"--logging.level.root=WARN");
+		editorService = context.getBean(EditorService.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void insertRecipe(RoundTrips roundTrips) throws EditorServiceException {
+		editorService.insertRecipe(createRecipe(recipeCount++));
+		roundTrips.savedRecipes++;
+		roundTrips.perRecipe = (double) (executions.get() - roundTrips.executionsAtStart) / roundTrips.savedRecipes;
+	}
+
+	private static RecipeWebInput createRecipe(int number) {
+		List<IngredientWebInput> ingredients = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			String name = i < KNOWN_INGREDIENTS.size() ? KNOWN_INGREDIENTS.get(i) : "Zutat " + number + "-" + i;
+			ingredients.add(IngredientWebInput.builder()
+					.amount((i + 1) * 100 + " g")
+					.name(name)
+					.originalName(name)
+					.department("Abteilung " + (i % 3))
+					.build());
+		}
+		return RecipeWebInput.builder()
+				.url("https://www.chefkoch.de/rezepte/" + number)
+				.name("Rezept " + number)
+				.portions("4")
+				.instructions("Alles vermengen und 30 Minuten backen.")
+				.ingredients(ingredients)
+				.categories(new ArrayList<>(Arrays.asList("Backen", "Hauptspeise", "Kategorie " + number % 10)))
+				.build();
+	}
+
+	private static DataSource createH2DataSource() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(URL);
+		return dataSource;
+	}
+
+	/**
+	 * Proxies the data source, its connections and statements, counting every
+	 * statement execution. The proxied data source is pooled by the Hikari
+	 * data source of the context, which Spring Boot expects to keep its type.
+	 */
+	private Object counting(Object target, Class<?> type) {
+		return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			Object result = invoke(target, method, args);
+			if (type == DataSource.class && method.getName().equals("getConnection")) return counting(result, Connection.class);
+			if (type == Connection.class && STATEMENT_FACTORIES.contains(method.getName())) return counting(result, method.getReturnType());
+			if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) executions.incrementAndGet();
+			return result;
+		});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package de.tkoehler.rezepttool.manager.application.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import de.tkoehler.rezepttool.manager.services.CacheNames;
+
+/**
+ * Caffeine caches with size and time bounds. The caches are transaction
+ * aware, evictions of a writing service method take effect after its commit,
+ * so a concurrent read cannot put the old state back. Hit, miss and eviction
+ * counts are recorded and published as cache.* metrics on the actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+	@Bean
+	public CacheManager cacheManager(@Value("${manager.cache.spec:maximumSize=1000,expireAfterWrite=30m,recordStats}") String spec) {
+		List<Cache> caches = new ArrayList<>();
+		for (String name : CacheNames.ALL) {
+			caches.add(new TransactionAwareCacheDecorator(new CaffeineCache(name, Caffeine.from(spec).build())));
+		}
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(caches);
+		return cacheManager;
+	}
+}
@@ -0,0 +1,26 @@
+package de.tkoehler.rezepttool.manager.application.config;
+
+import org.springframework.cloud.stream.annotation.Input;
+import org.springframework.cloud.stream.annotation.Output;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+
+public interface ImportPipelineChannels {
+
+	String URLS_OUTPUT = "importUrlsOutput";
+	String URLS_INPUT = "importUrlsInput";
+	String RECIPES_OUTPUT = "parsedRecipesOutput";
+	String RECIPES_INPUT = "parsedRecipesInput";
+
+	@Output(URLS_OUTPUT)
+	MessageChannel urlsOutput();
+
+	@Input(URLS_INPUT)
+	SubscribableChannel urlsInput();
+
+	@Output(RECIPES_OUTPUT)
+	MessageChannel recipesOutput();
+
+	@Input(RECIPES_INPUT)
+	SubscribableChannel recipesInput();
+}
@@ -0,0 +1,11 @@
+package de.tkoehler.rezepttool.manager.application.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.stream.annotation.EnableBinding;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "importer.pipeline.enabled", havingValue = "true")
+@EnableBinding(ImportPipelineChannels.class)
+public class ImportPipelineConfiguration {
+}
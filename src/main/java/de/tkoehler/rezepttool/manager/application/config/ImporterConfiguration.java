@@ -0,0 +1,28 @@
+package de.tkoehler.rezepttool.manager.application.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ImporterConfiguration {
+
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService importerExecutor(@Value("${importer.batch.threads:4}") int threads) {
+		return Executors.newFixedThreadPool(threads);
+	}
+
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService importJobExecutor(@Value("${importer.jobs.threads:2}") int threads) {
+		return Executors.newFixedThreadPool(threads);
+	}
+
+	@Bean(destroyMethod = "shutdownNow")
+	public ScheduledExecutorService importJobPoller() {
+		return Executors.newSingleThreadScheduledExecutor();
+	}
+}
@@ -0,0 +1,16 @@
+package de.tkoehler.rezepttool.manager.application.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ManagerConfiguration {
+
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService recipeIndexExecutor() {
+		return Executors.newSingleThreadExecutor();
+	}
+}
@@ -29,7 +29,7 @@ public class RecipeEntityToWebInputMapperImpl implements RecipeEntityToWebInputM
 				.callories(recipe.getCallories())
 				.categories(new ArrayList<>(recipe.getCategories()))
 				.difficulty(recipe.getDifficulty() != null ? recipe.getDifficulty() : "")
-				.ingredients(recipe.getIngredients().parallelStream()
+				.ingredients(recipe.getIngredients().stream()
 				        .map(ingredient -> IngredientWebInput.builder()
 				                .recipeIngredientId(ingredient.getId())
 			                    .amount(ingredient.getAmount())
@@ -1,26 +1,35 @@
 package de.tkoehler.rezepttool.manager.application.mappers;
 
 import java.util.HashSet;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.springframework.stereotype.Component;
 
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredient;
 import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.ParsedIngredientLine;
 
 @Component
 public class WebInputToRecipeEntityMapperImpl implements WebInputToRecipeEntityMapper {
 
+	private final IngredientLineParser ingredientLineParser;
+
+	public WebInputToRecipeEntityMapperImpl(IngredientLineParser ingredientLineParser) {
+		this.ingredientLineParser = ingredientLineParser;
+	}
+
 	@Override
 	public RecipeEntity process(RecipeWebInput webRecipe) {
 		if (webRecipe == null) return null;
 		RecipeEntity result = RecipeEntity.builder()
 				.id(getOrCreateId(webRecipe.getId()))
+				.isNew(isMissing(webRecipe.getId()))
 				.url(webRecipe.getUrl())
 				.name(webRecipe.getName())
 				.additionalInformation(webRecipe.getAdditionalInformation())
@@ -30,16 +39,23 @@ public class WebInputToRecipeEntityMapperImpl implements WebInputToRecipeEntityM
 				.cookTime(webRecipe.getCookTime())
 				.restTime(webRecipe.getRestTime())
 				.callories(webRecipe.getCallories())
-				.categories(new HashSet<>(webRecipe.getCategories()))
+				.categories(webRecipe.getCategories() == null ? new HashSet<>() : new HashSet<>(webRecipe.getCategories()))
 				.build();
 		result.setDifficulty(webRecipe.getDifficulty());
+		if (webRecipe.getIngredients() == null) return result;
+		ParsedIngredientLine parsedAmount = new ParsedIngredientLine();
 		for (IngredientWebInput ingredient : webRecipe.getIngredients()) {
+			ingredientLineParser.parse(ingredient.getAmount(), parsedAmount);
 			RecipeIngredient recipeIngredient = RecipeIngredient.builder()
 					.id(getOrCreateId(ingredient.getRecipeIngredientId()))
+					.isNew(isMissing(ingredient.getRecipeIngredientId()))
 					.amount(ingredient.getAmount())
+					.quantity(parsedAmount.getQuantityOrNull())
+					.unit(parsedAmount.getUnit())
 					.recipe(result)
 					.ingredient(Ingredient.builder()
 							.id(getOrCreateId(ingredient.getIngredientId()))
+							.isNew(isMissing(ingredient.getIngredientId()))
 							.name(ingredient.getName())
 							.alternativeNames(Stream.of(
 									ingredient.getOriginalName().equals("") ? ingredient.getName() : ingredient.getOriginalName()).collect(Collectors.toSet()))
@@ -48,13 +64,18 @@ public class WebInputToRecipeEntityMapperImpl implements WebInputToRecipeEntityM
 							.build())
 					.build();
 			result.addRecipeIngredient(recipeIngredient);
+			if (!recipeIngredient.isNew() || !recipeIngredient.getIngredient().isNew()) result.setNew(false);
 		}
 		return result;
 	}
 
 	private String getOrCreateId(String id) {
-		if(id == null || id.equals(""))
-			return UUID.randomUUID().toString();
+		if (isMissing(id))
+			return TimeOrderedIds.newId();
 		return id;
 	}
+
+	private static boolean isMissing(String id) {
+		return id == null || id.equals("");
+	}
 }
@@ -0,0 +1,41 @@
+package de.tkoehler.rezepttool.manager.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJob;
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJobStatus;
+
+public interface ImportJobRepository extends CrudRepository<ImportJob, String> {
+
+	List<ImportJob> findByStatusInOrderByCreated(Collection<ImportJobStatus> states);
+
+	/**
+	 * Sets status and owner only if the job still has the expected status, so
+	 * that exactly one node claims a queued job.
+	 * 
+	 * @return 1 if the job was updated, 0 otherwise
+	 */
+	@Modifying
+	@Transactional
+	@Query("update ImportJob j set j.status = :status, j.owner = :owner, j.updated = :updated where j.id = :id and j.status = :expected")
+	int updateStatus(@Param("id") String id, @Param("expected") ImportJobStatus expected, @Param("status") ImportJobStatus status, @Param("owner") String owner,
+			@Param("updated") Date updated);
+
+	/**
+	 * Queues the running jobs again that belong to the given owner or were not
+	 * updated since staleBefore, their owner stopped without finishing them.
+	 */
+	@Modifying
+	@Transactional
+	@Query("update ImportJob j set j.status = :queued, j.owner = null, j.updated = :updated where j.status = :running and (j.owner = :owner or j.owner is null or j.updated < :staleBefore)")
+	int requeueAbandoned(@Param("owner") String owner, @Param("staleBefore") Date staleBefore, @Param("updated") Date updated, @Param("queued") ImportJobStatus queued,
+			@Param("running") ImportJobStatus running);
+}
@@ -1,11 +1,14 @@
 package de.tkoehler.rezepttool.manager.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient;
 
@@ -13,6 +16,12 @@ public interface IngredientRepository extends CrudRepository<Ingredient, String>
 
 	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient(i.name, i.department) from Ingredient i")
 	List<TinyIngredient> findAllTinies();
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient(i.id, i.name, i.department) from Ingredient i order by i.name, i.id")
+	List<TinyIngredient> findFirstTinies(Pageable pageable);
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient(i.id, i.name, i.department) from Ingredient i where i.name > :name or (i.name = :name and i.id > :id) order by i.name, i.id")
+	List<TinyIngredient> findTiniesAfter(String name, String id, Pageable pageable);
 	
 	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient(i.name, i.department) from Ingredient i where i.name like %:name%")
 	List<TinyIngredient> findAllTiniesByName(String name);
@@ -32,7 +41,19 @@ public interface IngredientRepository extends CrudRepository<Ingredient, String>
 	@Query("select i from Ingredient i where :searchName in elements(i.alternativeNames)")
 	List<Ingredient> findByAlternativeName(String searchName);
 
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch(a, i.id, i.name, i.department) from Ingredient i join i.alternativeNames a where a in :searchNames")
+	List<AlternativeNameMatch> findByAlternativeNames(Collection<String> searchNames);
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch(a, i.id, i.name, i.department) from Ingredient i join i.alternativeNames a")
+	List<AlternativeNameMatch> findAllAlternativeNames();
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch(a, i.id, i.name, i.department) from Ingredient i left join i.alternativeNames a")
+	List<AlternativeNameMatch> findAllIngredientsWithAlternativeNames();
+
 	Optional<Ingredient> findByNameAndDepartment(String name, String department);
 
+	@Query("select distinct i from Ingredient i left join fetch i.alternativeNames where i.name in :names")
+	List<Ingredient> findAllWithAlternativeNamesByNameIn(Collection<String> names);
+
 
 }
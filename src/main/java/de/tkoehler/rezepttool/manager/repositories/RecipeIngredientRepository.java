@@ -1,9 +1,19 @@
 package de.tkoehler.rezepttool.manager.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUsage;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredient;
 
 public interface RecipeIngredientRepository extends CrudRepository<RecipeIngredient, String> {
 
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.IngredientUsage(ri.ingredient.id, count(ri)) from RecipeIngredient ri group by ri.ingredient.id")
+	List<IngredientUsage> countUsagesByIngredient();
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.IngredientUsage(ri.ingredient.id, count(ri)) from RecipeIngredient ri where ri.ingredient.id in :ingredientIds group by ri.ingredient.id")
+	List<IngredientUsage> countUsagesByIngredientIdIn(Collection<String> ingredientIds);
 }
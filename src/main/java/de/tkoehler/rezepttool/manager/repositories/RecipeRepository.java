@@ -1,11 +1,21 @@
 package de.tkoehler.rezepttool.manager.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipeRow;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeHeader;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredientLine;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
 
 public interface RecipeRepository extends CrudRepository<RecipeEntity, String> {
@@ -15,6 +25,12 @@ public interface RecipeRepository extends CrudRepository<RecipeEntity, String> {
 	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe(r.id,r.name) from RecipeEntity r ")
 	List<TinyRecipe> findAllTinies();
 
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe(r.id,r.name) from RecipeEntity r order by r.name, r.id")
+	List<TinyRecipe> findFirstTinies(Pageable pageable);
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe(r.id,r.name) from RecipeEntity r where r.name > :name or (r.name = :name and r.id > :id) order by r.name, r.id")
+	List<TinyRecipe> findTiniesAfter(String name, String id, Pageable pageable);
+
 	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe(r.id,r.name) from RecipeEntity r where :category in elements(r.categories)")
 	List<TinyRecipe> findAllTiniesByCategory(String category);
 
@@ -25,4 +41,44 @@ public interface RecipeRepository extends CrudRepository<RecipeEntity, String> {
 
 	@Query("select ringred.ingredient.name from RecipeEntity r JOIN r.ingredients ringred where :id = r.id")
 	List<String> findIngredientsById(String id);
+
+	@Query("select ringred.ingredient.id from RecipeEntity r JOIN r.ingredients ringred where :id = r.id")
+	List<String> findIngredientIdsById(String id);
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.RecipeHeader(r.id,r.url,r.name,r.additionalInformation,r.portions,r.workTime,r.cookTime,r.restTime,r.difficulty,r.callories) from RecipeEntity r where r.id in :ids")
+	List<RecipeHeader> findHeadersByIdIn(Collection<String> ids);
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.RecipeHeader(r.id,r.url,r.name,r.additionalInformation,r.portions,r.workTime,r.cookTime,r.restTime,r.difficulty,r.callories) from RecipeEntity r where r.url in :urls")
+	List<RecipeHeader> findHeadersByUrlIn(Collection<String> urls);
+
+	@Query("select new de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredientLine(r.id,ringred.id,ringred.amount,ringred.quantity,ringred.unit,ingred.id,ingred.name,ingred.department,ingred.present) "
+			+ "from RecipeEntity r JOIN r.ingredients ringred JOIN ringred.ingredient ingred where r.id in :ids")
+	List<RecipeIngredientLine> findIngredientLinesByIdIn(Collection<String> ids);
+
+	/**
+	 * The instructions are fetched lazily, the full detail queries load them
+	 * with the recipe through fetch all properties.
+	 */
+	@Query("select distinct r from RecipeEntity r fetch all properties left join fetch r.categories")
+	List<RecipeEntity> findAllWithCategories();
+
+	@Query("select r from RecipeEntity r fetch all properties left join fetch r.categories where r.id = :id")
+	Optional<RecipeEntity> findWithCategoriesById(String id);
+
+	@Query("select distinct r from RecipeEntity r left join fetch r.ingredients ringred left join fetch ringred.ingredient where r.id = :id")
+	Optional<RecipeEntity> findWithIngredientsById(String id);
+
+	/**
+	 * Categories and ingredient names of all recipes in one result set, ordered
+	 * by recipe. Fetched in chunks through a server side cursor (useCursorFetch
+	 * in the datasource url), so it has to be consumed inside a transaction.
+	 */
+	@Query(nativeQuery = true, value = "select r.id as recipeKey, r.name as recipeName, c.category as category, null as ingredient "
+			+ "from tblrecipes r left join tblrecipecategories c on c.recipe_entity_id = r.id "
+			+ "union all "
+			+ "select r.id, r.name, null, i.name "
+			+ "from tblrecipes r join tblrecipeingredients ri on ri.recipe_id = r.id join tblingredients i on i.id = ri.ingredient_id "
+			+ "order by recipeKey")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<FilterableRecipeRow> streamAllFilterableRows();
 }
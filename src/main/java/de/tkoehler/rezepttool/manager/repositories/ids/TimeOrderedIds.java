@@ -0,0 +1,79 @@
+package de.tkoehler.rezepttool.manager.repositories.ids;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates and converts the ids of the entities. New ids follow the UUID
+ * version 7 layout: 48 bits of epoch milliseconds, a 12 bit counter for ids
+ * of the same millisecond and 62 random bits. Ids created by this process are
+ * strictly increasing, so inserts append to the right end of the primary key
+ * index instead of splitting random pages; the lowercase text form and the
+ * 16 stored bytes sort the same way.
+ */
+public final class TimeOrderedIds {
+
+	public static final int BYTES = 16;
+
+	private static final long VERSION = 0x7000L;
+	private static final long VARIANT = 0x8000000000000000L;
+	private static final long RANDOM_BITS = 0x3FFFFFFFFFFFFFFFL;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+	private TimeOrderedIds() {
+	}
+
+	/**
+	 * @return a new id, greater than every id this process created before;
+	 *         when the counter of a millisecond runs over, the id borrows the
+	 *         next millisecond
+	 */
+	public static String newId() {
+		long now = System.currentTimeMillis() << 12;
+		long stamp = LAST_STAMP.updateAndGet(last -> Math.max(last + 1, now));
+		long mostSignificantBits = (stamp >>> 12) << 16 | VERSION | (stamp & 0xFFF);
+		long leastSignificantBits = ThreadLocalRandom.current().nextLong() & RANDOM_BITS | VARIANT;
+		return new UUID(mostSignificantBits, leastSignificantBits).toString();
+	}
+
+	/**
+	 * @return the 16 bytes of an id in its text form
+	 *         (xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx), case-insensitive
+	 * @throws IllegalArgumentException
+	 *             if the text is no such id
+	 */
+	public static byte[] toBytes(String id) {
+		if (id.length() != 36) throw new IllegalArgumentException("Not an id: " + id);
+		byte[] result = new byte[BYTES];
+		int position = 0;
+		for (int i = 0; i < BYTES; i++) {
+			if (position == 8 || position == 13 || position == 18 || position == 23) {
+				if (id.charAt(position) != '-') throw new IllegalArgumentException("Not an id: " + id);
+				position++;
+			}
+			int high = Character.digit(id.charAt(position), 16);
+			int low = Character.digit(id.charAt(position + 1), 16);
+			if (high < 0 || low < 0) throw new IllegalArgumentException("Not an id: " + id);
+			result[i] = (byte) (high << 4 | low);
+			position += 2;
+		}
+		return result;
+	}
+
+	/**
+	 * @return the lowercase text form of 16 stored bytes
+	 */
+	public static String fromBytes(byte[] bytes) {
+		if (bytes.length != BYTES) throw new IllegalArgumentException("An id has " + BYTES + " bytes, not " + bytes.length);
+		char[] result = new char[36];
+		int position = 0;
+		for (int i = 0; i < BYTES; i++) {
+			if (i == 4 || i == 6 || i == 8 || i == 10) result[position++] = '-';
+			result[position++] = HEX[(bytes[i] >> 4) & 0xF];
+			result[position++] = HEX[bytes[i] & 0xF];
+		}
+		return new String(result);
+	}
+}
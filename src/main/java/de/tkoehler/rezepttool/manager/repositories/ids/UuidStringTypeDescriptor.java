@@ -0,0 +1,45 @@
+package de.tkoehler.rezepttool.manager.repositories.ids;
+
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+
+/**
+ * Keeps ids as Strings in Java and hands them to JDBC as their 16 bytes.
+ */
+public class UuidStringTypeDescriptor extends AbstractTypeDescriptor<String> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final UuidStringTypeDescriptor INSTANCE = new UuidStringTypeDescriptor();
+
+	public UuidStringTypeDescriptor() {
+		super(String.class);
+	}
+
+	@Override
+	public String toString(String value) {
+		return value;
+	}
+
+	@Override
+	public String fromString(String string) {
+		return string;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+		if (value == null) return null;
+		if (byte[].class.isAssignableFrom(type)) return (X) TimeOrderedIds.toBytes(value);
+		if (String.class.isAssignableFrom(type)) return (X) value;
+		throw unknownUnwrap(type);
+	}
+
+	@Override
+	public <X> String wrap(X value, WrapperOptions options) {
+		if (value == null) return null;
+		if (value instanceof byte[]) return TimeOrderedIds.fromBytes((byte[]) value);
+		if (value instanceof String) return (String) value;
+		throw unknownWrap(value.getClass());
+	}
+}
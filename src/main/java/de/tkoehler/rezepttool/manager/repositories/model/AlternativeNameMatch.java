@@ -0,0 +1,23 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@Builder
+public class AlternativeNameMatch {
+
+	private final String alternativeName;
+	private final String ingredientId;
+	private final String name;
+	private final String department;
+
+	public AlternativeNameMatch(String alternativeName, String ingredientId, String name, String department) {
+		this.alternativeName = alternativeName;
+		this.ingredientId = ingredientId;
+		this.name = name;
+		this.department = department;
+	}
+}
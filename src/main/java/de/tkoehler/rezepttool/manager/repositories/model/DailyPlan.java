@@ -14,10 +14,13 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import org.hibernate.annotations.Type;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+import de.tkoehler.rezepttool.manager.repositories.ids.UuidBinaryType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,7 +36,8 @@ import lombok.NoArgsConstructor;
 public class DailyPlan {
 
 	@Id
-	@Column(length = 36, nullable = false)
+	@Type(type = UuidBinaryType.NAME)
+	@Column(length = TimeOrderedIds.BYTES, nullable = false)
 	@EqualsAndHashCode.Exclude
 	private String id;
 
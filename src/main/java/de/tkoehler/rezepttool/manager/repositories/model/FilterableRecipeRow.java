@@ -0,0 +1,25 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+
+/**
+ * One row of the joined filterable recipe query: either a category or an
+ * ingredient name of a recipe, the other one is null.
+ */
+public interface FilterableRecipeRow {
+	/**
+	 * The stored 16 bytes of the recipe id, a native query bypasses the id
+	 * type of the entity.
+	 */
+	byte[] getRecipeKey();
+
+	default String getRecipeId() {
+		return TimeOrderedIds.fromBytes(getRecipeKey());
+	}
+
+	String getRecipeName();
+
+	String getCategory();
+
+	String getIngredient();
+}
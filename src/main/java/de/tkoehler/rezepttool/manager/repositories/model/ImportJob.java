@@ -0,0 +1,56 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tblimportjobs")
+public class ImportJob {
+
+	@Id
+	@Column(length = 36, nullable = false)
+	@EqualsAndHashCode.Exclude
+	private String id;
+
+	@Column(length = 2000, nullable = false)
+	private String url;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20, nullable = false)
+	private ImportJobStatus status;
+
+	@Lob
+	private String recipe;
+
+	@Column(length = 1000)
+	private String error;
+
+	@Column(length = 255)
+	private String owner;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(nullable = false)
+	private Date created;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date updated;
+}
@@ -0,0 +1,9 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+public enum ImportJobStatus {
+	QUEUED, RUNNING, FINISHED, FAILED;
+
+	public boolean isDone() {
+		return this == FINISHED || this == FAILED;
+	}
+}
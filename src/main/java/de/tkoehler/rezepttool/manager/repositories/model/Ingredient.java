@@ -8,28 +8,50 @@ import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 
+import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+import de.tkoehler.rezepttool.manager.repositories.ids.UuidBinaryType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder()
 @Entity
-@Table(name = "tblingredients", uniqueConstraints = { @UniqueConstraint(columnNames = { "name", "department" }) })
-public class Ingredient {
+@Table(name = "tblingredients", uniqueConstraints = { @UniqueConstraint(columnNames = { "name", "department" }) }, indexes = { @Index(name = "idx_ingredients_name_id", columnList = "name, id") })
+public class Ingredient implements Persistable<String> {
 
 	@Id
-	@Column(length = 36, nullable = false)
+	@Type(type = UuidBinaryType.NAME)
+	@Column(length = TimeOrderedIds.BYTES, nullable = false)
 	@EqualsAndHashCode.Exclude
 	private String id;
 
+	/**
+	 * True for an ingredient with a generated id, see
+	 * {@link RecipeEntity#isNew()}.
+	 */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private boolean isNew;
+
 	@Column(length = 100, nullable = false)
 	private String name;
 
@@ -43,4 +65,16 @@ public class Ingredient {
 	private String department;
 	
 	private boolean present;
+
+	@Override
+	@JsonIgnore
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		isNew = false;
+	}
 }
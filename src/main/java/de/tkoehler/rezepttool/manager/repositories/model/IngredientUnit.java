@@ -0,0 +1,86 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Units used in ingredient amounts. Weights and volumes know their base unit,
+ * so quantities in kg or l can be added to quantities in g or ml.
+ */
+public enum IngredientUnit {
+	PIECE("Stück", "stück", "stk.", "stk", "st."),
+	GRAM("g", "g", "gr", "gr.", "gramm"),
+	KILOGRAM("kg", GRAM, 1000, "kg", "kilo"),
+	MILLIGRAM("mg", GRAM, 0.001, "mg"),
+	MILLILITER("ml", "ml"),
+	CENTILITER("cl", MILLILITER, 10, "cl"),
+	DECILITER("dl", MILLILITER, 100, "dl"),
+	LITER("l", MILLILITER, 1000, "l", "liter", "ltr."),
+	TABLESPOON("EL", "el", "esslöffel", "el."),
+	TEASPOON("TL", "tl", "teelöffel", "tl."),
+	KNIFE_TIP("Msp.", "msp.", "msp", "messerspitze"),
+	PINCH("Prise", "prise", "prise(n)", "prisen"),
+	PACKAGE("Pck.", "pck.", "pck", "pkt.", "päckchen", "packung", "pack"),
+	CAN("Dose", "dose", "dose(n)", "dosen"),
+	TUB("Becher", "becher"),
+	BUNCH("Bund", "bund"),
+	CLOVE("Zehe", "zehe", "zehe/n", "zehe(n)", "zehen"),
+	SLICE("Scheibe", "scheibe", "scheibe/n", "scheibe(n)", "scheiben"),
+	CUP("Tasse", "tasse", "tasse(n)", "tassen"),
+	DASH("Spritzer", "spritzer", "schuss"),
+	BOWL("Schälchen", "schälchen"),
+	JAR("Glas", "glas", "gläser"),
+	HANDFUL("Handvoll", "handvoll"),
+	DROP("Tropfen", "tropfen"),
+	LEAF("Blatt", "blatt", "blätter"),
+	STALK("Stange", "stange", "stange/n", "stange(n)", "stangen"),
+	CUBE("Würfel", "würfel"),
+	BAG("Beutel", "beutel"),
+	HEAD("Kopf", "kopf"),
+	BULB("Knolle", "knolle", "knollen"),
+	SPRIG("Zweig", "zweig", "zweig(e)", "zweige");
+
+	private final String symbol;
+	private final IngredientUnit baseUnit;
+	private final double baseFactor;
+	private final List<String> spellings;
+
+	private IngredientUnit(String symbol, String... spellings) {
+		this(symbol, null, 1, spellings);
+	}
+
+	private IngredientUnit(String symbol, IngredientUnit baseUnit, double baseFactor, String... spellings) {
+		this.symbol = symbol;
+		this.baseUnit = baseUnit;
+		this.baseFactor = baseFactor;
+		this.spellings = Collections.unmodifiableList(Arrays.asList(spellings));
+	}
+
+	public String getSymbol() {
+		return symbol;
+	}
+
+	/**
+	 * @return the unit quantities of this unit can be converted to, or the unit
+	 *         itself
+	 */
+	public IngredientUnit getBaseUnit() {
+		return baseUnit == null ? this : baseUnit;
+	}
+
+	public double toBaseQuantity(double quantity) {
+		return quantity * baseFactor;
+	}
+
+	public double fromBaseQuantity(double baseQuantity) {
+		return baseQuantity / baseFactor;
+	}
+
+	/**
+	 * @return the lower case spellings found in ingredient lines
+	 */
+	public List<String> getSpellings() {
+		return spellings;
+	}
+}
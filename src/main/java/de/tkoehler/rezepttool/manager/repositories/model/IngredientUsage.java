@@ -0,0 +1,19 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@Builder
+public class IngredientUsage {
+
+	private final String ingredientId;
+	private final long usages;
+
+	public IngredientUsage(String ingredientId, long usages) {
+		this.ingredientId = ingredientId;
+		this.usages = usages;
+	}
+}
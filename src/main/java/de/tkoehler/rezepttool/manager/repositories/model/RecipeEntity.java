@@ -5,37 +5,61 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.persistence.Basic;
 import javax.persistence.CascadeType;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 
+import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+import de.tkoehler.rezepttool.manager.repositories.ids.UuidBinaryType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tblrecipes", uniqueConstraints = { @UniqueConstraint(columnNames = { "url", "name" }) })
-public class RecipeEntity {
+@Table(name = "tblrecipes", uniqueConstraints = { @UniqueConstraint(columnNames = { "url", "name" }) }, indexes = { @Index(name = "idx_recipes_name_id", columnList = "name, id") })
+public class RecipeEntity implements Persistable<String> {
 	@Id
-	@Column(length = 36, nullable = false)
+	@Type(type = UuidBinaryType.NAME)
+	@Column(length = TimeOrderedIds.BYTES, nullable = false)
 	@EqualsAndHashCode.Exclude
 	private String id;
 
+	/**
+	 * Set by the mapper when it generated the ids of the recipe, its lines and
+	 * their ingredients. Saving a new recipe persists it right away, a merge
+	 * would select every entity of the graph before inserting it.
+	 */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private boolean isNew;
+
 	@Column(length = 200, nullable = false)
 	private String url;
 
@@ -60,6 +84,8 @@ public class RecipeEntity {
 	}
 
 	@Lob
+	@Basic(fetch = FetchType.LAZY)
+	@ToString.Exclude
 	private String instructions;
 
 	@Column(length = 20)
@@ -98,4 +124,16 @@ public class RecipeEntity {
 	// break;
 	// }
 	// }
+
+	@Override
+	@JsonIgnore
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		isNew = false;
+	}
 }
@@ -0,0 +1,36 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@Builder
+public class RecipeHeader {
+
+	private final String id;
+	private final String url;
+	private final String name;
+	private final String additionalInformation;
+	private final String portions;
+	private final String workTime;
+	private final String cookTime;
+	private final String restTime;
+	private final String difficulty;
+	private final String callories;
+
+	public RecipeHeader(String id, String url, String name, String additionalInformation, String portions, String workTime, String cookTime, String restTime,
+			String difficulty, String callories) {
+		this.id = id;
+		this.url = url;
+		this.name = name;
+		this.additionalInformation = additionalInformation;
+		this.portions = portions;
+		this.workTime = workTime;
+		this.cookTime = cookTime;
+		this.restTime = restTime;
+		this.difficulty = difficulty;
+		this.callories = callories;
+	}
+}
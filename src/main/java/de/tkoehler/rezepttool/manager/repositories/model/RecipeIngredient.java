@@ -3,13 +3,24 @@ package de.tkoehler.rezepttool.manager.repositories.model;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+import de.tkoehler.rezepttool.manager.repositories.ids.UuidBinaryType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,13 +34,22 @@ import lombok.ToString;
 @Builder
 @Entity
 @Table(name = "tblrecipeingredients")
-public class RecipeIngredient {
+public class RecipeIngredient implements Persistable<String> {
 
 	@Id
-	@Column(length = 36, nullable = false)
+	@Type(type = UuidBinaryType.NAME)
+	@Column(length = TimeOrderedIds.BYTES, nullable = false)
 	@EqualsAndHashCode.Exclude
 	private String id;
 
+	/**
+	 * True for a line with a generated id, see {@link RecipeEntity#isNew()}.
+	 */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private boolean isNew;
+
 	@ManyToOne(cascade = { CascadeType.MERGE, CascadeType.PERSIST, CascadeType.DETACH, CascadeType.REFRESH, CascadeType.REMOVE })
 	@JoinColumn(nullable = false)
 	@JsonBackReference
@@ -39,8 +59,26 @@ public class RecipeIngredient {
 	@Column(length = 50)
 	private String amount;
 
+	private Double quantity;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20)
+	private IngredientUnit unit;
+
 	@ManyToOne(cascade = { CascadeType.MERGE, CascadeType.PERSIST, CascadeType.DETACH, CascadeType.REFRESH })
 	@JoinColumn(nullable = false)
 	@JsonBackReference
 	private Ingredient ingredient;
+
+	@Override
+	@JsonIgnore
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		isNew = false;
+	}
 }
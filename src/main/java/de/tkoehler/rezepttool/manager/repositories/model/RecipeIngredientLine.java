@@ -0,0 +1,34 @@
+package de.tkoehler.rezepttool.manager.repositories.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@Builder
+public class RecipeIngredientLine {
+
+	private final String recipeId;
+	private final String recipeIngredientId;
+	private final String amount;
+	private final Double quantity;
+	private final IngredientUnit unit;
+	private final String ingredientId;
+	private final String name;
+	private final String department;
+	private final boolean present;
+
+	public RecipeIngredientLine(String recipeId, String recipeIngredientId, String amount, Double quantity, IngredientUnit unit, String ingredientId, String name,
+			String department, boolean present) {
+		this.recipeId = recipeId;
+		this.recipeIngredientId = recipeIngredientId;
+		this.amount = amount;
+		this.quantity = quantity;
+		this.unit = unit;
+		this.ingredientId = ingredientId;
+		this.name = name;
+		this.department = department;
+		this.present = present;
+	}
+}
@@ -9,10 +9,16 @@ import lombok.ToString;
 @Builder
 public class TinyIngredient {
 
+	private final String id;
 	private final String name;
 	private final String department;
 
 	public TinyIngredient(String name, String department) {
+		this(null, name, department);
+	}
+
+	public TinyIngredient(String id, String name, String department) {
+		this.id = id;
 		this.name = name;
 		this.department = department;
 	}
@@ -1,11 +1,18 @@
 package de.tkoehler.rezepttool.manager.restcontroller;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.ImportJobResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeImportResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSaveResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyIngredientPage;
 
 public interface CreateRecipeController {
 
@@ -15,8 +22,24 @@ public interface CreateRecipeController {
 
 	ResponseEntity<List<TinyIngredient>> loadTinyIngredients();
 
+	ResponseEntity<TinyIngredientPage> loadTinyIngredientPage(String token, int size);
+
+	ResponseEntity<List<IngredientMatch>> matchIngredients(String name, int limit);
+
 	ResponseEntity<RecipeWebInput> loadRecipeFromExternalURL(String json);
 
+	ResponseEntity<List<RecipeImportResult>> loadRecipesFromExternalURLs(List<String> urls);
+
+	ResponseEntity<ImportJobResult> createImportJob(String json);
+
+	ResponseEntity<ImportJobResult> loadImportJob(String id);
+
+	ResponseEntity<SseEmitter> streamImportJob(String id);
+
 	ResponseEntity<String> saveRecipe(RecipeWebInput newRecipe);
 
+	ResponseEntity<List<RecipeSaveResult>> saveRecipes(List<RecipeWebInput> newRecipes);
+
+	ResponseEntity<List<RecipeSaveResult>> saveRecipeStream(InputStream newRecipes);
+
 }
\ No newline at end of file
@@ -1,9 +1,20 @@
 package de.tkoehler.rezepttool.manager.restcontroller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -14,14 +25,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.ImportJobResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeImportResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSaveResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyIngredientPage;
+import de.tkoehler.rezepttool.manager.services.BulkEditorService;
 import de.tkoehler.rezepttool.manager.services.EditorService;
+import de.tkoehler.rezepttool.manager.services.ImportJobService;
 import de.tkoehler.rezepttool.manager.services.ImporterService;
 import de.tkoehler.rezepttool.manager.services.ManagerService;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceIDNotFoundException;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
 import lombok.extern.slf4j.Slf4j;
 
 @Controller
@@ -30,14 +52,29 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/recipe/create")
 public class CreateRecipeControllerImpl implements CreateRecipeController {
 
+	private static final long IMPORT_JOB_STREAM_TIMEOUT = 120000L;
+	private static final int MAX_INGREDIENT_MATCHES = 50;
+	private static final int MAX_TINY_PAGE_SIZE = 500;
+
+	private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
 	private ImporterService importerService;
+	private ImportJobService importJobService;
 	private ManagerService managerService;
 	private EditorService editorService;
+	private BulkEditorService bulkEditorService;
+	private ObjectReader recipeReader;
+	private Validator validator;
 
-	public CreateRecipeControllerImpl(ImporterService importerService, ManagerService managerService, EditorService editorService) {
+	public CreateRecipeControllerImpl(ImporterService importerService, ImportJobService importJobService, ManagerService managerService, EditorService editorService,
+			BulkEditorService bulkEditorService, ObjectMapper objectMapper, Validator validator) {
 		this.importerService = importerService;
+		this.importJobService = importJobService;
 		this.managerService = managerService;
 		this.editorService = editorService;
+		this.bulkEditorService = bulkEditorService;
+		this.recipeReader = objectMapper.readerFor(RecipeWebInput.class);
+		this.validator = validator;
 	}
 
 	@Override
@@ -74,6 +111,25 @@ public class CreateRecipeControllerImpl implements CreateRecipeController {
 		return new ResponseEntity<>(managerService.findAllTinyIngredients(), HttpStatus.OK);
 	}
 
+	@Override
+	@RequestMapping(path = "/ingredient/loadTinyPage", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<TinyIngredientPage> loadTinyIngredientPage(@RequestParam(required = false) String token, @RequestParam(defaultValue = "100") int size) {
+		if (size < 1) return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		try {
+			return new ResponseEntity<>(managerService.findTinyIngredientPage(token, Math.min(size, MAX_TINY_PAGE_SIZE)), HttpStatus.OK);
+		}
+		catch (ManagerServiceException e) {
+			return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		}
+	}
+
+	@Override
+	@RequestMapping(path = "/ingredient/match", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<IngredientMatch>> matchIngredients(@RequestParam String name, @RequestParam(defaultValue = "10") int limit) {
+		if (limit < 1) return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+		return new ResponseEntity<>(managerService.findMatchingIngredients(name, Math.min(limit, MAX_INGREDIENT_MATCHES)), HttpStatus.OK);
+	}
+
 	@Override
 	@RequestMapping(path = "/loadFromURL", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
 	public ResponseEntity<RecipeWebInput> loadRecipeFromExternalURL(@RequestBody final String json) {
@@ -90,6 +146,89 @@ public class CreateRecipeControllerImpl implements CreateRecipeController {
 		return new ResponseEntity<>(result, HttpStatus.OK);
 	}
 
+	@Override
+	@RequestMapping(path = "/loadFromURLs", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<RecipeImportResult>> loadRecipesFromExternalURLs(@RequestBody final List<String> urls) {
+		log.info("RequestBody: " + urls);
+		List<RecipeImportResult> result = null;
+		try {
+			result = importerService.loadRecipesFromExternal(urls);
+		}
+		catch (Exception e) {
+			log.error("Fehler beim Erstellen!", e);
+			return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<>(result, HttpStatus.OK);
+	}
+
+	@Override
+	@RequestMapping(path = "/job/start", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ImportJobResult> createImportJob(@RequestBody final String json) {
+		log.info("RequestBody: " + json);
+		ImportJobResult result = null;
+		try {
+			ObjectMapper mapper = new ObjectMapper();
+			result = importJobService.createImportJob(mapper.readValue(json, String.class));
+		}
+		catch (Exception e) {
+			log.error("Fehler beim Erstellen!", e);
+			return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<>(result, HttpStatus.ACCEPTED);
+	}
+
+	@Override
+	@RequestMapping(path = "/job/load", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ImportJobResult> loadImportJob(@RequestParam String id) {
+		try {
+			return new ResponseEntity<>(importJobService.loadImportJob(id), HttpStatus.OK);
+		}
+		catch (ImporterServiceIDNotFoundException e) {
+			return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+		}
+		catch (Exception e) {
+			log.error("Fehler beim Laden!", e);
+			return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	@Override
+	@RequestMapping(path = "/job/stream", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamImportJob(@RequestParam String id) {
+		SseEmitter emitter = new SseEmitter(IMPORT_JOB_STREAM_TIMEOUT);
+		try {
+			ImportJobResult current = importJobService.loadImportJob(id);
+			emitter.send(current, MediaType.APPLICATION_JSON);
+			if (current.getStatus().isDone()) emitter.complete();
+			else {
+				CompletableFuture<ImportJobResult> watch = importJobService.watchImportJob(id);
+				emitter.onCompletion(() -> watch.cancel(false));
+				emitter.onTimeout(() -> watch.cancel(false));
+				watch.whenComplete((result, error) -> completeImportJobStream(emitter, result, error));
+			}
+		}
+		catch (ImporterServiceIDNotFoundException e) {
+			return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+		}
+		catch (Exception e) {
+			log.error("Fehler beim Laden!", e);
+			return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<>(emitter, HttpStatus.OK);
+	}
+
+	private void completeImportJobStream(SseEmitter emitter, ImportJobResult result, Throwable error) {
+		if (error instanceof CancellationException) return;
+		try {
+			if (result != null) emitter.send(result, MediaType.APPLICATION_JSON);
+			if (error != null) emitter.completeWithError(error);
+			else emitter.complete();
+		}
+		catch (IOException | IllegalStateException e) {
+			emitter.completeWithError(e);
+		}
+	}
+
 	@Override
 	@RequestMapping(path = "/save", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
 	public ResponseEntity<String> saveRecipe(@Valid @RequestBody final RecipeWebInput newRecipe) {
@@ -103,4 +242,85 @@ public class CreateRecipeControllerImpl implements CreateRecipeController {
 		}
 		return new ResponseEntity<>("\"success\"", HttpStatus.OK);
 	}
+
+	@Override
+	@RequestMapping(path = "/saveAll", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<RecipeSaveResult>> saveRecipes(@RequestBody final List<RecipeWebInput> newRecipes) {
+		if (newRecipes == null) return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		if (!newRecipes.stream().allMatch(this::isValid)) return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		log.info("Saving " + newRecipes.size() + " recipes");
+		return saveAll(newRecipes.iterator());
+	}
+
+	/**
+	 * One recipe per line, read while saving so the request is never held in
+	 * memory as a whole. A line that cannot be read or is invalid is reported
+	 * as failed. If the stream breaks off, the recipes read so far are saved
+	 * and the rest is reported as failed.
+	 */
+	@Override
+	@RequestMapping(path = "/saveAll", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<List<RecipeSaveResult>> saveRecipeStream(final InputStream newRecipes) {
+		return saveAll(new NdjsonRecipeIterator(new BufferedReader(new InputStreamReader(newRecipes, StandardCharsets.UTF_8))));
+	}
+
+	private ResponseEntity<List<RecipeSaveResult>> saveAll(Iterator<RecipeWebInput> newRecipes) {
+		List<RecipeSaveResult> result = null;
+		try {
+			result = bulkEditorService.insertRecipes(newRecipes);
+		}
+		catch (Exception e) {
+			log.error("Fehler beim Erstellen!", e);
+			return new ResponseEntity<>(result, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<>(result, HttpStatus.OK);
+	}
+
+	/**
+	 * Same checks as @Valid on a single recipe, a missing list element is left
+	 * to the service to report.
+	 */
+	private boolean isValid(RecipeWebInput recipe) {
+		return recipe == null || validator.validate(recipe).isEmpty();
+	}
+
+	private class NdjsonRecipeIterator implements Iterator<RecipeWebInput> {
+		private final BufferedReader reader;
+		private String nextLine;
+
+		private NdjsonRecipeIterator(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while (nextLine == null || nextLine.trim().isEmpty()) {
+					nextLine = reader.readLine();
+					if (nextLine == null) return false;
+				}
+				return true;
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public RecipeWebInput next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			String line = nextLine;
+			nextLine = null;
+			try {
+				RecipeWebInput recipe = recipeReader.readValue(line);
+				if (isValid(recipe)) return recipe;
+				log.warn("Skipping invalid recipe line: " + line);
+				return null;
+			}
+			catch (IOException e) {
+				log.warn("Skipping unreadable recipe line: " + e.getMessage());
+				return null;
+			}
+		}
+	}
 }
@@ -0,0 +1,11 @@
+package de.tkoehler.rezepttool.manager.restcontroller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+public interface ImportPipelineController {
+
+	ResponseEntity<String> submitRecipeURLs(List<String> urls);
+
+}
@@ -0,0 +1,44 @@
+package de.tkoehler.rezepttool.manager.restcontroller;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import de.tkoehler.rezepttool.manager.services.ImportPipelineService;
+import lombok.extern.slf4j.Slf4j;
+
+@Controller
+@Slf4j
+@CrossOrigin
+@RequestMapping("/recipe/create/pipeline")
+@ConditionalOnProperty(name = "importer.pipeline.enabled", havingValue = "true")
+public class ImportPipelineControllerImpl implements ImportPipelineController {
+
+	private ImportPipelineService importPipelineService;
+
+	public ImportPipelineControllerImpl(ImportPipelineService importPipelineService) {
+		this.importPipelineService = importPipelineService;
+	}
+
+	@Override
+	@RequestMapping(path = "/submit", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<String> submitRecipeURLs(@RequestBody final List<String> urls) {
+		log.info("RequestBody: " + urls);
+		try {
+			importPipelineService.submitRecipeURLs(urls);
+		}
+		catch (Exception e) {
+			log.error("Fehler beim Erstellen!", e);
+			return new ResponseEntity<>("\"" + e.getMessage() + "\"", HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<>("\"success\"", HttpStatus.ACCEPTED);
+	}
+}
@@ -5,11 +5,17 @@ import java.util.List;
 import org.springframework.http.ResponseEntity;
 
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyRecipePage;
 
 public interface RecipeOverviewController {
 	ResponseEntity<List<TinyRecipe>> loadTinyRecipes();
 
+	ResponseEntity<TinyRecipePage> loadTinyRecipePage(String token, int size);
+
+	ResponseEntity<RecipeSearchResult> searchRecipes(String query, int page, int size);
+
 	ResponseEntity<String> deleteRecipe(String id);
 
 	ResponseEntity<RecipeWebInput> loadRecipe(String id);
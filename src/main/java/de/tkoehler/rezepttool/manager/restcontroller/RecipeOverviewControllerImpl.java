@@ -15,9 +15,12 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyRecipePage;
 import de.tkoehler.rezepttool.manager.services.EditorService;
 import de.tkoehler.rezepttool.manager.services.ManagerService;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
 import lombok.extern.slf4j.Slf4j;
 
 @Controller
@@ -26,6 +29,9 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/recipe/overview")
 public class RecipeOverviewControllerImpl implements RecipeOverviewController {
 
+	private static final int MAX_SEARCH_PAGE_SIZE = 100;
+	private static final int MAX_TINY_PAGE_SIZE = 500;
+
 	private ManagerService managerService;
 	private EditorService editorService;
 
@@ -40,6 +46,33 @@ public class RecipeOverviewControllerImpl implements RecipeOverviewController {
 		return new ResponseEntity<>(managerService.findAllTinyRecipes(), HttpStatus.OK);
 	}
 
+	@Override
+	@RequestMapping(path = "/loadTinyPage", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<TinyRecipePage> loadTinyRecipePage(@RequestParam(required = false) String token, @RequestParam(defaultValue = "100") int size) {
+		if (size < 1) return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		try {
+			return new ResponseEntity<>(managerService.findTinyRecipePage(token, Math.min(size, MAX_TINY_PAGE_SIZE)), HttpStatus.OK);
+		}
+		catch (ManagerServiceException e) {
+			return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		}
+	}
+
+	@Override
+	@RequestMapping(path = "/search", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<RecipeSearchResult> searchRecipes(@RequestParam String query, @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+		if (page < 0 || size < 1) return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		RecipeSearchResult result = null;
+		try {
+			result = managerService.searchRecipes(query, page, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+		}
+		catch (Exception e) {
+			log.error("Fehler bei der Suche!", e);
+			return new ResponseEntity<>(result, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<>(result, HttpStatus.OK);
+	}
+
 	@Override
 	@RequestMapping(path = "/delete", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
 	public ResponseEntity<String> deleteRecipe(@RequestParam String id) {
@@ -9,12 +9,17 @@ import org.springframework.http.ResponseEntity;
 import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
 import de.tkoehler.rezepttool.manager.restcontroller.model.DailyPlanWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryList;
 import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryPlan;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 
 public interface RecipePlannerController {
 	ResponseEntity<List<FilterableRecipe>> loadFilterableRecipes();
 
+	ResponseEntity<RecipeFilterResult> filterRecipes(RecipeFilterWebInput filter);
+
 	ResponseEntity<List<RecipeWebInput>> loadRecipes(TinyRecipe[] recipes);
 
 	ResponseEntity<String> checkIngredient(String checkIngredientJson);
@@ -24,4 +29,6 @@ public interface RecipePlannerController {
 	ResponseEntity<List<DailyPlanWebInput>> loadPlans(List<DailyPlanWebInput> plans);
 
 	ResponseEntity<GroceryPlan> loadIngredients(@Valid DailyPlanWebInput[] plans);
+
+	ResponseEntity<GroceryList> loadGroceryList(@Valid DailyPlanWebInput[] plans);
 }
@@ -19,7 +19,10 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
 import de.tkoehler.rezepttool.manager.restcontroller.model.DailyPlanWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryList;
 import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryPlan;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 import de.tkoehler.rezepttool.manager.services.EditorService;
 import de.tkoehler.rezepttool.manager.services.ManagerService;
@@ -32,6 +35,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/recipe/planner")
 public class RecipePlannerControllerImpl implements RecipePlannerController {
 
+	private static final int MAX_FILTER_PAGE_SIZE = 100;
+
 	private ManagerService managerService;
 	private EditorService editorService;
 	private PlannerService plannerService;
@@ -48,6 +53,14 @@ public class RecipePlannerControllerImpl implements RecipePlannerController {
 		return new ResponseEntity<>(managerService.findAllFilterableRecipes(), HttpStatus.OK);
 	}
 
+	@Override
+	@RequestMapping(path = "/filter", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<RecipeFilterResult> filterRecipes(@RequestBody final RecipeFilterWebInput filter) {
+		if (filter.getPage() < 0 || filter.getSize() < 1) return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+		filter.setSize(Math.min(filter.getSize(), MAX_FILTER_PAGE_SIZE));
+		return new ResponseEntity<>(managerService.filterRecipes(filter), HttpStatus.OK);
+	}
+
 	@Override
 	@RequestMapping(path = "/loadRecipes", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
 	public ResponseEntity<List<RecipeWebInput>> loadRecipes(@Valid @RequestBody final TinyRecipe[] recipes) {
@@ -97,6 +110,21 @@ public class RecipePlannerControllerImpl implements RecipePlannerController {
 		return new ResponseEntity<>(result, HttpStatus.OK);
 	}
 
+	@Override
+	@RequestMapping(path = "/loadGroceryList", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<GroceryList> loadGroceryList(@Valid @RequestBody final DailyPlanWebInput[] plans) {
+		GroceryList result = null;
+		try {
+			result = plannerService.loadGroceryList(plans);
+		}
+		catch (Exception e) {
+			log.info("Error", e);
+			return new ResponseEntity<>(result, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		log.info("Success");
+		return new ResponseEntity<>(result, HttpStatus.OK);
+	}
+
 	@Override
 	@RequestMapping(path = "/check", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
 	public ResponseEntity<String> checkIngredient(@RequestBody final String checkIngredientJson) {
@@ -0,0 +1,25 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryLine {
+
+	private String ingredientId;
+	private String name;
+	private Double quantity;
+	private String unit;
+	@Builder.Default
+	private List<String> amounts = new ArrayList<>();
+
+	private boolean present;
+}
@@ -0,0 +1,24 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import java.util.Date;
+
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobResult {
+
+	private String id;
+	private String url;
+	private ImportJobStatus status;
+	private RecipeWebInput recipe;
+	private String error;
+	private Date created;
+	private Date updated;
+}
@@ -0,0 +1,19 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngredientMatch {
+
+	private String ingredientId;
+	private String name;
+	private String department;
+	private String matchedName;
+	private double score;
+}
@@ -0,0 +1,37 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Recipe filter of the planner. A recipe matches if it has all of the "all"
+ * entries, at least one of the "any" entries (if there are any) and none of
+ * the "none" entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeFilterWebInput {
+	@Builder.Default
+	private List<String> allCategories = new ArrayList<>();
+	@Builder.Default
+	private List<String> anyCategories = new ArrayList<>();
+	@Builder.Default
+	private List<String> noneCategories = new ArrayList<>();
+	@Builder.Default
+	private List<String> allIngredients = new ArrayList<>();
+	@Builder.Default
+	private List<String> anyIngredients = new ArrayList<>();
+	@Builder.Default
+	private List<String> noneIngredients = new ArrayList<>();
+
+	private int page;
+	@Builder.Default
+	private int size = 20;
+}
@@ -0,0 +1,17 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeImportResult {
+
+	private String url;
+	private RecipeWebInput recipe;
+	private String error;
+}
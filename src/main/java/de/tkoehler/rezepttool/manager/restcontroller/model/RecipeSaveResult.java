@@ -0,0 +1,18 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeSaveResult {
+
+	private String url;
+	private String name;
+	private String id;
+	private String error;
+}
@@ -0,0 +1,16 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeSearchHit {
+	private String id;
+	private String name;
+	private float score;
+}
@@ -0,0 +1,19 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeSearchResult {
+	private int page;
+	private int size;
+	private long totalElements;
+	private List<RecipeSearchHit> recipes;
+}
@@ -0,0 +1,18 @@
+package de.tkoehler.rezepttool.manager.restcontroller.model;
+
+import java.util.List;
+
+import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TinyRecipePage {
+	private List<TinyRecipe> recipes;
+	private String nextToken;
+}
@@ -0,0 +1,19 @@
+package de.tkoehler.rezepttool.manager.services;
+
+import java.util.Iterator;
+import java.util.List;
+
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSaveResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
+
+public interface BulkEditorService {
+
+	/**
+	 * @return one result per recipe in input order, with the new id or the
+	 *         reason it was not saved, and a last failed result for the rest
+	 *         of the input if the iterator throws an
+	 *         {@link java.io.UncheckedIOException}
+	 */
+	List<RecipeSaveResult> insertRecipes(Iterator<RecipeWebInput> newRecipes) throws EditorServiceException;
+}
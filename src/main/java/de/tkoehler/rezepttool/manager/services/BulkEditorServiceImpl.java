@@ -0,0 +1,206 @@
+package de.tkoehler.rezepttool.manager.services;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import de.tkoehler.rezepttool.manager.application.mappers.WebInputToRecipeEntityMapper;
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSaveResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts many recipes in chunks, each chunk in its own transaction. A chunk
+ * checks its recipes against the existing ones and resolves its ingredients
+ * with one query each; ingredients shared by several recipes of the chunk are
+ * written once. If a chunk fails, its recipes are retried one by one so that
+ * only the broken recipe is reported as failed. The list caches are evicted
+ * after every committed chunk, an input that breaks off later must not hide
+ * the recipes saved so far. If reading the input fails, the recipes read so
+ * far are saved and the rest is reported by one failed result.
+ */
+@Component
+@Slf4j
+public class BulkEditorServiceImpl implements BulkEditorService {
+
+	private static final String[] LIST_CACHES = { CacheNames.TINY_RECIPES, CacheNames.TINY_RECIPE_PAGES, CacheNames.TINY_INGREDIENTS, CacheNames.TINY_INGREDIENT_PAGES,
+			CacheNames.INGREDIENT_SEARCH };
+
+	private final RecipeRepository recipeRepository;
+	private final IngredientRepository ingredientRepository;
+	private final WebInputToRecipeEntityMapper webInputToRecipeEntityMapper;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final CacheManager cacheManager;
+	private final int chunkSize;
+
+	public BulkEditorServiceImpl(RecipeRepository recipeRepository, IngredientRepository ingredientRepository, WebInputToRecipeEntityMapper webInputToRecipeEntityMapper,
+			ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager, CacheManager cacheManager,
+			@Value("${manager.bulkSave.chunkSize:100}") int chunkSize) {
+		this.recipeRepository = recipeRepository;
+		this.ingredientRepository = ingredientRepository;
+		this.webInputToRecipeEntityMapper = webInputToRecipeEntityMapper;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.cacheManager = cacheManager;
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
+	@Override
+	public List<RecipeSaveResult> insertRecipes(Iterator<RecipeWebInput> newRecipes) throws EditorServiceException {
+		if (newRecipes == null) throw new EditorServiceException("Parameter must not be empty!");
+		List<RecipeSaveResult> results = new ArrayList<>();
+		List<RecipeWebInput> chunk = new ArrayList<>(chunkSize);
+		UncheckedIOException unreadRest = null;
+		while (true) {
+			try {
+				if (!newRecipes.hasNext()) break;
+				chunk.add(newRecipes.next());
+			}
+			catch (UncheckedIOException e) {
+				log.warn("Reading the recipes broke off after " + (results.size() + chunk.size()) + " recipes", e);
+				unreadRest = e;
+				break;
+			}
+			if (chunk.size() == chunkSize) {
+				results.addAll(saveChunk(chunk));
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) results.addAll(saveChunk(chunk));
+		if (unreadRest != null) results.add(RecipeSaveResult.builder().error("Remaining recipes could not be read: " + unreadRest.getCause().getMessage()).build());
+		return results;
+	}
+
+	private List<RecipeSaveResult> saveChunk(List<RecipeWebInput> chunk) {
+		try {
+			List<RecipeSaveResult> results = transactionTemplate.execute(status -> saveInTransaction(chunk));
+			evictListCaches();
+			return results;
+		}
+		catch (RuntimeException e) {
+			if (chunk.size() == 1) return Collections.singletonList(failed(chunk.get(0), e));
+			log.warn("Saving " + chunk.size() + " recipes failed, retrying them one by one", e);
+			List<RecipeSaveResult> results = new ArrayList<>();
+			for (RecipeWebInput recipe : chunk) {
+				results.addAll(saveChunk(Collections.singletonList(recipe)));
+			}
+			return results;
+		}
+	}
+
+	private List<RecipeSaveResult> saveInTransaction(List<RecipeWebInput> chunk) {
+		Set<String> urls = chunk.stream().filter(Objects::nonNull).map(RecipeWebInput::getUrl).filter(Objects::nonNull).collect(Collectors.toSet());
+		Set<String> knownRecipes = urls.isEmpty() ? new HashSet<>()
+				: recipeRepository.findHeadersByUrlIn(urls).stream().map(r -> recipeKey(r.getUrl(), r.getName())).collect(Collectors.toSet());
+		Set<String> names = chunk.stream().filter(Objects::nonNull).filter(r -> r.getIngredients() != null).flatMap(r -> r.getIngredients().stream()).map(IngredientWebInput::getName).filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		Map<String, Ingredient> ingredients = new HashMap<>();
+		if (!names.isEmpty()) {
+			for (Ingredient ingredient : ingredientRepository.findAllWithAlternativeNamesByNameIn(names)) {
+				ingredients.put(ingredientKey(ingredient), ingredient);
+			}
+		}
+
+		List<RecipeSaveResult> results = new ArrayList<>();
+		List<RecipeEntity> recipes = new ArrayList<>();
+		for (RecipeWebInput newRecipe : chunk) {
+			if (newRecipe == null) {
+				results.add(RecipeSaveResult.builder().error("Recipe could not be read!").build());
+				continue;
+			}
+			if (!knownRecipes.add(recipeKey(newRecipe.getUrl(), newRecipe.getName()))) {
+				results.add(failed(newRecipe, "Recipe already exists!"));
+				continue;
+			}
+			RecipeEntity recipe = webInputToRecipeEntityMapper.process(newRecipe);
+			for (RecipeIngredient recipeIngredient : recipe.getIngredients()) {
+				recipeIngredient.setIngredient(shared(ingredients, recipeIngredient.getIngredient()));
+			}
+			recipes.add(recipe);
+			results.add(RecipeSaveResult.builder()
+					.url(recipe.getUrl())
+					.name(recipe.getName())
+					.id(recipe.getId())
+					.build());
+		}
+		recipeRepository.saveAll(recipes);
+		recipes.forEach(this::publishRecipeChanged);
+		return results;
+	}
+
+	/**
+	 * @return the ingredient already known under the same name and department,
+	 *         with the alternative names of the given one added
+	 */
+	private static Ingredient shared(Map<String, Ingredient> ingredients, Ingredient ingredient) {
+		Ingredient known = ingredients.putIfAbsent(ingredientKey(ingredient), ingredient);
+		if (known == null) return ingredient;
+		known.getAlternativeNames().addAll(ingredient.getAlternativeNames());
+		return known;
+	}
+
+	private void evictListCaches() {
+		for (String name : LIST_CACHES) {
+			Cache cache = cacheManager.getCache(name);
+			if (cache != null) cache.clear();
+		}
+	}
+
+	private void publishRecipeChanged(RecipeEntity recipe) {
+		eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), recipe.getName(), recipe.getCategories(), recipe.getIngredients().stream()
+				.map(RecipeIngredient::getIngredient)
+				.collect(Collectors.toList())));
+	}
+
+	private static RecipeSaveResult failed(RecipeWebInput recipe, RuntimeException e) {
+		return failed(recipe, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+	}
+
+	private static RecipeSaveResult failed(RecipeWebInput recipe, String error) {
+		return RecipeSaveResult.builder()
+				.url(recipe == null ? null : recipe.getUrl())
+				.name(recipe == null ? null : recipe.getName())
+				.error(error)
+				.build();
+	}
+
+	private static String recipeKey(String url, String name) {
+		return url + '\n' + name;
+	}
+
+	/**
+	 * Case-insensitive like the collation of the unique key on name and
+	 * department.
+	 */
+	private static String ingredientKey(Ingredient ingredient) {
+		String name = ingredient.getName() == null ? "" : ingredient.getName().toLowerCase(Locale.GERMAN);
+		String department = ingredient.getDepartment() == null ? "" : ingredient.getDepartment().toLowerCase(Locale.GERMAN);
+		return name + '\n' + department;
+	}
+}
@@ -0,0 +1,21 @@
+package de.tkoehler.rezepttool.manager.services;
+
+/**
+ * Caches of the read-mostly service queries. Every cache is evicted by the
+ * writes that change its content, see {@link EditorServiceImpl},
+ * {@link BulkEditorServiceImpl} and {@link PlannerServiceImpl}.
+ */
+public final class CacheNames {
+
+	public static final String RECIPES = "recipes";
+	public static final String TINY_RECIPES = "tinyRecipes";
+	public static final String TINY_RECIPE_PAGES = "tinyRecipePages";
+	public static final String TINY_INGREDIENTS = "tinyIngredients";
+	public static final String TINY_INGREDIENT_PAGES = "tinyIngredientPages";
+	public static final String INGREDIENT_SEARCH = "ingredientSearch";
+
+	public static final String[] ALL = { RECIPES, TINY_RECIPES, TINY_RECIPE_PAGES, TINY_INGREDIENTS, TINY_INGREDIENT_PAGES, INGREDIENT_SEARCH };
+
+	private CacheNames() {
+	}
+}
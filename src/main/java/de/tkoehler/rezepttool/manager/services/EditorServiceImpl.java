@@ -2,7 +2,12 @@ package de.tkoehler.rezepttool.manager.services;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,10 +17,12 @@ import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
 import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredient;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
 import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceIDNotFoundException;
 import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceRecipeExistsException;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
 
 @Component
 @Transactional
@@ -25,56 +32,91 @@ public class EditorServiceImpl implements EditorService {
 	private final IngredientRepository ingredientRepository;
 	private final RecipeEntityToWebInputMapper recipeEntityToWebInputMapper;
 	private final WebInputToRecipeEntityMapper webInputToRecipeEntityMapper;
+	private final ApplicationEventPublisher eventPublisher;
 
 	public EditorServiceImpl(RecipeRepository recipeRepository, IngredientRepository ingredientRepository, RecipeEntityToWebInputMapper recipeEntityToWebInputMapper,
-			WebInputToRecipeEntityMapper webInputToRecipeEntityMapper) {
+			WebInputToRecipeEntityMapper webInputToRecipeEntityMapper, ApplicationEventPublisher eventPublisher) {
 		this.recipeRepository = recipeRepository;
 		this.ingredientRepository = ingredientRepository;
 		this.recipeEntityToWebInputMapper = recipeEntityToWebInputMapper;
 		this.webInputToRecipeEntityMapper = webInputToRecipeEntityMapper;
+		this.eventPublisher = eventPublisher;
 	}
 
+	/**
+	 * Loads the recipe with instructions and categories, then fills the
+	 * ingredients of the same instance with a second query.
+	 */
 	@Override
+	@Cacheable(CacheNames.RECIPES)
+	@Transactional(readOnly = true)
 	public RecipeWebInput loadRecipe(String id) throws EditorServiceException {
 		checkNullParameter(id);
-		Optional<RecipeEntity> result = recipeRepository.findById(id);
-		if (result.isPresent()) return recipeEntityToWebInputMapper.process(result.get());
-		else throw new EditorServiceIDNotFoundException("ID could not be found!");
+		Optional<RecipeEntity> result = recipeRepository.findWithCategoriesById(id);
+		if (!result.isPresent()) throw new EditorServiceIDNotFoundException("ID could not be found!");
+		recipeRepository.findWithIngredientsById(id);
+		return recipeEntityToWebInputMapper.process(result.get());
 	}
 
 	@Override
+	@CacheEvict(cacheNames = { CacheNames.TINY_RECIPES, CacheNames.TINY_RECIPE_PAGES, CacheNames.TINY_INGREDIENTS, CacheNames.TINY_INGREDIENT_PAGES,
+			CacheNames.INGREDIENT_SEARCH }, allEntries = true)
 	public void insertRecipe(RecipeWebInput newRecipe) throws EditorServiceException {
 		checkNullParameter(newRecipe);
 		checkForExistingRecipe(newRecipe);
 		RecipeEntity recipe = webInputToRecipeEntityMapper.process(newRecipe);
-		recipe.getIngredients().stream().forEach(i -> updateKnownIngredient(i.getIngredient()));
+		recipe.getIngredients().stream().forEach(this::updateKnownIngredient);
 		recipeRepository.save(recipe);
+		eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), recipe.getName(), recipe.getCategories(), ingredientsOf(recipe)));
 	}
 
 	@Override
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheNames.RECIPES, key = "#updatedRecipe.id"),
+			@CacheEvict(cacheNames = { CacheNames.TINY_RECIPES, CacheNames.TINY_RECIPE_PAGES, CacheNames.TINY_INGREDIENTS, CacheNames.TINY_INGREDIENT_PAGES,
+					CacheNames.INGREDIENT_SEARCH }, allEntries = true) })
 	public void updateRecipe(RecipeWebInput updatedRecipe) throws EditorServiceException {
 		checkNullParameter(updatedRecipe);
 		Optional<RecipeEntity> oldRecipe = recipeRepository.findById(updatedRecipe.getId());
 		if (oldRecipe.isPresent()) {
+			List<String> previousIngredientIds = recipeRepository.findIngredientIdsById(updatedRecipe.getId());
 			RecipeEntity newRecipe = webInputToRecipeEntityMapper.process(updatedRecipe);
-			newRecipe.getIngredients().stream().forEach(i -> updateKnownIngredient(i.getIngredient()));
+			newRecipe.getIngredients().stream().forEach(this::updateKnownIngredient);
 			recipeRepository.save(newRecipe);
+			eventPublisher.publishEvent(RecipeChangedEvent.updated(newRecipe.getId(), newRecipe.getName(), newRecipe.getCategories(), ingredientsOf(newRecipe),
+					previousIngredientIds));
 		}
 		else throw new EditorServiceIDNotFoundException("ID could not be found!");
 	}
 
 	@Override
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheNames.RECIPES, key = "#recipeId"),
+			@CacheEvict(cacheNames = { CacheNames.TINY_RECIPES, CacheNames.TINY_RECIPE_PAGES }, allEntries = true) })
 	public void deleteRecipe(String recipeId) throws EditorServiceException {
 		checkNullParameter(recipeId);
+		List<String> previousIngredientIds = recipeRepository.findIngredientIdsById(recipeId);
 		recipeRepository.deleteById(recipeId);
+		eventPublisher.publishEvent(RecipeChangedEvent.deleted(recipeId, previousIngredientIds));
+	}
+
+	private static List<Ingredient> ingredientsOf(RecipeEntity recipe) {
+		return recipe.getIngredients().stream()
+				.map(RecipeIngredient::getIngredient)
+				.collect(Collectors.toList());
 	}
 	
-	private void updateKnownIngredient(Ingredient ingredient) {
+	/**
+	 * Links the recipe ingredient to the stored ingredient of the same name and
+	 * department, which takes over the new alternative names. A new recipe is
+	 * persisted, so it must not carry a copy of a stored ingredient.
+	 */
+	private void updateKnownIngredient(RecipeIngredient recipeIngredient) {
+		Ingredient ingredient = recipeIngredient.getIngredient();
 		Optional<Ingredient> ingredientEntity = ingredientRepository.findByNameAndDepartment(ingredient.getName(), ingredient.getDepartment());
 		if (ingredientEntity.isPresent()) {
-			ingredient.setId(ingredientEntity.get().getId());
-			ingredient.setPresent(ingredientEntity.get().isPresent());
-			ingredient.getAlternativeNames().addAll(ingredientEntity.get().getAlternativeNames());
+			ingredientEntity.get().getAlternativeNames().addAll(ingredient.getAlternativeNames());
+			recipeIngredient.setIngredient(ingredientEntity.get());
 		}
 	}
 	
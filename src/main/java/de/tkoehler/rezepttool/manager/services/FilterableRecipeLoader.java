@@ -0,0 +1,67 @@
+package de.tkoehler.rezepttool.manager.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipeRow;
+
+/**
+ * Builds all {@link FilterableRecipe}s from one joined query instead of two
+ * queries per recipe. The rows arrive ordered by recipe, so each recipe is
+ * complete as soon as the next recipe id shows up.
+ */
+@Component
+public class FilterableRecipeLoader {
+
+	private final RecipeRepository recipeRepository;
+
+	public FilterableRecipeLoader(RecipeRepository recipeRepository) {
+		this.recipeRepository = recipeRepository;
+	}
+
+	@Transactional(readOnly = true)
+	public List<FilterableRecipe> loadAll() {
+		List<FilterableRecipe> result = new ArrayList<>();
+		try (Stream<FilterableRecipeRow> rows = recipeRepository.streamAllFilterableRows()) {
+			String recipeId = null;
+			String recipeName = null;
+			Set<String> categories = new LinkedHashSet<>();
+			Set<String> ingredients = new LinkedHashSet<>();
+			Iterator<FilterableRecipeRow> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				FilterableRecipeRow row = iterator.next();
+				String rowRecipeId = row.getRecipeId();
+				if (!rowRecipeId.equals(recipeId)) {
+					if (recipeId != null) result.add(build(recipeId, recipeName, categories, ingredients));
+					recipeId = rowRecipeId;
+					recipeName = row.getRecipeName();
+					categories = new LinkedHashSet<>();
+					ingredients = new LinkedHashSet<>();
+				}
+				if (row.getCategory() != null) categories.add(row.getCategory());
+				if (row.getIngredient() != null) ingredients.add(row.getIngredient());
+			}
+			if (recipeId != null) result.add(build(recipeId, recipeName, categories, ingredients));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	private static FilterableRecipe build(String id, String name, Set<String> categories, Set<String> ingredients) {
+		return FilterableRecipe.builder()
+				.id(id)
+				.name(name)
+				.categories(Collections.unmodifiableList(new ArrayList<>(categories)))
+				.ingredients(Collections.unmodifiableList(new ArrayList<>(ingredients)))
+				.build();
+	}
+}
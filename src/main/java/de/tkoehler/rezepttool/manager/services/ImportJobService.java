@@ -0,0 +1,14 @@
+package de.tkoehler.rezepttool.manager.services;
+
+import java.util.concurrent.CompletableFuture;
+
+import de.tkoehler.rezepttool.manager.restcontroller.model.ImportJobResult;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+
+public interface ImportJobService {
+	ImportJobResult createImportJob(String urlString) throws ImporterServiceException;
+
+	ImportJobResult loadImportJob(String id) throws ImporterServiceException;
+
+	CompletableFuture<ImportJobResult> watchImportJob(String id) throws ImporterServiceException;
+}
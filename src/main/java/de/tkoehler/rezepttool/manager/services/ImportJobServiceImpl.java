@@ -0,0 +1,227 @@
+package de.tkoehler.rezepttool.manager.services;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tkoehler.rezepttool.manager.repositories.ImportJobRepository;
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJob;
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJobStatus;
+import de.tkoehler.rezepttool.manager.restcontroller.model.ImportJobResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceIDNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs import jobs in the background. Several nodes may share the job table:
+ * a node claims a queued job with an atomic status update before running it,
+ * so every job runs once. Watching a job that runs on another node polls the
+ * table until the job is done.
+ */
+@Component
+@Slf4j
+public class ImportJobServiceImpl implements ImportJobService {
+
+	private static final int MAX_ERROR_LENGTH = 1000;
+
+	private final ImporterService importerService;
+	private final ImportJobRepository importJobRepository;
+	private final ObjectMapper objectMapper;
+	private final ExecutorService importJobExecutor;
+	private final ScheduledExecutorService importJobPoller;
+	private final long pollInterval;
+	private final long staleAfter;
+	private final String nodeId;
+	private final Map<String, CompletableFuture<ImportJobResult>> runningJobs = new ConcurrentHashMap<>();
+
+	public ImportJobServiceImpl(ImporterService importerService, ImportJobRepository importJobRepository, ObjectMapper objectMapper,
+			@Qualifier("importJobExecutor") ExecutorService importJobExecutor, @Qualifier("importJobPoller") ScheduledExecutorService importJobPoller,
+			@Value("${importer.jobs.pollInterval:1000}") long pollInterval, @Value("${importer.jobs.staleAfter:600000}") long staleAfter,
+			@Value("${importer.jobs.nodeId:}") String nodeId) {
+		this.importerService = importerService;
+		this.importJobRepository = importJobRepository;
+		this.objectMapper = objectMapper;
+		this.importJobExecutor = importJobExecutor;
+		this.importJobPoller = importJobPoller;
+		this.pollInterval = pollInterval;
+		this.staleAfter = staleAfter;
+		this.nodeId = nodeId == null || nodeId.isEmpty() ? defaultNodeId() : nodeId;
+	}
+
+	@Override
+	public ImportJobResult createImportJob(String urlString) throws ImporterServiceException {
+		checkNullParameter(urlString);
+		Date now = new Date();
+		ImportJob job = ImportJob.builder()
+				.id(TimeOrderedIds.newId())
+				.url(urlString)
+				.status(ImportJobStatus.QUEUED)
+				.created(now)
+				.updated(now)
+				.build();
+		importJobRepository.save(job);
+		submit(job.getId());
+		return createImportJobResult(job);
+	}
+
+	@Override
+	public ImportJobResult loadImportJob(String id) throws ImporterServiceException {
+		checkNullParameter(id);
+		ImportJob job = importJobRepository.findById(id).orElseThrow(() -> new ImporterServiceIDNotFoundException("Import job " + id + " not found!"));
+		return createImportJobResult(job);
+	}
+
+	/**
+	 * Completes with the job once it is done. Cancelling the returned future
+	 * stops watching, the job keeps running.
+	 */
+	@Override
+	public CompletableFuture<ImportJobResult> watchImportJob(String id) throws ImporterServiceException {
+		checkNullParameter(id);
+		CompletableFuture<ImportJobResult> runningJob = runningJobs.get(id);
+		if (runningJob != null) return runningJob.thenApply(Function.identity());
+		ImportJobResult current = loadImportJob(id);
+		if (current.getStatus().isDone()) return CompletableFuture.completedFuture(current);
+		return pollImportJob(id);
+	}
+
+	/**
+	 * Queues the jobs again that were left running by this node or by a node
+	 * that stopped updating them, then runs all queued jobs that no other node
+	 * claims first.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void resumeUnfinishedJobs() {
+		Date now = new Date();
+		int requeued = importJobRepository.requeueAbandoned(nodeId, new Date(now.getTime() - staleAfter), now, ImportJobStatus.QUEUED, ImportJobStatus.RUNNING);
+		if (requeued > 0) log.info("Queued " + requeued + " abandoned import jobs again");
+		for (ImportJob job : importJobRepository.findByStatusInOrderByCreated(Collections.singletonList(ImportJobStatus.QUEUED))) {
+			log.info("Resuming import job " + job.getId() + " for " + job.getUrl());
+			submit(job.getId());
+		}
+	}
+
+	private void submit(String id) {
+		runningJobs.put(id, new CompletableFuture<>());
+		importJobExecutor.execute(() -> runJob(id));
+	}
+
+	private CompletableFuture<ImportJobResult> pollImportJob(String id) {
+		CompletableFuture<ImportJobResult> result = new CompletableFuture<>();
+		ScheduledFuture<?> polling = importJobPoller.scheduleWithFixedDelay(() -> {
+			try {
+				ImportJobResult current = loadImportJob(id);
+				if (current.getStatus().isDone()) result.complete(current);
+			}
+			catch (ImporterServiceException | RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		}, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+		result.whenComplete((job, error) -> polling.cancel(false));
+		return result;
+	}
+
+	private void runJob(String id) {
+		ImportJob job = null;
+		try {
+			if (importJobRepository.updateStatus(id, ImportJobStatus.QUEUED, ImportJobStatus.RUNNING, nodeId, new Date()) == 0) {
+				log.info("Import job " + id + " is claimed by another node");
+				CompletableFuture<ImportJobResult> runningJob = runningJobs.remove(id);
+				if (runningJob != null) pollImportJob(id).whenComplete((result, error) -> {
+					if (error != null) runningJob.completeExceptionally(error);
+					else runningJob.complete(result);
+				});
+				return;
+			}
+			job = importJobRepository.findById(id).orElse(null);
+			if (job == null) return;
+			try {
+				RecipeWebInput recipe = importerService.loadRecipeFromExternal(job.getUrl());
+				job.setRecipe(objectMapper.writeValueAsString(recipe));
+				job.setStatus(ImportJobStatus.FINISHED);
+			}
+			catch (ImporterServiceException | IOException | RuntimeException e) {
+				log.warn("Import job " + id + " failed!", e);
+				job.setError(createErrorMessage(e));
+				job.setStatus(ImportJobStatus.FAILED);
+			}
+			job.setUpdated(new Date());
+			importJobRepository.save(job);
+		}
+		catch (RuntimeException e) {
+			log.error("Could not update import job " + id, e);
+		}
+		finally {
+			CompletableFuture<ImportJobResult> runningJob = runningJobs.remove(id);
+			if (runningJob != null) completeRunningJob(runningJob, job);
+		}
+	}
+
+	private void completeRunningJob(CompletableFuture<ImportJobResult> runningJob, ImportJob job) {
+		try {
+			if (job == null) runningJob.completeExceptionally(new ImporterServiceIDNotFoundException("Import job not found!"));
+			else runningJob.complete(createImportJobResult(job));
+		}
+		catch (ImporterServiceException e) {
+			runningJob.completeExceptionally(e);
+		}
+	}
+
+	private ImportJobResult createImportJobResult(ImportJob job) throws ImporterServiceException {
+		try {
+			return ImportJobResult.builder()
+					.id(job.getId())
+					.url(job.getUrl())
+					.status(job.getStatus())
+					.recipe(job.getRecipe() != null ? objectMapper.readValue(job.getRecipe(), RecipeWebInput.class) : null)
+					.error(job.getError())
+					.created(job.getCreated())
+					.updated(job.getUpdated())
+					.build();
+		}
+		catch (IOException e) {
+			throw new ImporterServiceException("Could not read result of import job " + job.getId(), e);
+		}
+	}
+
+	private String createErrorMessage(Throwable error) {
+		String message = error.getMessage();
+		if (error.getCause() != null && error.getCause().getMessage() != null)
+			message += " " + error.getCause().getMessage();
+		return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+	}
+
+	private static String defaultNodeId() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		}
+		catch (UnknownHostException e) {
+			return UUID.randomUUID().toString();
+		}
+	}
+
+	private void checkNullParameter(Object parameter) throws ImporterServiceException {
+		if (parameter == null) throw new ImporterServiceException("Parameter must not be empty!");
+	}
+}
@@ -0,0 +1,14 @@
+package de.tkoehler.rezepttool.manager.services;
+
+import java.util.List;
+
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+
+public interface ImportPipelineService {
+	void submitRecipeURLs(List<String> urlStrings) throws ImporterServiceException;
+
+	void parseRecipe(String urlString) throws ImporterServiceException;
+
+	void persistRecipe(RecipeWebInput recipe) throws ImporterServiceException;
+}
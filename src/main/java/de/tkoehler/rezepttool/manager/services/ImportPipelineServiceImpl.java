@@ -0,0 +1,76 @@
+package de.tkoehler.rezepttool.manager.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import de.tkoehler.rezepttool.manager.application.config.ImportPipelineChannels;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
+import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceRecipeExistsException;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distributed import: URLs are published to the URL topic, any node parses
+ * them and publishes the recipe to the recipe topic, from where it is enriched
+ * with the known ingredients and saved. Exceptions are rethrown, so the binder
+ * retries the message and finally moves it to the dead letter topic.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "importer.pipeline.enabled", havingValue = "true")
+public class ImportPipelineServiceImpl implements ImportPipelineService {
+
+	private final ImporterService importerService;
+	private final EditorService editorService;
+	private final ImportPipelineChannels importPipelineChannels;
+
+	public ImportPipelineServiceImpl(ImporterService importerService, EditorService editorService, ImportPipelineChannels importPipelineChannels) {
+		this.importerService = importerService;
+		this.editorService = editorService;
+		this.importPipelineChannels = importPipelineChannels;
+	}
+
+	@Override
+	public void submitRecipeURLs(List<String> urlStrings) throws ImporterServiceException {
+		checkNullParameter(urlStrings);
+		for (String urlString : urlStrings) {
+			checkNullParameter(urlString);
+			if (!importPipelineChannels.urlsOutput().send(MessageBuilder.withPayload(urlString).setHeader(KafkaHeaders.MESSAGE_KEY, urlString.getBytes(StandardCharsets.UTF_8)).build()))
+				throw new ImporterServiceException("Could not submit " + urlString);
+		}
+	}
+
+	@Override
+	@StreamListener(ImportPipelineChannels.URLS_INPUT)
+	public void parseRecipe(String urlString) throws ImporterServiceException {
+		log.info("Parsing " + urlString);
+		RecipeWebInput recipe = importerService.parseRecipeFromExternal(urlString);
+		importPipelineChannels.recipesOutput().send(MessageBuilder.withPayload(recipe).setHeader(KafkaHeaders.MESSAGE_KEY, urlString.getBytes(StandardCharsets.UTF_8)).build());
+	}
+
+	@Override
+	@StreamListener(ImportPipelineChannels.RECIPES_INPUT)
+	public void persistRecipe(RecipeWebInput recipe) throws ImporterServiceException {
+		checkNullParameter(recipe);
+		try {
+			editorService.insertRecipe(importerService.updateRecipeWithKnownData(recipe));
+		}
+		catch (EditorServiceRecipeExistsException e) {
+			log.info("Recipe " + recipe.getUrl() + " already exists, skipped.");
+		}
+		catch (EditorServiceException e) {
+			throw new ImporterServiceException("Failed to save recipe " + recipe.getUrl(), e);
+		}
+	}
+
+	private void checkNullParameter(Object parameter) throws ImporterServiceException {
+		if (parameter == null) throw new ImporterServiceException("Parameter must not be empty!");
+	}
+}
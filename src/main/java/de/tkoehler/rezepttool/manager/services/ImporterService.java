@@ -1,8 +1,17 @@
 package de.tkoehler.rezepttool.manager.services;
 
+import java.util.List;
+
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeImportResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
 
 public interface ImporterService {
 	RecipeWebInput loadRecipeFromExternal(String urlString) throws ImporterServiceException;
+
+	RecipeWebInput parseRecipeFromExternal(String urlString) throws ImporterServiceException;
+
+	RecipeWebInput updateRecipeWithKnownData(RecipeWebInput recipe) throws ImporterServiceException;
+
+	List<RecipeImportResult> loadRecipesFromExternal(List<String> urlStrings) throws ImporterServiceException;
 }
@@ -1,16 +1,30 @@
 package de.tkoehler.rezepttool.manager.services;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import de.tkoehler.rezepttool.manager.application.mappers.ExternalRecipeToWebInputMapper;
-import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
 import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeImportResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.AlternativeNameIndex;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.AlternativeNameIndexImpl;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientMatcher;
 import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParser;
 import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
 
@@ -18,37 +32,104 @@ import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserExceptio
 public class ImporterServiceImpl implements ImporterService {
 
 	private final RecipeParser recipeParser;
-	private final IngredientRepository ingredientRepository;
+	private final AlternativeNameIndex alternativeNameIndex;
+	private final IngredientMatcher ingredientMatcher;
 	private final ExternalRecipeToWebInputMapper externalRecipeToWebInputMapper;
+	private final ExecutorService importerExecutor;
 
-	public ImporterServiceImpl(RecipeParser recipeParser, IngredientRepository ingredientRepository, ExternalRecipeToWebInputMapper externalRecipeToWebInputMapper) {
+	public ImporterServiceImpl(RecipeParser recipeParser, AlternativeNameIndex alternativeNameIndex, IngredientMatcher ingredientMatcher,
+			ExternalRecipeToWebInputMapper externalRecipeToWebInputMapper, @Qualifier("importerExecutor") ExecutorService importerExecutor) {
 		this.recipeParser = recipeParser;
-		this.ingredientRepository = ingredientRepository;
+		this.alternativeNameIndex = alternativeNameIndex;
+		this.ingredientMatcher = ingredientMatcher;
 		this.externalRecipeToWebInputMapper = externalRecipeToWebInputMapper;
+		this.importerExecutor = importerExecutor;
 	}
 
 	@Override
 	public RecipeWebInput loadRecipeFromExternal(String urlString) throws ImporterServiceException {
+		return updateRecipeWithKnownData(parseRecipeFromExternal(urlString));
+	}
+
+	@Override
+	public RecipeWebInput parseRecipeFromExternal(String urlString) throws ImporterServiceException {
 		checkNullParameter(urlString);
 		try {
-			RecipeWebInput recipe = externalRecipeToWebInputMapper.process(recipeParser.parseRecipe(urlString));
-			updateWebRecipeWithKnownData(recipe);
-			return recipe;
+			return externalRecipeToWebInputMapper.process(recipeParser.parseRecipe(urlString));
 		}
 		catch (RecipeParserException e) {
 			throw new ImporterServiceException("Failed to parse recipe!", e);
 		}
 	}
 
+	@Override
+	public RecipeWebInput updateRecipeWithKnownData(RecipeWebInput recipe) throws ImporterServiceException {
+		updateWebRecipeWithKnownData(recipe);
+		return recipe;
+	}
+
+	@Override
+	public List<RecipeImportResult> loadRecipesFromExternal(List<String> urlStrings) throws ImporterServiceException {
+		checkNullParameter(urlStrings);
+		List<Future<RecipeWebInput>> futures = new ArrayList<>();
+		for (String urlString : urlStrings) {
+			futures.add(importerExecutor.submit(() -> loadRecipeFromExternal(urlString)));
+		}
+		List<RecipeImportResult> result = new ArrayList<>();
+		for (int i = 0; i < futures.size(); i++) {
+			RecipeImportResult.RecipeImportResultBuilder importResult = RecipeImportResult.builder().url(urlStrings.get(i));
+			try {
+				importResult.recipe(futures.get(i).get());
+			}
+			catch (ExecutionException e) {
+				importResult.error(createErrorMessage(e.getCause()));
+			}
+			catch (InterruptedException e) {
+				futures.stream().forEach(f -> f.cancel(true));
+				Thread.currentThread().interrupt();
+				throw new ImporterServiceException("Import was interrupted!", e);
+			}
+			result.add(importResult.build());
+		}
+		return result;
+	}
+
+	private String createErrorMessage(Throwable error) {
+		String message = error.getMessage();
+		if (error.getCause() != null && error.getCause().getMessage() != null)
+			message += " " + error.getCause().getMessage();
+		return message;
+	}
+
 	private void updateWebRecipeWithKnownData(RecipeWebInput recipe) throws ImporterServiceException {
 		checkNullParameter(recipe);
+		Set<String> originalNames = recipe.getIngredients().stream()
+				.map(IngredientWebInput::getOriginalName)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		if (originalNames.isEmpty()) return;
+		Map<String, List<Ingredient>> knownIngredients = alternativeNameIndex.findByAlternativeNames(originalNames).stream()
+				.collect(Collectors.groupingBy(match -> AlternativeNameIndexImpl.normalize(match.getAlternativeName()),
+						Collectors.mapping(match -> Ingredient.builder().id(match.getIngredientId()).name(match.getName()).department(match.getDepartment()).build(),
+								Collectors.toList())));
 		for (IngredientWebInput ingredient : recipe.getIngredients()) {
-			updateWebIngredientWithKnownData(ingredient);
+			List<Ingredient> ingredients = ingredient.getOriginalName() == null ? Collections.emptyList()
+					: knownIngredients.getOrDefault(AlternativeNameIndexImpl.normalize(ingredient.getOriginalName()), Collections.emptyList());
+			if (ingredients.isEmpty() && ingredient.getOriginalName() != null)
+				updateWebIngredientWithSimilarData(ingredient);
+			else updateWebIngredientWithKnownData(ingredient, ingredients);
+		}
+	}
+
+	private void updateWebIngredientWithSimilarData(IngredientWebInput ingredient) {
+		Optional<IngredientMatch> match = ingredientMatcher.findBestMatch(ingredient.getOriginalName());
+		if (match.isPresent()) {
+			ingredient.setDepartment(match.get().getDepartment());
+			ingredient.setName(match.get().getName());
 		}
 	}
 
-	private void updateWebIngredientWithKnownData(IngredientWebInput ingredient) throws ImporterServiceException {
-		List<Ingredient> ingredients = ingredientRepository.findByAlternativeName(ingredient.getOriginalName());
+	private void updateWebIngredientWithKnownData(IngredientWebInput ingredient, List<Ingredient> ingredients) {
 		Optional<Ingredient> multiNameIngredient = ingredients.stream().reduce((i1, i2) -> reduceToIngredientWithAllNames(i1, i2));
 		if (multiNameIngredient.isPresent()) {
 			ingredient.setDepartment(multiNameIngredient.get().getDepartment());
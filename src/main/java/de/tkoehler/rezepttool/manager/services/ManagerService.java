@@ -5,12 +5,23 @@ import java.util.List;
 import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyIngredientPage;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyRecipePage;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
 
 public interface ManagerService {
 	List<TinyRecipe> findAllTinyRecipes();
 
 	List<TinyIngredient> findAllTinyIngredients();
 
+	TinyRecipePage findTinyRecipePage(String token, int size) throws ManagerServiceException;
+
+	TinyIngredientPage findTinyIngredientPage(String token, int size) throws ManagerServiceException;
+
 	List<TinyIngredient> findAllTiniesByNameAndDepartment(String name, String department);
 
 	List<TinyIngredient> findAllTiniesByName(String name);
@@ -21,5 +32,11 @@ public interface ManagerService {
 
 	List<TinyIngredient> findDepartmentsByName(String department);
 
+	List<IngredientMatch> findMatchingIngredients(String name, int limit);
+
 	List<FilterableRecipe> findAllFilterableRecipes();
+
+	RecipeFilterResult filterRecipes(RecipeFilterWebInput filter);
+
+	RecipeSearchResult searchRecipes(String query, int page, int size) throws ManagerServiceException;
 }
\ No newline at end of file
@@ -2,46 +2,120 @@ package de.tkoehler.rezepttool.manager.services;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
 import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
 import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyIngredientPage;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyRecipePage;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.CompletionTrie;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientAutocomplete;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientMatcher;
+import de.tkoehler.rezepttool.manager.services.model.PageToken;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+import de.tkoehler.rezepttool.manager.services.recipeindex.RecipeFilterIndex;
+import de.tkoehler.rezepttool.manager.services.recipesearch.RecipeSearchIndex;
 
 @Component
 public class ManagerServiceImpl implements ManagerService {
+	private static final int AUTOCOMPLETE_LIMIT = CompletionTrie.MAX_SUGGESTIONS;
+
 	private final RecipeRepository recipeRepository;
 	private final IngredientRepository ingredientRepository;
+	private final IngredientMatcher ingredientMatcher;
+	private final IngredientAutocomplete ingredientAutocomplete;
+	private final FilterableRecipeLoader filterableRecipeLoader;
+	private final RecipeFilterIndex recipeFilterIndex;
+	private final RecipeSearchIndex recipeSearchIndex;
+
+	private final AtomicLong recipeGeneration = new AtomicLong();
+	private volatile CachedFilterables cachedFilterables;
 
-	public ManagerServiceImpl(RecipeRepository recipeRepository, IngredientRepository ingredientRepository) {
+	public ManagerServiceImpl(RecipeRepository recipeRepository, IngredientRepository ingredientRepository, IngredientMatcher ingredientMatcher,
+			IngredientAutocomplete ingredientAutocomplete, FilterableRecipeLoader filterableRecipeLoader, RecipeFilterIndex recipeFilterIndex, RecipeSearchIndex recipeSearchIndex) {
 		this.recipeRepository = recipeRepository;
 		this.ingredientRepository = ingredientRepository;
+		this.ingredientMatcher = ingredientMatcher;
+		this.ingredientAutocomplete = ingredientAutocomplete;
+		this.filterableRecipeLoader = filterableRecipeLoader;
+		this.recipeFilterIndex = recipeFilterIndex;
+		this.recipeSearchIndex = recipeSearchIndex;
 	}
 
 	@Override
+	@Cacheable(CacheNames.TINY_RECIPES)
 	public List<TinyRecipe> findAllTinyRecipes() {
 		return recipeRepository.findAllTinies();
 	}
 
 	@Override
+	@Cacheable(CacheNames.TINY_INGREDIENTS)
 	public List<TinyIngredient> findAllTinyIngredients() {
 		return ingredientRepository.findAllTinies();
 	}
 
+	/**
+	 * Keyset page ordered by name and id. One row more than asked for is read
+	 * to know whether a next page exists; the token continues after the last
+	 * row handed out, so no offset has to be skipped by the database.
+	 */
 	@Override
+	@Cacheable(CacheNames.TINY_RECIPE_PAGES)
+	public TinyRecipePage findTinyRecipePage(String token, int size) throws ManagerServiceException {
+		PageRequest limit = PageRequest.of(0, size + 1);
+		PageToken after = decode(token);
+		List<TinyRecipe> recipes = after == null ? recipeRepository.findFirstTinies(limit) : recipeRepository.findTiniesAfter(after.getName(), after.getId(), limit);
+		String nextToken = null;
+		if (recipes.size() > size) {
+			recipes = new ArrayList<>(recipes.subList(0, size));
+			TinyRecipe last = recipes.get(size - 1);
+			nextToken = new PageToken(last.getName(), last.getId()).encode();
+		}
+		return TinyRecipePage.builder().recipes(recipes).nextToken(nextToken).build();
+	}
+
+	@Override
+	@Cacheable(CacheNames.TINY_INGREDIENT_PAGES)
+	public TinyIngredientPage findTinyIngredientPage(String token, int size) throws ManagerServiceException {
+		PageRequest limit = PageRequest.of(0, size + 1);
+		PageToken after = decode(token);
+		List<TinyIngredient> ingredients = after == null ? ingredientRepository.findFirstTinies(limit) : ingredientRepository.findTiniesAfter(after.getName(), after.getId(), limit);
+		String nextToken = null;
+		if (ingredients.size() > size) {
+			ingredients = new ArrayList<>(ingredients.subList(0, size));
+			TinyIngredient last = ingredients.get(size - 1);
+			nextToken = new PageToken(last.getName(), last.getId()).encode();
+		}
+		return TinyIngredientPage.builder().ingredients(ingredients).nextToken(nextToken).build();
+	}
+
+	@Override
+	@Cacheable(cacheNames = CacheNames.INGREDIENT_SEARCH, key = "{#root.methodName, #name, #department}")
 	public List<TinyIngredient> findAllTiniesByNameAndDepartment(String name, String department) {
 		return ingredientRepository.findAllTiniesByNameAndDepartment(name, department);
 	}
 
 	@Override
+	@Cacheable(cacheNames = CacheNames.INGREDIENT_SEARCH, key = "{#root.methodName, #name}")
 	public List<TinyIngredient> findAllTiniesByName(String name) {
 		return ingredientRepository.findAllTiniesByName(name);
 	}
 
 	@Override
+	@Cacheable(cacheNames = CacheNames.INGREDIENT_SEARCH, key = "{#root.methodName, #department}")
 	public List<TinyIngredient> findAllTiniesByDepartment(String department) {
 		return ingredientRepository.findAllTiniesByDepartment(department);
 	}
@@ -49,30 +123,69 @@ public class ManagerServiceImpl implements ManagerService {
 	@Override
 	public List<TinyIngredient> findIngredientNamesByName(String name) {
 		List<TinyIngredient> result = new ArrayList<>();
-		ingredientRepository.findIngredientNamesByName(name).stream().forEach(n -> result.add(TinyIngredient.builder().name(n).department(n).build()));
+		ingredientAutocomplete.completeNames(name, AUTOCOMPLETE_LIMIT).stream().forEach(n -> result.add(TinyIngredient.builder().name(n).department(n).build()));
 		return result;
 	}
 
 	@Override
 	public List<TinyIngredient> findDepartmentsByName(String department) {
 		List<TinyIngredient> result = new ArrayList<>();
-		ingredientRepository.findDepartmentsByName(department).stream().forEach(n -> result.add(TinyIngredient.builder().name(n).department(n).build()));
+		ingredientAutocomplete.completeDepartments(department, AUTOCOMPLETE_LIMIT).stream().forEach(n -> result.add(TinyIngredient.builder().name(n).department(n).build()));
 		return result;
 	}
 
+	@Override
+	public List<IngredientMatch> findMatchingIngredients(String name, int limit) {
+		return ingredientMatcher.findMatches(name, limit);
+	}
+
 	@Override
 	public List<FilterableRecipe> findAllFilterableRecipes() {
-		List<FilterableRecipe> result = new ArrayList<>();
-		recipeRepository.findAllTinies().stream().forEach(recipe -> {
-			List<String> categories = recipeRepository.findCategoriesById(recipe.getId());
-			List<String> ingredientNames = recipeRepository.findIngredientsById(recipe.getId());
-			result.add(FilterableRecipe.builder()
-					.id(recipe.getId())
-					.name(recipe.getName())
-					.categories(categories)
-					.ingredients(ingredientNames)
-					.build());
-		});
-		return result;
+		long generation = recipeGeneration.get();
+		CachedFilterables cached = cachedFilterables;
+		if (cached != null && cached.generation == generation) return cached.recipes;
+		List<FilterableRecipe> recipes = filterableRecipeLoader.loadAll();
+		cachedFilterables = new CachedFilterables(generation, recipes);
+		return recipes;
+	}
+
+	@Override
+	public RecipeFilterResult filterRecipes(RecipeFilterWebInput filter) {
+		return recipeFilterIndex.filter(filter);
+	}
+
+	@Override
+	public RecipeSearchResult searchRecipes(String query, int page, int size) throws ManagerServiceException {
+		return recipeSearchIndex.search(query, page, size);
+	}
+
+	/**
+	 * Any saved or deleted recipe outdates the cached filterables. A load that
+	 * runs concurrently to the change is cached with the old generation and
+	 * therefore not served again.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRecipeChanged(RecipeChangedEvent event) {
+		recipeGeneration.incrementAndGet();
+	}
+
+	private static PageToken decode(String token) throws ManagerServiceException {
+		if (token == null || token.isEmpty()) return null;
+		try {
+			return PageToken.decode(token);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ManagerServiceException("Invalid page token!", e);
+		}
+	}
+
+	private static class CachedFilterables {
+		private final long generation;
+		private final List<FilterableRecipe> recipes;
+
+		private CachedFilterables(long generation, List<FilterableRecipe> recipes) {
+			this.generation = generation;
+			this.recipes = recipes;
+		}
 	}
 }
@@ -1,6 +1,7 @@
 package de.tkoehler.rezepttool.manager.services;
 
 import de.tkoehler.rezepttool.manager.restcontroller.model.DailyPlanWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryList;
 import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryPlan;
 import de.tkoehler.rezepttool.manager.services.exceptions.PlannerServiceException;
 
@@ -14,4 +15,12 @@ public interface PlannerService {
 	DailyPlanWebInput loadPlan(DailyPlanWebInput plan) throws PlannerServiceException;
 
 	GroceryPlan loadGroceryIngredients(DailyPlanWebInput[] plans)  throws PlannerServiceException;
-}
\ No newline at end of file
+
+	/**
+	 * Sums up the ingredients of all planned recipes per ingredient and unit.
+	 * Recipes planned several times are counted several times.
+	 *
+	 * @return the grocery lines grouped by department
+	 */
+	GroceryList loadGroceryList(DailyPlanWebInput[] plans) throws PlannerServiceException;
+}
@@ -1,43 +1,64 @@
 package de.tkoehler.rezepttool.manager.services;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Component;
 
-import de.tkoehler.rezepttool.manager.application.mappers.RecipeEntityToWebInputMapper;
 import de.tkoehler.rezepttool.manager.repositories.DailyPlanRepository;
 import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
 import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
 import de.tkoehler.rezepttool.manager.repositories.model.DailyPlan;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
-import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUnit;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeHeader;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredientLine;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
 import de.tkoehler.rezepttool.manager.restcontroller.model.DailyPlanWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryDepartment;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryLine;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryList;
 import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryPlan;
 import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryRecipe;
-import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
 import de.tkoehler.rezepttool.manager.services.exceptions.PlannerServiceException;
 import de.tkoehler.rezepttool.manager.services.exceptions.PlannerServiceIDNotFoundException;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.ParsedIngredientLine;
 
 @Component
 public class PlannerServiceImpl implements PlannerService {
 	private final DailyPlanRepository dailyPlanRepository;
 	private final IngredientRepository ingredientRepository;
 	private final RecipeRepository recipeRepository;
-	private final RecipeEntityToWebInputMapper recipeEntityToWebMapper;
+	private final IngredientLineParser ingredientLineParser;
 
-	public PlannerServiceImpl(DailyPlanRepository dailyPlanRepository, IngredientRepository ingredientRepository, RecipeRepository recipeRepository, RecipeEntityToWebInputMapper recipeEntityToWebMapper) {
+	public PlannerServiceImpl(DailyPlanRepository dailyPlanRepository, IngredientRepository ingredientRepository, RecipeRepository recipeRepository,
+			IngredientLineParser ingredientLineParser) {
 		this.dailyPlanRepository = dailyPlanRepository;
 		this.ingredientRepository = ingredientRepository;
 		this.recipeRepository = recipeRepository;
-		this.recipeEntityToWebMapper = recipeEntityToWebMapper;
+		this.ingredientLineParser = ingredientLineParser;
 	}
 
+	/**
+	 * The present flag is part of every loaded recipe using the ingredient.
+	 */
 	@Override
+	@CacheEvict(cacheNames = CacheNames.RECIPES, allEntries = true)
 	public void checkIngredient(String id, Boolean value) throws PlannerServiceException {
 		checkNullParameter(id);
 		checkNullParameter(value);
@@ -61,7 +82,7 @@ public class PlannerServiceImpl implements PlannerService {
 		}
 		else {
 			DailyPlan newPlan = DailyPlan.builder()
-					.id(UUID.randomUUID().toString())
+					.id(TimeOrderedIds.newId())
 					.date(plan.getDate())
 					.recipes(plan.getRecipes().stream().map(r -> recipeRepository.findById(r.getId()).get()).collect(Collectors.toList()))
 					.build();
@@ -91,28 +112,141 @@ public class PlannerServiceImpl implements PlannerService {
 		if (parameter == null) throw new PlannerServiceException("Parameter must not be empty!");
 	}
 
+	/**
+	 * Reads the planned recipes as header and ingredient line projections, two
+	 * queries for all plans. Recipes planned twice are listed twice.
+	 */
 	@Override
 	public GroceryPlan loadGroceryIngredients(DailyPlanWebInput[] plans) throws PlannerServiceException {
+		checkNullParameter(plans);
 		GroceryPlan result = GroceryPlan.builder()
 				.date(new Date())
 				.recipes(new ArrayList<>())
 				.build();
+		List<String> recipeIds = new ArrayList<>();
 		for (DailyPlanWebInput plan : plans) {
-			for (TinyRecipe tiniyRecipe : plan.getRecipes()) {
-				Optional<RecipeEntity> recipeEntity = recipeRepository.findById(tiniyRecipe.getId());
-				if(recipeEntity.isPresent()) {
-					RecipeWebInput webRecipe = recipeEntityToWebMapper.process(recipeEntity.get());
-					GroceryRecipe recipe = GroceryRecipe.builder()
-							.name(webRecipe.getName())
-							.ingredients(webRecipe.getIngredients())
-							.build();
-					result.getRecipes().add(recipe);
-				}
-				else {
-					throw new PlannerServiceIDNotFoundException("ID could not be found!");
-				}
+			for (TinyRecipe tinyRecipe : plan.getRecipes()) {
+				recipeIds.add(tinyRecipe.getId());
 			}
 		}
+		if (recipeIds.isEmpty()) return result;
+		Set<String> distinctIds = new LinkedHashSet<>(recipeIds);
+		Map<String, RecipeHeader> headersById = recipeRepository.findHeadersByIdIn(distinctIds).stream()
+				.collect(Collectors.toMap(RecipeHeader::getId, h -> h));
+		if (headersById.size() < distinctIds.size()) throw new PlannerServiceIDNotFoundException("ID could not be found!");
+		Map<String, List<IngredientWebInput>> ingredientsByRecipeId = new HashMap<>();
+		for (RecipeIngredientLine line : recipeRepository.findIngredientLinesByIdIn(distinctIds)) {
+			ingredientsByRecipeId.computeIfAbsent(line.getRecipeId(), id -> new ArrayList<>()).add(IngredientWebInput.builder()
+					.recipeIngredientId(line.getRecipeIngredientId())
+					.amount(line.getAmount())
+					.ingredientId(line.getIngredientId())
+					.name(line.getName())
+					.originalName(line.getName())
+					.department(line.getDepartment())
+					.originalDepartment(line.getDepartment())
+					.present(line.isPresent())
+					.build());
+		}
+		for (String recipeId : recipeIds) {
+			GroceryRecipe recipe = GroceryRecipe.builder()
+					.name(headersById.get(recipeId).getName())
+					.ingredients(new ArrayList<>(ingredientsByRecipeId.getOrDefault(recipeId, new ArrayList<>())))
+					.build();
+			result.getRecipes().add(recipe);
+		}
+		return result;
+	}
+
+	@Override
+	public GroceryList loadGroceryList(DailyPlanWebInput[] plans) throws PlannerServiceException {
+		checkNullParameter(plans);
+		Map<String, Integer> servingsByRecipeId = new HashMap<>();
+		for (DailyPlanWebInput plan : plans) {
+			for (TinyRecipe tinyRecipe : plan.getRecipes()) {
+				servingsByRecipeId.merge(tinyRecipe.getId(), 1, Integer::sum);
+			}
+		}
+		GroceryList result = GroceryList.builder()
+				.date(new Date())
+				.departments(new ArrayList<>())
+				.build();
+		if (servingsByRecipeId.isEmpty()) return result;
+		List<RecipeHeader> recipes = recipeRepository.findHeadersByIdIn(servingsByRecipeId.keySet());
+		if (recipes.size() < servingsByRecipeId.size()) throw new PlannerServiceIDNotFoundException("ID could not be found!");
+
+		Map<String, IngredientSum> sums = new LinkedHashMap<>();
+		ParsedIngredientLine parsedAmount = new ParsedIngredientLine();
+		for (RecipeIngredientLine recipeIngredient : recipeRepository.findIngredientLinesByIdIn(servingsByRecipeId.keySet())) {
+			int servings = servingsByRecipeId.get(recipeIngredient.getRecipeId());
+			Double quantity = recipeIngredient.getQuantity();
+			IngredientUnit unit = recipeIngredient.getUnit();
+			if (quantity == null && unit == null) {
+				ingredientLineParser.parse(recipeIngredient.getAmount(), parsedAmount);
+				quantity = parsedAmount.getQuantityOrNull();
+				unit = parsedAmount.getUnit();
+			}
+			IngredientSum sum = sums.computeIfAbsent(recipeIngredient.getIngredientId(), id -> new IngredientSum(recipeIngredient));
+			if (quantity != null) sum.add(unit == null ? IngredientUnit.PIECE : unit, quantity * servings);
+			else sum.addAmount(recipeIngredient.getAmount());
+		}
+
+		Map<String, List<GroceryLine>> linesByDepartment = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (IngredientSum sum : sums.values()) {
+			String department = sum.ingredient.getDepartment() == null ? "" : sum.ingredient.getDepartment();
+			linesByDepartment.computeIfAbsent(department, d -> new ArrayList<>()).addAll(sum.toLines());
+		}
+		for (Map.Entry<String, List<GroceryLine>> entry : linesByDepartment.entrySet()) {
+			entry.getValue().sort(Comparator.comparing(GroceryLine::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+			result.getDepartments().add(GroceryDepartment.builder()
+					.name(entry.getKey())
+					.lines(entry.getValue())
+					.build());
+		}
 		return result;
 	}
+
+	private static class IngredientSum {
+		private final RecipeIngredientLine ingredient;
+		private final Map<IngredientUnit, Double> baseQuantities = new EnumMap<>(IngredientUnit.class);
+		private final Set<String> amounts = new LinkedHashSet<>();
+
+		private IngredientSum(RecipeIngredientLine ingredient) {
+			this.ingredient = ingredient;
+		}
+
+		private void add(IngredientUnit unit, double quantity) {
+			baseQuantities.merge(unit.getBaseUnit(), unit.toBaseQuantity(quantity), Double::sum);
+		}
+
+		private void addAmount(String amount) {
+			if (amount != null && !amount.trim().isEmpty()) amounts.add(amount.trim());
+		}
+
+		private List<GroceryLine> toLines() {
+			List<GroceryLine> lines = new ArrayList<>();
+			for (Map.Entry<IngredientUnit, Double> entry : baseQuantities.entrySet()) {
+				IngredientUnit unit = displayUnit(entry.getKey(), entry.getValue());
+				lines.add(line(Math.round(unit.fromBaseQuantity(entry.getValue()) * 1000) / 1000.0, unit.getSymbol()));
+			}
+			if (lines.isEmpty()) lines.add(line(null, null));
+			lines.get(0).getAmounts().addAll(amounts);
+			return lines;
+		}
+
+		private GroceryLine line(Double quantity, String unit) {
+			return GroceryLine.builder()
+					.ingredientId(ingredient.getIngredientId())
+					.name(ingredient.getName())
+					.quantity(quantity)
+					.unit(unit)
+					.present(ingredient.isPresent())
+					.build();
+		}
+
+		private static IngredientUnit displayUnit(IngredientUnit baseUnit, double baseQuantity) {
+			if (baseUnit == IngredientUnit.GRAM && baseQuantity >= 1000) return IngredientUnit.KILOGRAM;
+			if (baseUnit == IngredientUnit.MILLILITER && baseQuantity >= 1000) return IngredientUnit.LITER;
+			return baseUnit;
+		}
+	}
 }
@@ -0,0 +1,25 @@
+package de.tkoehler.rezepttool.manager.services.exceptions;
+
+public class ImporterServiceIDNotFoundException extends ImporterServiceException {
+
+	private static final long serialVersionUID = -2871694416640829035L;
+
+	public ImporterServiceIDNotFoundException() {
+	}
+
+	public ImporterServiceIDNotFoundException(String arg0) {
+		super(arg0);
+	}
+
+	public ImporterServiceIDNotFoundException(Throwable arg0) {
+		super(arg0);
+	}
+
+	public ImporterServiceIDNotFoundException(String arg0, Throwable arg1) {
+		super(arg0, arg1);
+	}
+
+	public ImporterServiceIDNotFoundException(String arg0, Throwable arg1, boolean arg2, boolean arg3) {
+		super(arg0, arg1, arg2, arg3);
+	}
+}
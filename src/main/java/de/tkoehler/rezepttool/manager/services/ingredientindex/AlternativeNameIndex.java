@@ -0,0 +1,26 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.Collection;
+import java.util.List;
+
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+
+public interface AlternativeNameIndex {
+
+	/**
+	 * Looks up the known ingredients for the given alternative names. Names are
+	 * compared normalized, the returned matches carry the name as it was
+	 * searched for.
+	 */
+	List<AlternativeNameMatch> findByAlternativeNames(Collection<String> searchNames);
+
+	void updateIngredients(Collection<Ingredient> ingredients);
+
+	/**
+	 * Takes ingredients deleted from the database out of the index.
+	 */
+	void removeIngredients(Collection<String> ingredientIds);
+
+	void reload();
+}
@@ -0,0 +1,227 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps all alternative names of the known ingredients in memory, so importing
+ * a recipe does not need a database round trip. The index is loaded once at
+ * startup and afterwards updated with the ingredients the editor writes. A
+ * bloom filter in front of the map answers most unknown names without hashing
+ * into the map at all.
+ * <p>
+ * Lookups read an immutable {@link Snapshot}. Updates copy the snapshot,
+ * change the copy and publish it in one volatile write, so a lookup never sees
+ * an ingredient half replaced. The bloom filter is shared by the copies: it
+ * only ever gains bits, which merely costs the older snapshot a few hash
+ * lookups.
+ */
+@Component
+@Slf4j
+public class AlternativeNameIndexImpl implements AlternativeNameIndex {
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private final IngredientRepository ingredientRepository;
+	private final int minimumCapacity;
+	private final double falsePositiveRate;
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter filtered;
+	private volatile Snapshot snapshot;
+
+	public AlternativeNameIndexImpl(IngredientRepository ingredientRepository,
+			@Value("${importer.alternativeNames.minimumCapacity:1024}") int minimumCapacity,
+			@Value("${importer.alternativeNames.falsePositiveRate:0.01}") double falsePositiveRate,
+			MeterRegistry meterRegistry) {
+		this.ingredientRepository = ingredientRepository;
+		this.minimumCapacity = minimumCapacity;
+		this.falsePositiveRate = falsePositiveRate;
+		hits = Counter.builder("importer.alternativenames.lookups").tag("result", "hit").register(meterRegistry);
+		misses = Counter.builder("importer.alternativenames.lookups").tag("result", "miss").register(meterRegistry);
+		filtered = Counter.builder("importer.alternativenames.lookups").tag("result", "filtered")
+				.description("Misses answered by the bloom filter").register(meterRegistry);
+		Gauge.builder("importer.alternativenames.size", this, index -> index.snapshot == null ? 0 : index.snapshot.matches.size()).register(meterRegistry);
+	}
+
+	@Override
+	public List<AlternativeNameMatch> findByAlternativeNames(Collection<String> searchNames) {
+		Snapshot current = currentSnapshot();
+		List<AlternativeNameMatch> result = new ArrayList<>();
+		for (String searchName : searchNames) {
+			String key = normalize(searchName);
+			if (!current.bloomFilter.mightContain(key)) {
+				filtered.increment();
+				misses.increment();
+				continue;
+			}
+			Map<String, AlternativeNameMatch> matches = current.matches.get(key);
+			if (matches == null || matches.isEmpty()) {
+				misses.increment();
+				continue;
+			}
+			hits.increment();
+			for (AlternativeNameMatch match : matches.values()) {
+				result.add(new AlternativeNameMatch(searchName, match.getIngredientId(), match.getName(), match.getDepartment()));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void updateIngredients(Collection<Ingredient> ingredients) {
+		Snapshot next = currentSnapshot().copy();
+		for (Ingredient ingredient : ingredients) {
+			if (ingredient == null || ingredient.getId() == null) continue;
+			removeIngredient(next, ingredient.getId());
+			Set<String> newKeys = new HashSet<>();
+			for (String alternativeName : ingredient.getAlternativeNames()) {
+				if (alternativeName == null) continue;
+				String key = normalize(alternativeName);
+				newKeys.add(key);
+				add(next, key, new AlternativeNameMatch(alternativeName, ingredient.getId(), ingredient.getName(), ingredient.getDepartment()));
+			}
+			if (!newKeys.isEmpty()) next.keysByIngredient.put(ingredient.getId(), newKeys);
+		}
+		publish(next);
+	}
+
+	@Override
+	public synchronized void removeIngredients(Collection<String> ingredientIds) {
+		Snapshot next = currentSnapshot().copy();
+		for (String ingredientId : ingredientIds) {
+			if (ingredientId != null) removeIngredient(next, ingredientId);
+		}
+		publish(next);
+	}
+
+	@Override
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void reload() {
+		List<AlternativeNameMatch> alternativeNames = ingredientRepository.findAllAlternativeNames();
+		Snapshot loaded = new Snapshot(createBloomFilter(alternativeNames.size()));
+		for (AlternativeNameMatch match : alternativeNames) {
+			String key = normalize(match.getAlternativeName());
+			add(loaded, key, match);
+			loaded.keysByIngredient.computeIfAbsent(match.getIngredientId(), id -> new HashSet<>()).add(key);
+		}
+		snapshot = loaded;
+		log.info("Loaded " + loaded.matches.size() + " alternative names into the ingredient index");
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRecipeChanged(RecipeChangedEvent event) {
+		updateIngredients(event.getIngredients());
+	}
+
+	/**
+	 * The key names are compared by: trimmed, inner whitespace collapsed and
+	 * lower case.
+	 */
+	public static String normalize(String name) {
+		return WHITESPACE.matcher(name.trim()).replaceAll(" ").toLowerCase(Locale.GERMAN);
+	}
+
+	private Snapshot currentSnapshot() {
+		Snapshot current = snapshot;
+		if (current != null) return current;
+		synchronized (this) {
+			if (snapshot == null) reload();
+			return snapshot;
+		}
+	}
+
+	private void publish(Snapshot next) {
+		snapshot = next.bloomFilter.isSaturated() ? rebuild(next) : next;
+	}
+
+	private Snapshot rebuild(Snapshot current) {
+		Snapshot rebuilt = new Snapshot(createBloomFilter(current.matches.size()), current.matches, current.keysByIngredient);
+		rebuilt.matches.keySet().forEach(rebuilt.bloomFilter::put);
+		return rebuilt;
+	}
+
+	private BloomFilter createBloomFilter(int size) {
+		return new BloomFilter(Math.max(minimumCapacity, size * 2), falsePositiveRate);
+	}
+
+	/**
+	 * Adds a match to a snapshot not published yet. The matches of the key are
+	 * copied, since they may still be shared with the published snapshot. Only
+	 * keys new to the snapshot are counted by the bloom filter, so re-saved
+	 * ingredients do not saturate it.
+	 */
+	private void add(Snapshot target, String key, AlternativeNameMatch match) {
+		Map<String, AlternativeNameMatch> oldMatches = target.matches.get(key);
+		Map<String, AlternativeNameMatch> newMatches = oldMatches == null ? new HashMap<>() : new HashMap<>(oldMatches);
+		newMatches.put(match.getIngredientId(), match);
+		target.matches.put(key, newMatches);
+		if (oldMatches == null && !target.bloomFilter.mightContain(key)) target.bloomFilter.put(key);
+	}
+
+	private static void removeIngredient(Snapshot target, String ingredientId) {
+		Set<String> oldKeys = target.keysByIngredient.remove(ingredientId);
+		if (oldKeys == null) return;
+		for (String oldKey : oldKeys) {
+			Map<String, AlternativeNameMatch> oldMatches = target.matches.get(oldKey);
+			if (oldMatches == null || !oldMatches.containsKey(ingredientId)) continue;
+			if (oldMatches.size() == 1) {
+				target.matches.remove(oldKey);
+				continue;
+			}
+			Map<String, AlternativeNameMatch> newMatches = new HashMap<>(oldMatches);
+			newMatches.remove(ingredientId);
+			target.matches.put(oldKey, newMatches);
+		}
+	}
+
+	/**
+	 * Read only once published. The maps of a key are replaced, never changed,
+	 * so a copy of the outer maps is enough to derive the next snapshot.
+	 */
+	private static class Snapshot {
+		private final BloomFilter bloomFilter;
+		private final Map<String, Map<String, AlternativeNameMatch>> matches;
+		private final Map<String, Set<String>> keysByIngredient;
+
+		private Snapshot(BloomFilter bloomFilter) {
+			this(bloomFilter, new HashMap<>(), new HashMap<>());
+		}
+
+		private Snapshot(BloomFilter bloomFilter, Map<String, Map<String, AlternativeNameMatch>> matches, Map<String, Set<String>> keysByIngredient) {
+			this.bloomFilter = bloomFilter;
+			this.matches = matches;
+			this.keysByIngredient = keysByIngredient;
+		}
+
+		private Snapshot copy() {
+			return new Snapshot(bloomFilter, new HashMap<>(matches), new HashMap<>(keysByIngredient));
+		}
+	}
+}
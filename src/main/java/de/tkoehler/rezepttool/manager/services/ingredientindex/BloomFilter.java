@@ -0,0 +1,89 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal thread safe bloom filter for strings. Uses double hashing over a
+ * 64 bit hash of the characters, so no further dependency is needed.
+ */
+public class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+	private final int expectedInsertions;
+	private final AtomicInteger insertions = new AtomicInteger();
+
+	public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+		if (expectedInsertions < 1) throw new IllegalArgumentException("Expected insertions must be positive!");
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) throw new IllegalArgumentException("False positive rate must be between 0 and 1!");
+		long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bits = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+		this.bitCount = bits.length() * 64L;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+		this.expectedInsertions = expectedInsertions;
+	}
+
+	public void put(String value) {
+		long hash = hash(value);
+		int hash1 = (int) hash;
+		int hash2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			setBit(index(hash1 + i * hash2));
+		}
+		insertions.incrementAndGet();
+	}
+
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		int hash1 = (int) hash;
+		int hash2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long index = index(hash1 + i * hash2);
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if more values have been added than the filter was sized
+	 *         for, i.e. the false positive rate is no longer guaranteed
+	 */
+	public boolean isSaturated() {
+		return insertions.get() > expectedInsertions;
+	}
+
+	public int getExpectedInsertions() {
+		return expectedInsertions;
+	}
+
+	private long index(int combinedHash) {
+		return (combinedHash & Integer.MAX_VALUE) % bitCount;
+	}
+
+	private void setBit(long index) {
+		int word = (int) (index >>> 6);
+		long mask = 1L << index;
+		long current;
+		do {
+			current = bits.get(word);
+			if ((current & mask) != 0) return;
+		}
+		while (!bits.compareAndSet(word, current, current | mask));
+	}
+
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,341 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable radix trie for completing texts by weight. Every text is indexed
+ * under each of its word positions ("rote zwiebeln", "zwiebeln"), so a query
+ * matches word prefixes anywhere in the text. Every node keeps the best
+ * {@link #MAX_SUGGESTIONS} texts of its subtree: a completion walks down the
+ * query and copies that list, no matter how many texts share the prefix.
+ * <p>
+ * Writes copy only the nodes on the path of the changed keys and return a new
+ * trie, readers keep the version they hold.
+ */
+public final class CompletionTrie {
+
+	public static final int MAX_SUGGESTIONS = 20;
+
+	private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final Node[] NO_CHILDREN = new Node[0];
+	private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+	private static final Comparator<Suggestion> BY_WEIGHT = (a, b) -> {
+		if (a.weight != b.weight) return a.weight > b.weight ? -1 : 1;
+		int order = String.CASE_INSENSITIVE_ORDER.compare(a.text, b.text);
+		return order != 0 ? order : a.text.compareTo(b.text);
+	};
+	private static final CompletionTrie EMPTY = new CompletionTrie(new Node("", NO_CHILDREN, NO_SUGGESTIONS));
+
+	private final Node root;
+
+	private CompletionTrie(Node root) {
+		this.root = root;
+	}
+
+	public static CompletionTrie empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Builds the trie bottom up from the sorted keys, every node computes its
+	 * best texts once.
+	 */
+	public static CompletionTrie build(Map<String, Long> weightedTexts) {
+		List<Entry> entries = new ArrayList<>();
+		weightedTexts.forEach((text, weight) -> {
+			Suggestion suggestion = new Suggestion(text, weight);
+			for (String key : keys(text)) {
+				entries.add(new Entry(key, suggestion));
+			}
+		});
+		entries.sort(Comparator.comparing(Entry::getKey));
+		return new CompletionTrie(build("", entries, 0, entries.size(), 0));
+	}
+
+	/**
+	 * @return at most limit texts with a word starting with the query, highest
+	 *         weight first; the highest weighted texts for an empty query
+	 */
+	public List<String> complete(String query, int limit) {
+		String prefix = normalize(query);
+		Node node = root;
+		int depth = 0;
+		while (depth < prefix.length()) {
+			int index = node.childIndex(prefix.charAt(depth));
+			if (index < 0) return new ArrayList<>();
+			Node child = node.children[index];
+			int length = Math.min(child.label.length(), prefix.length() - depth);
+			if (!child.label.regionMatches(0, prefix, depth, length)) return new ArrayList<>();
+			depth += length;
+			node = child;
+		}
+		List<String> result = new ArrayList<>(Math.min(limit, node.best.length));
+		for (int i = 0; i < node.best.length && i < limit; i++) {
+			result.add(node.best[i].text);
+		}
+		return result;
+	}
+
+	/**
+	 * @return a trie containing the text with the given weight, replacing an
+	 *         earlier weight of the same text
+	 */
+	public CompletionTrie put(String text, long weight) {
+		Suggestion suggestion = new Suggestion(text, weight);
+		Node next = root;
+		for (String key : keys(text)) {
+			next = put(next, key, 0, suggestion);
+		}
+		return next == root ? this : new CompletionTrie(next);
+	}
+
+	public CompletionTrie remove(String text) {
+		Node next = root;
+		for (String key : keys(text)) {
+			next = remove(next, key, 0, text);
+		}
+		return next == root ? this : new CompletionTrie(next);
+	}
+
+	static List<String> keys(String text) {
+		List<String> keys = new ArrayList<>();
+		String normalized = normalize(text);
+		if (normalized.isEmpty()) return keys;
+		keys.add(normalized);
+		for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+			keys.add(normalized.substring(i + 1));
+		}
+		return keys;
+	}
+
+	private static String normalize(String text) {
+		if (text == null) return "";
+		return SEPARATOR.matcher(IngredientNameNormalizer.fold(text)).replaceAll(" ").trim();
+	}
+
+	private static Node build(String label, List<Entry> entries, int from, int to, int depth) {
+		List<Suggestion> values = new ArrayList<>();
+		List<Node> children = new ArrayList<>();
+		int i = from;
+		while (i < to && entries.get(i).key.length() == depth) {
+			values.add(entries.get(i++).suggestion);
+		}
+		while (i < to) {
+			String first = entries.get(i).key;
+			int end = i + 1;
+			while (end < to && entries.get(end).key.charAt(depth) == first.charAt(depth))
+				end++;
+			int common = commonPrefix(first, entries.get(end - 1).key, depth);
+			children.add(build(first.substring(depth, depth + common), entries, i, end, depth + common));
+			i = end;
+		}
+		return new Node(label, children.toArray(NO_CHILDREN), values.toArray(NO_SUGGESTIONS));
+	}
+
+	private static Node put(Node node, String key, int depth, Suggestion suggestion) {
+		if (depth == key.length()) return node.withValues(replace(node.values, suggestion));
+		int index = node.childIndex(key.charAt(depth));
+		if (index < 0) {
+			Node leaf = new Node(key.substring(depth), NO_CHILDREN, new Suggestion[] { suggestion });
+			return node.withChildren(insert(node.children, leaf));
+		}
+		Node child = node.children[index];
+		int common = commonPrefix(child.label, 0, key, depth);
+		if (common < child.label.length()) {
+			Node tail = child.withLabel(child.label.substring(common));
+			child = new Node(child.label.substring(0, common), new Node[] { tail }, NO_SUGGESTIONS);
+		}
+		return node.withChildren(replace(node.children, index, put(child, key, depth + common, suggestion)));
+	}
+
+	/**
+	 * @return the node without the text, null if nothing is left below it
+	 */
+	private static Node remove(Node node, String key, int depth, String text) {
+		Node result;
+		if (depth == key.length()) {
+			Suggestion[] values = without(node.values, text);
+			if (values == node.values) return node;
+			result = node.withValues(values);
+		}
+		else {
+			int index = node.childIndex(key.charAt(depth));
+			if (index < 0) return node;
+			Node child = node.children[index];
+			if (!key.startsWith(child.label, depth)) return node;
+			Node removed = remove(child, key, depth + child.label.length(), text);
+			if (removed == child) return node;
+			result = node.withChildren(removed == null ? without(node.children, index) : replace(node.children, index, removed));
+		}
+		if (depth == 0 || result.values.length > 0 || result.children.length > 1) return result;
+		if (result.children.length == 0) return null;
+		Node onlyChild = result.children[0];
+		return onlyChild.withLabel(result.label + onlyChild.label);
+	}
+
+	private static int commonPrefix(String first, String last, int depth) {
+		return commonPrefix(first, depth, last, depth);
+	}
+
+	private static int commonPrefix(String a, int aOffset, String b, int bOffset) {
+		int length = 0;
+		while (aOffset + length < a.length() && bOffset + length < b.length() && a.charAt(aOffset + length) == b.charAt(bOffset + length))
+			length++;
+		return length;
+	}
+
+	private static Suggestion[] replace(Suggestion[] values, Suggestion suggestion) {
+		Suggestion[] replaced = without(values, suggestion.text);
+		replaced = Arrays.copyOf(replaced, replaced.length + 1);
+		replaced[replaced.length - 1] = suggestion;
+		return replaced;
+	}
+
+	private static Suggestion[] without(Suggestion[] values, String text) {
+		for (int i = 0; i < values.length; i++) {
+			if (!values[i].text.equals(text)) continue;
+			Suggestion[] removed = new Suggestion[values.length - 1];
+			System.arraycopy(values, 0, removed, 0, i);
+			System.arraycopy(values, i + 1, removed, i, removed.length - i);
+			return removed;
+		}
+		return values;
+	}
+
+	private static Node[] insert(Node[] children, Node child) {
+		int position = 0;
+		while (position < children.length && children[position].label.charAt(0) < child.label.charAt(0))
+			position++;
+		Node[] inserted = new Node[children.length + 1];
+		System.arraycopy(children, 0, inserted, 0, position);
+		inserted[position] = child;
+		System.arraycopy(children, position, inserted, position + 1, children.length - position);
+		return inserted;
+	}
+
+	private static Node[] replace(Node[] children, int index, Node child) {
+		Node[] replaced = children.clone();
+		replaced[index] = child;
+		return replaced;
+	}
+
+	private static Node[] without(Node[] children, int index) {
+		Node[] removed = new Node[children.length - 1];
+		System.arraycopy(children, 0, removed, 0, index);
+		System.arraycopy(children, index + 1, removed, index, removed.length - index);
+		return removed;
+	}
+
+	private static class Entry {
+		private final String key;
+		private final Suggestion suggestion;
+
+		private Entry(String key, Suggestion suggestion) {
+			this.key = key;
+			this.suggestion = suggestion;
+		}
+
+		private String getKey() {
+			return key;
+		}
+	}
+
+	private static class Suggestion {
+		private final String text;
+		private final long weight;
+
+		private Suggestion(String text, long weight) {
+			this.text = text;
+			this.weight = weight;
+		}
+	}
+
+	private static class Node {
+		private final String label;
+		private final Node[] children;
+		private final Suggestion[] values;
+		private final Suggestion[] best;
+
+		private Node(String label, Node[] children, Suggestion[] values) {
+			this(label, children, values, best(children, values));
+		}
+
+		private Node(String label, Node[] children, Suggestion[] values, Suggestion[] best) {
+			this.label = label;
+			this.children = children;
+			this.values = values;
+			this.best = best;
+		}
+
+		private Node withLabel(String label) {
+			return new Node(label, children, values, best);
+		}
+
+		private Node withChildren(Node[] children) {
+			return new Node(label, children, values);
+		}
+
+		private Node withValues(Suggestion[] values) {
+			return new Node(label, children, values);
+		}
+
+		/**
+		 * Children are sorted by the first character of their label, which is
+		 * unique among siblings.
+		 */
+		private int childIndex(char c) {
+			int low = 0;
+			int high = children.length - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				char first = children[middle].label.charAt(0);
+				if (first < c) low = middle + 1;
+				else if (first > c) high = middle - 1;
+				else return middle;
+			}
+			return -1;
+		}
+
+		/**
+		 * Merges the sorted best lists of the children with the own values,
+		 * skipping texts reached through several keys.
+		 */
+		private static Suggestion[] best(Node[] children, Suggestion[] values) {
+			Suggestion[] sortedValues = values.clone();
+			Arrays.sort(sortedValues, BY_WEIGHT);
+			int valuePosition = 0;
+			int[] positions = new int[children.length];
+			Suggestion[] best = new Suggestion[MAX_SUGGESTIONS];
+			int size = 0;
+			while (size < MAX_SUGGESTIONS) {
+				Suggestion next = valuePosition < sortedValues.length ? sortedValues[valuePosition] : null;
+				int from = -1;
+				for (int i = 0; i < children.length; i++) {
+					Suggestion[] childBest = children[i].best;
+					if (positions[i] == childBest.length) continue;
+					if (next == null || BY_WEIGHT.compare(childBest[positions[i]], next) < 0) {
+						next = childBest[positions[i]];
+						from = i;
+					}
+				}
+				if (next == null) break;
+				if (from < 0) valuePosition++;
+				else positions[from]++;
+				if (!contains(best, size, next.text)) best[size++] = next;
+			}
+			return size == MAX_SUGGESTIONS ? best : Arrays.copyOf(best, size);
+		}
+
+		private static boolean contains(Suggestion[] suggestions, int size, String text) {
+			for (int i = 0; i < size; i++) {
+				if (suggestions[i].text.equals(text)) return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.Collection;
+import java.util.List;
+
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+
+public interface IngredientAutocomplete {
+
+	/**
+	 * @return at most limit ingredient names and alternative names with a word
+	 *         starting with the given text, most used first
+	 */
+	List<String> completeNames(String text, int limit);
+
+	/**
+	 * @return at most limit departments with a word starting with the given
+	 *         text, most used first
+	 */
+	List<String> completeDepartments(String text, int limit);
+
+	void updateIngredients(Collection<Ingredient> ingredients);
+
+	void reload();
+}
@@ -0,0 +1,234 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.RecipeIngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUsage;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Autocompletion of ingredient names and departments from two
+ * {@link CompletionTrie}s. A text is ranked by how many recipe ingredients use
+ * an ingredient carrying it. Changed recipes recount the usages of their
+ * ingredients and of the ingredients they used before.
+ */
+@Component
+@Slf4j
+public class IngredientAutocompleteImpl implements IngredientAutocomplete {
+
+	private final IngredientRepository ingredientRepository;
+	private final RecipeIngredientRepository recipeIngredientRepository;
+	private final Map<String, IndexedIngredient> ingredients = new HashMap<>();
+	private final Map<String, TextUsage> names = new HashMap<>();
+	private final Map<String, TextUsage> departments = new HashMap<>();
+	private volatile CompletionTrie nameTrie;
+	private volatile CompletionTrie departmentTrie;
+
+	public IngredientAutocompleteImpl(IngredientRepository ingredientRepository, RecipeIngredientRepository recipeIngredientRepository) {
+		this.ingredientRepository = ingredientRepository;
+		this.recipeIngredientRepository = recipeIngredientRepository;
+	}
+
+	@Override
+	public List<String> completeNames(String text, int limit) {
+		ensureLoaded();
+		return nameTrie.complete(text, limit);
+	}
+
+	@Override
+	public List<String> completeDepartments(String text, int limit) {
+		ensureLoaded();
+		return departmentTrie.complete(text, limit);
+	}
+
+	@Override
+	public synchronized void updateIngredients(Collection<Ingredient> changed) {
+		if (nameTrie == null) {
+			reload();
+			return;
+		}
+		List<Ingredient> valid = changed.stream().filter(i -> i != null && i.getId() != null && i.getName() != null).collect(Collectors.toList());
+		if (valid.isEmpty()) return;
+		Map<String, Long> usages = recipeIngredientRepository.countUsagesByIngredientIdIn(valid.stream().map(Ingredient::getId).collect(Collectors.toSet())).stream()
+				.collect(Collectors.toMap(IngredientUsage::getIngredientId, IngredientUsage::getUsages));
+		Set<String> changedNames = new LinkedHashSet<>();
+		Set<String> changedDepartments = new LinkedHashSet<>();
+		for (Ingredient ingredient : valid) {
+			Set<String> terms = new LinkedHashSet<>();
+			terms.add(ingredient.getName());
+			ingredient.getAlternativeNames().stream().filter(n -> n != null).forEach(terms::add);
+			IndexedIngredient indexed = new IndexedIngredient(terms, ingredient.getDepartment(), usages.getOrDefault(ingredient.getId(), 0L));
+			IndexedIngredient previous = ingredients.put(ingredient.getId(), indexed);
+			if (indexed.equals(previous)) continue;
+			if (previous != null) subtract(previous, changedNames, changedDepartments);
+			add(indexed, changedNames, changedDepartments);
+		}
+		nameTrie = apply(nameTrie, names, changedNames);
+		departmentTrie = apply(departmentTrie, departments, changedDepartments);
+	}
+
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void reload() {
+		Map<String, Long> usages = recipeIngredientRepository.countUsagesByIngredient().stream()
+				.collect(Collectors.toMap(IngredientUsage::getIngredientId, IngredientUsage::getUsages));
+		Map<String, List<AlternativeNameMatch>> byIngredient = ingredientRepository.findAllIngredientsWithAlternativeNames().stream()
+				.collect(Collectors.groupingBy(AlternativeNameMatch::getIngredientId, LinkedHashMap::new, Collectors.toList()));
+		ingredients.clear();
+		names.clear();
+		departments.clear();
+		for (Map.Entry<String, List<AlternativeNameMatch>> entry : byIngredient.entrySet()) {
+			AlternativeNameMatch first = entry.getValue().get(0);
+			Set<String> terms = new LinkedHashSet<>();
+			terms.add(first.getName());
+			entry.getValue().stream().map(AlternativeNameMatch::getAlternativeName).filter(n -> n != null).forEach(terms::add);
+			IndexedIngredient indexed = new IndexedIngredient(terms, first.getDepartment(), usages.getOrDefault(entry.getKey(), 0L));
+			ingredients.put(entry.getKey(), indexed);
+			add(indexed, new LinkedHashSet<>(), new LinkedHashSet<>());
+		}
+		nameTrie = CompletionTrie.build(weights(names));
+		departmentTrie = CompletionTrie.build(weights(departments));
+		log.info("Indexed " + names.size() + " names and " + departments.size() + " departments for autocompletion");
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRecipeChanged(RecipeChangedEvent event) {
+		updateIngredients(event.getIngredients());
+		Set<String> dropped = new HashSet<>(event.getPreviousIngredientIds());
+		event.getIngredients().stream().filter(Objects::nonNull).map(Ingredient::getId).forEach(dropped::remove);
+		if (!dropped.isEmpty()) recountUsages(dropped);
+	}
+
+	/**
+	 * Replaces the usages of the given indexed ingredients by their current
+	 * count, lowering the ranking of ingredients no recipe uses any more.
+	 */
+	private synchronized void recountUsages(Set<String> ingredientIds) {
+		if (nameTrie == null) {
+			reload();
+			return;
+		}
+		Map<String, Long> usages = recipeIngredientRepository.countUsagesByIngredientIdIn(ingredientIds).stream()
+				.collect(Collectors.toMap(IngredientUsage::getIngredientId, IngredientUsage::getUsages));
+		Set<String> changedNames = new LinkedHashSet<>();
+		Set<String> changedDepartments = new LinkedHashSet<>();
+		for (String ingredientId : ingredientIds) {
+			IndexedIngredient previous = ingredients.get(ingredientId);
+			long count = usages.getOrDefault(ingredientId, 0L);
+			if (previous == null || previous.usages == count) continue;
+			IndexedIngredient recounted = new IndexedIngredient(previous.terms, previous.department, count);
+			subtract(previous, changedNames, changedDepartments);
+			add(recounted, changedNames, changedDepartments);
+			ingredients.put(ingredientId, recounted);
+		}
+		nameTrie = apply(nameTrie, names, changedNames);
+		departmentTrie = apply(departmentTrie, departments, changedDepartments);
+	}
+
+	private void ensureLoaded() {
+		if (nameTrie != null) return;
+		synchronized (this) {
+			if (nameTrie == null) reload();
+		}
+	}
+
+	private void add(IndexedIngredient ingredient, Set<String> changedNames, Set<String> changedDepartments) {
+		for (String term : ingredient.terms) {
+			names.computeIfAbsent(term, t -> new TextUsage()).add(ingredient.usages);
+			changedNames.add(term);
+		}
+		if (ingredient.department == null || ingredient.department.isEmpty()) return;
+		departments.computeIfAbsent(ingredient.department, d -> new TextUsage()).add(ingredient.usages);
+		changedDepartments.add(ingredient.department);
+	}
+
+	private void subtract(IndexedIngredient ingredient, Set<String> changedNames, Set<String> changedDepartments) {
+		for (String term : ingredient.terms) {
+			if (names.get(term).subtract(ingredient.usages)) names.remove(term);
+			changedNames.add(term);
+		}
+		if (ingredient.department == null || ingredient.department.isEmpty()) return;
+		if (departments.get(ingredient.department).subtract(ingredient.usages)) departments.remove(ingredient.department);
+		changedDepartments.add(ingredient.department);
+	}
+
+	private static CompletionTrie apply(CompletionTrie trie, Map<String, TextUsage> usages, Set<String> changed) {
+		for (String text : changed) {
+			TextUsage usage = usages.get(text);
+			trie = usage == null ? trie.remove(text) : trie.put(text, usage.usages);
+		}
+		return trie;
+	}
+
+	private static Map<String, Long> weights(Map<String, TextUsage> usages) {
+		Map<String, Long> weights = new HashMap<>(usages.size() * 2);
+		usages.forEach((text, usage) -> weights.put(text, usage.usages));
+		return weights;
+	}
+
+	private static class IndexedIngredient {
+		private final Set<String> terms;
+		private final String department;
+		private final long usages;
+
+		private IndexedIngredient(Set<String> terms, String department, long usages) {
+			this.terms = terms;
+			this.department = department;
+			this.usages = usages;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof IndexedIngredient)) return false;
+			IndexedIngredient indexed = (IndexedIngredient) other;
+			return terms.equals(indexed.terms) && Objects.equals(department, indexed.department) && usages == indexed.usages;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(terms, department, usages);
+		}
+	}
+
+	/**
+	 * Number of ingredients carrying a text and the summed usages of these
+	 * ingredients.
+	 */
+	private static class TextUsage {
+		private int ingredients;
+		private long usages;
+
+		private void add(long usages) {
+			this.ingredients++;
+			this.usages += usages;
+		}
+
+		/**
+		 * @return true if no ingredient carries the text any more
+		 */
+		private boolean subtract(long usages) {
+			this.ingredients--;
+			this.usages -= usages;
+			return ingredients == 0;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+
+public interface IngredientMatcher {
+
+	/**
+	 * @return at most limit known ingredients similar to the given name, best
+	 *         match first
+	 */
+	List<IngredientMatch> findMatches(String name, int limit);
+
+	/**
+	 * @return the best match if it is similar enough to be taken over without
+	 *         a manual check
+	 */
+	Optional<IngredientMatch> findBestMatch(String name);
+
+	void updateIngredients(Collection<Ingredient> ingredients);
+
+	void reload();
+}
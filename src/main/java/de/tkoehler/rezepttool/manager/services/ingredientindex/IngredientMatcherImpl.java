@@ -0,0 +1,298 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fuzzy matching over the ingredient catalogue. Every name and alternative
+ * name of an ingredient is indexed by the trigrams of its normalized tokens;
+ * a query only scores the ingredients sharing at least one trigram with it
+ * (Dice coefficient) and keeps the best ones in a bounded heap. The shared
+ * trigram counts are summed in a per-thread buffer over all documents, only
+ * the touched entries are reset afterwards.
+ */
+@Component
+@Slf4j
+public class IngredientMatcherImpl implements IngredientMatcher {
+
+	private static final Comparator<IngredientMatch> BY_SCORE = Comparator.comparingDouble(IngredientMatch::getScore)
+			.thenComparing(IngredientMatch::getName, Comparator.reverseOrder());
+
+	private static final ThreadLocal<int[]> SHARED_TRIGRAMS = ThreadLocal.withInitial(() -> new int[0]);
+
+	private final IngredientRepository ingredientRepository;
+	private final double minScore;
+	private final double acceptScore;
+	private volatile Snapshot snapshot;
+
+	public IngredientMatcherImpl(IngredientRepository ingredientRepository,
+			@Value("${importer.fuzzyMatch.minScore:0.3}") double minScore,
+			@Value("${importer.fuzzyMatch.acceptScore:0.8}") double acceptScore) {
+		this.ingredientRepository = ingredientRepository;
+		this.minScore = minScore;
+		this.acceptScore = acceptScore;
+	}
+
+	@Override
+	public List<IngredientMatch> findMatches(String name, int limit) {
+		Set<String> trigrams = IngredientNameNormalizer.trigrams(IngredientNameNormalizer.tokens(name));
+		if (trigrams.isEmpty() || limit < 1) return new ArrayList<>();
+		Snapshot current = currentSnapshot();
+		int[] sharedTrigrams = sharedTrigramBuffer(current.documents.size());
+		int[] touched = new int[64];
+		int touchedCount = 0;
+		Map<String, IngredientMatch> bestByIngredient = new HashMap<>();
+		try {
+			for (String trigram : trigrams) {
+				int[] postings = current.postings.get(trigram);
+				if (postings == null) continue;
+				for (int document : postings) {
+					if (sharedTrigrams[document]++ > 0) continue;
+					if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+					touched[touchedCount++] = document;
+				}
+			}
+			for (int i = 0; i < touchedCount; i++) {
+				int document = touched[i];
+				if (current.removed.get(document)) continue;
+				Document candidate = current.documents.get(document);
+				double score = 2.0 * sharedTrigrams[document] / (trigrams.size() + candidate.trigramCount);
+				if (score < minScore) continue;
+				IngredientMatch best = bestByIngredient.get(candidate.ingredientId);
+				if (best == null || best.getScore() < score)
+					bestByIngredient.put(candidate.ingredientId, candidate.toMatch(score));
+			}
+		}
+		finally {
+			for (int i = 0; i < touchedCount; i++) {
+				sharedTrigrams[touched[i]] = 0;
+			}
+		}
+		PriorityQueue<IngredientMatch> topMatches = new PriorityQueue<>(limit + 1, BY_SCORE);
+		for (IngredientMatch match : bestByIngredient.values()) {
+			topMatches.offer(match);
+			if (topMatches.size() > limit) topMatches.poll();
+		}
+		List<IngredientMatch> result = new ArrayList<>(topMatches);
+		result.sort(BY_SCORE.reversed());
+		return result;
+	}
+
+	@Override
+	public Optional<IngredientMatch> findBestMatch(String name) {
+		return findMatches(name, 1).stream().filter(match -> match.getScore() >= acceptScore).findFirst();
+	}
+
+	@Override
+	public synchronized void updateIngredients(Collection<Ingredient> ingredients) {
+		Snapshot current = currentSnapshot();
+		Snapshot next = null;
+		for (Ingredient ingredient : ingredients) {
+			if (ingredient == null || ingredient.getId() == null || ingredient.getName() == null) continue;
+			Set<String> terms = new LinkedHashSet<>();
+			terms.add(ingredient.getName());
+			ingredient.getAlternativeNames().stream().filter(n -> n != null).forEach(terms::add);
+			if (current.isIndexed(ingredient.getId(), ingredient.getName(), ingredient.getDepartment(), terms)) continue;
+			if (next == null) next = current.copy();
+			next.remove(ingredient.getId());
+			createDocuments(ingredient.getId(), ingredient.getName(), ingredient.getDepartment(), terms).forEach(next::add);
+		}
+		if (next == null) return;
+		snapshot = next.removed.cardinality() > next.documents.size() / 4 ? next.compact() : next;
+	}
+
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void reload() {
+		Map<String, List<AlternativeNameMatch>> byIngredient = ingredientRepository.findAllIngredientsWithAlternativeNames().stream()
+				.collect(Collectors.groupingBy(AlternativeNameMatch::getIngredientId, LinkedHashMap::new, Collectors.toList()));
+		List<Document> documents = new ArrayList<>();
+		for (List<AlternativeNameMatch> matches : byIngredient.values()) {
+			AlternativeNameMatch first = matches.get(0);
+			Set<String> terms = new LinkedHashSet<>();
+			terms.add(first.getName());
+			matches.stream().map(AlternativeNameMatch::getAlternativeName).filter(n -> n != null).forEach(terms::add);
+			documents.addAll(createDocuments(first.getIngredientId(), first.getName(), first.getDepartment(), terms));
+		}
+		Snapshot loaded = Snapshot.build(documents);
+		snapshot = loaded;
+		log.info("Indexed " + loaded.documents.size() + " names of " + byIngredient.size() + " ingredients for fuzzy matching");
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRecipeChanged(RecipeChangedEvent event) {
+		updateIngredients(event.getIngredients());
+	}
+
+	/**
+	 * @return the zeroed buffer of the calling thread, grown to the given size
+	 */
+	private static int[] sharedTrigramBuffer(int size) {
+		int[] buffer = SHARED_TRIGRAMS.get();
+		if (buffer.length >= size) return buffer;
+		buffer = new int[Math.max(size, buffer.length + (buffer.length >> 1))];
+		SHARED_TRIGRAMS.set(buffer);
+		return buffer;
+	}
+
+	private static List<Document> createDocuments(String ingredientId, String name, String department, Set<String> terms) {
+		List<Document> documents = new ArrayList<>();
+		for (String term : terms) {
+			Set<String> trigrams = IngredientNameNormalizer.trigrams(IngredientNameNormalizer.tokens(term));
+			if (!trigrams.isEmpty()) documents.add(new Document(ingredientId, name, department, term, trigrams));
+		}
+		return documents;
+	}
+
+	private Snapshot currentSnapshot() {
+		Snapshot current = snapshot;
+		if (current != null) return current;
+		synchronized (this) {
+			if (snapshot == null) reload();
+			return snapshot;
+		}
+	}
+
+	private static class Document {
+		private final String ingredientId;
+		private final String name;
+		private final String department;
+		private final String term;
+		private final String[] trigrams;
+		private final int trigramCount;
+
+		private Document(String ingredientId, String name, String department, String term, Set<String> trigrams) {
+			this.ingredientId = ingredientId;
+			this.name = name;
+			this.department = department;
+			this.term = term;
+			this.trigrams = trigrams.toArray(new String[trigrams.size()]);
+			this.trigramCount = this.trigrams.length;
+		}
+
+		private IngredientMatch toMatch(double score) {
+			return IngredientMatch.builder().ingredientId(ingredientId).name(name).department(department).matchedName(term).score(score).build();
+		}
+	}
+
+	private static class PostingList {
+		private int[] values = new int[4];
+		private int size;
+
+		private void add(int value) {
+			if (size == values.length) values = Arrays.copyOf(values, size * 2);
+			values[size++] = value;
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+
+	/**
+	 * Immutable once published. Updates copy the snapshot, append the new
+	 * documents and only mark replaced ones as removed, so readers never need a
+	 * lock.
+	 */
+	private static class Snapshot {
+		private final List<Document> documents;
+		private final Map<String, int[]> postings;
+		private final Map<String, int[]> documentsByIngredient;
+		private final BitSet removed;
+
+		private Snapshot(List<Document> documents, Map<String, int[]> postings, Map<String, int[]> documentsByIngredient, BitSet removed) {
+			this.documents = documents;
+			this.postings = postings;
+			this.documentsByIngredient = documentsByIngredient;
+			this.removed = removed;
+		}
+
+		private Snapshot copy() {
+			return new Snapshot(new ArrayList<>(documents), new HashMap<>(postings), new HashMap<>(documentsByIngredient), (BitSet) removed.clone());
+		}
+
+		private Snapshot compact() {
+			List<Document> live = new ArrayList<>();
+			for (int i = 0; i < documents.size(); i++) {
+				if (!removed.get(i)) live.add(documents.get(i));
+			}
+			return build(live);
+		}
+
+		private static Snapshot build(List<Document> documents) {
+			Map<String, PostingList> postingLists = new HashMap<>();
+			Map<String, int[]> documentsByIngredient = new HashMap<>();
+			for (int id = 0; id < documents.size(); id++) {
+				Document document = documents.get(id);
+				for (String trigram : document.trigrams) {
+					postingLists.computeIfAbsent(trigram, t -> new PostingList()).add(id);
+				}
+				documentsByIngredient.put(document.ingredientId, append(documentsByIngredient.get(document.ingredientId), id));
+			}
+			Map<String, int[]> postings = new HashMap<>(postingLists.size() * 2);
+			postingLists.forEach((trigram, postingList) -> postings.put(trigram, postingList.toArray()));
+			return new Snapshot(new ArrayList<>(documents), postings, documentsByIngredient, new BitSet());
+		}
+
+		private boolean isIndexed(String ingredientId, String name, String department, Set<String> terms) {
+			int[] indexed = documentsByIngredient.get(ingredientId);
+			if (indexed == null || indexed.length != terms.size()) return false;
+			for (int document : indexed) {
+				Document existing = documents.get(document);
+				if (!existing.name.equals(name) || !String.valueOf(existing.department).equals(String.valueOf(department)) || !terms.contains(existing.term))
+					return false;
+			}
+			return true;
+		}
+
+		private void remove(String ingredientId) {
+			int[] indexed = documentsByIngredient.remove(ingredientId);
+			if (indexed == null) return;
+			for (int document : indexed) {
+				removed.set(document);
+			}
+		}
+
+		private void add(Document document) {
+			int id = documents.size();
+			documents.add(document);
+			for (String trigram : document.trigrams) {
+				postings.put(trigram, append(postings.get(trigram), id));
+			}
+			documentsByIngredient.put(document.ingredientId, append(documentsByIngredient.get(document.ingredientId), id));
+		}
+
+		private static int[] append(int[] values, int value) {
+			if (values == null) return new int[] { value };
+			int[] appended = Arrays.copyOf(values, values.length + 1);
+			appended[values.length] = value;
+			return appended;
+		}
+	}
+}
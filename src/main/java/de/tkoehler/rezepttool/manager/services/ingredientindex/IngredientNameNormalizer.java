@@ -0,0 +1,71 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Turns ingredient names into comparable tokens and trigrams. Plural markers
+ * like "(n)" are dropped, umlauts are folded and the most common German
+ * inflection suffixes are cut off, so "Zwiebel(n), rot" and "rote Zwiebeln"
+ * end up with the same tokens.
+ */
+public final class IngredientNameNormalizer {
+
+	private static final Pattern PLURAL_MARKER = Pattern.compile("\\((n|en|e|s|er)\\)");
+	private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final String[] SUFFIXES = { "en", "er", "es", "n", "e", "s" };
+	private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+			"und", "oder", "mit", "ohne", "von", "vom", "zum", "zur", "der", "die", "das", "fuer", "nach", "belieben", "etwas", "evtl", "ca", "ggf"));
+
+	private IngredientNameNormalizer() {
+	}
+
+	/**
+	 * @return the distinct, sorted tokens of the given name
+	 */
+	public static List<String> tokens(String name) {
+		if (name == null) return new ArrayList<>();
+		String folded = PLURAL_MARKER.matcher(fold(name)).replaceAll("");
+		Set<String> tokens = new TreeSet<>();
+		for (String token : SEPARATOR.split(folded)) {
+			if (token.isEmpty() || STOP_WORDS.contains(token)) continue;
+			tokens.add(stem(token));
+		}
+		return new ArrayList<>(tokens);
+	}
+
+	/**
+	 * Lower cases the text and folds umlauts and ß the way they are written
+	 * without them ("Möhre" to "moehre"). Shared by the matcher and the
+	 * autocompletion, so both compare names alike.
+	 */
+	public static String fold(String text) {
+		return text.toLowerCase(Locale.GERMAN).replace("ä", "ae").replace("ö", "oe").replace("ü", "ue").replace("ß", "ss");
+	}
+
+	public static Set<String> trigrams(List<String> tokens) {
+		Set<String> trigrams = new LinkedHashSet<>();
+		for (String token : tokens) {
+			String padded = "  " + token + " ";
+			for (int i = 0; i + 3 <= padded.length(); i++) {
+				trigrams.add(padded.substring(i, i + 3));
+			}
+		}
+		return trigrams;
+	}
+
+	private static String stem(String token) {
+		for (String suffix : SUFFIXES) {
+			if (token.length() - suffix.length() >= 3 && token.endsWith(suffix))
+				return token.substring(0, token.length() - suffix.length());
+		}
+		return token;
+	}
+}
@@ -15,8 +15,8 @@ public class AggregateRating {
 
     @JsonAlias({ "@type" })
 	private String type;
-	private String ratingValue;
-	private String reviewCount;
+	private double ratingValue;
+	private int reviewCount;
 	private int worstRating;
 	private int bestRating;
 }
@@ -0,0 +1,45 @@
+package de.tkoehler.rezepttool.manager.services.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Position of a keyset page: the sort key (name, id) of the last row handed
+ * out. Travels to the client as an opaque url-safe string.
+ */
+@Getter
+@ToString
+public class PageToken {
+
+	private static final char SEPARATOR = '\n';
+
+	private final String name;
+	private final String id;
+
+	public PageToken(String name, String id) {
+		this.name = name;
+		this.id = id;
+	}
+
+	public String encode() {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString((name + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the token has not been created by {@link #encode()} or its id
+	 *             is no UUID
+	 */
+	public static PageToken decode(String token) {
+		String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		int separator = decoded.lastIndexOf(SEPARATOR);
+		if (separator < 0 || separator == decoded.length() - 1) throw new IllegalArgumentException("Invalid page token: " + token);
+		String id = decoded.substring(separator + 1);
+		TimeOrderedIds.toBytes(id);
+		return new PageToken(decoded.substring(0, separator), id);
+	}
+}
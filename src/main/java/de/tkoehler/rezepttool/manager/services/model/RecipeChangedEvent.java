@@ -0,0 +1,64 @@
+package de.tkoehler.rezepttool.manager.services.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the editor whenever a recipe has been inserted, updated or
+ * deleted. Carries the name, categories and ingredients written with the
+ * recipe so that in-memory views of the recipe and ingredient data can be
+ * updated without reloading them. Updates and deletions also carry the ids of
+ * the ingredients the recipe used before.
+ */
+@Getter
+@ToString
+public class RecipeChangedEvent {
+
+	private final String recipeId;
+	private final String recipeName;
+	private final Set<String> categories;
+	private final List<Ingredient> ingredients;
+	private final Set<String> previousIngredientIds;
+	private final boolean updated;
+	private final boolean deleted;
+
+	public RecipeChangedEvent(String recipeId, List<Ingredient> ingredients) {
+		this(recipeId, null, null, ingredients, null, false, false);
+	}
+
+	public RecipeChangedEvent(String recipeId, String recipeName, Collection<String> categories, List<Ingredient> ingredients) {
+		this(recipeId, recipeName, categories, ingredients, null, false, false);
+	}
+
+	private RecipeChangedEvent(String recipeId, String recipeName, Collection<String> categories, List<Ingredient> ingredients,
+			Collection<String> previousIngredientIds, boolean updated, boolean deleted) {
+		this.recipeId = recipeId;
+		this.recipeName = recipeName;
+		this.categories = categories == null ? Collections.emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(categories));
+		this.ingredients = ingredients == null ? Collections.emptyList() : Collections.unmodifiableList(ingredients);
+		this.previousIngredientIds = previousIngredientIds == null ? Collections.emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(previousIngredientIds));
+		this.updated = updated;
+		this.deleted = deleted;
+	}
+
+	/**
+	 * An existing recipe has been overwritten, previousIngredientIds are the
+	 * ingredients it used before.
+	 */
+	public static RecipeChangedEvent updated(String recipeId, String recipeName, Collection<String> categories, List<Ingredient> ingredients,
+			Collection<String> previousIngredientIds) {
+		return new RecipeChangedEvent(recipeId, recipeName, categories, ingredients, previousIngredientIds, true, false);
+	}
+
+	public static RecipeChangedEvent deleted(String recipeId, Collection<String> previousIngredientIds) {
+		return new RecipeChangedEvent(recipeId, null, null, null, previousIngredientIds, false, true);
+	}
+}
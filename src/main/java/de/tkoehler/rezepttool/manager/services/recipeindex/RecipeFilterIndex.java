@@ -0,0 +1,20 @@
+package de.tkoehler.rezepttool.manager.services.recipeindex;
+
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
+
+public interface RecipeFilterIndex {
+
+	/**
+	 * Returns one page of the recipes matching the filter. Categories and
+	 * ingredient names are compared case insensitive.
+	 */
+	RecipeFilterResult filter(RecipeFilterWebInput filter);
+
+	void updateRecipe(FilterableRecipe recipe);
+
+	void removeRecipe(String recipeId);
+
+	void reload();
+}
@@ -0,0 +1,380 @@
+package de.tkoehler.rezepttool.manager.services.recipeindex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
+import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
+import de.tkoehler.rezepttool.manager.services.FilterableRecipeLoader;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inverted index from categories and ingredient names to the recipes using
+ * them, held as compressed bitmaps over dense document numbers. Filters are
+ * evaluated with bitmap AND/OR/ANDNOT, so the planner no longer has to
+ * download the whole catalogue.
+ * <p>
+ * Snapshots are immutable. The document numbers of the main part follow the
+ * recipe names, so a page is cut out of the matches with select. The editor's
+ * changes are collected and applied in one batch before the next filter: a
+ * changed recipe is cleared from the live bitmap of the main part and put into
+ * a small delta part, sorted by name, which is filtered term by term and
+ * merged into the main matches at its name position. A background rebuild,
+ * started at startup and after a number of changes, folds the delta into the
+ * main part again.
+ */
+@Component
+@Slf4j
+public class RecipeFilterIndexImpl implements RecipeFilterIndex {
+
+	private final FilterableRecipeLoader filterableRecipeLoader;
+	private final ExecutorService recipeIndexExecutor;
+	private final int rebuildAfterUpdates;
+	private final Object rebuildLock = new Object();
+	private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+	private volatile Snapshot snapshot;
+	private List<Update> updatesDuringRebuild;
+	private List<Update> pendingUpdates = new ArrayList<>();
+	private volatile boolean updatesPending;
+	private int updatesSinceRebuild;
+
+	public RecipeFilterIndexImpl(FilterableRecipeLoader filterableRecipeLoader, @Qualifier("recipeIndexExecutor") ExecutorService recipeIndexExecutor,
+			@Value("${manager.filterIndex.rebuildAfterUpdates:1000}") int rebuildAfterUpdates) {
+		this.filterableRecipeLoader = filterableRecipeLoader;
+		this.recipeIndexExecutor = recipeIndexExecutor;
+		this.rebuildAfterUpdates = rebuildAfterUpdates;
+	}
+
+	@Override
+	public RecipeFilterResult filter(RecipeFilterWebInput filter) {
+		Snapshot current = currentSnapshot();
+		RoaringBitmap matches = current.live.clone();
+		retainAll(matches, current.categories, filter.getAllCategories());
+		retainAny(matches, current.categories, filter.getAnyCategories());
+		removeAll(matches, current.categories, filter.getNoneCategories());
+		retainAll(matches, current.ingredients, filter.getAllIngredients());
+		retainAny(matches, current.ingredients, filter.getAnyIngredients());
+		removeAll(matches, current.ingredients, filter.getNoneIngredients());
+
+		List<DeltaRecipe> deltaMatches = new ArrayList<>();
+		long[] deltaPositions = new long[current.delta.size()];
+		for (DeltaRecipe recipe : current.delta) {
+			if (!recipe.matches(filter)) continue;
+			int insertionPoint = recipe.insertionPoint;
+			deltaPositions[deltaMatches.size()] = (insertionPoint == 0 ? 0 : matches.rankLong(insertionPoint - 1)) + deltaMatches.size();
+			deltaMatches.add(recipe);
+		}
+
+		int mainTotal = matches.getCardinality();
+		int total = mainTotal + deltaMatches.size();
+		long offset = (long) filter.getPage() * filter.getSize();
+		List<TinyRecipe> recipes = new ArrayList<>();
+		if (offset < total) {
+			int delta = 0;
+			while (delta < deltaMatches.size() && deltaPositions[delta] < offset)
+				delta++;
+			long mainOffset = offset - delta;
+			PeekableIntIterator iterator = matches.getIntIterator();
+			if (mainOffset < mainTotal) iterator.advanceIfNeeded(matches.select((int) mainOffset));
+			long position = offset;
+			while (recipes.size() < filter.getSize()) {
+				if (delta < deltaMatches.size() && deltaPositions[delta] == position) {
+					DeltaRecipe recipe = deltaMatches.get(delta++);
+					recipes.add(new TinyRecipe(recipe.id, recipe.name));
+				}
+				else if (mainOffset++ < mainTotal) {
+					int document = iterator.next();
+					recipes.add(new TinyRecipe(current.recipeIds[document], current.recipeNames[document]));
+				}
+				else break;
+				position++;
+			}
+		}
+		return RecipeFilterResult.builder()
+				.page(filter.getPage())
+				.size(filter.getSize())
+				.totalElements(total)
+				.recipes(recipes)
+				.build();
+	}
+
+	@Override
+	public synchronized void updateRecipe(FilterableRecipe recipe) {
+		enqueue(new Update(recipe.getId(), recipe));
+	}
+
+	@Override
+	public synchronized void removeRecipe(String recipeId) {
+		enqueue(new Update(recipeId, null));
+	}
+
+	@Override
+	public void reload() {
+		synchronized (rebuildLock) {
+			rebuildScheduled.set(false);
+			synchronized (this) {
+				updatesDuringRebuild = new ArrayList<>();
+			}
+			Snapshot rebuilt;
+			try {
+				rebuilt = Snapshot.build(filterableRecipeLoader.loadAll());
+			}
+			catch (RuntimeException e) {
+				synchronized (this) {
+					updatesDuringRebuild = null;
+				}
+				throw e;
+			}
+			synchronized (this) {
+				rebuilt = rebuilt.apply(updatesDuringRebuild);
+				updatesDuringRebuild = null;
+				pendingUpdates = new ArrayList<>();
+				updatesPending = false;
+				updatesSinceRebuild = 0;
+				snapshot = rebuilt;
+			}
+			log.info("Indexed " + rebuilt.recipeIds.length + " recipes for filtering");
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildInBackground() {
+		if (!rebuildScheduled.compareAndSet(false, true)) return;
+		recipeIndexExecutor.submit(() -> {
+			try {
+				reload();
+			}
+			catch (RuntimeException e) {
+				rebuildScheduled.set(false);
+				log.error("Rebuilding the recipe filter index failed", e);
+			}
+		});
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRecipeChanged(RecipeChangedEvent event) {
+		if (event.isDeleted()) removeRecipe(event.getRecipeId());
+		else if (event.getRecipeName() != null) updateRecipe(FilterableRecipe.builder()
+				.id(event.getRecipeId())
+				.name(event.getRecipeName())
+				.categories(new ArrayList<>(event.getCategories()))
+				.ingredients(event.getIngredients().stream().map(i -> i.getName()).collect(Collectors.toList()))
+				.build());
+	}
+
+	private void enqueue(Update update) {
+		if (updatesDuringRebuild != null) updatesDuringRebuild.add(update);
+		if (snapshot != null) {
+			pendingUpdates.add(update);
+			updatesPending = true;
+		}
+		if (++updatesSinceRebuild >= rebuildAfterUpdates) rebuildInBackground();
+	}
+
+	private Snapshot currentSnapshot() {
+		if (updatesPending) applyPendingUpdates();
+		Snapshot current = snapshot;
+		if (current != null) return current;
+		synchronized (rebuildLock) {
+			if (snapshot == null) reload();
+			return snapshot;
+		}
+	}
+
+	private synchronized void applyPendingUpdates() {
+		if (!updatesPending) return;
+		snapshot = snapshot.apply(pendingUpdates);
+		pendingUpdates = new ArrayList<>();
+		updatesPending = false;
+	}
+
+	private static void retainAll(RoaringBitmap matches, Map<String, RoaringBitmap> postings, Collection<String> terms) {
+		if (terms == null) return;
+		for (String term : terms) {
+			RoaringBitmap documents = postings.get(normalize(term));
+			if (documents == null) matches.clear();
+			else matches.and(documents);
+		}
+	}
+
+	private static void retainAny(RoaringBitmap matches, Map<String, RoaringBitmap> postings, Collection<String> terms) {
+		if (terms == null || terms.isEmpty()) return;
+		RoaringBitmap union = new RoaringBitmap();
+		for (String term : terms) {
+			RoaringBitmap documents = postings.get(normalize(term));
+			if (documents != null) union.or(documents);
+		}
+		matches.and(union);
+	}
+
+	private static void removeAll(RoaringBitmap matches, Map<String, RoaringBitmap> postings, Collection<String> terms) {
+		if (terms == null) return;
+		for (String term : terms) {
+			RoaringBitmap documents = postings.get(normalize(term));
+			if (documents != null) matches.andNot(documents);
+		}
+	}
+
+	static String normalize(String term) {
+		return term == null ? "" : term.trim().toLowerCase(Locale.GERMAN);
+	}
+
+	private static class Update {
+		private final String recipeId;
+		private final FilterableRecipe recipe;
+
+		private Update(String recipeId, FilterableRecipe recipe) {
+			this.recipeId = recipeId;
+			this.recipe = recipe;
+		}
+	}
+
+	/**
+	 * A recipe changed since the last rebuild, with its normalized terms and the
+	 * position its name sorts to in the main part.
+	 */
+	private static class DeltaRecipe {
+		private final String id;
+		private final String name;
+		private final Set<String> categories;
+		private final Set<String> ingredients;
+		private final int insertionPoint;
+
+		private DeltaRecipe(FilterableRecipe recipe, int insertionPoint) {
+			this.id = recipe.getId();
+			this.name = recipe.getName();
+			this.categories = normalizeAll(recipe.getCategories());
+			this.ingredients = normalizeAll(recipe.getIngredients());
+			this.insertionPoint = insertionPoint;
+		}
+
+		private boolean matches(RecipeFilterWebInput filter) {
+			return matches(categories, filter.getAllCategories(), filter.getAnyCategories(), filter.getNoneCategories())
+					&& matches(ingredients, filter.getAllIngredients(), filter.getAnyIngredients(), filter.getNoneIngredients());
+		}
+
+		private static boolean matches(Set<String> terms, Collection<String> all, Collection<String> any, Collection<String> none) {
+			if (all != null && !all.stream().map(RecipeFilterIndexImpl::normalize).allMatch(terms::contains)) return false;
+			if (any != null && !any.isEmpty() && any.stream().map(RecipeFilterIndexImpl::normalize).noneMatch(terms::contains)) return false;
+			return none == null || none.stream().map(RecipeFilterIndexImpl::normalize).noneMatch(terms::contains);
+		}
+
+		private static Set<String> normalizeAll(Collection<String> terms) {
+			if (terms == null) return new HashSet<>();
+			return terms.stream().map(RecipeFilterIndexImpl::normalize).collect(Collectors.toSet());
+		}
+	}
+
+	private static class Snapshot {
+		private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+
+		private final String[] recipeIds;
+		private final String[] recipeNames;
+		private final Map<String, Integer> documents;
+		private final Map<String, RoaringBitmap> categories;
+		private final Map<String, RoaringBitmap> ingredients;
+		private final RoaringBitmap live;
+		private final List<DeltaRecipe> delta;
+
+		private Snapshot(String[] recipeIds, String[] recipeNames, Map<String, Integer> documents, Map<String, RoaringBitmap> categories,
+				Map<String, RoaringBitmap> ingredients, RoaringBitmap live, List<DeltaRecipe> delta) {
+			this.recipeIds = recipeIds;
+			this.recipeNames = recipeNames;
+			this.documents = documents;
+			this.categories = categories;
+			this.ingredients = ingredients;
+			this.live = live;
+			this.delta = delta;
+		}
+
+		private static Snapshot build(List<FilterableRecipe> recipes) {
+			List<FilterableRecipe> sorted = new ArrayList<>(recipes);
+			sorted.sort(Comparator.comparing(FilterableRecipe::getName, NAME_ORDER));
+			String[] recipeIds = new String[sorted.size()];
+			String[] recipeNames = new String[sorted.size()];
+			Map<String, Integer> documents = new HashMap<>();
+			Map<String, RoaringBitmap> categories = new HashMap<>();
+			Map<String, RoaringBitmap> ingredients = new HashMap<>();
+			for (int document = 0; document < sorted.size(); document++) {
+				FilterableRecipe recipe = sorted.get(document);
+				recipeIds[document] = recipe.getId();
+				recipeNames[document] = recipe.getName();
+				documents.put(recipe.getId(), document);
+				addTerms(categories, recipe.getCategories(), document);
+				addTerms(ingredients, recipe.getIngredients(), document);
+			}
+			categories.values().forEach(RoaringBitmap::runOptimize);
+			ingredients.values().forEach(RoaringBitmap::runOptimize);
+			RoaringBitmap live = new RoaringBitmap();
+			live.add(0L, (long) sorted.size());
+			return new Snapshot(recipeIds, recipeNames, documents, categories, ingredients, live, new ArrayList<>());
+		}
+
+		/**
+		 * Copies only the live bitmap and the delta part, the main part is
+		 * shared with this snapshot.
+		 */
+		private Snapshot apply(List<Update> updates) {
+			if (updates.isEmpty()) return this;
+			RoaringBitmap changedLive = live.clone();
+			Map<String, DeltaRecipe> changedDelta = new HashMap<>();
+			for (DeltaRecipe recipe : delta) {
+				changedDelta.put(recipe.id, recipe);
+			}
+			for (Update update : updates) {
+				Integer oldDocument = documents.get(update.recipeId);
+				if (oldDocument != null) changedLive.remove(oldDocument);
+				changedDelta.remove(update.recipeId);
+				if (update.recipe != null) changedDelta.put(update.recipeId, new DeltaRecipe(update.recipe, insertionPoint(update.recipe.getName())));
+			}
+			List<DeltaRecipe> sortedDelta = new ArrayList<>(changedDelta.values());
+			sortedDelta.sort(Comparator.comparing((DeltaRecipe recipe) -> recipe.name, NAME_ORDER).thenComparing(recipe -> recipe.id));
+			return new Snapshot(recipeIds, recipeNames, documents, categories, ingredients, changedLive, sortedDelta);
+		}
+
+		/**
+		 * @return the number of main documents whose name sorts before or equal
+		 *         to the given name
+		 */
+		private int insertionPoint(String name) {
+			int low = 0;
+			int high = recipeNames.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (NAME_ORDER.compare(recipeNames[middle], name) <= 0) low = middle + 1;
+				else high = middle;
+			}
+			return low;
+		}
+
+		private static void addTerms(Map<String, RoaringBitmap> postings, Collection<String> terms, int document) {
+			if (terms == null) return;
+			for (String term : terms) {
+				postings.computeIfAbsent(normalize(term), key -> new RoaringBitmap()).add(document);
+			}
+		}
+	}
+}
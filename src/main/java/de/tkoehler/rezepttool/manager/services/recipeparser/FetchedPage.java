@@ -0,0 +1,28 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Getter;
+
+@Getter
+public class FetchedPage {
+
+	private final String url;
+	private final int statusCode;
+	private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final byte[] body;
+	private final String charset;
+
+	public FetchedPage(String url, int statusCode, Map<String, String> headers, byte[] body, String charset) {
+		this.url = url;
+		this.statusCode = statusCode;
+		this.headers.putAll(headers);
+		this.body = body;
+		this.charset = charset;
+	}
+
+	public String header(String name) {
+		return headers.get(name);
+	}
+}
@@ -0,0 +1,266 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUnit;
+
+/**
+ * Parses ingredient lines like "1 ½ EL Olivenöl", "200g Mehl" or "2-3 Zehen
+ * Knoblauch" into quantity, unit and name. Hand-written state machine over the
+ * characters of the line: no regular expressions, no substrings and, when a
+ * {@link ParsedIngredientLine} is reused, no allocation at all.
+ * <p>
+ * Ranges are resolved to their upper bound, so aggregated amounts are enough
+ * for every recipe. Numbers without unit are counted as
+ * {@link IngredientUnit#PIECE}.
+ */
+@Component
+public class IngredientLineParser {
+
+	private enum State {
+		START, INTEGER, DECIMAL, DENOMINATOR, AFTER_NUMBER, RANGE, UNIT, NAME, DONE
+	}
+
+	private static final char END = 0;
+	private static final int MAX_UNIT_LENGTH = 16;
+	private static final String[][] UNIT_SPELLINGS = new String[MAX_UNIT_LENGTH + 1][];
+	private static final IngredientUnit[][] UNITS = new IngredientUnit[MAX_UNIT_LENGTH + 1][];
+
+	static {
+		for (int length = 1; length <= MAX_UNIT_LENGTH; length++) {
+			List<String> spellings = new ArrayList<>();
+			List<IngredientUnit> units = new ArrayList<>();
+			for (IngredientUnit unit : IngredientUnit.values()) {
+				for (String spelling : unit.getSpellings()) {
+					if (spelling.length() != length) continue;
+					spellings.add(spelling);
+					units.add(unit);
+				}
+			}
+			UNIT_SPELLINGS[length] = spellings.toArray(new String[spellings.size()]);
+			UNITS[length] = units.toArray(new IngredientUnit[units.size()]);
+		}
+	}
+
+	public ParsedIngredientLine parse(String line) {
+		return parse(line, new ParsedIngredientLine());
+	}
+
+	public ParsedIngredientLine parse(String line, ParsedIngredientLine result) {
+		result.reset(line);
+		if (line == null) return result;
+		int length = line.length();
+		State state = State.START;
+		int pos = 0;
+		double total = 0;
+		double number = 0;
+		double scale = 0;
+		double numerator = 0;
+		double lowerBound = 0;
+		boolean hasQuantity = false;
+		while (state != State.DONE) {
+			char c = pos < length ? line.charAt(pos) : END;
+			switch (state) {
+			case START:
+				if (pos < length && isWhitespace(c)) pos++;
+				else if (isDigit(c)) {
+					number = c - '0';
+					pos++;
+					state = State.INTEGER;
+				}
+				else if (vulgarFraction(c) > 0) {
+					total += vulgarFraction(c);
+					hasQuantity = true;
+					pos++;
+					state = State.AFTER_NUMBER;
+				}
+				else state = State.UNIT;
+				break;
+			case INTEGER:
+				if (isDigit(c)) {
+					number = number * 10 + (c - '0');
+					pos++;
+				}
+				else if ((c == ',' || c == '.') && isDigitAt(line, pos + 1)) {
+					scale = 0.1;
+					pos++;
+					state = State.DECIMAL;
+				}
+				else if (c == '/' && isDigitAt(line, pos + 1)) {
+					numerator = number;
+					number = 0;
+					pos++;
+					state = State.DENOMINATOR;
+				}
+				else {
+					total += number;
+					hasQuantity = true;
+					state = State.AFTER_NUMBER;
+				}
+				break;
+			case DECIMAL:
+				if (isDigit(c)) {
+					number += (c - '0') * scale;
+					scale /= 10;
+					pos++;
+				}
+				else {
+					total += number;
+					hasQuantity = true;
+					state = State.AFTER_NUMBER;
+				}
+				break;
+			case DENOMINATOR:
+				if (isDigit(c)) {
+					number = number * 10 + (c - '0');
+					pos++;
+				}
+				else {
+					total += number == 0 ? numerator : numerator / number;
+					hasQuantity = true;
+					state = State.AFTER_NUMBER;
+				}
+				break;
+			case AFTER_NUMBER: {
+				int next = skipWhitespace(line, pos);
+				char following = next < length ? line.charAt(next) : END;
+				if (vulgarFraction(following) > 0) {
+					total += vulgarFraction(following);
+					pos = next + 1;
+				}
+				else if (next > pos && isFractionAt(line, next)) {
+					number = 0;
+					pos = next;
+					state = State.INTEGER;
+				}
+				else if (following == '-' || following == '–') {
+					lowerBound = total;
+					total = 0;
+					pos = next + 1;
+					state = State.RANGE;
+				}
+				else if (line.regionMatches(true, next, "bis ", 0, 4)) {
+					lowerBound = total;
+					total = 0;
+					pos = next + 4;
+					state = State.RANGE;
+				}
+				else state = State.UNIT;
+				break;
+			}
+			case RANGE: {
+				int next = skipWhitespace(line, pos);
+				char following = next < length ? line.charAt(next) : END;
+				if (isDigit(following) || vulgarFraction(following) > 0) {
+					pos = next;
+					state = State.START;
+				}
+				else {
+					total = lowerBound;
+					state = State.UNIT;
+				}
+				break;
+			}
+			case UNIT: {
+				int start = skipWhitespace(line, pos);
+				int end = wordEnd(line, start);
+				IngredientUnit unit = findUnit(line, start, end);
+				if (unit != null) {
+					result.setUnit(unit);
+					pos = end;
+				}
+				else {
+					if (hasQuantity) result.setUnit(IngredientUnit.PIECE);
+					pos = start;
+				}
+				state = State.NAME;
+				break;
+			}
+			case NAME: {
+				int start = skipWhitespace(line, pos);
+				int end = length;
+				while (end > start && isWhitespace(line.charAt(end - 1)))
+					end--;
+				result.setName(start, end);
+				state = State.DONE;
+				break;
+			}
+			default:
+				state = State.DONE;
+			}
+		}
+		if (hasQuantity) result.setQuantity(total);
+		return result;
+	}
+
+	private static IngredientUnit findUnit(String line, int start, int end) {
+		int length = end - start;
+		if (length == 0 || length > MAX_UNIT_LENGTH) return null;
+		String[] spellings = UNIT_SPELLINGS[length];
+		for (int i = 0; i < spellings.length; i++) {
+			if (line.regionMatches(true, start, spellings[i], 0, length)) return UNITS[length][i];
+		}
+		return null;
+	}
+
+	private static boolean isFractionAt(String line, int pos) {
+		int i = pos;
+		while (i < line.length() && isDigit(line.charAt(i)))
+			i++;
+		return i > pos && i < line.length() && line.charAt(i) == '/' && isDigitAt(line, i + 1);
+	}
+
+	private static int skipWhitespace(String line, int pos) {
+		while (pos < line.length() && isWhitespace(line.charAt(pos)))
+			pos++;
+		return pos;
+	}
+
+	private static int wordEnd(String line, int pos) {
+		while (pos < line.length() && !isWhitespace(line.charAt(pos)) && line.charAt(pos) != ',')
+			pos++;
+		return pos;
+	}
+
+	private static boolean isDigitAt(String line, int pos) {
+		return pos < line.length() && isDigit(line.charAt(pos));
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\u00a0' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	private static double vulgarFraction(char c) {
+		switch (c) {
+		case '½':
+			return 0.5;
+		case '¼':
+			return 0.25;
+		case '¾':
+			return 0.75;
+		case '⅓':
+			return 1.0 / 3;
+		case '⅔':
+			return 2.0 / 3;
+		case '⅕':
+			return 0.2;
+		case '⅛':
+			return 0.125;
+		case '⅜':
+			return 0.375;
+		case '⅝':
+			return 0.625;
+		case '⅞':
+			return 0.875;
+		default:
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import de.tkoehler.rezepttool.manager.services.model.ChefkochIngredient;
+
+/**
+ * Splits an ingredient line into the amount text and the name. Quantities and
+ * units are recognized by the {@link IngredientLineParser}, the amount keeps
+ * the spelling of the line (e.g. "2 - 3 EL") with trailing decimal zeros
+ * removed. Lines without quantity and unit may start with a vague amount like
+ * "etwas" or "n. B.".
+ */
+@Component
+public class IngredientLineSplitter {
+
+	private static final Set<String> AMOUNT_WORDS = new HashSet<>(Arrays.asList("etwas", "evtl.", "wenig", "einige", "viel", "reichlich"));
+	private static final String AS_REQUIRED = "n. B.";
+
+	private final IngredientLineParser ingredientLineParser;
+
+	public IngredientLineSplitter(IngredientLineParser ingredientLineParser) {
+		this.ingredientLineParser = ingredientLineParser;
+	}
+
+	public ChefkochIngredient split(String line) {
+		if (line == null) return ChefkochIngredient.builder().amount("").name("").build();
+		ParsedIngredientLine parsed = ingredientLineParser.parse(line);
+		int nameStart = parsed.getUnit() != null ? parsed.getNameStart() : amountWordEnd(line, parsed.getNameStart());
+		String amount = normalizeAmount(line, 0, nameStart);
+		String name = line.substring(nameStart).trim();
+		if (name.isEmpty()) {
+			name = amount;
+			amount = "";
+		}
+		return ChefkochIngredient.builder().amount(amount).name(name).build();
+	}
+
+	/**
+	 * @return the end of a vague amount starting at start, or start if there is
+	 *         none
+	 */
+	private static int amountWordEnd(String line, int start) {
+		if (line.regionMatches(true, start, AS_REQUIRED, 0, AS_REQUIRED.length())) return start + AS_REQUIRED.length();
+		int end = start;
+		while (end < line.length() && !Character.isWhitespace(line.charAt(end)))
+			end++;
+		return AMOUNT_WORDS.contains(line.substring(start, end).toLowerCase()) ? end : start;
+	}
+
+	/**
+	 * Joins the words between from and to by single blanks and cuts trailing
+	 * zeros of decimal numbers ("1,50" to "1,5", "3,00" to "3").
+	 */
+	private static String normalizeAmount(String line, int from, int to) {
+		StringBuilder result = new StringBuilder();
+		int pos = from;
+		while (pos < to) {
+			while (pos < to && Character.isWhitespace(line.charAt(pos)))
+				pos++;
+			int end = pos;
+			while (end < to && !Character.isWhitespace(line.charAt(end)))
+				end++;
+			if (end == pos) break;
+			if (result.length() > 0) result.append(' ');
+			result.append(line, pos, decimalEnd(line, pos, end));
+			pos = end;
+		}
+		return result.toString();
+	}
+
+	private static int decimalEnd(String line, int start, int end) {
+		int separator = line.indexOf(',', start);
+		if (separator < 0 || separator >= end || !Character.isDigit(line.charAt(start))) return end;
+		int cut = end;
+		while (cut > separator + 1 && line.charAt(cut - 1) == '0')
+			cut--;
+		return cut == separator + 1 ? separator : cut;
+	}
+}
@@ -0,0 +1,126 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class LdJsonRecipeExtractor {
+
+	private static final byte[] SCRIPT_START = "<script".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] SCRIPT_END = "</script".getBytes(StandardCharsets.US_ASCII);
+	private static final String LD_JSON_TYPE = "application/ld+json";
+	private static final int BUFFER_SIZE = 8192;
+
+	public String extractRecipeJSon(PageContent content) throws RecipeParserException {
+		checkNullParameter(content);
+		return extractRecipeJSon(content.openStream(), content.getCharset());
+	}
+
+	public String extractRecipeJSon(InputStream in, String charsetName) throws RecipeParserException {
+		checkNullParameter(in);
+		Charset charset = charsetName != null && Charset.isSupported(charsetName) ? Charset.forName(charsetName) : StandardCharsets.UTF_8;
+		ByteScanner scanner = new ByteScanner(in);
+		try {
+			while (scanner.skipPast(SCRIPT_START, null)) {
+				int next = scanner.read();
+				if (next != '>' && !isWhitespace(next)) continue;
+				boolean ldJson = next != '>' && scanner.readTagAttributes().toLowerCase().contains(LD_JSON_TYPE);
+				ByteArrayOutputStream data = ldJson ? new ByteArrayOutputStream() : null;
+				if (!scanner.skipPast(SCRIPT_END, data)) break;
+				if (ldJson) {
+					String json = new String(data.toByteArray(), 0, data.size() - SCRIPT_END.length, charset).trim();
+					if (isRecipe(json)) return json;
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new RecipeParserException("Could not read website!", e);
+		}
+		throw new RecipeParserException("Could not find JSON data!");
+	}
+
+	private boolean isRecipe(String json) {
+		int index = json.indexOf("\"@type\"");
+		while (index >= 0) {
+			int position = skipWhitespace(json, index + "\"@type\"".length());
+			if (position < json.length() && json.charAt(position) == ':') {
+				position = skipWhitespace(json, position + 1);
+				if (json.startsWith("\"Recipe\"", position)) return true;
+			}
+			index = json.indexOf("\"@type\"", index + 1);
+		}
+		return false;
+	}
+
+	private int skipWhitespace(String value, int position) {
+		while (position < value.length() && Character.isWhitespace(value.charAt(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	private static boolean isWhitespace(int value) {
+		return value == ' ' || value == '\t' || value == '\n' || value == '\r' || value == '\f';
+	}
+
+	private void checkNullParameter(Object parameter) throws RecipeParserException {
+		if (parameter == null) throw new RecipeParserException("Parameter must not be empty!");
+	}
+
+	private static class ByteScanner {
+		private final InputStream in;
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private int position;
+		private int limit;
+
+		private ByteScanner(InputStream in) {
+			this.in = in;
+		}
+
+		private int read() throws IOException {
+			if (position == limit) {
+				limit = in.read(buffer, 0, buffer.length);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					return -1;
+				}
+			}
+			return buffer[position++] & 0xff;
+		}
+
+		private boolean skipPast(byte[] pattern, ByteArrayOutputStream sink) throws IOException {
+			int matched = 0;
+			int value;
+			while ((value = read()) >= 0) {
+				if (sink != null) sink.write(value);
+				if (toLowerCase(value) == pattern[matched]) {
+					if (++matched == pattern.length) return true;
+				}
+				else matched = value == pattern[0] ? 1 : 0;
+			}
+			return false;
+		}
+
+		private String readTagAttributes() throws IOException {
+			StringBuilder attributes = new StringBuilder();
+			int quote = 0;
+			int value;
+			while ((value = read()) >= 0) {
+				if (quote == 0 && value == '>') break;
+				if (value == '"' || value == '\'') quote = quote == 0 ? value : quote == value ? 0 : quote;
+				attributes.append((char) value);
+			}
+			return attributes.toString();
+		}
+
+		private static int toLowerCase(int value) {
+			return value >= 'A' && value <= 'Z' ? value + ('a' - 'A') : value;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PageContent {
+
+	private final String url;
+	private final byte[] body;
+	private final String charset;
+
+	public InputStream openStream() {
+		return new ByteArrayInputStream(body);
+	}
+}
@@ -0,0 +1,13 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.io.IOException;
+import java.util.Map;
+
+public interface PageFetcher {
+	/**
+	 * Executes a GET request with the given additional headers. Responses with
+	 * status 304 are returned, every other status outside of 2xx/3xx results in
+	 * an {@link IOException}.
+	 */
+	FetchedPage fetch(String url, Map<String, String> headers) throws IOException;
+}
@@ -0,0 +1,85 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUnit;
+
+/**
+ * Mutable result of {@link IngredientLineParser}. Keeps only offsets into the
+ * parsed line, so it can be reused for many lines without allocating; the name
+ * is cut out of the line when it is asked for.
+ */
+public class ParsedIngredientLine {
+
+	private String line;
+	private double quantity;
+	private IngredientUnit unit;
+	private int nameStart;
+	private int nameEnd;
+
+	void reset(String line) {
+		this.line = line;
+		this.quantity = Double.NaN;
+		this.unit = null;
+		this.nameStart = 0;
+		this.nameEnd = 0;
+	}
+
+	void setQuantity(double quantity) {
+		this.quantity = quantity;
+	}
+
+	void setUnit(IngredientUnit unit) {
+		this.unit = unit;
+	}
+
+	void setName(int start, int end) {
+		this.nameStart = start;
+		this.nameEnd = end;
+	}
+
+	public String getLine() {
+		return line;
+	}
+
+	public boolean hasQuantity() {
+		return !Double.isNaN(quantity);
+	}
+
+	/**
+	 * @return the quantity, NaN if the line has none (e.g. "etwas Salz")
+	 */
+	public double getQuantity() {
+		return quantity;
+	}
+
+	/**
+	 * @return the quantity or null if the line has none
+	 */
+	public Double getQuantityOrNull() {
+		return hasQuantity() ? quantity : null;
+	}
+
+	/**
+	 * @return the unit, {@link IngredientUnit#PIECE} for plain counts and null
+	 *         if the line has neither quantity nor unit
+	 */
+	public IngredientUnit getUnit() {
+		return unit;
+	}
+
+	public int getNameStart() {
+		return nameStart;
+	}
+
+	public int getNameEnd() {
+		return nameEnd;
+	}
+
+	public String getName() {
+		return line == null ? "" : line.substring(nameStart, nameEnd);
+	}
+
+	@Override
+	public String toString() {
+		return "ParsedIngredientLine(quantity=" + quantity + ", unit=" + unit + ", name=" + getName() + ")";
+	}
+}
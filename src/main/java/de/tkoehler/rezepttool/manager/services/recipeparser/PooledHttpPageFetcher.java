@@ -0,0 +1,158 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.ParseException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Fetches pages with a pooled Apache HttpClient, so bulk imports from the same
+ * host reuse their keep-alive connections. Responses are requested and
+ * decompressed with gzip/deflate.
+ */
+@Component
+public class PooledHttpPageFetcher implements PageFetcher, DisposableBean {
+
+	private static final String USER_AGENT = "Mozilla/5.0 (compatible; Rezepttool)";
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient httpClient;
+	private final Timer timeToFirstByte;
+	private final Timer fetchDuration;
+	private final Counter reusedConnections;
+	private final Counter newConnections;
+
+	public PooledHttpPageFetcher(@Value("${recipeparser.http.maxConnections:50}") int maxConnections,
+			@Value("${recipeparser.http.maxConnectionsPerHost:8}") int maxConnectionsPerHost,
+			@Value("${recipeparser.http.connectTimeout:5000}") int connectTimeout,
+			@Value("${recipeparser.http.readTimeout:30000}") int readTimeout,
+			@Value("${recipeparser.http.keepAlive:30000}") long keepAlive,
+			MeterRegistry meterRegistry) {
+		connectionManager = new PoolingHttpClientConnectionManager(keepAlive, TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+		connectionManager.setValidateAfterInactivity(2000);
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(connectTimeout)
+				.setSocketTimeout(readTimeout)
+				.setConnectionRequestTimeout(readTimeout)
+				.build();
+		ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+			long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+		};
+		httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.setRequestExecutor(new ConnectionReuseRecordingExecutor())
+				.setUserAgent(USER_AGENT)
+				.evictExpiredConnections()
+				.evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+				.build();
+		timeToFirstByte = Timer.builder("recipeparser.fetch.ttfb").description("Time until the response headers are received")
+				.publishPercentileHistogram().register(meterRegistry);
+		fetchDuration = Timer.builder("recipeparser.fetch.duration").description("Time until the response body is read completely")
+				.publishPercentileHistogram().register(meterRegistry);
+		reusedConnections = Counter.builder("recipeparser.fetch.connections").tag("reused", "true").register(meterRegistry);
+		newConnections = Counter.builder("recipeparser.fetch.connections").tag("reused", "false").register(meterRegistry);
+		Gauge.builder("recipeparser.http.pool.leased", connectionManager, m -> m.getTotalStats().getLeased()).register(meterRegistry);
+		Gauge.builder("recipeparser.http.pool.available", connectionManager, m -> m.getTotalStats().getAvailable()).register(meterRegistry);
+		Gauge.builder("recipeparser.http.pool.pending", connectionManager, m -> m.getTotalStats().getPending()).register(meterRegistry);
+	}
+
+	@Override
+	public FetchedPage fetch(String url, Map<String, String> headers) throws IOException {
+		HttpGet request = new HttpGet(url);
+		if (headers != null) headers.forEach(request::setHeader);
+		long start = System.nanoTime();
+		try (CloseableHttpResponse response = httpClient.execute(request)) {
+			timeToFirstByte.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			int statusCode = response.getStatusLine().getStatusCode();
+			HttpEntity entity = response.getEntity();
+			if (statusCode != 304 && (statusCode < 200 || statusCode >= 400)) {
+				EntityUtils.consumeQuietly(entity);
+				throw new IOException("HTTP error fetching URL. Status=" + statusCode + ", URL=" + url);
+			}
+			byte[] body = entity != null ? EntityUtils.toByteArray(entity) : new byte[0];
+			fetchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return new FetchedPage(url, statusCode, createHeaderMap(response.getAllHeaders()), body, createCharset(entity));
+		}
+	}
+
+	/**
+	 * Records the connection reuse before the request is sent. Responses without
+	 * a body (e.g. 304) release their connection before execute returns, so the
+	 * connection metrics are not accessible afterwards.
+	 */
+	private class ConnectionReuseRecordingExecutor extends HttpRequestExecutor {
+
+		@Override
+		public HttpResponse execute(HttpRequest request, HttpClientConnection connection, HttpContext context) throws IOException, HttpException {
+			recordConnectionReuse(connection);
+			return super.execute(request, connection, context);
+		}
+	}
+
+	private void recordConnectionReuse(HttpConnection connection) {
+		if (connection == null || connection.getMetrics() == null) return;
+		if (connection.getMetrics().getRequestCount() > 0) reusedConnections.increment();
+		else newConnections.increment();
+	}
+
+	private Map<String, String> createHeaderMap(Header[] headers) {
+		Map<String, String> result = new HashMap<>();
+		for (Header header : headers) {
+			result.merge(header.getName(), header.getValue(), (first, second) -> first + ", " + second);
+		}
+		return result;
+	}
+
+	private String createCharset(HttpEntity entity) {
+		if (entity == null) return null;
+		try {
+			ContentType contentType = ContentType.get(entity);
+			Charset charset = contentType != null ? contentType.getCharset() : null;
+			return charset != null ? charset.name() : null;
+		}
+		catch (ParseException | UnsupportedCharsetException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		httpClient.close();
+	}
+}
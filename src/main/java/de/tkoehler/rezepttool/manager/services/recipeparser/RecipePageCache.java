@@ -0,0 +1,417 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Disk cache of fetched recipe pages honoring Cache-Control, Expires, ETag and
+ * Last-Modified. Only one thread at a time loads, revalidates, writes or
+ * deletes the files of a key; parallel imports of the same page wait for its
+ * result instead of fetching it again, other pages are not held up. The index
+ * is guarded by the cache itself, files of evicted pages are deleted
+ * afterwards once no load of their key is in flight.
+ */
+@Component
+@Slf4j
+public class RecipePageCache {
+
+	private static final String BODY_SUFFIX = ".body";
+	private static final String META_SUFFIX = ".properties";
+
+	private final PageFetcher pageFetcher;
+	private final Path directory;
+	private final long maxSize;
+	private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final ConcurrentMap<String, CompletableFuture<PageContent>> inFlight = new ConcurrentHashMap<>();
+	private long currentSize;
+
+	public RecipePageCache(PageFetcher pageFetcher, @Value("${recipeparser.cache.directory:${java.io.tmpdir}/rezepttool/pagecache}") String directory,
+			@Value("${recipeparser.cache.maxSize:104857600}") long maxSize) {
+		this.pageFetcher = pageFetcher;
+		this.directory = Paths.get(directory);
+		this.maxSize = maxSize;
+		loadIndex();
+	}
+
+	public Document loadPage(String url) throws RecipeParserException {
+		PageContent content = loadPageContent(url);
+		try {
+			return Jsoup.parse(content.openStream(), content.getCharset(), url);
+		}
+		catch (IOException e) {
+			throw new RecipeParserException("Could not parse website!", e);
+		}
+	}
+
+	public PageContent loadPageContent(String url) throws RecipeParserException {
+		checkNullParameter(url);
+		String key = createKey(url);
+		while (true) {
+			CompletableFuture<PageContent> claim = new CompletableFuture<>();
+			CompletableFuture<PageContent> running = inFlight.putIfAbsent(key, claim);
+			if (running == null) return loadClaimed(url, key, claim);
+			PageContent content = await(running);
+			if (content != null) return content;
+		}
+	}
+
+	private PageContent loadClaimed(String url, String key, CompletableFuture<PageContent> claim) throws RecipeParserException {
+		List<String> evictedKeys = new ArrayList<>();
+		try {
+			PageContent content = loadPageContent(url, key, evictedKeys);
+			release(key, claim).complete(content);
+			return content;
+		}
+		catch (Throwable e) {
+			release(key, claim).completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			deleteEvictedFiles(evictedKeys);
+		}
+	}
+
+	/**
+	 * @return the content loaded by another thread, null if the other thread
+	 *         only deleted the files of the key
+	 */
+	private PageContent await(CompletableFuture<PageContent> running) throws RecipeParserException {
+		try {
+			return running.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RecipeParserException("Interrupted while waiting for website!", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RecipeParserException) throw new RecipeParserException(e.getCause().getMessage(), e.getCause());
+			throw new RecipeParserException("Could not load website!", e.getCause());
+		}
+	}
+
+	/**
+	 * Ends the claim before its result is published, so threads woken by the
+	 * result can claim the key again.
+	 */
+	private CompletableFuture<PageContent> release(String key, CompletableFuture<PageContent> claim) {
+		inFlight.remove(key, claim);
+		return claim;
+	}
+
+	private PageContent loadPageContent(String url, String key, List<String> evictedKeys) throws RecipeParserException {
+		CacheEntry entry = getEntry(key);
+		if (entry != null && entry.isFresh()) {
+			byte[] body = readBody(key);
+			if (body != null) return new PageContent(url, body, entry.charset);
+		}
+		try {
+			Map<String, String> headers = new HashMap<>();
+			if (entry != null && entry.etag != null) headers.put("If-None-Match", entry.etag);
+			if (entry != null && entry.lastModified != null) headers.put("If-Modified-Since", entry.lastModified);
+			FetchedPage response = pageFetcher.fetch(url, headers);
+			if (response.getStatusCode() == 304 && entry != null) {
+				byte[] body = readBody(key);
+				if (body != null) {
+					if (response.header("ETag") != null) entry.etag = response.header("ETag");
+					if (response.header("Last-Modified") != null) entry.lastModified = response.header("Last-Modified");
+					entry.expires = calculateExpires(response);
+					writeEntry(key, entry);
+					return new PageContent(url, body, entry.charset);
+				}
+				return loadPageUnconditional(url, key, evictedKeys);
+			}
+			if (response.getStatusCode() == 304) throw new IOException("Unexpected HTTP status 304 for " + url);
+			return storePage(url, key, response, evictedKeys);
+		}
+		catch (IllegalArgumentException | IOException e) {
+			throw new RecipeParserException("Parameter must be a valid URL", e);
+		}
+	}
+
+	private PageContent loadPageUnconditional(String url, String key, List<String> evictedKeys) throws IOException {
+		removeEntry(key);
+		return storePage(url, key, pageFetcher.fetch(url, new HashMap<>()), evictedKeys);
+	}
+
+	private PageContent storePage(String url, String key, FetchedPage response, List<String> evictedKeys) throws IOException {
+		byte[] body = response.getBody();
+		String cacheControl = response.header("Cache-Control");
+		if (cacheControl == null || !cacheControl.toLowerCase().contains("no-store")) {
+			CacheEntry entry = new CacheEntry();
+			entry.url = url;
+			entry.etag = response.header("ETag");
+			entry.lastModified = response.header("Last-Modified");
+			entry.charset = response.getCharset();
+			entry.expires = calculateExpires(response);
+			entry.size = body.length;
+			try {
+				writeBody(key, body);
+				writeEntry(key, entry);
+				evictedKeys.addAll(putEntry(key, entry));
+			}
+			catch (IOException e) {
+				log.warn("Could not write page cache entry for " + url, e);
+			}
+		}
+		return new PageContent(url, body, response.getCharset());
+	}
+
+	private long calculateExpires(FetchedPage response) {
+		long now = System.currentTimeMillis();
+		String cacheControl = response.header("Cache-Control");
+		if (cacheControl != null) {
+			String maxAge = null;
+			for (String directive : cacheControl.toLowerCase().split(",")) {
+				directive = directive.trim();
+				if (directive.equals("no-cache") || directive.equals("no-store"))
+					return now;
+				if (directive.startsWith("max-age=") && maxAge == null)
+					maxAge = directive.substring("max-age=".length()).trim();
+			}
+			if (maxAge != null) {
+				try {
+					return now + Long.parseLong(maxAge) * 1000L;
+				}
+				catch (NumberFormatException e) {
+					return now;
+				}
+			}
+		}
+		String expires = response.header("Expires");
+		if (expires != null) {
+			try {
+				return ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+			}
+			catch (DateTimeParseException e) {
+				return now;
+			}
+		}
+		return now;
+	}
+
+	private synchronized CacheEntry getEntry(String key) {
+		return entries.get(key);
+	}
+
+	private synchronized boolean containsEntry(String key) {
+		return entries.containsKey(key);
+	}
+
+	/**
+	 * @return the keys evicted to make room, their files still have to be
+	 *         deleted
+	 */
+	private synchronized List<String> putEntry(String key, CacheEntry entry) {
+		CacheEntry oldEntry = entries.put(key, entry);
+		if (oldEntry != null) currentSize -= oldEntry.size;
+		currentSize += entry.size;
+		return evictEntries();
+	}
+
+	/**
+	 * Must be called holding the claim of the key.
+	 */
+	private void removeEntry(String key) {
+		synchronized (this) {
+			CacheEntry oldEntry = entries.remove(key);
+			if (oldEntry == null) return;
+			currentSize -= oldEntry.size;
+		}
+		deleteFiles(key);
+	}
+
+	private List<String> evictEntries() {
+		List<String> evictedKeys = new ArrayList<>();
+		Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+		while (currentSize > maxSize && iterator.hasNext()) {
+			Map.Entry<String, CacheEntry> eldest = iterator.next();
+			currentSize -= eldest.getValue().size;
+			iterator.remove();
+			evictedKeys.add(eldest.getKey());
+		}
+		return evictedKeys;
+	}
+
+	/**
+	 * Deletes the files of evicted pages unless they have been stored again in
+	 * the meantime. Keys loaded right now are deleted once their load is done.
+	 */
+	private void deleteEvictedFiles(List<String> evictedKeys) {
+		for (String key : evictedKeys) {
+			CompletableFuture<PageContent> claim = new CompletableFuture<>();
+			CompletableFuture<PageContent> running = inFlight.putIfAbsent(key, claim);
+			if (running != null) {
+				running.whenComplete((content, e) -> deleteEvictedFiles(Collections.singletonList(key)));
+				continue;
+			}
+			try {
+				if (!containsEntry(key)) deleteFiles(key);
+			}
+			finally {
+				release(key, claim).complete(null);
+			}
+		}
+	}
+
+	private byte[] readBody(String key) {
+		Path body = directory.resolve(key + BODY_SUFFIX);
+		try {
+			byte[] result = Files.readAllBytes(body);
+			Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+			return result;
+		}
+		catch (IOException e) {
+			removeEntry(key);
+			return null;
+		}
+	}
+
+	private void writeBody(String key, byte[] body) throws IOException {
+		Files.createDirectories(directory);
+		Path tempFile = Files.createTempFile(directory, key, ".tmp");
+		Files.write(tempFile, body);
+		Files.move(tempFile, directory.resolve(key + BODY_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void writeEntry(String key, CacheEntry entry) throws IOException {
+		Files.createDirectories(directory);
+		Properties properties = new Properties();
+		properties.setProperty("url", entry.url);
+		if (entry.etag != null) properties.setProperty("etag", entry.etag);
+		if (entry.lastModified != null) properties.setProperty("lastModified", entry.lastModified);
+		if (entry.charset != null) properties.setProperty("charset", entry.charset);
+		properties.setProperty("expires", Long.toString(entry.expires));
+		properties.setProperty("size", Long.toString(entry.size));
+		Path tempFile = Files.createTempFile(directory, key, ".tmp");
+		try (OutputStream out = Files.newOutputStream(tempFile)) {
+			properties.store(out, null);
+		}
+		Files.move(tempFile, directory.resolve(key + META_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void deleteFiles(String key) {
+		try {
+			Files.deleteIfExists(directory.resolve(key + BODY_SUFFIX));
+			Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+		}
+		catch (IOException e) {
+			log.warn("Could not delete page cache entry " + key, e);
+		}
+	}
+
+	private synchronized void loadIndex() {
+		if (!Files.isDirectory(directory)) return;
+		List<Path> bodies = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+			stream.forEach(bodies::add);
+			bodies.sort(Comparator.comparing(this::lastModifiedTime));
+			for (Path body : bodies) {
+				String fileName = body.getFileName().toString();
+				String key = fileName.substring(0, fileName.length() - BODY_SUFFIX.length());
+				CacheEntry entry = readEntry(key);
+				if (entry != null) {
+					entries.put(key, entry);
+					currentSize += entry.size;
+				}
+				else deleteFiles(key);
+			}
+			evictEntries().forEach(this::deleteFiles);
+		}
+		catch (IOException e) {
+			log.warn("Could not load page cache index from " + directory, e);
+		}
+	}
+
+	private CacheEntry readEntry(String key) {
+		Path meta = directory.resolve(key + META_SUFFIX);
+		if (!Files.exists(meta)) return null;
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(meta)) {
+			properties.load(in);
+			CacheEntry entry = new CacheEntry();
+			entry.url = properties.getProperty("url");
+			entry.etag = properties.getProperty("etag");
+			entry.lastModified = properties.getProperty("lastModified");
+			entry.charset = properties.getProperty("charset");
+			entry.expires = Long.parseLong(properties.getProperty("expires", "0"));
+			entry.size = Long.parseLong(properties.getProperty("size", "0"));
+			return entry;
+		}
+		catch (IOException | NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private FileTime lastModifiedTime(Path path) {
+		try {
+			return Files.getLastModifiedTime(path);
+		}
+		catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private String createKey(String url) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+			StringBuilder key = new StringBuilder();
+			for (byte b : hash) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void checkNullParameter(Object parameter) throws RecipeParserException {
+		if (parameter == null) throw new RecipeParserException("Parameter must not be empty!");
+	}
+
+	private static class CacheEntry {
+		private String url;
+		private String etag;
+		private String lastModified;
+		private String charset;
+		private long expires;
+		private long size;
+
+		private boolean isFresh() {
+			return System.currentTimeMillis() < expires;
+		}
+	}
+}
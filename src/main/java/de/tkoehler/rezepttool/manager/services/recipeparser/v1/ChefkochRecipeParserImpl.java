@@ -1,20 +1,24 @@
 package de.tkoehler.rezepttool.manager.services.recipeparser.v1;
 
-import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import javax.json.Json;
+import javax.json.JsonArray;
 import javax.json.JsonException;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -27,13 +31,27 @@ import de.tkoehler.rezepttool.manager.services.model.ChefkochRecipeV2;
 import de.tkoehler.rezepttool.manager.services.model.PreparationInfo;
 import de.tkoehler.rezepttool.manager.services.model.PrintPageData;
 import de.tkoehler.rezepttool.manager.services.model.Recipe;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipePageCache;
 import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParser;
 import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
 import lombok.AllArgsConstructor;
 
-@Component
+@Component("chefkochRecipeParserV1")
+@ConditionalOnProperty(name = "recipeparser.active", havingValue = "v1", matchIfMissing = true)
 public class ChefkochRecipeParserImpl implements RecipeParser {
 
+	private final RecipePageCache recipePageCache;
+	private final IngredientLineSplitter ingredientLineSplitter;
+	private final boolean printPageDataFromJSon;
+
+	public ChefkochRecipeParserImpl(RecipePageCache recipePageCache, IngredientLineSplitter ingredientLineSplitter,
+			@Value("${recipeparser.printPage.fromJson:true}") boolean printPageDataFromJSon) {
+		this.recipePageCache = recipePageCache;
+		this.ingredientLineSplitter = ingredientLineSplitter;
+		this.printPageDataFromJSon = printPageDataFromJSon;
+	}
+
 	@Override
 	public Recipe parseRecipe(String url) throws RecipeParserException {
 		Document doc = loadRecipeWebSite(url);
@@ -43,10 +61,50 @@ public class ChefkochRecipeParserImpl implements RecipeParser {
 		recipe.setUrl(url);
 		//recipe.setPreparationInfo(extractPreparationInfoFromURL(doc));
 		recipe.setAdditionalInformation(extractAdditionalInformationFromURL(doc));
-		// TODO: not working anymore, find a way to do this with json object
-		recipe.setPrintPageData(createPrintPageData(doc));
+		PrintPageData printPageData = printPageDataFromJSon ? createPrintPageDataFromJSon(jsonResponse, recipe.getAdditionalInformation()) : null;
+		recipe.setPrintPageData(printPageData != null ? printPageData : createPrintPageData(doc));
 		return recipe;
 	}
+
+	public PrintPageData createPrintPageDataFromJSon(JsonObject jsonObject, String additionalInformation) throws RecipeParserException {
+		checkNullParameter(jsonObject);
+		JsonValue ingredientValues = jsonObject.get("recipeIngredient");
+		if (ingredientValues == null || ingredientValues.getValueType() != JsonValue.ValueType.ARRAY || ((JsonArray) ingredientValues).isEmpty()
+				|| !jsonObject.containsKey("recipeYield"))
+			return null;
+		List<ChefkochIngredient> ingredients = new ArrayList<>();
+		for (JsonValue ingredientValue : (JsonArray) ingredientValues) {
+			if (ingredientValue.getValueType() == JsonValue.ValueType.STRING)
+				ingredients.add(ingredientLineSplitter.split(((JsonString) ingredientValue).getString()));
+		}
+		return PrintPageData.builder()
+				.title(jsonObject.getString("name", ""))
+				.additionalInformation(additionalInformation != null ? additionalInformation : jsonObject.getString("description", ""))
+				.yield(jsonObject.getString("recipeYield", ""))
+				.instructions(readInstructions(jsonObject.get("recipeInstructions")))
+				.ingredients(ingredients)
+				.build();
+	}
+
+	/**
+	 * Instructions are either a plain text or an array of HowToStep objects,
+	 * whose texts are joined by blank lines.
+	 */
+	private static String readInstructions(JsonValue value) {
+		if (value == null) return "";
+		if (value.getValueType() == JsonValue.ValueType.STRING) return ((JsonString) value).getString();
+		if (value.getValueType() != JsonValue.ValueType.ARRAY) return "";
+		StringBuilder instructions = new StringBuilder();
+		for (JsonValue stepValue : (JsonArray) value) {
+			String step = null;
+			if (stepValue.getValueType() == JsonValue.ValueType.OBJECT) step = ((JsonObject) stepValue).getString("text", null);
+			else if (stepValue.getValueType() == JsonValue.ValueType.STRING) step = ((JsonString) stepValue).getString();
+			if (step == null || step.isEmpty()) continue;
+			if (instructions.length() > 0) instructions.append("\n\n");
+			instructions.append(step);
+		}
+		return instructions.toString();
+	}
 	
 	public PrintPageData createPrintPageData(Document doc) throws RecipeParserException {
 		checkNullParameter(doc);
@@ -122,8 +180,8 @@ public class ChefkochRecipeParserImpl implements RecipeParser {
 					.recipeYield(jsonObject.getString("recipeYield"))
 					.aggregateRating(AggregateRating.builder()
 							.type(jsonObject.getJsonObject("aggregateRating").getString("@type"))
-							.ratingValue(jsonObject.getJsonObject("aggregateRating").getJsonNumber("ratingValue").toString())
-							.reviewCount(jsonObject.getJsonObject("aggregateRating").getJsonNumber("reviewCount").toString())
+							.ratingValue(jsonObject.getJsonObject("aggregateRating").getJsonNumber("ratingValue").doubleValue())
+							.reviewCount(jsonObject.getJsonObject("aggregateRating").getJsonNumber("reviewCount").intValue())
 							.worstRating(jsonObject.getJsonObject("aggregateRating").getInt("worstRating"))
 							.bestRating(jsonObject.getJsonObject("aggregateRating").getInt("bestRating"))
 							.build())
@@ -158,14 +216,7 @@ public class ChefkochRecipeParserImpl implements RecipeParser {
 
 	public Document loadRecipeWebSite(String url) throws RecipeParserException {
 		checkNullParameter(url);
-		Document doc = null;
-		try {
-			doc = Jsoup.connect(url).timeout(0).get();
-		}
-		catch (IllegalArgumentException | IOException e) {
-			throw new RecipeParserException("Parameter must be a valid URL", e);
-		}
-		return doc;
+		return recipePageCache.loadPage(url);
 	}
 
 	public String extractRecipeJSonFromURL(Document doc) throws RecipeParserException {
@@ -0,0 +1,264 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.v3;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import de.tkoehler.rezepttool.manager.services.model.AggregateRating;
+import de.tkoehler.rezepttool.manager.services.model.Author;
+import de.tkoehler.rezepttool.manager.services.model.ChefkochIngredient;
+import de.tkoehler.rezepttool.manager.services.model.ChefkochRecipe;
+import de.tkoehler.rezepttool.manager.services.model.PreparationInfo;
+import de.tkoehler.rezepttool.manager.services.model.PrintPageData;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+
+/**
+ * Decodes the ld+json recipe of a Chefkoch page token by token into a
+ * {@link ChefkochRecipe}. Unknown fields are skipped without building a tree.
+ */
+@Component
+public class ChefkochRecipeJsonDecoder {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final IngredientLineSplitter ingredientLineSplitter;
+
+	public ChefkochRecipeJsonDecoder(IngredientLineSplitter ingredientLineSplitter) {
+		this.ingredientLineSplitter = ingredientLineSplitter;
+	}
+
+	public ChefkochRecipe decode(String json) throws RecipeParserException {
+		if (json == null) throw new RecipeParserException("Parameter must not be empty!");
+		try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) throw new RecipeParserException("Parameter must be a valid JSon String");
+			ChefkochRecipe recipe = readRecipe(parser);
+			if (recipe.getName() == null) throw new RecipeParserException("JSonObject could not be parsed to Recipe!");
+			return recipe;
+		}
+		catch (IOException e) {
+			throw new RecipeParserException("Parameter must be a valid JSon String", e);
+		}
+		catch (DateTimeParseException e) {
+			throw new RecipeParserException("JSonObject could not be parsed to Recipe!", e);
+		}
+	}
+
+	private ChefkochRecipe readRecipe(JsonParser parser) throws IOException {
+		ChefkochRecipe recipe = new ChefkochRecipe();
+		PreparationInfo preparationInfo = PreparationInfo.builder().prepTime("").cookTime("").restTime("").difficulty("").callories("").build();
+		List<String> ingredients = new ArrayList<>();
+		List<String> categories = new ArrayList<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			switch (field) {
+			case "@context":
+				recipe.setContext(readText(parser));
+				break;
+			case "@type":
+				recipe.setType(readText(parser));
+				break;
+			case "name":
+				recipe.setName(readText(parser));
+				break;
+			case "description":
+				recipe.setDescription(readText(parser));
+				break;
+			case "datePublished":
+				recipe.setDataPublished(readText(parser));
+				break;
+			case "image":
+				recipe.setImage(readFirstText(parser));
+				break;
+			case "prepTime":
+				recipe.setPrepTime(readText(parser));
+				preparationInfo.setPrepTime(readDuration(recipe.getPrepTime()));
+				break;
+			case "cookTime":
+				recipe.setCookTime(readText(parser));
+				preparationInfo.setCookTime(readDuration(recipe.getCookTime()));
+				break;
+			case "totalTime":
+				preparationInfo.setRestTime(readDuration(readText(parser)));
+				break;
+			case "recipeYield":
+				recipe.setRecipeYield(readFirstText(parser));
+				break;
+			case "recipeIngredient":
+				readTexts(parser, ingredients);
+				break;
+			case "recipeCategory":
+			case "keywords":
+				readTexts(parser, categories);
+				break;
+			case "recipeInstructions":
+				recipe.setRecipeInstructions(readInstructions(parser));
+				break;
+			case "author":
+				recipe.setAuthor(readAuthor(parser));
+				break;
+			case "aggregateRating":
+				recipe.setAggregateRating(readAggregateRating(parser));
+				break;
+			case "nutrition":
+				preparationInfo.setCallories(readCalories(parser));
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
+		recipe.setRecipeIngredients(ingredients.toArray(new String[ingredients.size()]));
+		recipe.setRecipeCategories(categories.stream().distinct().toArray(String[]::new));
+		recipe.setPreparationInfo(preparationInfo);
+		recipe.setPrintPageData(createPrintPageData(recipe));
+		return recipe;
+	}
+
+	private PrintPageData createPrintPageData(ChefkochRecipe recipe) {
+		List<ChefkochIngredient> ingredients = new ArrayList<>(recipe.getRecipeIngredients().length);
+		for (String line : recipe.getRecipeIngredients()) {
+			ingredients.add(ingredientLineSplitter.split(line));
+		}
+		return PrintPageData.builder()
+				.title(recipe.getName())
+				.additionalInformation(recipe.getDescription() != null ? recipe.getDescription() : "")
+				.yield(recipe.getRecipeYield() != null ? recipe.getRecipeYield() : "")
+				.instructions(recipe.getRecipeInstructions() != null ? recipe.getRecipeInstructions() : "")
+				.ingredients(ingredients)
+				.build();
+	}
+
+	private Author readAuthor(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+			Author author = null;
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				if (author == null && parser.getCurrentToken() == JsonToken.START_OBJECT) author = readAuthor(parser);
+				else parser.skipChildren();
+			}
+			return author;
+		}
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) return Author.builder().name(readText(parser)).build();
+		Author author = new Author();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			if (field.equals("@type")) author.setType(readText(parser));
+			else if (field.equals("name")) author.setName(readText(parser));
+			else parser.skipChildren();
+		}
+		return author;
+	}
+
+	private AggregateRating readAggregateRating(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return null;
+		}
+		AggregateRating rating = new AggregateRating();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			switch (field) {
+			case "@type":
+				rating.setType(readText(parser));
+				break;
+			case "ratingValue":
+				rating.setRatingValue(parser.getValueAsDouble());
+				break;
+			case "reviewCount":
+				rating.setReviewCount(parser.getValueAsInt());
+				break;
+			case "worstRating":
+				rating.setWorstRating(parser.getValueAsInt());
+				break;
+			case "bestRating":
+				rating.setBestRating(parser.getValueAsInt());
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
+		return rating;
+	}
+
+	private String readCalories(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return "";
+		}
+		String calories = "";
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			if (field.equals("calories")) calories = readText(parser);
+			else parser.skipChildren();
+		}
+		return calories;
+	}
+
+	private String readInstructions(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) return readText(parser);
+		StringBuilder instructions = new StringBuilder();
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			String step = null;
+			if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.getCurrentName();
+					parser.nextToken();
+					if (field.equals("text")) step = readText(parser);
+					else parser.skipChildren();
+				}
+			}
+			else step = readText(parser);
+			if (step == null || step.isEmpty()) continue;
+			if (instructions.length() > 0) instructions.append("\n\n");
+			instructions.append(step);
+		}
+		return instructions.toString();
+	}
+
+	private void readTexts(JsonParser parser, List<String> target) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			String value = readText(parser);
+			if (value == null) return;
+			for (String part : value.split(",")) {
+				if (!part.trim().isEmpty()) target.add(part.trim());
+			}
+			return;
+		}
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			String value = readText(parser);
+			if (value != null) target.add(value);
+		}
+	}
+
+	private String readFirstText(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) return readText(parser);
+		String result = null;
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			String value = readText(parser);
+			if (result == null) result = value;
+		}
+		return result;
+	}
+
+	private String readText(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken().isScalarValue()) return parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+		parser.skipChildren();
+		return null;
+	}
+
+	private String readDuration(String value) {
+		if (value == null || value.isEmpty()) return "";
+		return Duration.parse(value).toString();
+	}
+}
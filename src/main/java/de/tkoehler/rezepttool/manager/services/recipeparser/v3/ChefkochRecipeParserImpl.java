@@ -0,0 +1,35 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.v3;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import de.tkoehler.rezepttool.manager.services.model.ChefkochRecipe;
+import de.tkoehler.rezepttool.manager.services.model.Recipe;
+import de.tkoehler.rezepttool.manager.services.recipeparser.LdJsonRecipeExtractor;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipePageCache;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+import lombok.AllArgsConstructor;
+
+@Component("chefkochRecipeParserV3")
+@ConditionalOnProperty(name = "recipeparser.active", havingValue = "v3")
+@AllArgsConstructor
+public class ChefkochRecipeParserImpl implements RecipeParser {
+
+	private final RecipePageCache recipePageCache;
+	private final LdJsonRecipeExtractor ldJsonRecipeExtractor;
+	private final ChefkochRecipeJsonDecoder chefkochRecipeJsonDecoder;
+
+	@Override
+	public Recipe parseRecipe(String url) throws RecipeParserException {
+		checkNullParameter(url);
+		ChefkochRecipe recipe = chefkochRecipeJsonDecoder.decode(ldJsonRecipeExtractor.extractRecipeJSon(recipePageCache.loadPageContent(url)));
+		recipe.setUrl(url);
+		recipe.setAdditionalInformation(recipe.getPrintPageData().getAdditionalInformation());
+		return recipe;
+	}
+
+	private void checkNullParameter(Object parameter) throws RecipeParserException {
+		if (parameter == null) throw new RecipeParserException("Parameter must not be empty!");
+	}
+}
@@ -0,0 +1,21 @@
+package de.tkoehler.rezepttool.manager.services.recipesearch;
+
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
+
+public interface RecipeSearchIndex {
+
+	/**
+	 * Full-text search over name, categories, additional information and
+	 * instructions of all recipes. All words of the query have to match,
+	 * matches in the name rank highest.
+	 */
+	RecipeSearchResult search(String query, int page, int size) throws ManagerServiceException;
+
+	void updateRecipe(RecipeEntity recipe);
+
+	void removeRecipe(String recipeId);
+
+	void reload();
+}
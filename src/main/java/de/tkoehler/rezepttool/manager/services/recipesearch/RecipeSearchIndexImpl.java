@@ -0,0 +1,267 @@
+package de.tkoehler.rezepttool.manager.services.recipesearch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.de.GermanAnalyzer;
+import org.apache.lucene.analysis.de.GermanNormalizationFilter;
+import org.apache.lucene.analysis.de.GermanStemFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.RAMDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchHit;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process Lucene index of the recipe texts. The analyzer lower cases, drops
+ * German stop words, folds umlauts and stems with the classic German stemmer,
+ * so "Kartoffeln" finds "Kartoffel" and "Apfel" finds "Äpfel" (the light
+ * stemmer of GermanAnalyzer keeps the plural "n"). Built in the background at
+ * startup and updated document by document with the recipes the editor
+ * writes.
+ */
+@Component
+@Slf4j
+public class RecipeSearchIndexImpl implements RecipeSearchIndex, DisposableBean {
+
+	static final String ID = "id";
+	static final String NAME = "name";
+	static final String CATEGORIES = "categories";
+	static final String ADDITIONAL_INFORMATION = "additionalInformation";
+	static final String INSTRUCTIONS = "instructions";
+
+	private static final int MAX_RESULT_WINDOW = 10000;
+	private static final String[] SEARCH_FIELDS = { NAME, CATEGORIES, ADDITIONAL_INFORMATION, INSTRUCTIONS };
+	private static final Map<String, Float> BOOSTS = new HashMap<>();
+	private static final Set<String> OPERATORS = new HashSet<>(Arrays.asList("AND", "OR", "NOT"));
+
+	static {
+		BOOSTS.put(NAME, 4f);
+		BOOSTS.put(CATEGORIES, 2f);
+		BOOSTS.put(ADDITIONAL_INFORMATION, 1.5f);
+		BOOSTS.put(INSTRUCTIONS, 1f);
+	}
+
+	private final RecipeRepository recipeRepository;
+	private final ExecutorService recipeIndexExecutor;
+	private final Analyzer analyzer = new GermanSearchAnalyzer();
+	private final IndexWriter indexWriter;
+	private final SearcherManager searcherManager;
+	private volatile boolean loaded;
+
+	public RecipeSearchIndexImpl(RecipeRepository recipeRepository, @Qualifier("recipeIndexExecutor") ExecutorService recipeIndexExecutor) throws IOException {
+		this.recipeRepository = recipeRepository;
+		this.recipeIndexExecutor = recipeIndexExecutor;
+		indexWriter = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(analyzer));
+		searcherManager = new SearcherManager(indexWriter, null);
+	}
+
+	@Override
+	public RecipeSearchResult search(String query, int page, int size) throws ManagerServiceException {
+		ensureLoaded();
+		RecipeSearchResult result = RecipeSearchResult.builder()
+				.page(page)
+				.size(size)
+				.recipes(new ArrayList<>())
+				.build();
+		if (query == null || query.trim().isEmpty()) return result;
+		IndexSearcher searcher = null;
+		try {
+			searcher = searcherManager.acquire();
+			Query parsedQuery = parse(query);
+			long window = (long) (page + 1) * size;
+			if (window > MAX_RESULT_WINDOW) {
+				result.setTotalElements(searcher.count(parsedQuery));
+				return result;
+			}
+			TopDocs topDocs = searcher.search(parsedQuery, (int) window);
+			result.setTotalElements(topDocs.totalHits);
+			ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+			for (int i = page * size; i < scoreDocs.length; i++) {
+				Document document = searcher.doc(scoreDocs[i].doc);
+				result.getRecipes().add(RecipeSearchHit.builder()
+						.id(document.get(ID))
+						.name(document.get(NAME))
+						.score(scoreDocs[i].score)
+						.build());
+			}
+		}
+		catch (IOException | ParseException e) {
+			throw new ManagerServiceException("Search failed!", e);
+		}
+		finally {
+			release(searcher);
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void updateRecipe(RecipeEntity recipe) {
+		try {
+			indexWriter.updateDocument(new Term(ID, recipe.getId()), toDocument(recipe));
+			searcherManager.maybeRefresh();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public synchronized void removeRecipe(String recipeId) {
+		try {
+			indexWriter.deleteDocuments(new Term(ID, recipeId));
+			searcherManager.maybeRefresh();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public synchronized void reload() {
+		List<RecipeEntity> recipes = recipeRepository.findAllWithCategories();
+		try {
+			indexWriter.deleteAll();
+			for (RecipeEntity recipe : recipes) {
+				indexWriter.addDocument(toDocument(recipe));
+			}
+			indexWriter.commit();
+			searcherManager.maybeRefreshBlocking();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		loaded = true;
+		log.info("Indexed " + recipes.size() + " recipes for full-text search");
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void reloadInBackground() {
+		recipeIndexExecutor.submit(() -> {
+			try {
+				ensureLoaded();
+			}
+			catch (RuntimeException e) {
+				log.error("Building the recipe search index failed", e);
+			}
+		});
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onRecipeChanged(RecipeChangedEvent event) {
+		if (event.isDeleted()) removeRecipe(event.getRecipeId());
+		else recipeRepository.findWithCategoriesById(event.getRecipeId()).ifPresent(this::updateRecipe);
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		searcherManager.close();
+		indexWriter.close();
+	}
+
+	private void ensureLoaded() {
+		if (loaded) return;
+		synchronized (this) {
+			if (!loaded) reload();
+		}
+	}
+
+	private Query parse(String query) throws ParseException {
+		MultiFieldQueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, BOOSTS);
+		parser.setDefaultOperator(QueryParser.Operator.AND);
+		parser.setSplitOnWhitespace(true);
+		return parser.parse(escape(query));
+	}
+
+	/**
+	 * Escapes the query syntax and drops the operator words AND, OR and NOT, so
+	 * the query is searched as plain words that must all match.
+	 */
+	private static String escape(String query) {
+		StringBuilder result = new StringBuilder();
+		for (String word : query.trim().split("\\s+")) {
+			if (OPERATORS.contains(word)) continue;
+			if (result.length() > 0) result.append(' ');
+			result.append(QueryParser.escape(word.toLowerCase(Locale.GERMAN)));
+		}
+		return result.toString();
+	}
+
+	private void release(IndexSearcher searcher) throws ManagerServiceException {
+		if (searcher == null) return;
+		try {
+			searcherManager.release(searcher);
+		}
+		catch (IOException e) {
+			throw new ManagerServiceException("Search failed!", e);
+		}
+	}
+
+	private static Document toDocument(RecipeEntity recipe) {
+		Document document = new Document();
+		document.add(new StringField(ID, recipe.getId(), Field.Store.YES));
+		document.add(new TextField(NAME, nullToEmpty(recipe.getName()), Field.Store.YES));
+		for (String category : recipe.getCategories()) {
+			document.add(new TextField(CATEGORIES, nullToEmpty(category), Field.Store.NO));
+		}
+		document.add(new TextField(ADDITIONAL_INFORMATION, nullToEmpty(recipe.getAdditionalInformation()), Field.Store.NO));
+		document.add(new TextField(INSTRUCTIONS, nullToEmpty(recipe.getInstructions()), Field.Store.NO));
+		return document;
+	}
+
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+
+	private static class GermanSearchAnalyzer extends Analyzer {
+		@Override
+		protected TokenStreamComponents createComponents(String fieldName) {
+			Tokenizer source = new StandardTokenizer();
+			TokenStream result = new LowerCaseFilter(source);
+			result = new StopFilter(result, GermanAnalyzer.getDefaultStopSet());
+			result = new GermanNormalizationFilter(result);
+			result = new GermanStemFilter(result);
+			return new TokenStreamComponents(source, result);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+-- Converts the ids of recipes, recipe ingredients, ingredients and daily plans
+-- from VARCHAR(36) to BINARY(16) (MySQL 8). Run it once with the application
+-- stopped, before starting a version that maps the ids as BINARY(16):
+-- ddl-auto=update does not change the type of existing columns.
+-- Every id column and every column referencing one is converted the same
+-- way, so the foreign keys match again at the end. Existing ids keep their
+-- value and stay random, only new ids are time-ordered.
+use rezepttool;
+
+set foreign_key_checks = 0;
+
+-- VARBINARY(36) keeps the text bytes, UUID_TO_BIN packs them into 16 bytes
+-- and BINARY(16) drops the spare length.
+alter table tblrecipes modify id varbinary(36) not null;
+update tblrecipes set id = uuid_to_bin(id);
+alter table tblrecipes modify id binary(16) not null;
+
+alter table tblingredients modify id varbinary(36) not null;
+update tblingredients set id = uuid_to_bin(id);
+alter table tblingredients modify id binary(16) not null;
+
+alter table tbldailyplan modify id varbinary(36) not null;
+update tbldailyplan set id = uuid_to_bin(id);
+alter table tbldailyplan modify id binary(16) not null;
+
+alter table tblrecipeingredients modify id varbinary(36) not null, modify recipe_id varbinary(36) not null, modify ingredient_id varbinary(36) not null;
+update tblrecipeingredients set id = uuid_to_bin(id), recipe_id = uuid_to_bin(recipe_id), ingredient_id = uuid_to_bin(ingredient_id);
+alter table tblrecipeingredients modify id binary(16) not null, modify recipe_id binary(16) not null, modify ingredient_id binary(16) not null;
+
+alter table tblrecipecategories modify recipe_entity_id varbinary(36) not null;
+update tblrecipecategories set recipe_entity_id = uuid_to_bin(recipe_entity_id);
+alter table tblrecipecategories modify recipe_entity_id binary(16) not null;
+
+alter table tblalternativenames modify ingredient_id varbinary(36) not null;
+update tblalternativenames set ingredient_id = uuid_to_bin(ingredient_id);
+alter table tblalternativenames modify ingredient_id binary(16) not null;
+
+alter table tbldailyplan_recipes modify daily_plan_id varbinary(36) not null, modify recipes_id varbinary(36) not null;
+update tbldailyplan_recipes set daily_plan_id = uuid_to_bin(daily_plan_id), recipes_id = uuid_to_bin(recipes_id);
+alter table tbldailyplan_recipes modify daily_plan_id binary(16) not null, modify recipes_id binary(16) not null;
+
+set foreign_key_checks = 1;
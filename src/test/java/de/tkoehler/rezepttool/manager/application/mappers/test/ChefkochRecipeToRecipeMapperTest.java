@@ -55,8 +55,8 @@ public class ChefkochRecipeToRecipeMapperTest {
 				.recipeYield("testYield")
 				.aggregateRating(AggregateRating.builder()
 						.type("aggregateType")
-						.ratingValue("testValue")
-						.reviewCount("testCount")
+						.ratingValue(4.5)
+						.reviewCount(12)
 						.worstRating(0)
 						.bestRating(0)
 						.build())
@@ -16,20 +16,25 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import de.tkoehler.rezepttool.manager.application.mappers.WebInputToRecipeEntityMapperImpl;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUnit;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredient;
 import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
 
 @RunWith(MockitoJUnitRunner.class)
 public class WebInputToRecipeEntityMapperImplTest {
 
 	@InjectMocks
 	WebInputToRecipeEntityMapperImpl objectUnderTest;
+	@Spy
+	IngredientLineParser ingredientLineParser;
 	RecipeWebInput filledRecipeInput;
 	RecipeWebInput emptyRecipeInput;
 
@@ -143,6 +148,42 @@ public class WebInputToRecipeEntityMapperImplTest {
 		UUID.fromString(ingred2.getId());
 	}
 
+	@Test
+	public void process_emptyTestParamter_markedNew() {
+		RecipeEntity recipe = objectUnderTest.process(emptyRecipeInput);
+		assertThat(recipe.isNew(), is(true));
+		assertThat(recipe.getIngredients().get(0).isNew(), is(true));
+		assertThat(recipe.getIngredients().get(0).getIngredient().isNew(), is(true));
+	}
+
+	@Test
+	public void process_filledTestParamter_notMarkedNew() {
+		RecipeEntity recipe = objectUnderTest.process(filledRecipeInput);
+		assertThat(recipe.isNew(), is(false));
+		assertThat(recipe.getIngredients().get(0).isNew(), is(false));
+	}
+
+	@Test
+	public void process_knownIngredientId_recipeNotMarkedNew() {
+		emptyRecipeInput.getIngredients().get(1).setIngredientId("ingredientId");
+		RecipeEntity recipe = objectUnderTest.process(emptyRecipeInput);
+		assertThat(recipe.isNew(), is(false));
+		assertThat(recipe.getIngredients().get(0).getIngredient().isNew(), is(true));
+	}
+
+	@Test
+	public void process_structuredAmount_quantityAndUnitFilled() {
+		filledRecipeInput.getIngredients().get(0).setAmount("1 ½ EL");
+		filledRecipeInput.getIngredients().get(1).setAmount("etwas");
+		RecipeEntity recipe = objectUnderTest.process(filledRecipeInput);
+		RecipeIngredient parsed = recipe.getIngredients().stream().filter(i -> i.getAmount().equals("1 ½ EL")).findFirst().get();
+		RecipeIngredient unparsed = recipe.getIngredients().stream().filter(i -> i.getAmount().equals("etwas")).findFirst().get();
+		assertThat(parsed.getQuantity(), is(1.5));
+		assertThat(parsed.getUnit(), is(IngredientUnit.TABLESPOON));
+		assertThat(unparsed.getQuantity(), is(nullValue()));
+		assertThat(unparsed.getUnit(), is(nullValue()));
+	}
+
 	@Test
 	public void process_filledTestParamter_filledTestValues() {
 		RecipeEntity recipe = objectUnderTest.process(filledRecipeInput);
@@ -0,0 +1,74 @@
+package de.tkoehler.rezepttool.manager.repositories.ids.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+
+public class TimeOrderedIdsTest {
+
+	@Test
+	public void newId_manyIds_uniqueAndIncreasing() {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			ids.add(TimeOrderedIds.newId());
+		}
+		assertThat(new HashSet<>(ids).size(), is(ids.size()));
+		for (int i = 1; i < ids.size(); i++) {
+			assertThat(ids.get(i - 1) + " < " + ids.get(i), ids.get(i - 1).compareTo(ids.get(i)) < 0, is(true));
+		}
+	}
+
+	@Test
+	public void newId_version7Uuid_currentMillisecond() {
+		long before = System.currentTimeMillis();
+		UUID id = UUID.fromString(TimeOrderedIds.newId());
+		assertThat(id.version(), is(7));
+		assertThat(id.variant(), is(2));
+		long millis = id.getMostSignificantBits() >>> 16;
+		assertThat(millis >= before && millis <= System.currentTimeMillis() + 1, is(true));
+	}
+
+	@Test
+	public void toBytes_fromBytes_roundTrip() {
+		String id = TimeOrderedIds.newId();
+		byte[] bytes = TimeOrderedIds.toBytes(id);
+		assertThat(bytes.length, is(16));
+		assertThat(TimeOrderedIds.fromBytes(bytes), is(id));
+	}
+
+	@Test
+	public void toBytes_upperCaseId_readAsLowerCase() {
+		String id = "0190B5A2-7C3E-7A01-8D2F-3B6C9E4F1A20";
+		assertThat(TimeOrderedIds.fromBytes(TimeOrderedIds.toBytes(id)), is(id.toLowerCase()));
+	}
+
+	@Test
+	public void toBytes_orderedIds_bytesOrderedLikeText() {
+		String first = TimeOrderedIds.newId();
+		String second = TimeOrderedIds.newId();
+		byte[] a = TimeOrderedIds.toBytes(first);
+		byte[] b = TimeOrderedIds.toBytes(second);
+		int i = 0;
+		while (a[i] == b[i])
+			i++;
+		assertThat(Byte.toUnsignedInt(a[i]) < Byte.toUnsignedInt(b[i]), is(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void toBytes_noUuid_throwsIllegalArgumentException() {
+		TimeOrderedIds.toBytes("testId1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void toBytes_misplacedHyphen_throwsIllegalArgumentException() {
+		TimeOrderedIds.toBytes("0190b5a27-c3e-7a01-8d2f-3b6c9e4f1a20");
+	}
+}
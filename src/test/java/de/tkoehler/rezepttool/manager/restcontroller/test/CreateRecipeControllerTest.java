@@ -6,31 +6,56 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJobStatus;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient;
 import de.tkoehler.rezepttool.manager.restcontroller.CreateRecipeControllerImpl;
+import de.tkoehler.rezepttool.manager.restcontroller.model.ImportJobResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeImportResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSaveResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyIngredientPage;
+import de.tkoehler.rezepttool.manager.services.BulkEditorService;
 import de.tkoehler.rezepttool.manager.services.EditorService;
+import de.tkoehler.rezepttool.manager.services.ImportJobService;
 import de.tkoehler.rezepttool.manager.services.ImporterService;
 import de.tkoehler.rezepttool.manager.services.ManagerService;
 import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
 import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceIDNotFoundException;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CreateRecipeControllerTest {
@@ -42,7 +67,15 @@ public class CreateRecipeControllerTest {
 	@Mock
 	private ImporterService importerServiceMock;
 	@Mock
+	private ImportJobService importJobServiceMock;
+	@Mock
 	private EditorService editorServiceMock;
+	@Mock
+	private BulkEditorService bulkEditorServiceMock;
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	@Mock
+	private Validator validatorMock;
 
 	@Test
 	public void loadTinyIngredients_NotNull() {
@@ -86,6 +119,38 @@ public class CreateRecipeControllerTest {
 		assertThat(result.getBody(), hasItems(ingred1, ingred2));
 	}
 
+	@Test
+	public void loadTinyIngredientPage_hugePageSize_capped() throws ManagerServiceException {
+		TinyIngredientPage page = TinyIngredientPage.builder().ingredients(new ArrayList<>()).build();
+		when(managerServiceMock.findTinyIngredientPage("token", 500)).thenReturn(page);
+		ResponseEntity<TinyIngredientPage> result = objectUnderTest.loadTinyIngredientPage("token", 100000);
+		assertThat(result.getStatusCode(), is(HttpStatus.OK));
+		assertThat(result.getBody(), is(page));
+	}
+
+	@Test
+	public void loadTinyIngredientPage_invalidToken_badRequest() throws ManagerServiceException {
+		doThrow(new ManagerServiceException()).when(managerServiceMock).findTinyIngredientPage("invalid", 100);
+		ResponseEntity<TinyIngredientPage> result = objectUnderTest.loadTinyIngredientPage("invalid", 100);
+		assertThat(result.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+	}
+
+	@Test
+	public void matchIngredients_tooLargeLimit_limitCapped() {
+		IngredientMatch match = IngredientMatch.builder().name("Zwiebel").department("Gemüse").score(0.9).build();
+		when(managerServiceMock.findMatchingIngredients("Zwiebeln", 50)).thenReturn(Arrays.asList(match));
+		ResponseEntity<List<IngredientMatch>> result = objectUnderTest.matchIngredients("Zwiebeln", 1000);
+		assertThat(result.getStatusCode(), is(HttpStatus.OK));
+		assertThat(result.getBody(), hasItems(match));
+	}
+
+	@Test
+	public void matchIngredients_invalidLimit_badRequest() {
+		ResponseEntity<List<IngredientMatch>> result = objectUnderTest.matchIngredients("Zwiebeln", 0);
+		assertThat(result.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+		verify(managerServiceMock, times(0)).findMatchingIngredients(any(), anyInt());
+	}
+
 	@Test
 	public void searchIngredients_NullParameter_ResultWithNoFilter() {
 		when(managerServiceMock.findAllTinyIngredients()).thenReturn(new ArrayList<>());
@@ -235,6 +300,58 @@ public class CreateRecipeControllerTest {
 		assertThat(result.getBody().getUrl(), is(value));
 	}
 
+	@Test
+	public void loadRecipesFromExternalURLs_WrongParameter_ServerError() throws ImporterServiceException {
+		doThrow(new ImporterServiceException()).when(importerServiceMock).loadRecipesFromExternal(any());
+		ResponseEntity<List<RecipeImportResult>> result = objectUnderTest.loadRecipesFromExternalURLs(null);
+		assertThat(HttpStatus.INTERNAL_SERVER_ERROR, is(result.getStatusCode()));
+	}
+
+	@Test
+	public void loadRecipesFromExternalURLs_CorrectParameter_success() throws ImporterServiceException {
+		List<String> urls = Arrays.asList("https://www.website.de/test1.html", "https://www.website.de/test2.html");
+		List<RecipeImportResult> importResults = Arrays.asList(
+				RecipeImportResult.builder().url(urls.get(0)).recipe(new RecipeWebInput()).build(),
+				RecipeImportResult.builder().url(urls.get(1)).error("Failed to parse recipe!").build());
+		when(importerServiceMock.loadRecipesFromExternal(urls)).thenReturn(importResults);
+		ResponseEntity<List<RecipeImportResult>> result = objectUnderTest.loadRecipesFromExternalURLs(urls);
+		assertThat(HttpStatus.OK, is(result.getStatusCode()));
+		assertThat(result.getBody(), is(importResults));
+	}
+
+	@Test
+	public void createImportJob_WrongParameter_ServerError() throws ImporterServiceException {
+		ResponseEntity<ImportJobResult> result = objectUnderTest.createImportJob("");
+		assertThat(HttpStatus.INTERNAL_SERVER_ERROR, is(result.getStatusCode()));
+	}
+
+	@Test
+	public void createImportJob_CorrectParameter_Accepted() throws ImporterServiceException {
+		String json = "\"https://www.website.de/test.html\"";
+		String value = "https://www.website.de/test.html";
+		ImportJobResult job = ImportJobResult.builder().id("1").url(value).status(ImportJobStatus.QUEUED).build();
+		when(importJobServiceMock.createImportJob(value)).thenReturn(job);
+		ResponseEntity<ImportJobResult> result = objectUnderTest.createImportJob(json);
+		assertThat(HttpStatus.ACCEPTED, is(result.getStatusCode()));
+		assertThat(result.getBody(), is(job));
+	}
+
+	@Test
+	public void loadImportJob_UnknownID_NotFound() throws ImporterServiceException {
+		doThrow(new ImporterServiceIDNotFoundException()).when(importJobServiceMock).loadImportJob("1");
+		ResponseEntity<ImportJobResult> result = objectUnderTest.loadImportJob("1");
+		assertThat(HttpStatus.NOT_FOUND, is(result.getStatusCode()));
+	}
+
+	@Test
+	public void loadImportJob_CorrectParameter_success() throws ImporterServiceException {
+		ImportJobResult job = ImportJobResult.builder().id("1").status(ImportJobStatus.FINISHED).recipe(new RecipeWebInput()).build();
+		when(importJobServiceMock.loadImportJob("1")).thenReturn(job);
+		ResponseEntity<ImportJobResult> result = objectUnderTest.loadImportJob("1");
+		assertThat(HttpStatus.OK, is(result.getStatusCode()));
+		assertThat(result.getBody(), is(job));
+	}
+
 	@Test
 	public void saveRecipe_NullParameter_ServerError() throws EditorServiceException {
 		doThrow(new EditorServiceException()).when(editorServiceMock).insertRecipe(null);
@@ -263,4 +380,75 @@ public class CreateRecipeControllerTest {
 		assertThat(HttpStatus.OK, is(result.getStatusCode()));
 		assertThat("\"success\"", is(result.getBody().toString()));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void saveRecipes_validParameter_bulkSave1x() throws EditorServiceException {
+		List<RecipeSaveResult> saved = Arrays.asList(RecipeSaveResult.builder().id("id1").build());
+		when(bulkEditorServiceMock.insertRecipes(any())).thenReturn(saved);
+		ResponseEntity<List<RecipeSaveResult>> result = objectUnderTest.saveRecipes(Arrays.asList(RecipeWebInput.builder().build()));
+		assertThat(result.getStatusCode(), is(HttpStatus.OK));
+		assertThat(result.getBody(), is(saved));
+		verify(bulkEditorServiceMock, times(1)).insertRecipes(any());
+	}
+
+	@Test
+	public void saveRecipes_nullParameter_BadRequest() {
+		ResponseEntity<List<RecipeSaveResult>> result = objectUnderTest.saveRecipes(null);
+		assertThat(result.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+	}
+
+	@Test
+	public void saveRecipes_serviceException_ServerError() throws EditorServiceException {
+		when(bulkEditorServiceMock.insertRecipes(any())).thenThrow(new EditorServiceException());
+		ResponseEntity<List<RecipeSaveResult>> result = objectUnderTest.saveRecipes(new ArrayList<>());
+		assertThat(result.getStatusCode(), is(HttpStatus.INTERNAL_SERVER_ERROR));
+	}
+
+	@Test
+	public void saveRecipeStream_oneRecipePerLine_unreadableLineAsNull() throws EditorServiceException {
+		String ndjson = "{\"name\":\"Rezept 1\"}\n\n{\"name\":\"Rezept 2\",\"unknown\":1}\nkein json\n";
+		List<RecipeWebInput> received = new ArrayList<>();
+		when(bulkEditorServiceMock.insertRecipes(any())).thenAnswer(invocation -> {
+			Iterator<RecipeWebInput> recipes = invocation.getArgument(0);
+			recipes.forEachRemaining(received::add);
+			return new ArrayList<>();
+		});
+		ResponseEntity<List<RecipeSaveResult>> result = objectUnderTest.saveRecipeStream(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+		assertThat(result.getStatusCode(), is(HttpStatus.OK));
+		assertThat(received.size(), is(3));
+		assertThat(received.get(0).getName(), is("Rezept 1"));
+		assertThat(received.get(1).getName(), is("Rezept 2"));
+		assertThat(received.get(2), is(nullValue()));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void saveRecipes_invalidRecipe_BadRequest() throws EditorServiceException {
+		RecipeWebInput invalid = RecipeWebInput.builder().name("invalid").build();
+		Set<ConstraintViolation<RecipeWebInput>> violations = Collections.singleton(mock(ConstraintViolation.class));
+		when(validatorMock.validate(invalid)).thenReturn(violations);
+		ResponseEntity<List<RecipeSaveResult>> result = objectUnderTest.saveRecipes(Arrays.asList(RecipeWebInput.builder().build(), invalid));
+		assertThat(result.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+		verify(bulkEditorServiceMock, never()).insertRecipes(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void saveRecipeStream_invalidLine_passedAsNull() throws EditorServiceException {
+		String ndjson = "{\"name\":\"Rezept 1\"}\n{\"name\":\"invalid\"}\n";
+		when(validatorMock.validate(any(RecipeWebInput.class))).thenAnswer(invocation -> {
+			RecipeWebInput recipe = invocation.getArgument(0);
+			return recipe.getName().equals("invalid") ? Collections.singleton(mock(ConstraintViolation.class)) : Collections.emptySet();
+		});
+		List<RecipeWebInput> received = new ArrayList<>();
+		when(bulkEditorServiceMock.insertRecipes(any())).thenAnswer(invocation -> {
+			Iterator<RecipeWebInput> recipes = invocation.getArgument(0);
+			recipes.forEachRemaining(received::add);
+			return new ArrayList<>();
+		});
+		objectUnderTest.saveRecipeStream(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+		assertThat(received.size(), is(2));
+		assertThat(received.get(0).getName(), is("Rezept 1"));
+		assertThat(received.get(1), is(nullValue()));
+	}
+}
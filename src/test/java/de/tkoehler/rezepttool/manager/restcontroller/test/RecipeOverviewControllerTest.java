@@ -4,11 +4,16 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -22,10 +27,13 @@ import org.springframework.http.ResponseEntity;
 
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
 import de.tkoehler.rezepttool.manager.restcontroller.RecipeOverviewControllerImpl;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyRecipePage;
 import de.tkoehler.rezepttool.manager.services.EditorService;
 import de.tkoehler.rezepttool.manager.services.ManagerService;
 import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RecipeOverviewControllerTest {
@@ -71,6 +79,66 @@ public class RecipeOverviewControllerTest {
 		assertThat(result.getBody().get(0).getId(), is("testID"));
 	}
 
+	@Test
+	public void loadTinyRecipePage_validParameter_findPage1x() throws ManagerServiceException {
+		TinyRecipePage page = TinyRecipePage.builder().recipes(new ArrayList<>()).nextToken("next").build();
+		when(managerServiceMock.findTinyRecipePage(null, 50)).thenReturn(page);
+		ResponseEntity<TinyRecipePage> result = objectUnderTest.loadTinyRecipePage(null, 50);
+		verify(managerServiceMock, times(1)).findTinyRecipePage(null, 50);
+		assertThat(HttpStatus.OK, is(result.getStatusCode()));
+		assertThat(page, is(result.getBody()));
+	}
+
+	@Test
+	public void loadTinyRecipePage_invalidSize_BadRequest() throws ManagerServiceException {
+		ResponseEntity<TinyRecipePage> result = objectUnderTest.loadTinyRecipePage(null, 0);
+		assertThat(HttpStatus.BAD_REQUEST, is(result.getStatusCode()));
+		verify(managerServiceMock, never()).findTinyRecipePage(any(), anyInt());
+	}
+
+	@Test
+	public void loadTinyRecipePage_hugePageSize_capped() throws ManagerServiceException {
+		objectUnderTest.loadTinyRecipePage(null, 100000);
+		verify(managerServiceMock, times(1)).findTinyRecipePage(null, 500);
+	}
+
+	@Test
+	public void loadTinyRecipePage_invalidToken_BadRequest() throws ManagerServiceException {
+		doThrow(new ManagerServiceException()).when(managerServiceMock).findTinyRecipePage("invalid", 100);
+		ResponseEntity<TinyRecipePage> result = objectUnderTest.loadTinyRecipePage("invalid", 100);
+		assertThat(HttpStatus.BAD_REQUEST, is(result.getStatusCode()));
+	}
+
+	@Test
+	public void searchRecipes_validParameter_search1x() throws ManagerServiceException {
+		RecipeSearchResult searchResult = RecipeSearchResult.builder().recipes(new ArrayList<>()).build();
+		when(managerServiceMock.searchRecipes("Kartoffeln", 0, 20)).thenReturn(searchResult);
+		ResponseEntity<RecipeSearchResult> result = objectUnderTest.searchRecipes("Kartoffeln", 0, 20);
+		verify(managerServiceMock, times(1)).searchRecipes("Kartoffeln", 0, 20);
+		assertThat(HttpStatus.OK, is(result.getStatusCode()));
+		assertThat(searchResult, is(result.getBody()));
+	}
+
+	@Test
+	public void searchRecipes_invalidPaging_BadRequest() throws ManagerServiceException {
+		assertThat(HttpStatus.BAD_REQUEST, is(objectUnderTest.searchRecipes("Kartoffeln", -1, 20).getStatusCode()));
+		assertThat(HttpStatus.BAD_REQUEST, is(objectUnderTest.searchRecipes("Kartoffeln", 0, 0).getStatusCode()));
+		verify(managerServiceMock, never()).searchRecipes(anyString(), anyInt(), anyInt());
+	}
+
+	@Test
+	public void searchRecipes_hugePageSize_capped() throws ManagerServiceException {
+		objectUnderTest.searchRecipes("Kartoffeln", 0, 100000);
+		verify(managerServiceMock, times(1)).searchRecipes("Kartoffeln", 0, 100);
+	}
+
+	@Test
+	public void searchRecipes_serviceException_ServerError() throws ManagerServiceException {
+		doThrow(new ManagerServiceException()).when(managerServiceMock).searchRecipes("Kartoffeln", 0, 20);
+		ResponseEntity<RecipeSearchResult> result = objectUnderTest.searchRecipes("Kartoffeln", 0, 20);
+		assertThat(HttpStatus.INTERNAL_SERVER_ERROR, is(result.getStatusCode()));
+	}
+
 	@Test
 	public void deleteRecipe_anyParameter_resultNotNull() {
 		ResponseEntity<String> result = objectUnderTest.deleteRecipe("");
@@ -27,6 +27,9 @@ import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
 import de.tkoehler.rezepttool.manager.restcontroller.RecipePlannerControllerImpl;
 import de.tkoehler.rezepttool.manager.restcontroller.model.DailyPlanWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryList;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 import de.tkoehler.rezepttool.manager.services.EditorService;
 import de.tkoehler.rezepttool.manager.services.ManagerService;
@@ -177,6 +180,33 @@ public class RecipePlannerControllerTest {
 		assertThat(HttpStatus.INTERNAL_SERVER_ERROR, is(result.getStatusCode()));
 	}
 
+	@Test
+	public void filterRecipes_validParameter_filterRecipes1x() {
+		RecipeFilterWebInput filter = RecipeFilterWebInput.builder().allCategories(Arrays.asList("cat1")).build();
+		RecipeFilterResult filterResult = RecipeFilterResult.builder().recipes(new ArrayList<>()).build();
+		when(managerServiceMock.filterRecipes(filter)).thenReturn(filterResult);
+		ResponseEntity<RecipeFilterResult> result = objectUnderTest.filterRecipes(filter);
+		verify(managerServiceMock, times(1)).filterRecipes(filter);
+		assertThat(HttpStatus.OK, is(result.getStatusCode()));
+		assertThat(result.getBody(), is(filterResult));
+	}
+
+	@Test
+	public void filterRecipes_invalidPaging_BadRequest() {
+		ResponseEntity<RecipeFilterResult> result = objectUnderTest.filterRecipes(RecipeFilterWebInput.builder().page(-1).build());
+		assertThat(HttpStatus.BAD_REQUEST, is(result.getStatusCode()));
+		result = objectUnderTest.filterRecipes(RecipeFilterWebInput.builder().size(0).build());
+		assertThat(HttpStatus.BAD_REQUEST, is(result.getStatusCode()));
+	}
+
+	@Test
+	public void filterRecipes_hugePageSize_capped() {
+		RecipeFilterWebInput filter = RecipeFilterWebInput.builder().size(100000).build();
+		objectUnderTest.filterRecipes(filter);
+		verify(managerServiceMock, times(1)).filterRecipes(filter);
+		assertThat(filter.getSize(), is(100));
+	}
+
 	@Test
 	public void planRecipe_validParameter_updatePlan1x() throws PlannerServiceException {
 		DailyPlanWebInput plan = DailyPlanWebInput.builder()
@@ -225,4 +255,23 @@ public class RecipePlannerControllerTest {
 	public void loadIngredients() {
 		fail();
 	}
+
+	@Test
+	public void loadGroceryList_validParameter_loadGroceryList1x() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = { DailyPlanWebInput.builder().date(new Date()).build() };
+		GroceryList groceryList = GroceryList.builder().departments(new ArrayList<>()).build();
+		when(plannerServiceMock.loadGroceryList(plans)).thenReturn(groceryList);
+		ResponseEntity<GroceryList> result = objectUnderTest.loadGroceryList(plans);
+		verify(plannerServiceMock, times(1)).loadGroceryList(plans);
+		assertThat(HttpStatus.OK, is(result.getStatusCode()));
+		assertThat(result.getBody(), is(groceryList));
+	}
+
+	@Test
+	public void loadGroceryList_serviceException_ServerError() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = { DailyPlanWebInput.builder().date(new Date()).build() };
+		when(plannerServiceMock.loadGroceryList(plans)).thenThrow(new PlannerServiceException("error"));
+		ResponseEntity<GroceryList> result = objectUnderTest.loadGroceryList(plans);
+		assertThat(HttpStatus.INTERNAL_SERVER_ERROR, is(result.getStatusCode()));
+	}
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.AlternativeNameIndexImpl;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.BloomFilter;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AlternativeNameIndexTest {
+
+	private AlternativeNameIndexImpl objectUnderTest;
+	private SimpleMeterRegistry meterRegistry;
+	@Mock
+	private IngredientRepository ingredientRepositoryMock;
+
+	@Before
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		objectUnderTest = new AlternativeNameIndexImpl(ingredientRepositoryMock, 16, 0.01, meterRegistry);
+		lenient().when(ingredientRepositoryMock.findAllAlternativeNames()).thenReturn(new ArrayList<>(Arrays.asList(
+				new AlternativeNameMatch("Zwiebel", "id1", "Zwiebel", "Gemüse"),
+				new AlternativeNameMatch("Zwiebeln, rot", "id1", "Zwiebel", "Gemüse"),
+				new AlternativeNameMatch("Zwiebel", "id2", "Zwiebel", "Tiefkühl"))));
+	}
+
+	@Test
+	public void findByAlternativeNames_knownName_allIngredientsFound() {
+		List<AlternativeNameMatch> result = objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebel"));
+		assertThat(result.size(), is(2));
+		assertThat(result.stream().map(AlternativeNameMatch::getIngredientId).collect(Collectors.toSet()), is(Stream.of("id1", "id2").collect(Collectors.toSet())));
+	}
+
+	@Test
+	public void findByAlternativeNames_differentlyWrittenName_matchCarriesSearchName() {
+		List<AlternativeNameMatch> result = objectUnderTest.findByAlternativeNames(Arrays.asList("  zwiebeln,   ROT "));
+		assertThat(result.size(), is(1));
+		assertThat(result.get(0).getAlternativeName(), is("  zwiebeln,   ROT "));
+		assertThat(result.get(0).getName(), is("Zwiebel"));
+	}
+
+	@Test
+	public void findByAlternativeNames_manyLookups_loadedOnce() {
+		objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebel"));
+		objectUnderTest.findByAlternativeNames(Arrays.asList("Knoblauch"));
+		verify(ingredientRepositoryMock, times(1)).findAllAlternativeNames();
+	}
+
+	@Test
+	public void findByAlternativeNames_hitsAndMisses_counted() {
+		objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebel", "Knoblauch", "Ingwer"));
+		assertThat(meterRegistry.get("importer.alternativenames.lookups").tag("result", "hit").counter().count(), is(1.0));
+		assertThat(meterRegistry.get("importer.alternativenames.lookups").tag("result", "miss").counter().count(), is(2.0));
+	}
+
+	@Test
+	public void onRecipeChanged_newAlternativeName_foundWithoutReload() {
+		objectUnderTest.reload();
+		Ingredient ingredient = Ingredient.builder()
+				.id("id3")
+				.name("Knoblauch")
+				.department("Gemüse")
+				.alternativeNames(Stream.of("Knoblauchzehe").collect(Collectors.toSet()))
+				.build();
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("recipeId", Arrays.asList(ingredient)));
+		List<AlternativeNameMatch> result = objectUnderTest.findByAlternativeNames(Arrays.asList("Knoblauchzehe"));
+		assertThat(result.size(), is(1));
+		assertThat(result.get(0).getIngredientId(), is("id3"));
+		verify(ingredientRepositoryMock, times(1)).findAllAlternativeNames();
+	}
+
+	@Test
+	public void updateIngredients_changedIngredient_oldEntriesReplaced() {
+		Ingredient ingredient = Ingredient.builder()
+				.id("id1")
+				.name("Gemüsezwiebel")
+				.department("Gemüse")
+				.alternativeNames(Stream.of("Zwiebel").collect(Collectors.toSet()))
+				.build();
+		objectUnderTest.updateIngredients(Arrays.asList(ingredient));
+		assertThat(objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebeln, rot")).isEmpty(), is(true));
+		List<AlternativeNameMatch> result = objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebel"));
+		assertThat(result.stream().map(AlternativeNameMatch::getName).collect(Collectors.toSet()), is(Stream.of("Gemüsezwiebel", "Zwiebel").collect(Collectors.toSet())));
+	}
+
+	@Test
+	public void updateIngredients_alternativeNameDropped_notFoundAnyMore() {
+		Ingredient ingredient = Ingredient.builder()
+				.id("id1")
+				.name("Zwiebel")
+				.department("Gemüse")
+				.alternativeNames(Stream.of("Zwiebel").collect(Collectors.toSet()))
+				.build();
+		objectUnderTest.updateIngredients(Arrays.asList(ingredient));
+		assertThat(objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebeln, rot")).isEmpty(), is(true));
+		assertThat(objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebel")).size(), is(2));
+	}
+
+	@Test
+	public void removeIngredients_knownIngredient_notFoundAnyMore() {
+		objectUnderTest.removeIngredients(Arrays.asList("id1"));
+		assertThat(objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebeln, rot")).isEmpty(), is(true));
+		List<AlternativeNameMatch> result = objectUnderTest.findByAlternativeNames(Arrays.asList("Zwiebel"));
+		assertThat(result.size(), is(1));
+		assertThat(result.get(0).getIngredientId(), is("id2"));
+	}
+
+	@Test
+	public void updateIngredients_moreNamesThanCapacity_allFound() {
+		List<Ingredient> ingredients = IntStream.range(0, 100)
+				.mapToObj(i -> Ingredient.builder()
+						.id("new" + i)
+						.name("Zutat" + i)
+						.department("Gemüse")
+						.alternativeNames(Stream.of("Zutat" + i).collect(Collectors.toSet()))
+						.build())
+				.collect(Collectors.toList());
+		objectUnderTest.updateIngredients(ingredients);
+		List<String> names = IntStream.range(0, 100).mapToObj(i -> "Zutat" + i).collect(Collectors.toList());
+		assertThat(objectUnderTest.findByAlternativeNames(names).size(), is(100));
+	}
+
+	@Test
+	public void bloomFilter_insertedValues_noFalseNegatives() {
+		BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+		IntStream.range(0, 1000).forEach(i -> bloomFilter.put("value" + i));
+		assertThat(IntStream.range(0, 1000).allMatch(i -> bloomFilter.mightContain("value" + i)), is(true));
+		long falsePositives = IntStream.range(0, 10000).filter(i -> bloomFilter.mightContain("other" + i)).count();
+		assertThat(falsePositives < 300, is(true));
+		assertThat(bloomFilter.isSaturated(), is(false));
+	}
+}
@@ -0,0 +1,82 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tkoehler.rezepttool.manager.services.ingredientindex.CompletionTrie;
+
+public class CompletionTrieTest {
+
+	private CompletionTrie objectUnderTest;
+
+	@Before
+	public void setUp() {
+		Map<String, Long> weights = new HashMap<>();
+		weights.put("Zwiebel", 10L);
+		weights.put("Rote Zwiebel", 3L);
+		weights.put("Zwiebel(n), rot", 1L);
+		weights.put("Zucker", 7L);
+		weights.put("Äpfel", 2L);
+		weights.put("Salz", 20L);
+		objectUnderTest = CompletionTrie.build(weights);
+	}
+
+	@Test
+	public void complete_prefix_mostUsedFirst() {
+		assertThat(objectUnderTest.complete("zw", 10), is(Arrays.asList("Zwiebel", "Rote Zwiebel", "Zwiebel(n), rot")));
+		assertThat(objectUnderTest.complete("Z", 2), is(Arrays.asList("Zwiebel", "Zucker")));
+	}
+
+	@Test
+	public void complete_laterWord_found() {
+		assertThat(objectUnderTest.complete("rot", 10), is(Arrays.asList("Rote Zwiebel", "Zwiebel(n), rot")));
+		assertThat(objectUnderTest.complete("rote zw", 10), is(Arrays.asList("Rote Zwiebel")));
+	}
+
+	@Test
+	public void complete_umlaut_folded() {
+		assertThat(objectUnderTest.complete("aepf", 10), is(Arrays.asList("Äpfel")));
+		assertThat(objectUnderTest.complete("Äpf", 10), is(Arrays.asList("Äpfel")));
+	}
+
+	@Test
+	public void complete_emptyQuery_mostUsed() {
+		assertThat(objectUnderTest.complete("", 2), is(Arrays.asList("Salz", "Zwiebel")));
+		assertThat(objectUnderTest.complete(null, 1), is(Arrays.asList("Salz")));
+	}
+
+	@Test
+	public void complete_unknownPrefix_empty() {
+		assertThat(objectUnderTest.complete("Mehl", 10).isEmpty(), is(true));
+		assertThat(objectUnderTest.complete("zwiebelsuppe", 10).isEmpty(), is(true));
+	}
+
+	@Test
+	public void put_newWeight_reranked() {
+		CompletionTrie updated = objectUnderTest.put("Rote Zwiebel", 50L).put("Zwetschge", 5L);
+		assertThat(updated.complete("zw", 10), is(Arrays.asList("Rote Zwiebel", "Zwiebel", "Zwetschge", "Zwiebel(n), rot")));
+		assertThat(objectUnderTest.complete("zw", 10), is(Arrays.asList("Zwiebel", "Rote Zwiebel", "Zwiebel(n), rot")));
+	}
+
+	@Test
+	public void remove_text_notCompletedAnyMore() {
+		CompletionTrie updated = objectUnderTest.remove("Zwiebel").remove("Zwiebel(n), rot");
+		assertThat(updated.complete("zw", 10), is(Arrays.asList("Rote Zwiebel")));
+		assertThat(updated.complete("rot", 10), is(Arrays.asList("Rote Zwiebel")));
+		assertThat(updated.remove("Unbekannt"), is(updated));
+	}
+
+	@Test
+	public void put_emptyTrie_completed() {
+		CompletionTrie trie = CompletionTrie.empty().put("Zwiebel", 1L).put("Zwieback", 2L).put("Zwiebel", 3L);
+		assertThat(trie.complete("zwieb", 10), is(Arrays.asList("Zwiebel", "Zwieback")));
+		assertThat(trie.remove("Zwiebel").remove("Zwieback").complete("", 10).isEmpty(), is(true));
+	}
+}
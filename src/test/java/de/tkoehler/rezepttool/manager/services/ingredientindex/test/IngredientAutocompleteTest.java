@@ -0,0 +1,121 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.RecipeIngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUsage;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientAutocompleteImpl;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IngredientAutocompleteTest {
+
+	private IngredientAutocompleteImpl objectUnderTest;
+	@Mock
+	private IngredientRepository ingredientRepositoryMock;
+	@Mock
+	private RecipeIngredientRepository recipeIngredientRepositoryMock;
+
+	@Before
+	public void setUp() {
+		objectUnderTest = new IngredientAutocompleteImpl(ingredientRepositoryMock, recipeIngredientRepositoryMock);
+		lenient().when(ingredientRepositoryMock.findAllIngredientsWithAlternativeNames()).thenReturn(new ArrayList<>(Arrays.asList(
+				new AlternativeNameMatch("Zwiebel(n), rot", "id1", "Rote Zwiebel", "Gemüse"),
+				new AlternativeNameMatch(null, "id2", "Zwiebel", "Gemüse"),
+				new AlternativeNameMatch("Knoblauchzehe(n)", "id3", "Knoblauch", "Gemüse"),
+				new AlternativeNameMatch(null, "id4", "Zucker", "Backzutaten"))));
+		lenient().when(recipeIngredientRepositoryMock.countUsagesByIngredient()).thenReturn(Arrays.asList(
+				new IngredientUsage("id1", 2), new IngredientUsage("id2", 10), new IngredientUsage("id4", 5)));
+	}
+
+	@Test
+	public void completeNames_prefix_rankedByUsage() {
+		assertThat(objectUnderTest.completeNames("zw", 10), is(Arrays.asList("Zwiebel", "Rote Zwiebel", "Zwiebel(n), rot")));
+		assertThat(objectUnderTest.completeNames("knob", 10), is(Arrays.asList("Knoblauch", "Knoblauchzehe(n)")));
+	}
+
+	@Test
+	public void completeNames_laterWord_found() {
+		assertThat(objectUnderTest.completeNames("rot", 10), is(Arrays.asList("Rote Zwiebel", "Zwiebel(n), rot")));
+	}
+
+	@Test
+	public void completeDepartments_usagesSummed() {
+		assertThat(objectUnderTest.completeDepartments("", 10), is(Arrays.asList("Gemüse", "Backzutaten")));
+		assertThat(objectUnderTest.completeDepartments("back", 10), is(Arrays.asList("Backzutaten")));
+	}
+
+	@Test
+	public void completeNames_calledTwice_loadedOnce() {
+		objectUnderTest.completeNames("zw", 10);
+		objectUnderTest.completeNames("knob", 10);
+		verify(ingredientRepositoryMock, times(1)).findAllIngredientsWithAlternativeNames();
+	}
+
+	@Test
+	public void onRecipeChanged_newIngredient_completed() {
+		objectUnderTest.reload();
+		when(recipeIngredientRepositoryMock.countUsagesByIngredientIdIn(anyCollection())).thenReturn(Arrays.asList(new IngredientUsage("id5", 20)));
+		Ingredient zwetschge = Ingredient.builder().id("id5").name("Zwetschge").department("Obst").alternativeNames(new HashSet<>(Arrays.asList("Pflaume"))).build();
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("recipeID", Arrays.asList(zwetschge)));
+		assertThat(objectUnderTest.completeNames("zw", 10), is(Arrays.asList("Zwetschge", "Zwiebel", "Rote Zwiebel", "Zwiebel(n), rot")));
+		assertThat(objectUnderTest.completeNames("pfl", 10), is(Arrays.asList("Pflaume")));
+		assertThat(objectUnderTest.completeDepartments("", 1), is(Arrays.asList("Obst")));
+	}
+
+	@Test
+	public void onRecipeChanged_renamedIngredient_oldNameRemoved() {
+		objectUnderTest.reload();
+		when(recipeIngredientRepositoryMock.countUsagesByIngredientIdIn(anyCollection())).thenReturn(Arrays.asList(new IngredientUsage("id4", 6)));
+		Ingredient sugar = Ingredient.builder().id("id4").name("Rohrzucker").department("Backen").build();
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("recipeID", Arrays.asList(sugar)));
+		assertThat(objectUnderTest.completeNames("zu", 10).isEmpty(), is(true));
+		assertThat(objectUnderTest.completeNames("rohr", 10), is(Arrays.asList("Rohrzucker")));
+		assertThat(objectUnderTest.completeDepartments("back", 10), is(Arrays.asList("Backen")));
+	}
+
+	@Test
+	public void onRecipeChanged_deletedRecipe_usagesLowered() {
+		objectUnderTest.reload();
+		when(recipeIngredientRepositoryMock.countUsagesByIngredientIdIn(Collections.singleton("id2"))).thenReturn(new ArrayList<>());
+		objectUnderTest.onRecipeChanged(RecipeChangedEvent.deleted("recipeID", Arrays.asList("id2")));
+		assertThat(objectUnderTest.completeNames("zw", 10), is(Arrays.asList("Rote Zwiebel", "Zwiebel(n), rot", "Zwiebel")));
+		assertThat(objectUnderTest.completeDepartments("", 10), is(Arrays.asList("Backzutaten", "Gemüse")));
+		verify(recipeIngredientRepositoryMock, times(1)).countUsagesByIngredient();
+	}
+
+	@Test
+	public void onRecipeChanged_updatedRecipe_droppedIngredientLowered() {
+		objectUnderTest.reload();
+		when(recipeIngredientRepositoryMock.countUsagesByIngredientIdIn(anyCollection())).thenAnswer(invocation -> {
+			Collection<String> ids = invocation.getArgument(0);
+			return ids.contains("id3") ? Arrays.asList(new IngredientUsage("id3", 12)) : Arrays.asList(new IngredientUsage("id2", 0));
+		});
+		Ingredient garlic = Ingredient.builder().id("id3").name("Knoblauch").department("Gemüse").alternativeNames(new HashSet<>(Arrays.asList("Knoblauchzehe(n)"))).build();
+		objectUnderTest.onRecipeChanged(RecipeChangedEvent.updated("recipeID", "Bratkartoffeln", null, Arrays.asList(garlic), Arrays.asList("id2", "id3")));
+		assertThat(objectUnderTest.completeNames("zw", 10), is(Arrays.asList("Rote Zwiebel", "Zwiebel(n), rot", "Zwiebel")));
+		assertThat(objectUnderTest.completeNames("knob", 10), is(Arrays.asList("Knoblauch", "Knoblauchzehe(n)")));
+		verify(recipeIngredientRepositoryMock, times(1)).countUsagesByIngredient();
+	}
+}
@@ -0,0 +1,117 @@
+package de.tkoehler.rezepttool.manager.services.ingredientindex.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.lenient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientMatcherImpl;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientNameNormalizer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IngredientMatcherTest {
+
+	private IngredientMatcherImpl objectUnderTest;
+	@Mock
+	private IngredientRepository ingredientRepositoryMock;
+
+	@Before
+	public void setUp() {
+		objectUnderTest = new IngredientMatcherImpl(ingredientRepositoryMock, 0.3, 0.8);
+		lenient().when(ingredientRepositoryMock.findAllIngredientsWithAlternativeNames()).thenReturn(new ArrayList<>(Arrays.asList(
+				new AlternativeNameMatch("Zwiebel(n), rot", "id1", "Rote Zwiebel", "Gemüse"),
+				new AlternativeNameMatch(null, "id2", "Zwiebel", "Gemüse"),
+				new AlternativeNameMatch("Knoblauchzehe(n)", "id3", "Knoblauch", "Gemüse"),
+				new AlternativeNameMatch("Öl zum Braten", "id4", "Sonnenblumenöl", "Öl"))));
+	}
+
+	@Test
+	public void tokens_differentWordOrderAndInflection_sameTokens() {
+		assertThat(IngredientNameNormalizer.tokens("Zwiebel(n), rot"), is(IngredientNameNormalizer.tokens("rote Zwiebeln")));
+		assertThat(IngredientNameNormalizer.tokens("Öl zum Braten"), is(Arrays.asList("brat", "oel")));
+	}
+
+	@Test
+	public void findMatches_reorderedName_bestMatchFirst() {
+		List<IngredientMatch> result = objectUnderTest.findMatches("rote Zwiebeln", 5);
+		assertThat(result.size(), is(2));
+		assertThat(result.get(0).getIngredientId(), is("id1"));
+		assertThat(result.get(0).getScore(), is(1.0));
+		assertThat(result.get(1).getIngredientId(), is("id2"));
+	}
+
+	@Test
+	public void findMatches_calledTwice_sameScores() {
+		List<IngredientMatch> first = objectUnderTest.findMatches("rote Zwiebeln", 5);
+		List<IngredientMatch> second = objectUnderTest.findMatches("rote Zwiebeln", 5);
+		assertThat(second.get(0).getScore(), is(first.get(0).getScore()));
+		assertThat(second.get(1).getScore(), is(first.get(1).getScore()));
+	}
+
+	@Test
+	public void findMatches_limit_onlyBestMatchesReturned() {
+		List<IngredientMatch> result = objectUnderTest.findMatches("Zwiebel", 1);
+		assertThat(result.size(), is(1));
+		assertThat(result.get(0).getIngredientId(), is("id2"));
+	}
+
+	@Test
+	public void findMatches_unknownName_emptyResult() {
+		assertThat(objectUnderTest.findMatches("Mehl", 5).isEmpty(), is(true));
+		assertThat(objectUnderTest.findMatches("", 5).isEmpty(), is(true));
+	}
+
+	@Test
+	public void findBestMatch_similarName_matchFound() {
+		Optional<IngredientMatch> result = objectUnderTest.findBestMatch("Knoblauchzehen");
+		assertThat(result.isPresent(), is(true));
+		assertThat(result.get().getName(), is("Knoblauch"));
+	}
+
+	@Test
+	public void findBestMatch_weakMatch_noMatch() {
+		assertThat(objectUnderTest.findBestMatch("Zwiebelsuppe").isPresent(), is(false));
+	}
+
+	@Test
+	public void updateIngredients_newAlternativeName_foundWithoutReload() {
+		Ingredient ingredient = Ingredient.builder()
+				.id("id2")
+				.name("Zwiebel")
+				.department("Gemüse")
+				.alternativeNames(Stream.of("Gemüsezwiebel").collect(Collectors.toSet()))
+				.build();
+		objectUnderTest.updateIngredients(Arrays.asList(ingredient));
+		List<IngredientMatch> result = objectUnderTest.findMatches("Gemüsezwiebeln", 1);
+		assertThat(result.get(0).getIngredientId(), is("id2"));
+		assertThat(result.get(0).getMatchedName(), is("Gemüsezwiebel"));
+	}
+
+	@Test
+	public void updateIngredients_renamedIngredient_oldNameRemoved() {
+		Ingredient ingredient = Ingredient.builder()
+				.id("id4")
+				.name("Rapsöl")
+				.department("Öl")
+				.build();
+		objectUnderTest.updateIngredients(Arrays.asList(ingredient));
+		assertThat(objectUnderTest.findMatches("Sonnenblumenöl", 5).isEmpty(), is(true));
+		assertThat(objectUnderTest.findMatches("Rapsöl", 5).get(0).getIngredientId(), is("id4"));
+	}
+}
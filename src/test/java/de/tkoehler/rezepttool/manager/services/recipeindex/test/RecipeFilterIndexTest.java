@@ -0,0 +1,152 @@
+package de.tkoehler.rezepttool.manager.services.recipeindex.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
+import de.tkoehler.rezepttool.manager.services.FilterableRecipeLoader;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+import de.tkoehler.rezepttool.manager.services.recipeindex.RecipeFilterIndexImpl;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RecipeFilterIndexTest {
+
+	private RecipeFilterIndexImpl objectUnderTest;
+	@Mock
+	private FilterableRecipeLoader filterableRecipeLoaderMock;
+	@Mock
+	private ExecutorService recipeIndexExecutorMock;
+
+	@Before
+	public void setUp() {
+		objectUnderTest = new RecipeFilterIndexImpl(filterableRecipeLoaderMock, recipeIndexExecutorMock, 3);
+		lenient().when(filterableRecipeLoaderMock.loadAll()).thenReturn(new ArrayList<>(Arrays.asList(
+				recipe("id1", "Zucchini-Pfanne", Arrays.asList("Vegetarisch", "Schnell"), Arrays.asList("Zucchini", "Reis")),
+				recipe("id2", "Apfelkuchen", Arrays.asList("Backen", "Vegetarisch"), Arrays.asList("Mehl", "Apfel", "Butter")),
+				recipe("id3", "Gulasch", Arrays.asList("Fleisch"), Arrays.asList("Rind", "Zwiebel")),
+				recipe("id4", "Milchreis", Arrays.asList("Vegetarisch", "Schnell"), Arrays.asList("Reis", "Milch")))));
+	}
+
+	@Test
+	public void filter_allCategories_matchingRecipesOrderedByName() {
+		RecipeFilterResult result = objectUnderTest.filter(RecipeFilterWebInput.builder().allCategories(Arrays.asList("vegetarisch", "SCHNELL")).build());
+		assertThat(result.getTotalElements(), is(2));
+		assertThat(names(result), is(Arrays.asList("Milchreis", "Zucchini-Pfanne")));
+	}
+
+	@Test
+	public void filter_anyIngredientsWithoutCategory_orAndNotCombined() {
+		RecipeFilterResult result = objectUnderTest.filter(RecipeFilterWebInput.builder()
+				.anyIngredients(Arrays.asList("Reis", "Rind"))
+				.noneCategories(Arrays.asList("Schnell"))
+				.build());
+		assertThat(names(result), is(Arrays.asList("Gulasch")));
+	}
+
+	@Test
+	public void filter_unknownCategory_emptyResult() {
+		RecipeFilterResult result = objectUnderTest.filter(RecipeFilterWebInput.builder().allCategories(Arrays.asList("Unbekannt")).build());
+		assertThat(result.getTotalElements(), is(0));
+		assertThat(result.getRecipes().isEmpty(), is(true));
+	}
+
+	@Test
+	public void filter_secondPage_onlyRecipesOfPage() {
+		RecipeFilterResult result = objectUnderTest.filter(RecipeFilterWebInput.builder().page(1).size(3).build());
+		assertThat(result.getTotalElements(), is(4));
+		assertThat(names(result), is(Arrays.asList("Zucchini-Pfanne")));
+	}
+
+	@Test
+	public void filter_calledTwice_loadedOnce() {
+		objectUnderTest.filter(new RecipeFilterWebInput());
+		objectUnderTest.filter(new RecipeFilterWebInput());
+		verify(filterableRecipeLoaderMock, times(1)).loadAll();
+	}
+
+	@Test
+	public void onRecipeChanged_updatedRecipe_indexedWithNewTerms() {
+		objectUnderTest.filter(new RecipeFilterWebInput());
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("id3", "Gulasch", Arrays.asList("Vegetarisch"), Arrays.asList(Ingredient.builder().name("Seitan").build())));
+		assertThat(names(objectUnderTest.filter(RecipeFilterWebInput.builder().allCategories(Arrays.asList("Fleisch")).build())), is(new ArrayList<String>()));
+		assertThat(names(objectUnderTest.filter(RecipeFilterWebInput.builder().allIngredients(Arrays.asList("Seitan")).build())), is(Arrays.asList("Gulasch")));
+		assertThat(objectUnderTest.filter(new RecipeFilterWebInput()).getTotalElements(), is(4));
+	}
+
+	@Test
+	public void onRecipeChanged_renamedAndNewRecipes_keptInNameOrder() {
+		objectUnderTest = new RecipeFilterIndexImpl(filterableRecipeLoaderMock, recipeIndexExecutorMock, 1000);
+		objectUnderTest.filter(new RecipeFilterWebInput());
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("id1", "Brokkoli-Pfanne", Arrays.asList("Vegetarisch"), new ArrayList<>()));
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("id5", "Kartoffelsuppe", Arrays.asList("Vegetarisch"), new ArrayList<>()));
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("id6", "Spätzle", Arrays.asList("Schwäbisch"), new ArrayList<>()));
+		assertThat(names(objectUnderTest.filter(new RecipeFilterWebInput())), is(Arrays.asList("Apfelkuchen", "Brokkoli-Pfanne", "Gulasch", "Kartoffelsuppe", "Milchreis", "Spätzle")));
+		assertThat(names(objectUnderTest.filter(RecipeFilterWebInput.builder().allCategories(Arrays.asList("Vegetarisch")).build())),
+				is(Arrays.asList("Apfelkuchen", "Brokkoli-Pfanne", "Kartoffelsuppe", "Milchreis")));
+	}
+
+	@Test
+	public void onRecipeChanged_changedRecipes_pagedInNameOrder() {
+		objectUnderTest = new RecipeFilterIndexImpl(filterableRecipeLoaderMock, recipeIndexExecutorMock, 1000);
+		objectUnderTest.filter(new RecipeFilterWebInput());
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("id5", "Bratkartoffeln", new ArrayList<>(), new ArrayList<>()));
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("id6", "Nudelsalat", new ArrayList<>(), new ArrayList<>()));
+		RecipeFilterResult second = objectUnderTest.filter(RecipeFilterWebInput.builder().page(1).size(2).build());
+		RecipeFilterResult third = objectUnderTest.filter(RecipeFilterWebInput.builder().page(2).size(2).build());
+		assertThat(second.getTotalElements(), is(6));
+		assertThat(names(second), is(Arrays.asList("Gulasch", "Milchreis")));
+		assertThat(names(third), is(Arrays.asList("Nudelsalat", "Zucchini-Pfanne")));
+	}
+
+	@Test
+	public void onRecipeChanged_deletedRecipe_notFoundAnymore() {
+		objectUnderTest.filter(new RecipeFilterWebInput());
+		objectUnderTest.onRecipeChanged(RecipeChangedEvent.deleted("id2", new ArrayList<>()));
+		RecipeFilterResult result = objectUnderTest.filter(RecipeFilterWebInput.builder().allCategories(Arrays.asList("Vegetarisch")).build());
+		assertThat(names(result), is(Arrays.asList("Milchreis", "Zucchini-Pfanne")));
+	}
+
+	@Test
+	public void onRecipeChanged_manyChanges_rebuildScheduled() {
+		objectUnderTest.filter(new RecipeFilterWebInput());
+		objectUnderTest.onRecipeChanged(RecipeChangedEvent.deleted("id1", new ArrayList<>()));
+		objectUnderTest.onRecipeChanged(RecipeChangedEvent.deleted("id2", new ArrayList<>()));
+		verify(recipeIndexExecutorMock, never()).submit(any(Runnable.class));
+		objectUnderTest.onRecipeChanged(RecipeChangedEvent.deleted("id3", new ArrayList<>()));
+		verify(recipeIndexExecutorMock, times(1)).submit(any(Runnable.class));
+	}
+
+	private static FilterableRecipe recipe(String id, String name, List<String> categories, List<String> ingredients) {
+		return FilterableRecipe.builder()
+				.id(id)
+				.name(name)
+				.categories(categories)
+				.ingredients(ingredients)
+				.build();
+	}
+
+	private static List<String> names(RecipeFilterResult result) {
+		return result.getRecipes().stream().map(TinyRecipe::getName).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,86 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.test;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.tkoehler.rezepttool.manager.services.model.ChefkochRecipe;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+import de.tkoehler.rezepttool.manager.services.recipeparser.v3.ChefkochRecipeJsonDecoder;
+
+public class ChefkochRecipeJsonDecoderTest {
+
+	private ChefkochRecipeJsonDecoder objectUnderTest = new ChefkochRecipeJsonDecoder(new IngredientLineSplitter(new IngredientLineParser()));
+
+	@Test(expected = RecipeParserException.class)
+	public void decode_NullParameter_throwsRecipeParserException() throws Exception {
+		objectUnderTest.decode(null);
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void decode_InvalidJSon_throwsRecipeParserException() throws Exception {
+		objectUnderTest.decode("{ \"name\": ");
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void decode_MissingName_throwsRecipeParserException() throws Exception {
+		objectUnderTest.decode("{}");
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void decode_InvalidDuration_throwsRecipeParserException() throws Exception {
+		objectUnderTest.decode("{\"name\": \"name\", \"prepTime\": \"20 Minuten\"}");
+	}
+
+	@Test
+	public void decode_CorrectParameter_CorrectResultObject() throws Exception {
+		ChefkochRecipe recipe = objectUnderTest.decode(
+				"{\"@context\": \"context\", \"@type\": \"type\", \"cookTime\": \"PT20M\", \"prepTime\": \"P0DT0H40M\", \"totalTime\": \"PT1H\", \"datePublished\": \"published\", \"description\": \"description\", \"image\": \"image\", \"recipeIngredient\": [ \"3,00 Hähnchenbrüste \", \" n. B. Sojasauce \", \" Chinagewürz \"], \"name\": \"name\", \"author\": {	\"@type\": \"authortype\",	\"name\": \"authorname\" }, \"recipeInstructions\": \"instructions\", \"recipeYield\": \"2\", \"aggregateRating\": {	\"@type\": \"ratingtype\",	\"ratingValue\": 4.42,	\"reviewCount\": \"106\",	\"worstRating\": 0,	\"bestRating\": \"5\" }, \"recipeCategory\": [\"cat1\", \"cat2\"], \"keywords\": [\"cat2\", \"cat3\"], \"nutrition\": {\"@type\": \"NutritionInformation\", \"calories\": \"420 kcal\"}}");
+		assertThat(recipe.getContext(), is("context"));
+		assertThat(recipe.getType(), is("type"));
+		assertThat(recipe.getCookTime(), is("PT20M"));
+		assertThat(recipe.getDataPublished(), is("published"));
+		assertThat(recipe.getDescription(), is("description"));
+		assertThat(recipe.getImage(), is("image"));
+		assertThat(recipe.getName(), is("name"));
+		assertThat(recipe.getAuthor().getType(), is("authortype"));
+		assertThat(recipe.getAuthor().getName(), is("authorname"));
+		assertThat(recipe.getRecipeInstructions(), is("instructions"));
+		assertThat(recipe.getRecipeYield(), is("2"));
+		assertThat(recipe.getAggregateRating().getType(), is("ratingtype"));
+		assertThat(recipe.getAggregateRating().getRatingValue(), is(4.42));
+		assertThat(recipe.getAggregateRating().getReviewCount(), is(106));
+		assertThat(recipe.getAggregateRating().getWorstRating(), is(0));
+		assertThat(recipe.getAggregateRating().getBestRating(), is(5));
+		assertThat(recipe.getRecipeCategories().length, is(3));
+		assertThat(Arrays.asList(recipe.getRecipeCategories()), hasItems("cat1", "cat2", "cat3"));
+		assertThat(recipe.getPreparationInfo().getPrepTime(), is("PT40M"));
+		assertThat(recipe.getPreparationInfo().getCookTime(), is("PT20M"));
+		assertThat(recipe.getPreparationInfo().getRestTime(), is("PT1H"));
+		assertThat(recipe.getPreparationInfo().getCallories(), is("420 kcal"));
+		assertThat(recipe.getPrintPageData().getIngredients().size(), is(3));
+		assertThat(recipe.getPrintPageData().getIngredients().get(0).getAmount(), is("3"));
+		assertThat(recipe.getPrintPageData().getIngredients().get(1).getAmount(), is("n. B."));
+		assertThat(recipe.getPrintPageData().getIngredients().get(2).getName(), is("Chinagewürz"));
+	}
+
+	@Test
+	public void decode_UnknownAndStructuredFields_skipped() throws Exception {
+		ChefkochRecipe recipe = objectUnderTest.decode(
+				"{\"video\": {\"@type\": \"VideoObject\", \"name\": \"video\", \"thumbnailUrl\": [\"a\", \"b\"]}, \"name\": \"name\", \"image\": [\"image1\", \"image2\"], \"author\": [{\"@type\": \"Person\", \"name\": \"author\"}], \"recipeInstructions\": [{\"@type\": \"HowToStep\", \"text\": \"step1\"}, {\"@type\": \"HowToStep\", \"text\": \"step2\"}], \"keywords\": \"cat1, cat2\"}");
+		assertThat(recipe.getName(), is("name"));
+		assertThat(recipe.getImage(), is("image1"));
+		assertThat(recipe.getAuthor().getName(), is("author"));
+		assertThat(recipe.getRecipeInstructions(), is("step1\n\nstep2"));
+		assertThat(Arrays.asList(recipe.getRecipeCategories()), hasItems("cat1", "cat2"));
+		assertThat(recipe.getAggregateRating(), is(nullValue()));
+		assertThat(recipe.getPreparationInfo().getPrepTime(), is(""));
+	}
+}
@@ -17,17 +17,24 @@ import javax.json.JsonReader;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import de.tkoehler.rezepttool.manager.services.model.ChefkochRecipe;
 import de.tkoehler.rezepttool.manager.services.model.PreparationInfo;
 import de.tkoehler.rezepttool.manager.services.model.PrintPageData;
 import de.tkoehler.rezepttool.manager.services.model.Recipe;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+import de.tkoehler.rezepttool.manager.services.recipeparser.PooledHttpPageFetcher;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipePageCache;
 import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
 import de.tkoehler.rezepttool.manager.services.recipeparser.v1.ChefkochRecipeParserImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * TODO: Hier sind Referenzen auf echte WebSeite, diese Abhängigkeit sollte
@@ -39,9 +46,17 @@ import de.tkoehler.rezepttool.manager.services.recipeparser.v1.ChefkochRecipePar
 @RunWith(MockitoJUnitRunner.class)
 public class ChefkochRecipeParserTest {
 
-	@InjectMocks
+	@Rule
+	public TemporaryFolder cacheFolder = new TemporaryFolder();
+
 	private ChefkochRecipeParserImpl objectUnderTest;
 
+	@Before
+	public void setUp() {
+		objectUnderTest = new ChefkochRecipeParserImpl(new RecipePageCache(new PooledHttpPageFetcher(10, 2, 5000, 30000, 30000L, new SimpleMeterRegistry()), cacheFolder.getRoot().getPath(), 10000000L),
+				new IngredientLineSplitter(new IngredientLineParser()), true);
+	}
+
 	@Test(expected = RecipeParserException.class)
 	public void loadRecipeWebSite_NullParamter_throwsRecipeParserException() throws Exception {
 		objectUnderTest.loadRecipeWebSite(null);
@@ -113,7 +128,7 @@ public class ChefkochRecipeParserTest {
 	@Test
 	public void createChefkochRecipe_correctParameter_CorrectResultObject() throws Exception {
 		JsonReader reader = Json.createReader(new StringReader(
-				"{\"@context\": \"context\", \"@type\": \"type\", \"cookTime\": \"cooktime\", \"prepTime\": \"preptime\", \"datePublished\": \"published\", \"description\": \"description\", \"image\": \"image\", \"recipeIngredient\": [ \"ingred1\", \"ingred2\", \"ingred3\"], \"name\": \"name\", \"author\": {	\"@type\": \"authortype\",	\"name\": \"authorname\" }, \"recipeInstructions\": \"instructions\", \"recipeYield\": \"yield\", \"aggregateRating\": {	\"@type\": \"ratingtype\",	\"ratingValue\": \"value\",	\"reviewCount\": \"count\",	\"worstRating\": 0,	\"bestRating\": 0 }, \"recipeCategory\": [\"cat1\", \"cat2\", \"cat3\"]}"));
+				"{\"@context\": \"context\", \"@type\": \"type\", \"cookTime\": \"cooktime\", \"prepTime\": \"preptime\", \"datePublished\": \"published\", \"description\": \"description\", \"image\": \"image\", \"recipeIngredient\": [ \"ingred1\", \"ingred2\", \"ingred3\"], \"name\": \"name\", \"author\": {	\"@type\": \"authortype\",	\"name\": \"authorname\" }, \"recipeInstructions\": \"instructions\", \"recipeYield\": \"yield\", \"aggregateRating\": {	\"@type\": \"ratingtype\",	\"ratingValue\": 4.5,	\"reviewCount\": 12,	\"worstRating\": 0,	\"bestRating\": 0 }, \"recipeCategory\": [\"cat1\", \"cat2\", \"cat3\"]}"));
 		JsonObject jsonResponse = reader.readObject();
 		ChefkochRecipe recipe = objectUnderTest.createChefkochRecipe(jsonResponse);
 		assertThat(recipe.getUrl(), is(nullValue()));
@@ -131,8 +146,8 @@ public class ChefkochRecipeParserTest {
 		assertThat(recipe.getRecipeInstructions(), is("instructions"));
 		assertThat(recipe.getRecipeYield(), is("yield"));
 		assertThat(recipe.getAggregateRating().getType(), is("ratingtype"));
-		assertThat(recipe.getAggregateRating().getRatingValue(), is("value"));
-		assertThat(recipe.getAggregateRating().getReviewCount(), is("count"));
+		assertThat(recipe.getAggregateRating().getRatingValue(), is(4.5));
+		assertThat(recipe.getAggregateRating().getReviewCount(), is(12));
 		assertThat(recipe.getAggregateRating().getWorstRating(), is(0));
 		assertThat(recipe.getAggregateRating().getBestRating(), is(0));
 		assertThat(recipe.getAggregateRating().getBestRating(), is(0));
@@ -222,6 +237,51 @@ public class ChefkochRecipeParserTest {
 		assertThat(data, is(not(nullValue())));
 	}
 
+	@Test(expected = RecipeParserException.class)
+	public void createPrintPageDataFromJSon_NullParameter_throwsRecipeParserException() throws Exception {
+		objectUnderTest.createPrintPageDataFromJSon(null, null);
+	}
+
+	@Test
+	public void createPrintPageDataFromJSon_MissingIngredients_NullResult() throws Exception {
+		JsonReader reader = Json.createReader(new StringReader("{\"name\": \"name\", \"recipeYield\": \"4 Portionen\"}"));
+		PrintPageData data = objectUnderTest.createPrintPageDataFromJSon(reader.readObject(), null);
+		assertThat(data, is(nullValue()));
+	}
+
+	@Test
+	public void createPrintPageDataFromJSon_CorrectParameter_CorrectResultObject() throws Exception {
+		JsonReader reader = Json.createReader(new StringReader(
+				"{\"name\": \"name\", \"description\": \"description\", \"recipeYield\": \"4 Portionen\", \"recipeInstructions\": \"instructions\", \"recipeIngredient\": [\"500 g Champignons\", \"n. B. Salz\", \"Petersilie\"]}"));
+		PrintPageData data = objectUnderTest.createPrintPageDataFromJSon(reader.readObject(), null);
+		assertThat(data.getTitle(), is("name"));
+		assertThat(data.getAdditionalInformation(), is("description"));
+		assertThat(data.getYield(), is("4 Portionen"));
+		assertThat(data.getInstructions(), is("instructions"));
+		assertThat(data.getIngredients().size(), is(3));
+		assertThat(data.getIngredients().get(0).getAmount(), is("500 g"));
+		assertThat(data.getIngredients().get(0).getName(), is("Champignons"));
+		assertThat(data.getIngredients().get(1).getAmount(), is("n. B."));
+		assertThat(data.getIngredients().get(2).getAmount(), is(""));
+		assertThat(data.getIngredients().get(2).getName(), is("Petersilie"));
+	}
+
+	@Test
+	public void createPrintPageDataFromJSon_AdditionalInformation_PreferredOverDescription() throws Exception {
+		JsonReader reader = Json.createReader(new StringReader(
+				"{\"name\": \"name\", \"description\": \"description\", \"recipeYield\": \"4 Portionen\", \"recipeIngredient\": [\"500 g Champignons\"]}"));
+		PrintPageData data = objectUnderTest.createPrintPageDataFromJSon(reader.readObject(), "summary");
+		assertThat(data.getAdditionalInformation(), is("summary"));
+	}
+
+	@Test
+	public void createPrintPageDataFromJSon_HowToStepInstructions_TextsJoined() throws Exception {
+		JsonReader reader = Json.createReader(new StringReader(
+				"{\"name\": \"name\", \"recipeYield\": \"4 Portionen\", \"recipeIngredient\": [\"500 g Champignons\"], \"recipeInstructions\": [{\"@type\": \"HowToStep\", \"text\": \"step1\"}, {\"@type\": \"HowToStep\", \"text\": \"step2\"}]}"));
+		PrintPageData data = objectUnderTest.createPrintPageDataFromJSon(reader.readObject(), null);
+		assertThat(data.getInstructions(), is("step1\n\nstep2"));
+	}
+
 	@Test(expected = RecipeParserException.class)
 	public void extractPrintPageData_NullParameter_throwsRecipeParserException() throws Exception {
 		objectUnderTest.extractPrintPageData(null);
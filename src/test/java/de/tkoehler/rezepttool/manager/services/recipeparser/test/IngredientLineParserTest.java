@@ -0,0 +1,105 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUnit;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.ParsedIngredientLine;
+
+public class IngredientLineParserTest {
+
+	private IngredientLineParser objectUnderTest = new IngredientLineParser();
+
+	@Test
+	public void parse_NullParameter_EmptyResult() {
+		ParsedIngredientLine result = objectUnderTest.parse(null);
+		assertThat(result.hasQuantity(), is(false));
+		assertThat(result.getUnit(), is(nullValue()));
+		assertThat(result.getName(), is(""));
+	}
+
+	@Test
+	public void parse_AmountWithUnit_success() {
+		ParsedIngredientLine result = objectUnderTest.parse("200 g Mehl");
+		assertThat(result.getQuantity(), is(200.0));
+		assertThat(result.getUnit(), is(IngredientUnit.GRAM));
+		assertThat(result.getName(), is("Mehl"));
+	}
+
+	@Test
+	public void parse_UnitWithoutSpace_success() {
+		ParsedIngredientLine result = objectUnderTest.parse("200g Butter");
+		assertThat(result.getQuantity(), is(200.0));
+		assertThat(result.getUnit(), is(IngredientUnit.GRAM));
+		assertThat(result.getName(), is("Butter"));
+	}
+
+	@Test
+	public void parse_MixedVulgarFraction_success() {
+		ParsedIngredientLine result = objectUnderTest.parse("1 ½ EL Olivenöl");
+		assertThat(result.getQuantity(), is(1.5));
+		assertThat(result.getUnit(), is(IngredientUnit.TABLESPOON));
+		assertThat(result.getName(), is("Olivenöl"));
+	}
+
+	@Test
+	public void parse_MixedFraction_success() {
+		ParsedIngredientLine result = objectUnderTest.parse("1 1/2 Tasse Reis");
+		assertThat(result.getQuantity(), is(1.5));
+		assertThat(result.getUnit(), is(IngredientUnit.CUP));
+		assertThat(result.getName(), is("Reis"));
+	}
+
+	@Test
+	public void parse_DecimalComma_success() {
+		ParsedIngredientLine result = objectUnderTest.parse("1,50 Zehe/n Knoblauch, gehackt");
+		assertThat(result.getQuantity(), is(1.5));
+		assertThat(result.getUnit(), is(IngredientUnit.CLOVE));
+		assertThat(result.getName(), is("Knoblauch, gehackt"));
+	}
+
+	@Test
+	public void parse_Range_upperBound() {
+		assertThat(objectUnderTest.parse("2 - 3 EL Olivenöl").getQuantity(), is(3.0));
+		assertThat(objectUnderTest.parse("2-3 Zehen Knoblauch").getQuantity(), is(3.0));
+		assertThat(objectUnderTest.parse("2 bis 3 Zehen Knoblauch").getQuantity(), is(3.0));
+	}
+
+	@Test
+	public void parse_AmountWithoutUnit_piece() {
+		ParsedIngredientLine result = objectUnderTest.parse("3 große Zwiebeln");
+		assertThat(result.getQuantity(), is(3.0));
+		assertThat(result.getUnit(), is(IngredientUnit.PIECE));
+		assertThat(result.getName(), is("große Zwiebeln"));
+	}
+
+	@Test
+	public void parse_NoAmount_nameOnly() {
+		ParsedIngredientLine result = objectUnderTest.parse("Salz und Pfeffer");
+		assertThat(result.hasQuantity(), is(false));
+		assertThat(result.getQuantityOrNull(), is(nullValue()));
+		assertThat(result.getUnit(), is(nullValue()));
+		assertThat(result.getName(), is("Salz und Pfeffer"));
+	}
+
+	@Test
+	public void parse_ReusedResult_overwritten() {
+		ParsedIngredientLine result = new ParsedIngredientLine();
+		objectUnderTest.parse("½ Bund Petersilie", result);
+		objectUnderTest.parse("etwas Öl", result);
+		assertThat(result.hasQuantity(), is(false));
+		assertThat(result.getUnit(), is(nullValue()));
+		assertThat(result.getName(), is("etwas Öl"));
+	}
+
+	@Test
+	public void toBaseQuantity_Kilogram_gram() {
+		ParsedIngredientLine result = objectUnderTest.parse("1,5 kg Kartoffeln");
+		assertThat(result.getUnit().getBaseUnit(), is(IngredientUnit.GRAM));
+		assertThat(result.getUnit().toBaseQuantity(result.getQuantity()), is(1500.0));
+	}
+}
@@ -0,0 +1,73 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import de.tkoehler.rezepttool.manager.services.model.ChefkochIngredient;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineSplitter;
+
+public class IngredientLineSplitterTest {
+
+	private IngredientLineSplitter objectUnderTest = new IngredientLineSplitter(new IngredientLineParser());
+
+	@Test
+	public void split_NullParameter_EmptyIngredient() {
+		ChefkochIngredient result = objectUnderTest.split(null);
+		assertThat(result.getAmount(), is(""));
+		assertThat(result.getName(), is(""));
+	}
+
+	@Test
+	public void split_AmountWithoutUnit_success() {
+		ChefkochIngredient result = objectUnderTest.split("3,00 Hähnchenbrüste ");
+		assertThat(result.getAmount(), is("3"));
+		assertThat(result.getName(), is("Hähnchenbrüste"));
+	}
+
+	@Test
+	public void split_AmountWithUnit_success() {
+		ChefkochIngredient result = objectUnderTest.split("1,50 Zehe/n Knoblauch, gehackt");
+		assertThat(result.getAmount(), is("1,5 Zehe/n"));
+		assertThat(result.getName(), is("Knoblauch, gehackt"));
+	}
+
+	@Test
+	public void split_AmountRange_success() {
+		ChefkochIngredient result = objectUnderTest.split("2 - 3 EL Olivenöl");
+		assertThat(result.getAmount(), is("2 - 3 EL"));
+		assertThat(result.getName(), is("Olivenöl"));
+	}
+
+	@Test
+	public void split_AmountWords_success() {
+		assertThat(objectUnderTest.split(" n. B. Sojasauce ").getAmount(), is("n. B."));
+		assertThat(objectUnderTest.split(" etwas Öl ").getAmount(), is("etwas"));
+		assertThat(objectUnderTest.split(" etwas Öl ").getName(), is("Öl"));
+	}
+
+	@Test
+	public void split_NoAmount_success() {
+		ChefkochIngredient result = objectUnderTest.split(" Chinagewürz ");
+		assertThat(result.getAmount(), is(""));
+		assertThat(result.getName(), is("Chinagewürz"));
+	}
+
+	@Test
+	public void split_UnitsOfLineParser_success() {
+		ChefkochIngredient result = objectUnderTest.split("½ Bund Petersilie");
+		assertThat(result.getAmount(), is("½ Bund"));
+		assertThat(result.getName(), is("Petersilie"));
+		assertThat(objectUnderTest.split("250g Butter, weich").getAmount(), is("250g"));
+		assertThat(objectUnderTest.split("2 Stangen Lauch").getAmount(), is("2 Stangen"));
+	}
+
+	@Test
+	public void split_UnitWithoutAmount_success() {
+		ChefkochIngredient result = objectUnderTest.split("Prise Salz");
+		assertThat(result.getAmount(), is("Prise"));
+		assertThat(result.getName(), is("Salz"));
+	}
+}
@@ -0,0 +1,65 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import de.tkoehler.rezepttool.manager.services.recipeparser.LdJsonRecipeExtractor;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+
+public class LdJsonRecipeExtractorTest {
+
+	private static final String RECIPE_JSON = "{ \"@context\": \"http://schema.org\", \"@type\": \"Recipe\", \"name\": \"Asiatische Hähnchennuggets mit Gemüse\" }";
+
+	private LdJsonRecipeExtractor objectUnderTest = new LdJsonRecipeExtractor();
+
+	private InputStream createStream(String html) {
+		return new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void extractRecipeJSon_NullParameter_throwsRecipeParserException() throws Exception {
+		objectUnderTest.extractRecipeJSon(null, "UTF-8");
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void extractRecipeJSon_EmptyWebSite_throwsRecipeParserException() throws Exception {
+		objectUnderTest.extractRecipeJSon(createStream(""), "UTF-8");
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void extractRecipeJSon_NoJSonDataInWebSite_throwsRecipeParserException() throws Exception {
+		objectUnderTest.extractRecipeJSon(createStream("<!DOCTYPE html><html><head></head><body><script></script></body></html>"), "UTF-8");
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void extractRecipeJSon_OnlyOtherLdJsonTypes_throwsRecipeParserException() throws Exception {
+		objectUnderTest.extractRecipeJSon(createStream("<html><script type=\"application/ld+json\">{\"@type\": \"Organization\"}</script></html>"), "UTF-8");
+	}
+
+	@Test
+	public void extractRecipeJSon_CorrectData_success() throws Exception {
+		String html = "<html><head><script type=\"application/ld+json\">{\"@type\": \"BreadcrumbList\"}</script>"
+				+ "<script type=\"application/ld+json\">\n" + RECIPE_JSON + "\n</script></head><body></body></html>";
+		assertThat(objectUnderTest.extractRecipeJSon(createStream(html), "UTF-8"), is(RECIPE_JSON));
+	}
+
+	@Test
+	public void extractRecipeJSon_ScriptTagsInOtherScripts_ignored() throws Exception {
+		String html = "<html><head><SCRIPT>document.write('<script type=\"application/ld+json\">');</SCRIPT>"
+				+ "<scripts></scripts><script async type='application/ld+json' data-x=\"a>b\">" + RECIPE_JSON + "</SCRIPT></head></html>";
+		assertThat(objectUnderTest.extractRecipeJSon(createStream(html), "UTF-8"), is(RECIPE_JSON));
+	}
+
+	@Test
+	public void extractRecipeJSon_CompactJSon_success() throws Exception {
+		String json = "{\"@type\":\"Recipe\",\"name\":\"Antipasti\"}";
+		String html = "<html><script type=\"application/ld+json\">" + json + "</script></html>";
+		assertThat(objectUnderTest.extractRecipeJSon(createStream(html), null), is(json));
+	}
+}
@@ -0,0 +1,103 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import de.tkoehler.rezepttool.manager.services.recipeparser.FetchedPage;
+import de.tkoehler.rezepttool.manager.services.recipeparser.PooledHttpPageFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PooledHttpPageFetcherTest {
+
+	private static final String PAGE = "<html><head><title>Hähnchen</title></head></html>";
+
+	private HttpServer server;
+	private SimpleMeterRegistry meterRegistry;
+	private PooledHttpPageFetcher objectUnderTest;
+	private String baseUrl;
+
+	@Before
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/page", exchange -> {
+			byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+			exchange.getResponseHeaders().add("X-Accept-Encoding", String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.createContext("/gzip", exchange -> {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			try (GZIPOutputStream out = new GZIPOutputStream(body)) {
+				out.write(PAGE.getBytes(StandardCharsets.UTF_8));
+			}
+			exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+			exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+			exchange.sendResponseHeaders(200, body.size());
+			try (OutputStream out = exchange.getResponseBody()) {
+				body.writeTo(out);
+			}
+		});
+		server.start();
+		baseUrl = "http://localhost:" + server.getAddress().getPort();
+		meterRegistry = new SimpleMeterRegistry();
+		objectUnderTest = new PooledHttpPageFetcher(10, 2, 1000, 5000, 30000L, meterRegistry);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		objectUnderTest.destroy();
+		server.stop(0);
+	}
+
+	@Test(expected = IOException.class)
+	public void fetch_UnknownPage_throwsIOException() throws Exception {
+		objectUnderTest.fetch(baseUrl + "/unknown", Collections.emptyMap());
+	}
+
+	@Test(expected = IOException.class)
+	public void fetch_EmptyURL_throwsIOException() throws Exception {
+		objectUnderTest.fetch("", Collections.emptyMap());
+	}
+
+	@Test
+	public void fetch_CorrectURL_success() throws Exception {
+		FetchedPage result = objectUnderTest.fetch(baseUrl + "/page", Collections.emptyMap());
+		assertThat(result.getStatusCode(), is(200));
+		assertThat(result.getCharset(), is("UTF-8"));
+		assertThat(new String(result.getBody(), StandardCharsets.UTF_8), is(PAGE));
+		assertThat(result.header("x-accept-encoding").contains("gzip"), is(true));
+	}
+
+	@Test
+	public void fetch_GzipResponse_decompressed() throws Exception {
+		FetchedPage result = objectUnderTest.fetch(baseUrl + "/gzip", Collections.emptyMap());
+		assertThat(new String(result.getBody(), StandardCharsets.UTF_8), is(PAGE));
+	}
+
+	@Test
+	public void fetch_SameHost3x_connectionReused() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			objectUnderTest.fetch(baseUrl + "/page", Collections.emptyMap());
+		}
+		assertThat(meterRegistry.get("recipeparser.fetch.connections").tag("reused", "false").counter().count(), is(1.0));
+		assertThat(meterRegistry.get("recipeparser.fetch.connections").tag("reused", "true").counter().count(), is(2.0));
+		assertThat(meterRegistry.get("recipeparser.fetch.ttfb").timer().count(), is(3L));
+	}
+}
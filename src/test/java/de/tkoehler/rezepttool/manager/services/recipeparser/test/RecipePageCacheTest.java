@@ -0,0 +1,215 @@
+package de.tkoehler.rezepttool.manager.services.recipeparser.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jsoup.nodes.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.tkoehler.rezepttool.manager.services.recipeparser.PooledHttpPageFetcher;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipePageCache;
+import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RecipePageCacheTest {
+
+	private static final String PAGE = "<html><head><title>Testrezept</title></head><body>Rezept</body></html>";
+
+	@Rule
+	public TemporaryFolder cacheFolder = new TemporaryFolder();
+
+	private HttpServer server;
+	private PooledHttpPageFetcher pageFetcher;
+	private AtomicInteger requestCount;
+	private List<Integer> responseCodes;
+	private List<String> ifNoneMatches;
+	private String baseUrl;
+
+	@Before
+	public void setUp() throws IOException {
+		requestCount = new AtomicInteger();
+		responseCodes = new ArrayList<>();
+		ifNoneMatches = new ArrayList<>();
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/fresh", exchange -> respond(exchange, "public, max-age=3600", null));
+		server.createContext("/revalidate", exchange -> respond(exchange, "no-cache", "\"v1\""));
+		server.createContext("/nostore", exchange -> respond(exchange, "no-store", null));
+		server.createContext("/maxAgeNoCache", exchange -> respond(exchange, "max-age=3600, no-cache", "\"v1\""));
+		server.createContext("/newETag", this::respondWithNewETag);
+		server.start();
+		baseUrl = "http://localhost:" + server.getAddress().getPort();
+		pageFetcher = new PooledHttpPageFetcher(10, 2, 1000, 5000, 30000L, new SimpleMeterRegistry());
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		pageFetcher.destroy();
+		server.stop(0);
+	}
+
+	private void respond(HttpExchange exchange, String cacheControl, String etag) throws IOException {
+		requestCount.incrementAndGet();
+		exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+		exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+		if (etag != null) {
+			exchange.getResponseHeaders().add("ETag", etag);
+			if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				responseCodes.add(304);
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+		}
+		byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+		responseCodes.add(200);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private void respondWithNewETag(HttpExchange exchange) throws IOException {
+		String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+		ifNoneMatches.add(ifNoneMatch);
+		if (ifNoneMatch != null) {
+			exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+			exchange.getResponseHeaders().add("ETag", "\"v2\"");
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		respond(exchange, "no-cache", "\"v1\"");
+	}
+
+	private RecipePageCache createCache(long maxSize) {
+		return new RecipePageCache(pageFetcher, cacheFolder.getRoot().getPath(), maxSize);
+	}
+
+	private int countCachedPages() {
+		File[] bodies = cacheFolder.getRoot().listFiles((dir, name) -> name.endsWith(".body"));
+		return bodies == null ? 0 : bodies.length;
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void loadPage_NullParameter_throwsRecipeParserException() throws Exception {
+		createCache(10000L).loadPage(null);
+	}
+
+	@Test(expected = RecipeParserException.class)
+	public void loadPage_UnknownPage_throwsRecipeParserException() throws Exception {
+		createCache(10000L).loadPage(baseUrl + "/unknown");
+	}
+
+	@Test
+	public void loadPage_FreshEntry_requested1x() throws Exception {
+		RecipePageCache objectUnderTest = createCache(10000L);
+		objectUnderTest.loadPage(baseUrl + "/fresh");
+		Document result = objectUnderTest.loadPage(baseUrl + "/fresh");
+		assertThat(result.title(), is("Testrezept"));
+		assertThat(requestCount.get(), is(1));
+	}
+
+	@Test
+	public void loadPage_FreshEntryAfterRestart_requested1x() throws Exception {
+		createCache(10000L).loadPage(baseUrl + "/fresh");
+		Document result = createCache(10000L).loadPage(baseUrl + "/fresh");
+		assertThat(result.title(), is("Testrezept"));
+		assertThat(requestCount.get(), is(1));
+	}
+
+	@Test
+	public void loadPage_StaleEntryWithETag_revalidatedWithNotModified() throws Exception {
+		RecipePageCache objectUnderTest = createCache(10000L);
+		objectUnderTest.loadPage(baseUrl + "/revalidate");
+		Document result = objectUnderTest.loadPage(baseUrl + "/revalidate");
+		assertThat(result.title(), is("Testrezept"));
+		assertThat(requestCount.get(), is(2));
+		assertThat(responseCodes.get(1), is(304));
+	}
+
+	@Test
+	public void loadPage_NoStore_notCached() throws Exception {
+		RecipePageCache objectUnderTest = createCache(10000L);
+		objectUnderTest.loadPage(baseUrl + "/nostore");
+		objectUnderTest.loadPage(baseUrl + "/nostore");
+		assertThat(requestCount.get(), is(2));
+		assertThat(countCachedPages(), is(0));
+	}
+
+	@Test
+	public void loadPage_MaxSizeExceeded_leastRecentlyUsedEvicted() throws Exception {
+		RecipePageCache objectUnderTest = createCache(PAGE.length() + 1L);
+		objectUnderTest.loadPage(baseUrl + "/fresh");
+		objectUnderTest.loadPage(baseUrl + "/revalidate");
+		assertThat(countCachedPages(), is(1));
+		objectUnderTest.loadPage(baseUrl + "/fresh");
+		assertThat(requestCount.get(), is(3));
+	}
+
+	@Test
+	public void loadPage_NoCacheAfterMaxAge_revalidated() throws Exception {
+		RecipePageCache objectUnderTest = createCache(10000L);
+		objectUnderTest.loadPage(baseUrl + "/maxAgeNoCache");
+		objectUnderTest.loadPage(baseUrl + "/maxAgeNoCache");
+		assertThat(requestCount.get(), is(2));
+		assertThat(responseCodes.get(1), is(304));
+	}
+
+	@Test
+	public void loadPage_ParallelLoads_requested1x() throws Exception {
+		RecipePageCache objectUnderTest = createCache(10000L);
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Document>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				Callable<Document> load = () -> {
+					start.await();
+					return objectUnderTest.loadPage(baseUrl + "/fresh");
+				};
+				results.add(executor.submit(load));
+			}
+			start.countDown();
+			for (Future<Document> result : results)
+				assertThat(result.get().title(), is("Testrezept"));
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(requestCount.get(), is(1));
+		assertThat(countCachedPages(), is(1));
+	}
+
+	@Test
+	public void loadPage_NotModifiedWithNewETag_newETagSent() throws Exception {
+		RecipePageCache objectUnderTest = createCache(10000L);
+		objectUnderTest.loadPage(baseUrl + "/newETag");
+		objectUnderTest.loadPage(baseUrl + "/newETag");
+		Document result = objectUnderTest.loadPage(baseUrl + "/newETag");
+		assertThat(result.title(), is("Testrezept"));
+		assertThat(ifNoneMatches.get(1), is("\"v1\""));
+		assertThat(ifNoneMatches.get(2), is("\"v2\""));
+	}
+}
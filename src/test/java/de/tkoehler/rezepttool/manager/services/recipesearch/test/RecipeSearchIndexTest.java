@@ -0,0 +1,148 @@
+package de.tkoehler.rezepttool.manager.services.recipesearch.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchHit;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+import de.tkoehler.rezepttool.manager.services.recipesearch.RecipeSearchIndexImpl;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RecipeSearchIndexTest {
+
+	private RecipeSearchIndexImpl objectUnderTest;
+	@Mock
+	private RecipeRepository recipeRepositoryMock;
+	@Mock
+	private ExecutorService recipeIndexExecutorMock;
+
+	@Before
+	public void setUp() throws Exception {
+		objectUnderTest = new RecipeSearchIndexImpl(recipeRepositoryMock, recipeIndexExecutorMock);
+		lenient().when(recipeRepositoryMock.findAllWithCategories()).thenReturn(new ArrayList<>(Arrays.asList(
+				recipe("id1", "Kartoffelsuppe", "Kartoffeln schälen und in Brühe kochen.", "Suppe", "Vegetarisch"),
+				recipe("id2", "Apfelkuchen", "Äpfel schälen, Teig kneten und backen.", "Backen"),
+				recipe("id3", "Bratkartoffeln", "Gekochte Kartoffel in Scheiben braten.", "Beilage"),
+				recipe("id4", "Gulasch", "Fleisch anbraten, mit Zwiebeln schmoren. Dazu Kartoffeln.", "Fleisch"),
+				recipe("id5", "Zwiebel-Tarte", "Teig ausrollen und belegen.", "Backen"))));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		objectUnderTest.destroy();
+	}
+
+	@Test
+	public void search_pluralWord_stemmedMatches() throws Exception {
+		RecipeSearchResult result = objectUnderTest.search("Kartoffeln", 0, 10);
+		assertThat(result.getTotalElements(), is(3L));
+		assertThat(ids(result).contains("id2"), is(false));
+	}
+
+	@Test
+	public void search_withoutUmlaut_umlautFolded() throws Exception {
+		RecipeSearchResult result = objectUnderTest.search("apfel", 0, 10);
+		assertThat(ids(result), is(Arrays.asList("id2")));
+	}
+
+	@Test
+	public void search_severalWords_allRequired() throws Exception {
+		RecipeSearchResult result = objectUnderTest.search("gulasch kartoffeln", 0, 10);
+		assertThat(ids(result), is(Arrays.asList("id4")));
+	}
+
+	@Test
+	public void search_nameAndInstructionsMatch_nameRankedFirst() throws Exception {
+		RecipeSearchResult result = objectUnderTest.search("Zwiebeln", 0, 10);
+		assertThat(ids(result), is(Arrays.asList("id5", "id4")));
+	}
+
+	@Test
+	public void search_category_found() throws Exception {
+		RecipeSearchResult result = objectUnderTest.search("vegetarisch", 0, 10);
+		assertThat(ids(result), is(Arrays.asList("id1")));
+		result = objectUnderTest.search("Suppe", 0, 10);
+		assertThat(ids(result), is(Arrays.asList("id1")));
+	}
+
+	@Test
+	public void search_secondPage_remainingHits() throws Exception {
+		RecipeSearchResult first = objectUnderTest.search("Kartoffeln", 0, 2);
+		RecipeSearchResult second = objectUnderTest.search("Kartoffeln", 1, 2);
+		assertThat(first.getRecipes().size(), is(2));
+		assertThat(second.getRecipes().size(), is(1));
+		assertThat(second.getTotalElements(), is(3L));
+		assertThat(ids(first).contains(second.getRecipes().get(0).getId()), is(false));
+	}
+
+	@Test
+	public void search_specialCharacters_noException() throws Exception {
+		RecipeSearchResult result = objectUnderTest.search("kartoffel) AND (\"", 0, 10);
+		assertThat(result.getTotalElements(), is(3L));
+	}
+
+	@Test
+	public void search_emptyQuery_emptyResult() throws Exception {
+		RecipeSearchResult result = objectUnderTest.search("  ", 0, 10);
+		assertThat(result.getRecipes().isEmpty(), is(true));
+	}
+
+	@Test
+	public void search_calledTwice_loadedOnce() throws Exception {
+		objectUnderTest.search("apfel", 0, 10);
+		objectUnderTest.search("apfel", 0, 10);
+		verify(recipeRepositoryMock, times(1)).findAllWithCategories();
+	}
+
+	@Test
+	public void onRecipeChanged_updatedRecipe_newTextFound() throws Exception {
+		objectUnderTest.search("apfel", 0, 10);
+		when(recipeRepositoryMock.findWithCategoriesById("id2"))
+				.thenReturn(Optional.of(recipe("id2", "Birnenkuchen", "Birnen schälen, Teig kneten und backen.", "Backen")));
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("id2", "Birnenkuchen", Arrays.asList("Backen"), null));
+		assertThat(ids(objectUnderTest.search("apfel", 0, 10)).isEmpty(), is(true));
+		assertThat(ids(objectUnderTest.search("birnen", 0, 10)), is(Arrays.asList("id2")));
+	}
+
+	@Test
+	public void onRecipeChanged_deletedRecipe_notFoundAnymore() throws Exception {
+		objectUnderTest.search("apfel", 0, 10);
+		objectUnderTest.onRecipeChanged(RecipeChangedEvent.deleted("id2", new ArrayList<>()));
+		assertThat(objectUnderTest.search("apfel", 0, 10).getTotalElements(), is(0L));
+	}
+
+	private static RecipeEntity recipe(String id, String name, String instructions, String... categories) {
+		return RecipeEntity.builder()
+				.id(id)
+				.name(name)
+				.instructions(instructions)
+				.categories(new HashSet<>(Arrays.asList(categories)))
+				.build();
+	}
+
+	private static List<String> ids(RecipeSearchResult result) {
+		return result.getRecipes().stream().map(RecipeSearchHit::getId).collect(Collectors.toList());
+	}
+}
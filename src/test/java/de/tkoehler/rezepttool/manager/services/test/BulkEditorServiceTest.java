@@ -0,0 +1,240 @@
+package de.tkoehler.rezepttool.manager.services.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import de.tkoehler.rezepttool.manager.application.mappers.WebInputToRecipeEntityMapperImpl;
+import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeHeader;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSaveResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.BulkEditorServiceImpl;
+import de.tkoehler.rezepttool.manager.services.CacheNames;
+import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkEditorServiceTest {
+
+	private BulkEditorServiceImpl objectUnderTest;
+	@Mock
+	private RecipeRepository recipeRepositoryMock;
+	@Mock
+	private IngredientRepository ingredientRepositoryMock;
+	@Mock
+	private ApplicationEventPublisher eventPublisherMock;
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+	@Mock
+	private CacheManager cacheManagerMock;
+	@Mock
+	private Cache cacheMock;
+
+	@Before
+	public void setUp() {
+		objectUnderTest = new BulkEditorServiceImpl(recipeRepositoryMock, ingredientRepositoryMock, new WebInputToRecipeEntityMapperImpl(new IngredientLineParser()),
+				eventPublisherMock, transactionManagerMock, cacheManagerMock, 2);
+		lenient().when(cacheManagerMock.getCache(CacheNames.TINY_RECIPES)).thenReturn(cacheMock);
+	}
+
+	@Test(expected = EditorServiceException.class)
+	public void insertRecipes_nullParameter_throwsEditorServiceException() throws EditorServiceException {
+		objectUnderTest.insertRecipes(null);
+	}
+
+	@Test
+	public void insertRecipes_fiveRecipes_oneTransactionPerChunk() throws EditorServiceException {
+		List<RecipeWebInput> recipes = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			recipes.add(recipe("Rezept " + i, "Mehl"));
+		}
+		List<RecipeSaveResult> result = objectUnderTest.insertRecipes(recipes.iterator());
+		assertThat(result.size(), is(5));
+		verify(transactionManagerMock, times(3)).getTransaction(any());
+		verify(recipeRepositoryMock, times(3)).saveAll(any());
+		verify(ingredientRepositoryMock, times(3)).findAllWithAlternativeNamesByNameIn(any());
+		verify(eventPublisherMock, times(5)).publishEvent(any(RecipeChangedEvent.class));
+	}
+
+	@Test
+	public void insertRecipes_existingRecipe_reportedAndSkipped() throws EditorServiceException {
+		when(recipeRepositoryMock.findHeadersByUrlIn(any())).thenReturn(Arrays.asList(RecipeHeader.builder().id("id1").url("url/Rezept 1").name("Rezept 1").build()));
+		List<RecipeSaveResult> result = objectUnderTest.insertRecipes(Arrays.asList(recipe("Rezept 1", "Mehl"), recipe("Rezept 2", "Mehl")).iterator());
+		assertThat(result.get(0).getError(), is("Recipe already exists!"));
+		assertThat(result.get(0).getId(), is(nullValue()));
+		assertThat(result.get(1).getError(), is(nullValue()));
+		assertThat(result.get(1).getName(), is("Rezept 2"));
+		assertThat(savedRecipes().size(), is(1));
+	}
+
+	@Test
+	public void insertRecipes_sameRecipeTwice_secondReportedAsExisting() throws EditorServiceException {
+		List<RecipeSaveResult> result = objectUnderTest.insertRecipes(Arrays.asList(recipe("Rezept 1", "Mehl"), recipe("Rezept 1", "Mehl")).iterator());
+		assertThat(result.get(0).getError(), is(nullValue()));
+		assertThat(result.get(1).getError(), is("Recipe already exists!"));
+	}
+
+	@Test
+	public void insertRecipes_sharedNewIngredient_savedOnce() throws EditorServiceException {
+		objectUnderTest.insertRecipes(Arrays.asList(recipe("Rezept 1", "Mehl"), recipe("Rezept 2", "mehl")).iterator());
+		List<RecipeEntity> saved = savedRecipes();
+		Ingredient first = saved.get(0).getIngredients().get(0).getIngredient();
+		assertThat(saved.get(1).getIngredients().get(0).getIngredient(), is(sameInstance(first)));
+		assertThat(first.getAlternativeNames(), is(new HashSet<>(Arrays.asList("Mehl", "mehl"))));
+	}
+
+	@Test
+	public void insertRecipes_knownIngredient_resolvedWithOneQuery() throws EditorServiceException {
+		Ingredient flour = Ingredient.builder().id("flour").name("Mehl").department("Backwaren").present(true).build();
+		when(ingredientRepositoryMock.findAllWithAlternativeNamesByNameIn(any())).thenReturn(Arrays.asList(flour));
+		objectUnderTest.insertRecipes(Arrays.asList(recipe("Rezept 1", "Mehl"), recipe("Rezept 2", "Mehl")).iterator());
+		List<RecipeEntity> saved = savedRecipes();
+		assertThat(saved.get(0).getIngredients().get(0).getIngredient(), is(sameInstance(flour)));
+		assertThat(saved.get(1).getIngredients().get(0).getIngredient(), is(sameInstance(flour)));
+		verify(ingredientRepositoryMock, times(1)).findAllWithAlternativeNamesByNameIn(new HashSet<>(Arrays.asList("Mehl")));
+		verify(ingredientRepositoryMock, never()).findByNameAndDepartment(anyString(), anyString());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void insertRecipes_failingChunk_retriedOneByOne() throws EditorServiceException {
+		when(recipeRepositoryMock.saveAll(any())).thenAnswer(invocation -> {
+			List<RecipeEntity> recipes = invocation.getArgument(0);
+			if (recipes.size() > 1 || recipes.get(0).getName().equals("Rezept 2")) throw new IllegalStateException("Constraint violated");
+			return recipes;
+		});
+		List<RecipeSaveResult> result = objectUnderTest.insertRecipes(Arrays.asList(recipe("Rezept 1", "Mehl"), recipe("Rezept 2", "Mehl")).iterator());
+		assertThat(result.size(), is(2));
+		assertThat(result.get(0).getError(), is(nullValue()));
+		assertThat(result.get(1).getError(), is("Constraint violated"));
+		verify(transactionManagerMock, times(3)).getTransaction(any());
+		verify(transactionManagerMock, times(2)).rollback(any());
+	}
+
+	@Test
+	public void insertRecipes_fiveRecipes_cachesEvictedPerChunk() throws EditorServiceException {
+		List<RecipeWebInput> recipes = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			recipes.add(recipe("Rezept " + i, "Mehl"));
+		}
+		objectUnderTest.insertRecipes(recipes.iterator());
+		verify(cacheMock, times(3)).clear();
+	}
+
+	@Test
+	public void insertRecipes_inputBreaksOff_committedChunkEvicted() {
+		Iterator<RecipeWebInput> recipes = new Iterator<RecipeWebInput>() {
+			private int read;
+
+			@Override
+			public boolean hasNext() {
+				if (read == 2) throw new IllegalStateException("Connection reset");
+				return true;
+			}
+
+			@Override
+			public RecipeWebInput next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return recipe("Rezept " + read++, "Mehl");
+			}
+		};
+		try {
+			objectUnderTest.insertRecipes(recipes);
+		}
+		catch (IllegalStateException | EditorServiceException e) {
+			// expected, the first chunk is committed already
+		}
+		verify(recipeRepositoryMock, times(1)).saveAll(any());
+		verify(cacheMock, times(1)).clear();
+	}
+
+	@Test
+	public void insertRecipes_readingBreaksOff_readRecipesSavedAndRestReported() throws EditorServiceException {
+		Iterator<RecipeWebInput> recipes = new Iterator<RecipeWebInput>() {
+			private int read;
+
+			@Override
+			public boolean hasNext() {
+				if (read == 3) throw new UncheckedIOException(new IOException("Connection reset"));
+				return true;
+			}
+
+			@Override
+			public RecipeWebInput next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return recipe("Rezept " + read++, "Mehl");
+			}
+		};
+		List<RecipeSaveResult> result = objectUnderTest.insertRecipes(recipes);
+		assertThat(result.size(), is(4));
+		assertThat(result.get(2).getName(), is("Rezept 2"));
+		assertThat(result.get(2).getError(), is(nullValue()));
+		assertThat(result.get(3).getError(), is("Remaining recipes could not be read: Connection reset"));
+		verify(recipeRepositoryMock, times(2)).saveAll(any());
+	}
+
+	@Test
+	public void insertRecipes_recipeWithoutIngredients_saved() throws EditorServiceException {
+		RecipeWebInput withoutIngredients = recipe("Rezept 1", "Mehl");
+		withoutIngredients.setIngredients(null);
+		List<RecipeSaveResult> result = objectUnderTest.insertRecipes(Arrays.asList(withoutIngredients, recipe("Rezept 2", "Mehl")).iterator());
+		assertThat(result.get(0).getError(), is(nullValue()));
+		assertThat(result.get(1).getError(), is(nullValue()));
+		assertThat(savedRecipes().size(), is(2));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<RecipeEntity> savedRecipes() {
+		ArgumentCaptor<Iterable<RecipeEntity>> captor = ArgumentCaptor.forClass(Iterable.class);
+		verify(recipeRepositoryMock).saveAll(captor.capture());
+		return (List<RecipeEntity>) captor.getValue();
+	}
+
+	private static RecipeWebInput recipe(String name, String ingredientName) {
+		return RecipeWebInput.builder()
+				.url("url/" + name)
+				.name(name)
+				.ingredients(new ArrayList<>(Arrays.asList(IngredientWebInput.builder()
+						.amount("200 g")
+						.name(ingredientName)
+						.originalName(ingredientName)
+						.department("Backwaren")
+						.build())))
+				.categories(new ArrayList<>())
+				.build();
+	}
+}
@@ -34,22 +34,22 @@ public class EditorServiceIntegrationTest {
 	@Test
 	public void saveRecipe_duplicateIngredient_savesNoDuplicate() throws EditorServiceException {
 		RecipeWebInput recipe1 = RecipeWebInput.builder()
-				.id("testId1")
+				.id("00000000-0000-7000-8000-000000000101")
 				.name("Recipe1")
 				.url("Recipe1Url")
 				.instructions("Instructions1")
 				.difficulty("simpel")
 				.ingredients(Arrays.asList(
 						IngredientWebInput.builder()
-								.ingredientId("testIngredId1")
-								.recipeIngredientId("testRecipeIngredId1")
+								.ingredientId("00000000-0000-7000-8000-000000000201")
+								.recipeIngredientId("00000000-0000-7000-8000-000000000301")
 								.name("Ingredient1")
 								.department("Department1")
 								.originalName("Ingredient1")
 								.build(),
 						IngredientWebInput.builder()
-								.ingredientId("testIngredId2")
-								.recipeIngredientId("testRecipeIngredId2")
+								.ingredientId("00000000-0000-7000-8000-000000000202")
+								.recipeIngredientId("00000000-0000-7000-8000-000000000302")
 								.name("Ingredient2")
 								.department("Department2")
 								.originalName("Ingredient")
@@ -57,22 +57,22 @@ public class EditorServiceIntegrationTest {
 
 				.build();
 		RecipeWebInput recipe2 = RecipeWebInput.builder()
-				.id("testId2")
+				.id("00000000-0000-7000-8000-000000000102")
 				.name("Recipe2")
 				.url("Recipe2Url")
 				.instructions("Instructions2")
 				.difficulty("simpel")
 				.ingredients(Arrays.asList(
 						IngredientWebInput.builder()
-								.ingredientId("testIngredId3")
-								.recipeIngredientId("testRecipeIngredId3")
+								.ingredientId("00000000-0000-7000-8000-000000000203")
+								.recipeIngredientId("00000000-0000-7000-8000-000000000303")
 								.name("Ingredient3")
 								.department("Department3")
 								.originalName("Ingredient3")
 								.build(),
 						IngredientWebInput.builder()
-								.ingredientId("testIngredId2")
-								.recipeIngredientId("testRecipeIngredId2")
+								.ingredientId("00000000-0000-7000-8000-000000000202")
+								.recipeIngredientId("00000000-0000-7000-8000-000000000302")
 								.name("Ingredient2")
 								.department("Department2")
 								.originalName("Ingredient")
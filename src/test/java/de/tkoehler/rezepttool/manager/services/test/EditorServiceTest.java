@@ -2,8 +2,10 @@ package de.tkoehler.rezepttool.manager.services.test;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,9 +18,11 @@ import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 
 import de.tkoehler.rezepttool.manager.application.mappers.RecipeEntityToWebInputMapper;
 import de.tkoehler.rezepttool.manager.application.mappers.WebInputToRecipeEntityMapper;
@@ -32,6 +36,7 @@ import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 import de.tkoehler.rezepttool.manager.services.EditorServiceImpl;
 import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
 import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceRecipeExistsException;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EditorServiceTest {
@@ -46,6 +51,8 @@ public class EditorServiceTest {
 	private WebInputToRecipeEntityMapper webInputToRecipeEntityMapperMock;
 	@Mock
 	private RecipeEntityToWebInputMapper recipeEntityToWebInputMapperMock;
+	@Mock
+	private ApplicationEventPublisher eventPublisherMock;
 
 	@Test(expected = EditorServiceException.class)
 	public void importRecipe_NullParameter_throwsImporterServiceException() throws Exception {
@@ -116,7 +123,7 @@ public class EditorServiceTest {
 	}
 
 	@Test
-	public void updateKnownIngredient_KnownParameter_ParameterChanged() throws Exception {
+	public void updateKnownIngredient_KnownParameter_KnownIngredientUsed() throws Exception {
 		Ingredient newIngredEntity = Ingredient.builder()
 				.id("newID")
 				.name("oldName")
@@ -138,10 +145,33 @@ public class EditorServiceTest {
 		when(ingredientRepositoryMock.findByNameAndDepartment(newIngredEntity.getName(), newIngredEntity.getDepartment())).thenReturn(Optional.of(oldIngredEntity));
 		when(webInputToRecipeEntityMapperMock.process(recipe)).thenReturn(recipeEntity);
 		objectUnderTest.insertRecipe(recipe);
-		assertThat(newIngredEntity.getId(), is("oldID"));
-		assertThat(newIngredEntity.getName(), is("oldName"));
-		assertThat(newIngredEntity.getDepartment(), is("oldDepartment"));
-		assertThat(newIngredEntity.getAlternativeNames().containsAll(Arrays.asList("newOriginalName", "oldOriginalName")), is(true));
+		assertThat(recipeEntity.getIngredients().get(0).getIngredient(), is(sameInstance(oldIngredEntity)));
+		assertThat(oldIngredEntity.getId(), is("oldID"));
+		assertThat(oldIngredEntity.getAlternativeNames().containsAll(Arrays.asList("newOriginalName", "oldOriginalName")), is(true));
+	}
+
+	@Test
+	public void importRecipe_FilledIngredientList_publishesRecipeChangedEvent() throws Exception {
+		Ingredient ingredient = Ingredient.builder()
+				.id("ingredientID")
+				.name("name")
+				.department("department")
+				.build();
+		RecipeEntity recipeEntity = RecipeEntity.builder()
+				.id("recipeID")
+				.ingredients(Arrays.asList(RecipeIngredient.builder()
+						.ingredient(ingredient)
+						.build()))
+				.build();
+		RecipeWebInput recipe = new RecipeWebInput();
+		when(ingredientRepositoryMock.findByNameAndDepartment(any(), any())).thenReturn(Optional.empty());
+		when(webInputToRecipeEntityMapperMock.process(recipe)).thenReturn(recipeEntity);
+		objectUnderTest.insertRecipe(recipe);
+		ArgumentCaptor<RecipeChangedEvent> event = ArgumentCaptor.forClass(RecipeChangedEvent.class);
+		verify(eventPublisherMock, times(1)).publishEvent(event.capture());
+		assertThat(event.getValue().getRecipeId(), is("recipeID"));
+		assertThat(event.getValue().isDeleted(), is(false));
+		assertThat(event.getValue().getIngredients(), hasItems(ingredient));
 	}
 
 	@Test
@@ -151,24 +181,35 @@ public class EditorServiceTest {
 		verify(recipeRepositoryMock, times(1)).deleteById(id);
 	}
 
+	@Test
+	public void deleteRecipe_correctParameter_publishesDeletedEvent() throws Exception {
+		objectUnderTest.deleteRecipe("recipeID");
+		ArgumentCaptor<RecipeChangedEvent> event = ArgumentCaptor.forClass(RecipeChangedEvent.class);
+		verify(eventPublisherMock, times(1)).publishEvent(event.capture());
+		assertThat(event.getValue().getRecipeId(), is("recipeID"));
+		assertThat(event.getValue().isDeleted(), is(true));
+	}
+
 	@Test(expected = EditorServiceException.class)
 	public void loadRecipe_nullParameter_throwsManagerServiceException() throws Exception {
 		objectUnderTest.loadRecipe(null);
 	}
 
 	@Test
-	public void loadRecipe_correctParameter_findByID1x() throws Exception {
+	public void loadRecipe_correctParameter_fetchDetailsAndIngredients1x() throws Exception {
 		String id = "";
 		RecipeEntity recipe = RecipeEntity.builder().build();
-		when(recipeRepositoryMock.findById(id)).thenReturn(Optional.of(recipe));
+		when(recipeRepositoryMock.findWithCategoriesById(id)).thenReturn(Optional.of(recipe));
 		objectUnderTest.loadRecipe(id);
-		verify(recipeRepositoryMock, times(1)).findById(id);
+		verify(recipeRepositoryMock, times(1)).findWithCategoriesById(id);
+		verify(recipeRepositoryMock, times(1)).findWithIngredientsById(id);
+		verify(recipeRepositoryMock, never()).findById(id);
 	}
 
 	@Test(expected = EditorServiceException.class)
 	public void loadRecipe_unknownId_throwsManagerServiceException() throws Exception {
 		String id = "unknownID";
-		when(recipeRepositoryMock.findById(id)).thenReturn(Optional.empty());
+		when(recipeRepositoryMock.findWithCategoriesById(id)).thenReturn(Optional.empty());
 		objectUnderTest.loadRecipe(id);
 	}
 
@@ -177,7 +218,7 @@ public class EditorServiceTest {
 		String id = "knownId";
 		RecipeEntity recipe = RecipeEntity.builder().id(id).build();
 		RecipeWebInput webRecipe = RecipeWebInput.builder().id(id).build();
-		when(recipeRepositoryMock.findById(id)).thenReturn(Optional.of(recipe));
+		when(recipeRepositoryMock.findWithCategoriesById(id)).thenReturn(Optional.of(recipe));
 		when(recipeEntityToWebInputMapperMock.process(recipe)).thenReturn(webRecipe);
 		RecipeWebInput result = objectUnderTest.loadRecipe(id);
 		assertThat(id, is(result.getId()));
@@ -200,6 +241,23 @@ public class EditorServiceTest {
 		verify(recipeRepositoryMock, times(1)).save(recipe);
 	}
 
+	@Test
+	public void updateRecipe_validParameter_publishesUpdatedEvent() throws EditorServiceException {
+		String id = "testID";
+		RecipeWebInput webRecipe = RecipeWebInput.builder().id(id).build();
+		RecipeEntity recipe = RecipeEntity.builder().id(id).build();
+		when(recipeRepositoryMock.findById(id)).thenReturn(Optional.of(recipe));
+		when(recipeRepositoryMock.findIngredientIdsById(id)).thenReturn(Arrays.asList("oldIngredientID"));
+		when(webInputToRecipeEntityMapperMock.process(webRecipe)).thenReturn(recipe);
+		objectUnderTest.updateRecipe(webRecipe);
+		ArgumentCaptor<RecipeChangedEvent> event = ArgumentCaptor.forClass(RecipeChangedEvent.class);
+		verify(eventPublisherMock, times(1)).publishEvent(event.capture());
+		assertThat(event.getValue().getRecipeId(), is(id));
+		assertThat(event.getValue().getPreviousIngredientIds(), hasItems("oldIngredientID"));
+		assertThat(event.getValue().isUpdated(), is(true));
+		assertThat(event.getValue().isDeleted(), is(false));
+	}
+
 	@Test(expected = EditorServiceException.class)
 	public void updateRecipe_unknownID_throwsManagerServiceException() throws EditorServiceException {
 		String id = "testID";
@@ -266,8 +324,9 @@ public class EditorServiceTest {
 		when(webInputToRecipeEntityMapperMock.process(webRecipe)).thenReturn(recipe);
 		when(ingredientRepositoryMock.findByNameAndDepartment(webingred.getName(), webingred.getDepartment())).thenReturn(Optional.of(ingred2));
 		objectUnderTest.updateRecipe(webRecipe);
-		assertThat("otherID", is(ingred1.getId()));
-		assertThat(true, is(ingred1.isPresent()));
-		assertThat(ingred1.getAlternativeNames(), hasItems("KnownAlternativeName", "AnotherName"));
+		assertThat(ringred.getIngredient(), is(sameInstance(ingred2)));
+		assertThat("otherID", is(ringred.getIngredient().getId()));
+		assertThat(true, is(ringred.getIngredient().isPresent()));
+		assertThat(ringred.getIngredient().getAlternativeNames(), hasItems("KnownAlternativeName", "AnotherName"));
 	}
 }
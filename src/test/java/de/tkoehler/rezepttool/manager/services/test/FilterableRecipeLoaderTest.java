@@ -0,0 +1,93 @@
+package de.tkoehler.rezepttool.manager.services.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
+import de.tkoehler.rezepttool.manager.repositories.ids.TimeOrderedIds;
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
+import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipeRow;
+import de.tkoehler.rezepttool.manager.services.FilterableRecipeLoader;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FilterableRecipeLoaderTest {
+
+	private static final String ID1 = "0190b5a2-7c3e-7a01-8d2f-3b6c9e4f1a20";
+	private static final String ID2 = "0190b5a2-7c3e-7a02-9e1b-5c7d2f8a3b41";
+
+	@InjectMocks
+	private FilterableRecipeLoader objectUnderTest;
+	@Mock
+	private RecipeRepository recipeRepositoryMock;
+
+	@Test
+	public void loadAll_noRows_emptyResult() {
+		when(recipeRepositoryMock.streamAllFilterableRows()).thenReturn(Stream.empty());
+		List<FilterableRecipe> result = objectUnderTest.loadAll();
+		assertThat(result.isEmpty(), is(true));
+	}
+
+	@Test
+	public void loadAll_orderedRows_foldedPerRecipe() {
+		when(recipeRepositoryMock.streamAllFilterableRows()).thenReturn(Stream.of(
+				row(ID1, "recipe1", "cat1", null),
+				row(ID1, "recipe1", "cat2", null),
+				row(ID1, "recipe1", null, "ingred1"),
+				row(ID1, "recipe1", null, "ingred2"),
+				row(ID2, "recipe2", null, null),
+				row(ID2, "recipe2", null, "ingred1")));
+		List<FilterableRecipe> result = objectUnderTest.loadAll();
+		assertThat(result.size(), is(2));
+		assertThat(result.get(0).getId(), is(ID1));
+		assertThat(result.get(0).getName(), is("recipe1"));
+		assertThat(result.get(0).getCategories(), is(Arrays.asList("cat1", "cat2")));
+		assertThat(result.get(0).getIngredients(), is(Arrays.asList("ingred1", "ingred2")));
+		assertThat(result.get(1).getId(), is(ID2));
+		assertThat(result.get(1).getCategories().isEmpty(), is(true));
+		assertThat(result.get(1).getIngredients(), is(Arrays.asList("ingred1")));
+	}
+
+	@Test
+	public void loadAll_duplicateIngredient_listedOnce() {
+		when(recipeRepositoryMock.streamAllFilterableRows()).thenReturn(Stream.of(
+				row(ID1, "recipe1", null, "ingred1"),
+				row(ID1, "recipe1", null, "ingred1")));
+		List<FilterableRecipe> result = objectUnderTest.loadAll();
+		assertThat(result.get(0).getIngredients(), is(Arrays.asList("ingred1")));
+	}
+
+	private static FilterableRecipeRow row(String recipeId, String recipeName, String category, String ingredient) {
+		return new FilterableRecipeRow() {
+			@Override
+			public byte[] getRecipeKey() {
+				return TimeOrderedIds.toBytes(recipeId);
+			}
+
+			@Override
+			public String getRecipeName() {
+				return recipeName;
+			}
+
+			@Override
+			public String getCategory() {
+				return category;
+			}
+
+			@Override
+			public String getIngredient() {
+				return ingredient;
+			}
+		};
+	}
+}
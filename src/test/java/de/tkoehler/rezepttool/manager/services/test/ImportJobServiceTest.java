@@ -0,0 +1,172 @@
+package de.tkoehler.rezepttool.manager.services.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tkoehler.rezepttool.manager.repositories.ImportJobRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJob;
+import de.tkoehler.rezepttool.manager.repositories.model.ImportJobStatus;
+import de.tkoehler.rezepttool.manager.restcontroller.model.ImportJobResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.ImportJobServiceImpl;
+import de.tkoehler.rezepttool.manager.services.ImporterService;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceIDNotFoundException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ImportJobServiceTest {
+
+	private ImportJobServiceImpl objectUnderTest;
+	@Mock
+	private ImporterService importerServiceMock;
+	@Mock
+	private ImportJobRepository importJobRepositoryMock;
+
+	private ExecutorService executor;
+	private ScheduledExecutorService poller;
+	private Map<String, ImportJob> storedJobs;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newSingleThreadExecutor();
+		poller = Executors.newSingleThreadScheduledExecutor();
+		storedJobs = new ConcurrentHashMap<>();
+		lenient().when(importJobRepositoryMock.save(any())).thenAnswer(invocation -> {
+			ImportJob job = invocation.getArgument(0);
+			storedJobs.put(job.getId(), job);
+			return job;
+		});
+		lenient().when(importJobRepositoryMock.findById(any())).thenAnswer(invocation -> Optional.ofNullable(storedJobs.get(invocation.getArgument(0))));
+		lenient().when(importJobRepositoryMock.updateStatus(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+			ImportJob job = storedJobs.get(invocation.getArgument(0));
+			if (job == null || job.getStatus() != invocation.getArgument(1)) return 0;
+			job.setStatus(invocation.getArgument(2));
+			job.setOwner(invocation.getArgument(3));
+			job.setUpdated(invocation.getArgument(4));
+			return 1;
+		});
+		objectUnderTest = new ImportJobServiceImpl(importerServiceMock, importJobRepositoryMock, new ObjectMapper(), executor, poller, 10L, 600000L, "node1");
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		poller.shutdownNow();
+		executor.awaitTermination(1, TimeUnit.SECONDS);
+	}
+
+	@Test(expected = ImporterServiceException.class)
+	public void createImportJob_NullParameter_throwsImporterServiceException() throws Exception {
+		objectUnderTest.createImportJob(null);
+	}
+
+	@Test(expected = ImporterServiceIDNotFoundException.class)
+	public void loadImportJob_UnknownID_throwsImporterServiceIDNotFoundException() throws Exception {
+		objectUnderTest.loadImportJob("unknown");
+	}
+
+	@Test
+	public void createImportJob_CorrectParameter_ReturnsQueuedJob() throws Exception {
+		when(importerServiceMock.loadRecipeFromExternal("https://www.website.de/test.html")).thenReturn(new RecipeWebInput());
+		ImportJobResult result = objectUnderTest.createImportJob("https://www.website.de/test.html");
+		assertThat(result.getId(), is(not(nullValue())));
+		assertThat(result.getStatus(), is(ImportJobStatus.QUEUED));
+		objectUnderTest.watchImportJob(result.getId()).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void createImportJob_ImportSucceeds_FinishedWithRecipe() throws Exception {
+		when(importerServiceMock.loadRecipeFromExternal("https://www.website.de/test.html"))
+				.thenReturn(RecipeWebInput.builder().name("Rezept").url("https://www.website.de/test.html").build());
+		String id = objectUnderTest.createImportJob("https://www.website.de/test.html").getId();
+		ImportJobResult result = objectUnderTest.watchImportJob(id).get(5, TimeUnit.SECONDS);
+		assertThat(result.getStatus(), is(ImportJobStatus.FINISHED));
+		assertThat(result.getRecipe().getName(), is("Rezept"));
+		assertThat(objectUnderTest.loadImportJob(id).getRecipe().getName(), is("Rezept"));
+	}
+
+	@Test
+	public void createImportJob_ImportFails_FailedWithError() throws Exception {
+		doThrow(new ImporterServiceException("Failed to parse recipe!")).when(importerServiceMock).loadRecipeFromExternal(any());
+		String id = objectUnderTest.createImportJob("https://www.website.de/test.html").getId();
+		ImportJobResult result = objectUnderTest.watchImportJob(id).get(5, TimeUnit.SECONDS);
+		assertThat(result.getStatus(), is(ImportJobStatus.FAILED));
+		assertThat(result.getError(), is("Failed to parse recipe!"));
+		assertThat(result.getRecipe(), is(nullValue()));
+	}
+
+	@Test
+	public void resumeUnfinishedJobs_QueuedJob_ImportedAgain() throws Exception {
+		ImportJob job = ImportJob.builder().id("1").url("https://www.website.de/test.html").status(ImportJobStatus.QUEUED).created(new Date()).build();
+		storedJobs.put(job.getId(), job);
+		when(importJobRepositoryMock.findByStatusInOrderByCreated(any())).thenReturn(Arrays.asList(job));
+		when(importerServiceMock.loadRecipeFromExternal(any())).thenReturn(new RecipeWebInput());
+		objectUnderTest.resumeUnfinishedJobs();
+		ImportJobResult result = objectUnderTest.watchImportJob("1").get(5, TimeUnit.SECONDS);
+		assertThat(result.getStatus(), is(ImportJobStatus.FINISHED));
+		assertThat(storedJobs.get("1").getOwner(), is("node1"));
+		verify(importerServiceMock, times(1)).loadRecipeFromExternal("https://www.website.de/test.html");
+		verify(importJobRepositoryMock).requeueAbandoned(eq("node1"), any(), any(), eq(ImportJobStatus.QUEUED), eq(ImportJobStatus.RUNNING));
+	}
+
+	@Test
+	public void resumeUnfinishedJobs_ClaimedByOtherNode_NotImported() throws Exception {
+		ImportJob job = ImportJob.builder().id("1").url("https://www.website.de/test.html").status(ImportJobStatus.QUEUED).created(new Date()).build();
+		storedJobs.put(job.getId(), job);
+		when(importJobRepositoryMock.findByStatusInOrderByCreated(any())).thenAnswer(invocation -> {
+			ImportJob claimed = ImportJob.builder().id("1").url(job.getUrl()).status(ImportJobStatus.RUNNING).owner("node2").created(job.getCreated()).build();
+			storedJobs.put("1", claimed);
+			return Arrays.asList(job);
+		});
+		objectUnderTest.resumeUnfinishedJobs();
+		CompletableFuture<ImportJobResult> watch = objectUnderTest.watchImportJob("1");
+		Thread.sleep(50);
+		assertThat(watch.isDone(), is(false));
+		storedJobs.get("1").setStatus(ImportJobStatus.FINISHED);
+		assertThat(watch.get(5, TimeUnit.SECONDS).getStatus(), is(ImportJobStatus.FINISHED));
+		verify(importerServiceMock, never()).loadRecipeFromExternal(any());
+	}
+
+	@Test
+	public void watchImportJob_RunningOnOtherNode_PolledUntilDone() throws Exception {
+		ImportJob job = ImportJob.builder().id("1").url("https://www.website.de/test.html").status(ImportJobStatus.RUNNING).owner("node2").created(new Date()).build();
+		storedJobs.put(job.getId(), job);
+		CompletableFuture<ImportJobResult> watch = objectUnderTest.watchImportJob("1");
+		assertThat(watch.isDone(), is(false));
+		job.setStatus(ImportJobStatus.FAILED);
+		job.setError("Failed to parse recipe!");
+		ImportJobResult result = watch.get(5, TimeUnit.SECONDS);
+		assertThat(result.getStatus(), is(ImportJobStatus.FAILED));
+		assertThat(result.getError(), is("Failed to parse recipe!"));
+	}
+}
@@ -0,0 +1,68 @@
+package de.tkoehler.rezepttool.manager.services.test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.EditorService;
+import de.tkoehler.rezepttool.manager.services.ImportPipelineService;
+import de.tkoehler.rezepttool.manager.services.ImporterService;
+import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+
+@SpringBootTest(properties = {
+		"importer.pipeline.enabled=true",
+		"spring.cloud.stream.kafka.binder.brokers=${spring.embedded.kafka.brokers}",
+		"spring.cloud.stream.kafka.binder.minPartitionCount=1",
+		"spring.cloud.stream.bindings.importUrlsInput.consumer.concurrency=1",
+		"spring.cloud.stream.bindings.importUrlsInput.consumer.maxAttempts=1",
+		"spring.cloud.stream.kafka.bindings.importUrlsInput.consumer.startOffset=earliest",
+		"spring.cloud.stream.kafka.bindings.parsedRecipesInput.consumer.startOffset=earliest" })
+@TestPropertySource("/test.properties")
+@EmbeddedKafka(partitions = 1, topics = { "rezepttool.import.urls", "rezepttool.import.recipes" })
+@RunWith(SpringRunner.class)
+@DirtiesContext
+public class ImportPipelineIntegrationTest {
+
+	@Autowired
+	private ImportPipelineService importPipelineService;
+	@MockBean
+	private ImporterService importerService;
+	@MockBean
+	private EditorService editorService;
+
+	@Test
+	public void submitRecipeURLs_TwoURLs_BothParsedAndSaved() throws Exception {
+		when(importerService.parseRecipeFromExternal(any()))
+				.thenAnswer(invocation -> RecipeWebInput.builder().url(invocation.getArgument(0)).name("Rezept").build());
+		when(importerService.updateRecipeWithKnownData(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		importPipelineService.submitRecipeURLs(Arrays.asList("https://www.website.de/test1.html", "https://www.website.de/test2.html"));
+		verify(editorService, timeout(30000)).insertRecipe(argThat(recipe -> "https://www.website.de/test1.html".equals(recipe.getUrl())));
+		verify(editorService, timeout(30000)).insertRecipe(argThat(recipe -> "https://www.website.de/test2.html".equals(recipe.getUrl())));
+	}
+
+	@Test
+	public void submitRecipeURLs_WrongURL_OtherRecipesSaved() throws Exception {
+		doThrow(new ImporterServiceException("Failed to parse recipe!")).when(importerService).parseRecipeFromExternal("https://www.website.de/wrong.html");
+		when(importerService.parseRecipeFromExternal("https://www.website.de/test3.html"))
+				.thenReturn(RecipeWebInput.builder().url("https://www.website.de/test3.html").name("Rezept").build());
+		when(importerService.updateRecipeWithKnownData(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		importPipelineService.submitRecipeURLs(Arrays.asList("https://www.website.de/wrong.html", "https://www.website.de/test3.html"));
+		verify(editorService, timeout(30000)).insertRecipe(argThat(recipe -> "https://www.website.de/test3.html".equals(recipe.getUrl())));
+	}
+}
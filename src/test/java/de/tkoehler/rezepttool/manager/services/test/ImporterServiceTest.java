@@ -2,6 +2,8 @@ package de.tkoehler.rezepttool.manager.services.test;
 
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
@@ -11,9 +13,17 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -21,12 +31,16 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import de.tkoehler.rezepttool.manager.application.mappers.ExternalRecipeToWebInputMapper;
-import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
+import de.tkoehler.rezepttool.manager.repositories.model.AlternativeNameMatch;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientMatch;
 import de.tkoehler.rezepttool.manager.restcontroller.model.IngredientWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeImportResult;
 import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
 import de.tkoehler.rezepttool.manager.services.ImporterServiceImpl;
 import de.tkoehler.rezepttool.manager.services.exceptions.ImporterServiceException;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.AlternativeNameIndex;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientMatcher;
 import de.tkoehler.rezepttool.manager.services.model.Recipe;
 import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParser;
 import de.tkoehler.rezepttool.manager.services.recipeparser.RecipeParserException;
@@ -39,9 +53,23 @@ public class ImporterServiceTest {
 	@Mock
 	private RecipeParser recipeParserMock;
 	@Mock
-	private IngredientRepository ingredientRepositoryMock;
+	private AlternativeNameIndex alternativeNameIndexMock;
+	@Mock
+	private IngredientMatcher ingredientMatcherMock;
 	@Mock
 	private ExternalRecipeToWebInputMapper chefkochToWebInputMapperMock;
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(1, TimeUnit.SECONDS);
+	}
 
 	@Test(expected = ImporterServiceException.class)
 	public void loadRecipe_NullParameter_throwsImporterServiceException() throws Exception {
@@ -72,6 +100,18 @@ public class ImporterServiceTest {
 		verify(chefkochToWebInputMapperMock, times(1)).process(any());
 	}
 
+	@Test
+	public void parseRecipe_CorrectParameter_noKnownDataLoaded() throws Exception {
+		RecipeWebInput recipe = RecipeWebInput.builder()
+				.ingredients(Arrays.asList(IngredientWebInput.builder().originalName("name").build()))
+				.build();
+		when(recipeParserMock.parseRecipe(any())).thenReturn(new Recipe());
+		when(chefkochToWebInputMapperMock.process(any())).thenReturn(recipe);
+		RecipeWebInput result = objectUnderTest.parseRecipeFromExternal("TestUrl");
+		assertThat(result, is(recipe));
+		verify(alternativeNameIndexMock, times(0)).findByAlternativeNames(any());
+	}
+
 	@Test(expected = ImporterServiceException.class)
 	public void updateRecipeWithKnownData_NullParameter_throwsImporterServiceException()
 			throws Exception {
@@ -104,12 +144,12 @@ public class ImporterServiceTest {
 				.build();
 		when(recipeParserMock.parseRecipe(any())).thenReturn(new Recipe());
 		when(chefkochToWebInputMapperMock.process(any())).thenReturn(recipe);
-		when(ingredientRepositoryMock.findByAlternativeName(any())).thenReturn(new ArrayList<>());
 		objectUnderTest.loadRecipeFromExternal(url);
+		verify(alternativeNameIndexMock, times(0)).findByAlternativeNames(any());
 	}
 
 	@Test
-	public void updateWebIngredientWithKnownData_anyIngredient_findByAlternativeName1x()
+	public void updateWebIngredientWithKnownData_anyIngredient_findByAlternativeNames1x()
 			throws Exception {
 		final String url = "TestUrl";
 		IngredientWebInput testWebIngredient = IngredientWebInput.builder()
@@ -123,9 +163,9 @@ public class ImporterServiceTest {
 				.build();
 		when(recipeParserMock.parseRecipe(any())).thenReturn(new Recipe());
 		when(chefkochToWebInputMapperMock.process(any())).thenReturn(recipe);
-		when(ingredientRepositoryMock.findByAlternativeName(any())).thenReturn(new ArrayList<>());
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(new ArrayList<>());
 		objectUnderTest.loadRecipeFromExternal(url);
-		verify(ingredientRepositoryMock, times(1)).findByAlternativeName("KnownAlternativeName");
+		verify(alternativeNameIndexMock, times(1)).findByAlternativeNames(new HashSet<>(Arrays.asList("KnownAlternativeName")));
 	}
 
 	@Test
@@ -143,7 +183,7 @@ public class ImporterServiceTest {
 				.build();
 		when(recipeParserMock.parseRecipe(any())).thenReturn(new Recipe());
 		when(chefkochToWebInputMapperMock.process(any())).thenReturn(recipe);
-		when(ingredientRepositoryMock.findByAlternativeName(testWebIngredient.getOriginalName())).thenReturn(new ArrayList<>());
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(new ArrayList<>());
 		objectUnderTest.loadRecipeFromExternal(url);
 		assertThat(testWebIngredient.getName(), is("UnknownName"));
 		assertThat(testWebIngredient.getOriginalName(), is("OriginalName"));
@@ -171,7 +211,7 @@ public class ImporterServiceTest {
 				.build();
 		when(recipeParserMock.parseRecipe(any())).thenReturn(new Recipe());
 		when(chefkochToWebInputMapperMock.process(any())).thenReturn(recipe);
-		when(ingredientRepositoryMock.findByAlternativeName(testWebIngredient.getOriginalName())).thenReturn(Arrays.asList(knownIngredient));
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(createMatches(testWebIngredient.getOriginalName(), knownIngredient));
 		objectUnderTest.loadRecipeFromExternal(url);
 		assertThat(testWebIngredient.getName(), is(knownIngredient.getName()));
 		assertThat(testWebIngredient.getOriginalName(), is("KnownAlternativeName"));
@@ -205,7 +245,7 @@ public class ImporterServiceTest {
 				.build();
 		when(recipeParserMock.parseRecipe(any())).thenReturn(new Recipe());
 		when(chefkochToWebInputMapperMock.process(any())).thenReturn(recipe);
-		when(ingredientRepositoryMock.findByAlternativeName(testWebIngredient.getOriginalName())).thenReturn(Arrays.asList(knownIngredient, knownIngredient2));
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(createMatches(testWebIngredient.getOriginalName(), knownIngredient, knownIngredient2));
 		objectUnderTest.loadRecipeFromExternal(url);
 		assertThat(testWebIngredient.getName(), anyOf(is("KnownIngredName | KnownIngredName2"), is("KnownIngredName2 | KnownIngredName")));
 		assertThat(testWebIngredient.getOriginalName(), is("KnownAlternativeName"));
@@ -237,9 +277,107 @@ public class ImporterServiceTest {
 				.build();
 		when(recipeParserMock.parseRecipe(any())).thenReturn(new Recipe());
 		when(chefkochToWebInputMapperMock.process(any())).thenReturn(recipe);
-		when(ingredientRepositoryMock.findByAlternativeName(testWebIngredient.getOriginalName())).thenReturn(Arrays.asList(knownIngredient, knownIngredient2));
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(createMatches(testWebIngredient.getOriginalName(), knownIngredient, knownIngredient2));
 		objectUnderTest.loadRecipeFromExternal(url);
 		assertThat(testWebIngredient.getName(), is("KnownIngredName"));
 		assertThat(testWebIngredient.getDepartment(), is("KnownDepartment"));
 	}
+
+	@Test
+	public void updateWebIngredientWithKnownData_ManyIngredients_findByAlternativeNames1x() throws Exception {
+		IngredientWebInput knownWebIngredient = IngredientWebInput.builder().name("Name1").originalName("Name1").department("").build();
+		IngredientWebInput unknownWebIngredient = IngredientWebInput.builder().name("Name2").originalName("Name2").department("").build();
+		IngredientWebInput duplicateWebIngredient = IngredientWebInput.builder().name("Name1").originalName("Name1").department("").build();
+		RecipeWebInput recipe = RecipeWebInput.builder()
+				.ingredients(Arrays.asList(knownWebIngredient, unknownWebIngredient, duplicateWebIngredient))
+				.build();
+		Ingredient knownIngredient = Ingredient.builder().id("KnownIngredID").name("KnownIngredName").department("KnownDepartment").build();
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(createMatches("Name1", knownIngredient));
+		objectUnderTest.updateRecipeWithKnownData(recipe);
+		verify(alternativeNameIndexMock, times(1)).findByAlternativeNames(new HashSet<>(Arrays.asList("Name1", "Name2")));
+		assertThat(knownWebIngredient.getName(), is("KnownIngredName"));
+		assertThat(duplicateWebIngredient.getDepartment(), is("KnownDepartment"));
+		assertThat(unknownWebIngredient.getName(), is("Name2"));
+	}
+
+	@Test
+	public void updateWebIngredientWithKnownData_similarIngredient_UpdatesIngredient() throws Exception {
+		IngredientWebInput testWebIngredient = IngredientWebInput.builder()
+				.name("rote Zwiebeln")
+				.originalName("rote Zwiebeln")
+				.department("")
+				.build();
+		RecipeWebInput recipe = RecipeWebInput.builder()
+				.ingredients(Arrays.asList(testWebIngredient))
+				.build();
+		IngredientMatch match = IngredientMatch.builder()
+				.ingredientId("KnownIngredID")
+				.name("Zwiebel, rot")
+				.department("Gemüse")
+				.matchedName("Zwiebel(n), rot")
+				.score(1.0)
+				.build();
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(new ArrayList<>());
+		when(ingredientMatcherMock.findBestMatch("rote Zwiebeln")).thenReturn(Optional.of(match));
+		objectUnderTest.updateRecipeWithKnownData(recipe);
+		assertThat(testWebIngredient.getName(), is("Zwiebel, rot"));
+		assertThat(testWebIngredient.getOriginalName(), is("rote Zwiebeln"));
+		assertThat(testWebIngredient.getDepartment(), is("Gemüse"));
+	}
+
+	@Test
+	public void updateWebIngredientWithKnownData_knownIngredient_noFuzzyMatching() throws Exception {
+		IngredientWebInput testWebIngredient = IngredientWebInput.builder().name("Name1").originalName("Name1").department("").build();
+		RecipeWebInput recipe = RecipeWebInput.builder()
+				.ingredients(Arrays.asList(testWebIngredient))
+				.build();
+		Ingredient knownIngredient = Ingredient.builder().id("KnownIngredID").name("KnownIngredName").department("KnownDepartment").build();
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(createMatches("Name1", knownIngredient));
+		objectUnderTest.updateRecipeWithKnownData(recipe);
+		verify(ingredientMatcherMock, times(0)).findBestMatch(any());
+	}
+
+	@Test
+	public void updateWebIngredientWithKnownData_matchInOtherCase_UpdatesIngredient() throws Exception {
+		IngredientWebInput testWebIngredient = IngredientWebInput.builder().name("Rote  Zwiebeln").originalName("Rote  Zwiebeln").department("").build();
+		RecipeWebInput recipe = RecipeWebInput.builder()
+				.ingredients(Arrays.asList(testWebIngredient))
+				.build();
+		Ingredient knownIngredient = Ingredient.builder().id("KnownIngredID").name("KnownIngredName").department("KnownDepartment").build();
+		when(alternativeNameIndexMock.findByAlternativeNames(any())).thenReturn(createMatches("rote Zwiebeln", knownIngredient));
+		objectUnderTest.updateRecipeWithKnownData(recipe);
+		assertThat(testWebIngredient.getName(), is("KnownIngredName"));
+		verify(ingredientMatcherMock, times(0)).findBestMatch(any());
+	}
+
+	private List<AlternativeNameMatch> createMatches(String alternativeName, Ingredient... ingredients) {
+		return Arrays.stream(ingredients)
+				.map(i -> new AlternativeNameMatch(alternativeName, i.getId(), i.getName(), i.getDepartment()))
+				.collect(Collectors.toList());
+	}
+
+	@Test(expected = ImporterServiceException.class)
+	public void loadRecipes_NullParameter_throwsImporterServiceException() throws Exception {
+		objectUnderTest.loadRecipesFromExternal(null);
+	}
+
+	@Test
+	public void loadRecipes_OneWrongURL_otherRecipesLoaded() throws Exception {
+		ImporterServiceImpl batchImporter = new ImporterServiceImpl(recipeParserMock, alternativeNameIndexMock, ingredientMatcherMock, chefkochToWebInputMapperMock, executor);
+		Recipe recipe = new Recipe();
+		when(recipeParserMock.parseRecipe("goodUrl1")).thenReturn(recipe);
+		when(recipeParserMock.parseRecipe("goodUrl2")).thenReturn(recipe);
+		doThrow(new RecipeParserException()).when(recipeParserMock).parseRecipe("badUrl");
+		when(chefkochToWebInputMapperMock.process(recipe)).thenAnswer(invocation -> new RecipeWebInput());
+		List<RecipeImportResult> result = batchImporter.loadRecipesFromExternal(Arrays.asList("goodUrl1", "badUrl", "goodUrl2"));
+		assertThat(result.size(), is(3));
+		assertThat(result.get(0).getUrl(), is("goodUrl1"));
+		assertThat(result.get(0).getRecipe(), not(nullValue()));
+		assertThat(result.get(0).getError(), is(nullValue()));
+		assertThat(result.get(1).getUrl(), is("badUrl"));
+		assertThat(result.get(1).getRecipe(), is(nullValue()));
+		assertThat(result.get(1).getError(), not(nullValue()));
+		assertThat(result.get(2).getUrl(), is("goodUrl2"));
+		assertThat(result.get(2).getRecipe(), not(nullValue()));
+	}
 }
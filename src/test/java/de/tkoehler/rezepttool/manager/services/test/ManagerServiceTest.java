@@ -1,9 +1,11 @@
 package de.tkoehler.rezepttool.manager.services.test;
 
 import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,22 +19,51 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
 
 import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
 import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
 import de.tkoehler.rezepttool.manager.repositories.model.FilterableRecipe;
+import de.tkoehler.rezepttool.manager.repositories.model.TinyIngredient;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeFilterWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeSearchResult;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyIngredientPage;
+import de.tkoehler.rezepttool.manager.restcontroller.model.TinyRecipePage;
+import de.tkoehler.rezepttool.manager.services.FilterableRecipeLoader;
 import de.tkoehler.rezepttool.manager.services.ManagerServiceImpl;
+import de.tkoehler.rezepttool.manager.services.exceptions.ManagerServiceException;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientAutocomplete;
+import de.tkoehler.rezepttool.manager.services.ingredientindex.IngredientMatcher;
+import de.tkoehler.rezepttool.manager.services.model.PageToken;
+import de.tkoehler.rezepttool.manager.services.model.RecipeChangedEvent;
+import de.tkoehler.rezepttool.manager.services.recipeindex.RecipeFilterIndex;
+import de.tkoehler.rezepttool.manager.services.recipesearch.RecipeSearchIndex;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ManagerServiceTest {
 
+	private static final String ID1 = "0190b5a2-7c3e-7a01-8d2f-3b6c9e4f1a20";
+	private static final String ID2 = "0190b5a2-7c3e-7a02-9e1b-5c7d2f8a3b41";
+	private static final String ID3 = "0190b5a2-7c3e-7a03-a4c6-7e9f1b2d4c62";
+
 	@InjectMocks
 	private ManagerServiceImpl objectUnderTest;
 	@Mock
 	private RecipeRepository recipeRepositoryMock;
 	@Mock
 	private IngredientRepository ingredientRepositoryMock;
+	@Mock
+	private IngredientMatcher ingredientMatcherMock;
+	@Mock
+	private IngredientAutocomplete ingredientAutocompleteMock;
+	@Mock
+	private FilterableRecipeLoader filterableRecipeLoaderMock;
+	@Mock
+	private RecipeFilterIndex recipeFilterIndexMock;
+	@Mock
+	private RecipeSearchIndex recipeSearchIndexMock;
 
 	@Test
 	public void findAllTinyRecipes_findAllTinies1x() {
@@ -47,6 +78,52 @@ public class ManagerServiceTest {
 		verify(ingredientRepositoryMock, times(1)).findAllTinies();
 	}
 
+	@Test
+	public void findMatchingIngredients_findMatches1x() {
+		objectUnderTest.findMatchingIngredients("rote Zwiebeln", 5);
+		verify(ingredientMatcherMock, times(1)).findMatches("rote Zwiebeln", 5);
+	}
+
+	@Test
+	public void findTinyRecipePage_noToken_firstPageWithToken() throws ManagerServiceException {
+		when(recipeRepositoryMock.findFirstTinies(PageRequest.of(0, 3))).thenReturn(Arrays.asList(new TinyRecipe(ID1, "Apfelkuchen"),
+				new TinyRecipe(ID2, "Bratkartoffeln"), new TinyRecipe(ID3, "Gulasch")));
+		TinyRecipePage result = objectUnderTest.findTinyRecipePage(null, 2);
+		assertThat(result.getRecipes().size(), is(2));
+		assertThat(result.getRecipes().get(1).getId(), is(ID2));
+		PageToken token = PageToken.decode(result.getNextToken());
+		assertThat(token.getName(), is("Bratkartoffeln"));
+		assertThat(token.getId(), is(ID2));
+	}
+
+	@Test
+	public void findTinyRecipePage_token_continuedAfterToken() throws ManagerServiceException {
+		when(recipeRepositoryMock.findTiniesAfter("Bratkartoffeln", ID2, PageRequest.of(0, 3))).thenReturn(Arrays.asList(new TinyRecipe(ID3, "Gulasch")));
+		TinyRecipePage result = objectUnderTest.findTinyRecipePage(new PageToken("Bratkartoffeln", ID2).encode(), 2);
+		assertThat(result.getRecipes().size(), is(1));
+		assertThat(result.getNextToken(), is(nullValue()));
+		verify(recipeRepositoryMock, never()).findFirstTinies(any());
+	}
+
+	@Test(expected = ManagerServiceException.class)
+	public void findTinyRecipePage_invalidToken_Exception() throws ManagerServiceException {
+		objectUnderTest.findTinyRecipePage("not a token", 2);
+	}
+
+	@Test(expected = ManagerServiceException.class)
+	public void findTinyRecipePage_tokenWithoutUuid_Exception() throws ManagerServiceException {
+		objectUnderTest.findTinyRecipePage(new PageToken("Bratkartoffeln", "id2").encode(), 2);
+	}
+
+	@Test
+	public void findTinyIngredientPage_lastPage_noToken() throws ManagerServiceException {
+		when(ingredientRepositoryMock.findTiniesAfter("Mehl", ID1, PageRequest.of(0, 3))).thenReturn(Arrays.asList(new TinyIngredient(ID2, "Zucker", "Backen"),
+				new TinyIngredient(ID3, "Zwiebel", "Gemüse")));
+		TinyIngredientPage result = objectUnderTest.findTinyIngredientPage(new PageToken("Mehl", ID1).encode(), 2);
+		assertThat(result.getIngredients().size(), is(2));
+		assertThat(result.getNextToken(), is(nullValue()));
+	}
+
 	@Test
 	public void findAllTiniesByNameAndDepartment1x() {
 		String name = "name";
@@ -70,55 +147,72 @@ public class ManagerServiceTest {
 	}
 
 	@Test
-	public void findIngredientNamesByName1x() {
+	public void findIngredientNamesByName_completeNames1x() {
 		String name = "name";
-		when(ingredientRepositoryMock.findIngredientNamesByName(name)).thenReturn(Arrays.asList("ingred1", "ingred2"));
-		objectUnderTest.findIngredientNamesByName(name);
-		verify(ingredientRepositoryMock, times(1)).findIngredientNamesByName(name);
+		when(ingredientAutocompleteMock.completeNames(name, 20)).thenReturn(Arrays.asList("ingred1", "ingred2"));
+		List<TinyIngredient> result = objectUnderTest.findIngredientNamesByName(name);
+		verify(ingredientAutocompleteMock, times(1)).completeNames(name, 20);
+		verify(ingredientRepositoryMock, never()).findIngredientNamesByName(anyString());
+		assertThat(result.get(1).getName(), is("ingred2"));
 	}
 
 	@Test
-	public void findDepartmentsByName1x() {
+	public void findDepartmentsByName_completeDepartments1x() {
 		String department = "department";
-		when(ingredientRepositoryMock.findDepartmentsByName(department)).thenReturn(Arrays.asList("ingred1", "ingred2"));
-		objectUnderTest.findDepartmentsByName(department);
-		verify(ingredientRepositoryMock, times(1)).findDepartmentsByName(department);
+		when(ingredientAutocompleteMock.completeDepartments(department, 20)).thenReturn(Arrays.asList("department1", "department2"));
+		List<TinyIngredient> result = objectUnderTest.findDepartmentsByName(department);
+		verify(ingredientAutocompleteMock, times(1)).completeDepartments(department, 20);
+		verify(ingredientRepositoryMock, never()).findDepartmentsByName(anyString());
+		assertThat(result.get(0).getDepartment(), is("department1"));
 	}
 
 	@Test
-	public void findAllFilterableRecipes_findAllTinies1x() {
-		when(recipeRepositoryMock.findAllTinies()).thenReturn(new ArrayList<TinyRecipe>());
+	public void findAllFilterableRecipes_loadAll1x() {
+		when(filterableRecipeLoaderMock.loadAll()).thenReturn(new ArrayList<FilterableRecipe>());
 		objectUnderTest.findAllFilterableRecipes();
-		verify(recipeRepositoryMock, times(1)).findAllTinies();
+		verify(filterableRecipeLoaderMock, times(1)).loadAll();
+		verify(recipeRepositoryMock, never()).findCategoriesById(anyString());
+		verify(recipeRepositoryMock, never()).findIngredientsById(anyString());
 	}
 
 	@Test
-	public void findAllFilterableRecipes_findCategoriesById1x() {
-		TinyRecipe recipe = TinyRecipe.builder()
-				.id("testID")
-				.build();
-		when(recipeRepositoryMock.findAllTinies()).thenReturn(Arrays.asList(recipe));
+	public void findAllFilterableRecipes_calledTwice_servedFromCache() {
+		List<FilterableRecipe> recipes = Arrays.asList(FilterableRecipe.builder().id("testID").build());
+		when(filterableRecipeLoaderMock.loadAll()).thenReturn(recipes);
 		objectUnderTest.findAllFilterableRecipes();
-		verify(recipeRepositoryMock, times(1)).findCategoriesById(recipe.getId());
-		verify(recipeRepositoryMock, times(1)).findIngredientsById(recipe.getId());
+		List<FilterableRecipe> result = objectUnderTest.findAllFilterableRecipes();
+		verify(filterableRecipeLoaderMock, times(1)).loadAll();
+		assertThat(result, is(recipes));
 	}
 
 	@Test
-	public void findAllFilterableRecipes_correctResult() {
-		List<String> categories = Arrays.asList("cat1", "cat2");
-		List<String> ingredientNames = Arrays.asList("ingred1", "ingred2");
-		TinyRecipe recipe = TinyRecipe.builder()
-				.id("testID")
-				.name("testName")
-				.build();
-		when(recipeRepositoryMock.findAllTinies()).thenReturn(Arrays.asList(recipe));
-		when(recipeRepositoryMock.findCategoriesById("testID")).thenReturn(categories);
-		when(recipeRepositoryMock.findIngredientsById("testID")).thenReturn(ingredientNames);
+	public void findAllFilterableRecipes_recipeChanged_reloaded() {
+		List<FilterableRecipe> recipes = Arrays.asList(FilterableRecipe.builder().id("testID").build());
+		List<FilterableRecipe> changedRecipes = Arrays.asList(FilterableRecipe.builder().id("testID").build(), FilterableRecipe.builder().id("newID").build());
+		when(filterableRecipeLoaderMock.loadAll()).thenReturn(recipes, changedRecipes);
+		objectUnderTest.findAllFilterableRecipes();
+		objectUnderTest.onRecipeChanged(new RecipeChangedEvent("newID", null));
 		List<FilterableRecipe> result = objectUnderTest.findAllFilterableRecipes();
-		assertThat(result, not(is(nullValue())));
-		assertThat(result.get(0).getId(), is("testID"));
-		assertThat(result.get(0).getName(), is("testName"));
-		assertThat(result.get(0).getCategories(), is(categories));
-		assertThat(result.get(0).getIngredients(), is(ingredientNames));
+		verify(filterableRecipeLoaderMock, times(2)).loadAll();
+		assertThat(result, is(changedRecipes));
+	}
+
+	@Test
+	public void filterRecipes_validParameter_filter1x() {
+		RecipeFilterWebInput filter = RecipeFilterWebInput.builder().allCategories(Arrays.asList("cat1")).build();
+		RecipeFilterResult filterResult = RecipeFilterResult.builder().recipes(new ArrayList<>()).build();
+		when(recipeFilterIndexMock.filter(filter)).thenReturn(filterResult);
+		RecipeFilterResult result = objectUnderTest.filterRecipes(filter);
+		verify(recipeFilterIndexMock, times(1)).filter(filter);
+		assertThat(result, is(filterResult));
+	}
+
+	@Test
+	public void searchRecipes_validParameter_search1x() throws ManagerServiceException {
+		RecipeSearchResult searchResult = RecipeSearchResult.builder().recipes(new ArrayList<>()).build();
+		when(recipeSearchIndexMock.search("Kartoffeln", 1, 20)).thenReturn(searchResult);
+		RecipeSearchResult result = objectUnderTest.searchRecipes("Kartoffeln", 1, 20);
+		verify(recipeSearchIndexMock, times(1)).search("Kartoffeln", 1, 20);
+		assertThat(result, is(searchResult));
 	}
 }
@@ -2,14 +2,20 @@ package de.tkoehler.rezepttool.manager.services.test;
 
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.Test;
@@ -17,6 +23,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import de.tkoehler.rezepttool.manager.repositories.DailyPlanRepository;
@@ -24,12 +31,20 @@ import de.tkoehler.rezepttool.manager.repositories.IngredientRepository;
 import de.tkoehler.rezepttool.manager.repositories.RecipeRepository;
 import de.tkoehler.rezepttool.manager.repositories.model.DailyPlan;
 import de.tkoehler.rezepttool.manager.repositories.model.Ingredient;
+import de.tkoehler.rezepttool.manager.repositories.model.IngredientUnit;
 import de.tkoehler.rezepttool.manager.repositories.model.RecipeEntity;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeHeader;
+import de.tkoehler.rezepttool.manager.repositories.model.RecipeIngredientLine;
 import de.tkoehler.rezepttool.manager.repositories.model.TinyRecipe;
 import de.tkoehler.rezepttool.manager.restcontroller.model.DailyPlanWebInput;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryDepartment;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryLine;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryList;
+import de.tkoehler.rezepttool.manager.restcontroller.model.GroceryPlan;
 import de.tkoehler.rezepttool.manager.services.PlannerServiceImpl;
 import de.tkoehler.rezepttool.manager.services.exceptions.PlannerServiceException;
 import de.tkoehler.rezepttool.manager.services.exceptions.PlannerServiceIDNotFoundException;
+import de.tkoehler.rezepttool.manager.services.recipeparser.IngredientLineParser;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PlannerServiceTest {
@@ -42,6 +57,8 @@ public class PlannerServiceTest {
 	private IngredientRepository ingredientRepositoryMock;
 	@Mock
 	private RecipeRepository recipeRepositoryMock;
+	@Spy
+	private IngredientLineParser ingredientLineParser;
 
 	@Test(expected = PlannerServiceException.class)
 	public void checkIngredient_NullParameter_throwsPlannerServiceException() throws Exception {
@@ -288,4 +305,104 @@ public class PlannerServiceTest {
 	public void loadGroceryIngredients() {
 		fail();
 	}
+
+	@Test
+	public void loadGroceryIngredients_validParameter_twoQueriesForAllRecipes() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = {
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id1").build())).build(),
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id2").build(), TinyRecipe.builder().id("id1").build())).build() };
+		when(recipeRepositoryMock.findHeadersByIdIn(any())).thenReturn(Arrays.asList(header("id2", "Rezept 2"), header("id1", "Rezept 1")));
+		when(recipeRepositoryMock.findIngredientLinesByIdIn(any())).thenReturn(Arrays.asList(
+				RecipeIngredientLine.builder().recipeId("id1").ingredientId("flour").name("Mehl").department("Backwaren").amount("200 g").build()));
+		GroceryPlan result = objectUnderTest.loadGroceryIngredients(plans);
+		verify(recipeRepositoryMock, times(1)).findHeadersByIdIn(new HashSet<>(Arrays.asList("id1", "id2")));
+		verify(recipeRepositoryMock, times(1)).findIngredientLinesByIdIn(new HashSet<>(Arrays.asList("id1", "id2")));
+		verify(recipeRepositoryMock, never()).findById(anyString());
+		assertThat(result.getRecipes().size(), is(3));
+		assertThat(result.getRecipes().get(0).getName(), is("Rezept 1"));
+		assertThat(result.getRecipes().get(0).getIngredients().get(0).getName(), is("Mehl"));
+		assertThat(result.getRecipes().get(1).getName(), is("Rezept 2"));
+		assertThat(result.getRecipes().get(1).getIngredients().size(), is(0));
+		assertThat(result.getRecipes().get(2).getName(), is("Rezept 1"));
+	}
+
+	@Test(expected = PlannerServiceIDNotFoundException.class)
+	public void loadGroceryIngredients_unknownRecipe_throwsIDNotFoundException() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = {
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id1").build(), TinyRecipe.builder().id("id2").build())).build() };
+		when(recipeRepositoryMock.findHeadersByIdIn(any())).thenReturn(Arrays.asList(header("id1", "Rezept 1")));
+		objectUnderTest.loadGroceryIngredients(plans);
+	}
+
+	@Test(expected = PlannerServiceException.class)
+	public void loadGroceryList_nullParameter_throwsPlannerServiceException() throws PlannerServiceException {
+		objectUnderTest.loadGroceryList(null);
+	}
+
+	@Test
+	public void loadGroceryList_validParameter_twoQueriesForAllRecipes() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = {
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id1").build())).build(),
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id2").build(), TinyRecipe.builder().id("id1").build())).build() };
+		when(recipeRepositoryMock.findHeadersByIdIn(any())).thenReturn(Arrays.asList(header("id1", "Rezept 1"), header("id2", "Rezept 2")));
+		objectUnderTest.loadGroceryList(plans);
+		verify(recipeRepositoryMock, times(1)).findHeadersByIdIn(new HashSet<>(Arrays.asList("id1", "id2")));
+		verify(recipeRepositoryMock, times(1)).findIngredientLinesByIdIn(new HashSet<>(Arrays.asList("id1", "id2")));
+		verify(recipeRepositoryMock, never()).findById(anyString());
+	}
+
+	@Test(expected = PlannerServiceIDNotFoundException.class)
+	public void loadGroceryList_unknownRecipe_throwsIDNotFoundException() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = {
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id1").build(), TinyRecipe.builder().id("id2").build())).build() };
+		when(recipeRepositoryMock.findHeadersByIdIn(any())).thenReturn(Arrays.asList(header("id1", "Rezept 1")));
+		objectUnderTest.loadGroceryList(plans);
+	}
+
+	@Test
+	public void loadGroceryList_sameIngredient_quantitiesSummed() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = {
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id1").build())).build(),
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id1").build(), TinyRecipe.builder().id("id2").build())).build() };
+		when(recipeRepositoryMock.findHeadersByIdIn(any())).thenReturn(Arrays.asList(header("id1", "Rezept 1"), header("id2", "Rezept 2")));
+		when(recipeRepositoryMock.findIngredientLinesByIdIn(any())).thenReturn(Arrays.asList(
+				flour("id1").amount("200 g").quantity(200.0).unit(IngredientUnit.GRAM).build(),
+				flour("id2").amount("1 kg").build()));
+		GroceryList result = objectUnderTest.loadGroceryList(plans);
+		assertThat(result.getDepartments().size(), is(1));
+		List<GroceryLine> lines = result.getDepartments().get(0).getLines();
+		assertThat(lines.size(), is(1));
+		assertThat(lines.get(0).getQuantity(), is(1.4));
+		assertThat(lines.get(0).getUnit(), is(IngredientUnit.KILOGRAM.getSymbol()));
+	}
+
+	@Test
+	public void loadGroceryList_differentDepartments_groupedByDepartment() throws PlannerServiceException {
+		DailyPlanWebInput[] plans = {
+				DailyPlanWebInput.builder().date(new Date()).recipes(Arrays.asList(TinyRecipe.builder().id("id1").build())).build() };
+		when(recipeRepositoryMock.findHeadersByIdIn(any())).thenReturn(Arrays.asList(header("id1", "Rezept 1")));
+		when(recipeRepositoryMock.findIngredientLinesByIdIn(any())).thenReturn(Arrays.asList(
+				RecipeIngredientLine.builder().recipeId("id1").ingredientId("salt").name("Salz").department("Gewürze").present(true).amount("etwas").build(),
+				flour("id1").amount("500 g").quantity(500.0).unit(IngredientUnit.GRAM).build(),
+				RecipeIngredientLine.builder().recipeId("id1").ingredientId("egg").name("Ei").department("Backwaren").amount("2").quantity(2.0).unit(IngredientUnit.PIECE).build()));
+		GroceryList result = objectUnderTest.loadGroceryList(plans);
+		assertThat(result.getDepartments().size(), is(2));
+		GroceryDepartment bakery = result.getDepartments().get(0);
+		assertThat(bakery.getName(), is("Backwaren"));
+		assertThat(bakery.getLines().get(0).getName(), is("Ei"));
+		assertThat(bakery.getLines().get(1).getName(), is("Mehl"));
+		assertThat(bakery.getLines().get(1).getQuantity(), is(500.0));
+		GroceryLine saltLine = result.getDepartments().get(1).getLines().get(0);
+		assertThat(saltLine.getQuantity(), is(nullValue()));
+		assertThat(saltLine.getAmounts(), is(Arrays.asList("etwas")));
+		assertThat(saltLine.isPresent(), is(true));
+	}
+
+	private static RecipeHeader header(String id, String name) {
+		return RecipeHeader.builder().id(id).name(name).build();
+	}
+
+	private static RecipeIngredientLine.RecipeIngredientLineBuilder flour(String recipeId) {
+		return RecipeIngredientLine.builder().recipeId(recipeId).ingredientId("flour").name("Mehl").department("Backwaren");
+	}
 }
@@ -0,0 +1,67 @@
+package de.tkoehler.rezepttool.manager.services.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import de.tkoehler.rezepttool.manager.restcontroller.model.RecipeWebInput;
+import de.tkoehler.rezepttool.manager.services.EditorService;
+import de.tkoehler.rezepttool.manager.services.ManagerService;
+import de.tkoehler.rezepttool.manager.services.exceptions.EditorServiceException;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@TestPropertySource("/test.properties")
+@RunWith(SpringRunner.class)
+public class ServiceCacheIntegrationTest {
+
+	@Autowired
+	private EditorService editorService;
+	@Autowired
+	private ManagerService managerService;
+
+	@DirtiesContext
+	@Test
+	public void loadRecipe_calledTwice_servedFromCache() throws EditorServiceException {
+		editorService.insertRecipe(recipe("00000000-0000-7000-8000-000000000101", "Recipe1"));
+		RecipeWebInput first = editorService.loadRecipe("00000000-0000-7000-8000-000000000101");
+		assertThat(editorService.loadRecipe("00000000-0000-7000-8000-000000000101"), is(sameInstance(first)));
+	}
+
+	@DirtiesContext
+	@Test
+	public void loadRecipe_recipeUpdated_evicted() throws EditorServiceException {
+		editorService.insertRecipe(recipe("00000000-0000-7000-8000-000000000102", "Recipe2"));
+		editorService.loadRecipe("00000000-0000-7000-8000-000000000102");
+		editorService.updateRecipe(recipe("00000000-0000-7000-8000-000000000102", "Recipe2 updated"));
+		assertThat(editorService.loadRecipe("00000000-0000-7000-8000-000000000102").getName(), is("Recipe2 updated"));
+	}
+
+	@DirtiesContext
+	@Test
+	public void findAllTinyRecipes_recipeInsertedAndDeleted_evicted() throws EditorServiceException {
+		int before = managerService.findAllTinyRecipes().size();
+		editorService.insertRecipe(recipe("00000000-0000-7000-8000-000000000103", "Recipe3"));
+		assertThat(managerService.findAllTinyRecipes().size(), is(before + 1));
+		editorService.deleteRecipe("00000000-0000-7000-8000-000000000103");
+		assertThat(managerService.findAllTinyRecipes().size(), is(before));
+	}
+
+	private static RecipeWebInput recipe(String id, String name) {
+		return RecipeWebInput.builder()
+				.id(id)
+				.name(name)
+				.url(id + "Url")
+				.instructions("Instructions")
+				.difficulty("simpel")
+				.build();
+	}
+}